@@ -0,0 +1,302 @@
+package com.example.legalai.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes audit events off the request path.
+ *
+ * <p>Callers enqueue into a bounded {@link MpmcRingBuffer}; a single background thread
+ * drains it and inserts rows with JDBC batches, one transaction per batch. When the
+ * buffer is full the configured {@link OverflowPolicy} decides whether the caller
+ * drops the new event, evicts the oldest one, or waits briefly for space. Pending
+ * events are flushed when the application context stops.
+ *
+ * <p>Values longer than their {@code audit_logs} column are truncated when bound, so a long
+ * forwarded address or correlation id cannot fail a whole batch. If a batch fails anyway,
+ * for example on a foreign key, its rows are retried one per transaction and only the
+ * offending rows are lost.
+ */
+@Slf4j
+@Component
+public class AsyncAuditLogWriter implements SmartLifecycle {
+
+    static final String INSERT_SQL = """
+        INSERT INTO audit_logs (entity_type, entity_id, action, user_id, user_agent, ip_address,
+                                old_values, new_values, correlation_id, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    public enum OverflowPolicy {
+        /** Reject the incoming event. */
+        DROP_NEWEST,
+        /** Evict the oldest queued event to make room. */
+        DROP_OLDEST,
+        /** Wait up to {@code audit.writer.block-timeout} for space, then drop. */
+        BLOCK
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MpmcRingBuffer<AuditEvent> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+
+    private final Counter enqueuedCounter;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    public AsyncAuditLogWriter(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${audit.writer.capacity:8192}") int capacity,
+                               @Value("${audit.writer.batch-size:500}") int batchSize,
+                               @Value("${audit.writer.flush-interval:200ms}") Duration flushInterval,
+                               @Value("${audit.writer.overflow-policy:DROP_NEWEST}") OverflowPolicy overflowPolicy,
+                               @Value("${audit.writer.block-timeout:50ms}") Duration blockTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.buffer = new MpmcRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+
+        this.enqueuedCounter = Counter.builder("audit.writer.events")
+                .tag("outcome", "enqueued")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.writer.events")
+                .tag("outcome", "dropped")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.writer.events")
+                .tag("outcome", "written")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("audit.writer.events")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.writer.flush")
+                .description("Time to insert one audit batch")
+                .register(meterRegistry);
+        Gauge.builder("audit.writer.queue.size", buffer, MpmcRingBuffer::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues an event without blocking (unless the overflow policy is {@link OverflowPolicy#BLOCK}).
+     * Request-scoped details that are only available on the calling thread are captured here.
+     *
+     * @return {@code false} if the event was dropped
+     */
+    public boolean record(AuditEvent event) {
+        AuditEvent enriched = enrich(event);
+        boolean accepted = buffer.offer(enriched) || handleOverflow(enriched);
+        if (accepted) {
+            enqueuedCounter.increment();
+            if (buffer.size() >= batchSize) {
+                LockSupport.unpark(worker);
+            }
+        } else {
+            droppedCounter.increment();
+        }
+        return accepted;
+    }
+
+    private boolean handleOverflow(AuditEvent event) {
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                while (!buffer.offer(event)) {
+                    if (buffer.poll() != null) {
+                        droppedCounter.increment();
+                    }
+                }
+                return true;
+            case BLOCK:
+                long deadline = System.nanoTime() + blockTimeoutNanos;
+                LockSupport.unpark(worker);
+                while (System.nanoTime() < deadline) {
+                    if (buffer.offer(event)) {
+                        return true;
+                    }
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    private AuditEvent enrich(AuditEvent event) {
+        AuditEvent.AuditEventBuilder builder = null;
+        if (event.getCorrelationId() == null && MDC.get("correlationId") != null) {
+            builder = event.toBuilder().correlationId(MDC.get("correlationId"));
+        }
+        if (event.getIpAddress() == null
+                && RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            builder = (builder != null ? builder : event.toBuilder())
+                    .ipAddress(forwardedFor != null ? forwardedFor.split(",")[0].trim() : request.getRemoteAddr())
+                    .userAgent(request.getHeader("User-Agent"));
+        }
+        return builder != null ? builder.build() : event;
+    }
+
+    private void runWorker() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (buffer.drain(batch::add, batchSize) > 0) {
+                flush(batch);
+            }
+            if (buffer.size() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+        while (buffer.drain(batch::add, batchSize) > 0) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, new AuditBatchSetter(batch)));
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            log.warn("Audit batch of {} events failed, writing them one by one: {}", batch.size(), e.getMessage());
+            writeIndividually(batch);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batch.clear();
+        }
+    }
+
+    private void writeIndividually(List<AuditEvent> batch) {
+        AuditBatchSetter setter = new AuditBatchSetter(batch);
+        for (int i = 0; i < batch.size(); i++) {
+            int index = i;
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.update(INSERT_SQL, ps -> setter.setValues(ps, index)));
+                writtenCounter.increment();
+            } catch (Exception e) {
+                failedCounter.increment();
+                AuditEvent event = batch.get(i);
+                log.error("Failed to write audit event {} {} {}", event.getAction(), event.getEntityType(),
+                        event.getEntityId(), e);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::runWorker, "audit-log-writer");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+        log.info("Audit log writer started (capacity: {}, batchSize: {}, overflowPolicy: {})",
+                buffer.capacity(), batchSize, overflowPolicy);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = worker;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!buffer.isEmpty()) {
+            log.warn("Audit log writer stopped with {} events still queued", buffer.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Lower than the web server's graceful shutdown phase, so in-flight requests have
+     * finished recording before the final flush; the DataSource is closed afterwards.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 2048;
+    }
+
+    private static final class AuditBatchSetter implements BatchPreparedStatementSetter {
+
+        private final List<AuditEvent> batch;
+
+        private AuditBatchSetter(List<AuditEvent> batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+            AuditEvent event = batch.get(i);
+            ps.setString(1, truncate(event.getEntityType(), 50));
+            ps.setLong(2, event.getEntityId());
+            ps.setString(3, event.getAction().name());
+            if (event.getUserId() != null) {
+                ps.setLong(4, event.getUserId());
+            } else {
+                ps.setNull(4, Types.BIGINT);
+            }
+            ps.setString(5, event.getUserAgent());
+            ps.setString(6, truncate(event.getIpAddress(), 45));
+            ps.setString(7, event.getOldValues());
+            ps.setString(8, event.getNewValues());
+            ps.setString(9, truncate(event.getCorrelationId(), 36));
+            ps.setTimestamp(10, Timestamp.valueOf(event.getCreatedAt()));
+        }
+
+        @Override
+        public int getBatchSize() {
+            return batch.size();
+        }
+    }
+
+    /** Cuts a value to the length of its VARCHAR column. */
+    static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
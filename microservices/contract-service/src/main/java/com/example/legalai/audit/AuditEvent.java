@@ -0,0 +1,45 @@
+package com.example.legalai.audit;
+
+import com.example.legalai.model.AuditLog;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable audit record queued by {@link AsyncAuditLogWriter}. Mirrors the
+ * {@code audit_logs} columns so the writer can bind it without touching JPA.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class AuditEvent {
+
+    private final String entityType;
+
+    private final Long entityId;
+
+    private final AuditLog.AuditAction action;
+
+    private final Long userId;
+
+    private final String userAgent;
+
+    private final String ipAddress;
+
+    private final String oldValues;
+
+    private final String newValues;
+
+    private final String correlationId;
+
+    @Builder.Default
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    public static AuditEvent of(String entityType, Long entityId, AuditLog.AuditAction action) {
+        return AuditEvent.builder()
+                .entityType(entityType)
+                .entityId(entityId)
+                .action(action)
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.legalai.cache;
+
+import java.io.IOException;
+
+/**
+ * Encodes cache values to bytes and back. Implementations must carry enough
+ * type information to restore the original object graph without a target type.
+ */
+public interface CacheCodec {
+
+    /**
+     * Stable identifier written into every cache entry header so that entries
+     * remain readable when the configured codec changes.
+     */
+    byte id();
+
+    String name();
+
+    byte[] encode(Object value) throws IOException;
+
+    Object decode(byte[] bytes, int offset, int length) throws IOException;
+}
@@ -0,0 +1,163 @@
+package com.example.legalai.cache;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis value serializer that delegates encoding to a pluggable {@link CacheCodec}
+ * and LZ4-compresses payloads above a size threshold.
+ *
+ * <p>Entry layout: {@code [magic][codec id][flags][payload]}; when the compressed flag is
+ * set the payload is prefixed with the uncompressed length. Entries written before this
+ * serializer, with the cache manager's former default {@link JdkSerializationRedisSerializer},
+ * start with the Java serialization stream magic instead and are still read with it, so a
+ * rollout does not require flushing Redis. Any other unframed entry is rejected.
+ */
+public class CompressingCacheSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xCA;
+    static final byte FLAG_LZ4 = 0x01;
+    private static final int HEADER_SIZE = 3;
+
+    private final CacheCodec writeCodec;
+    private final Map<Byte, CacheCodec> codecs = new HashMap<>();
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+    private static final byte[] JDK_STREAM_MAGIC = {(byte) 0xAC, (byte) 0xED};
+
+    private final JdkSerializationRedisSerializer legacySerializer = new JdkSerializationRedisSerializer();
+
+    private final DistributionSummary rawBytes;
+    private final DistributionSummary storedBytes;
+    private final Timer serializeTimer;
+    private final Timer deserializeTimer;
+
+    public CompressingCacheSerializer(CacheCodec writeCodec, List<CacheCodec> readableCodecs,
+                                      int compressionThreshold, MeterRegistry meterRegistry) {
+        this.writeCodec = writeCodec;
+        this.codecs.put(writeCodec.id(), writeCodec);
+        readableCodecs.forEach(codec -> this.codecs.putIfAbsent(codec.id(), codec));
+        this.compressionThreshold = compressionThreshold;
+
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+
+        String codecName = writeCodec.name();
+        this.rawBytes = DistributionSummary.builder("cache.codec.entry.bytes")
+                .description("Encoded cache entry size before compression")
+                .baseUnit("bytes")
+                .tag("codec", codecName)
+                .tag("stage", "encoded")
+                .register(meterRegistry);
+        this.storedBytes = DistributionSummary.builder("cache.codec.entry.bytes")
+                .description("Cache entry size as stored in Redis")
+                .baseUnit("bytes")
+                .tag("codec", codecName)
+                .tag("stage", "stored")
+                .register(meterRegistry);
+        this.serializeTimer = Timer.builder("cache.codec.serialize")
+                .description("Time spent encoding and compressing cache values")
+                .tag("codec", codecName)
+                .register(meterRegistry);
+        this.deserializeTimer = Timer.builder("cache.codec.deserialize")
+                .description("Time spent decompressing and decoding cache values")
+                .tag("codec", codecName)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        long start = System.nanoTime();
+        try {
+            byte[] encoded = writeCodec.encode(value);
+            byte[] stored = encoded.length >= compressionThreshold ? compress(encoded) : frame(encoded);
+            rawBytes.record(encoded.length);
+            storedBytes.record(stored.length);
+            return stored;
+        } catch (Exception e) {
+            throw new SerializationException("Could not encode cache value with " + writeCodec.name(), e);
+        } finally {
+            serializeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            if (bytes.length >= 2 && bytes[0] == JDK_STREAM_MAGIC[0] && bytes[1] == JDK_STREAM_MAGIC[1]) {
+                return legacySerializer.deserialize(bytes);
+            }
+            throw new SerializationException("Cache entry has neither a codec header nor Java serialization magic");
+        }
+        long start = System.nanoTime();
+        try {
+            CacheCodec codec = codecs.get(bytes[1]);
+            if (codec == null) {
+                throw new SerializationException("Unknown cache codec id: " + bytes[1]);
+            }
+            if ((bytes[2] & FLAG_LZ4) != 0) {
+                int originalLength = ByteBuffer.wrap(bytes, HEADER_SIZE, Integer.BYTES).getInt();
+                byte[] restored = new byte[originalLength];
+                decompressor.decompress(bytes, HEADER_SIZE + Integer.BYTES, restored, 0, originalLength);
+                return codec.decode(restored, 0, originalLength);
+            }
+            return codec.decode(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+        } catch (SerializationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SerializationException("Could not decode cache value", e);
+        } finally {
+            deserializeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private byte[] frame(byte[] encoded) {
+        byte[] out = new byte[HEADER_SIZE + encoded.length];
+        writeHeader(out, (byte) 0);
+        System.arraycopy(encoded, 0, out, HEADER_SIZE, encoded.length);
+        return out;
+    }
+
+    private byte[] compress(byte[] encoded) {
+        int maxLength = compressor.maxCompressedLength(encoded.length);
+        byte[] out = new byte[HEADER_SIZE + Integer.BYTES + maxLength];
+        int compressedLength = compressor.compress(encoded, 0, encoded.length,
+                out, HEADER_SIZE + Integer.BYTES, maxLength);
+        if (compressedLength + Integer.BYTES >= encoded.length) {
+            // Incompressible payload, store it as is rather than paying for decompression later
+            return frame(encoded);
+        }
+        writeHeader(out, FLAG_LZ4);
+        ByteBuffer.wrap(out, HEADER_SIZE, Integer.BYTES).putInt(encoded.length);
+        byte[] trimmed = new byte[HEADER_SIZE + Integer.BYTES + compressedLength];
+        System.arraycopy(out, 0, trimmed, 0, trimmed.length);
+        return trimmed;
+    }
+
+    private void writeHeader(byte[] out, byte flags) {
+        out[0] = MAGIC;
+        out[1] = writeCodec.id();
+        out[2] = flags;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.legalai.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounds the model calls in flight with a limit learned from their latency, so calls beyond
+ * what the backend sustains are rejected at once instead of queueing behind slow generations.
+ * It guards the direct Ollama generations of {@link com.example.legalai.llm.LlamaService},
+ * which serve contract analysis and clause-library misses, and the llm-service client call.
+ *
+ * <p>The limit follows a latency gradient. A short moving average of call latency is
+ * compared with a long one: while the short average stays within {@code tolerance} of the
+ * long one the service is keeping up, and the limit grows towards {@code limit + sqrt(limit)}.
+ * When calls slow down it shrinks towards the limit scaled by that ratio, at most halved.
+ * Each sample moves the limit {@code smoothing} of the way to its target. A call that fails
+ * or times out multiplies the limit by {@code backoff-ratio}. The limit only grows while at
+ * least half of it is in use, so a quiet period cannot inflate it.
+ *
+ * <p>Generation latency depends on contract length as well as load. The averages smooth
+ * over that, and the tolerance keeps ordinary variation from shrinking the limit.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final double shortWeight;
+    private final double longWeight;
+    private final Counter rejected;
+    private double limit;
+    private double shortRtt;
+    private double longRtt;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${llm-service.concurrency.initial-limit:8}") int initialLimit,
+                                      @Value("${llm-service.concurrency.min-limit:1}") int minLimit,
+                                      @Value("${llm-service.concurrency.max-limit:64}") int maxLimit,
+                                      @Value("${llm-service.concurrency.tolerance:1.5}") double tolerance,
+                                      @Value("${llm-service.concurrency.smoothing:0.2}") double smoothing,
+                                      @Value("${llm-service.concurrency.backoff-ratio:0.9}") double backoffRatio,
+                                      @Value("${llm-service.concurrency.short-window:10}") int shortWindow,
+                                      @Value("${llm-service.concurrency.long-window:100}") int longWindow) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.shortWeight = 2.0 / (shortWindow + 1);
+        this.longWeight = 2.0 / (longWindow + 1);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        Gauge.builder("contract.llm.concurrency.limit", this, AdaptiveConcurrencyLimiter::limit)
+                .description("Calls to llm-service allowed in flight at once")
+                .register(meterRegistry);
+        Gauge.builder("contract.llm.concurrency.in.flight", this, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Calls to llm-service in flight")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("contract.llm.concurrency.rejected")
+                .description("Calls to llm-service rejected at the concurrency limit")
+                .register(meterRegistry);
+    }
+
+    /** Takes a slot for one call, or returns false when the calls in flight reach the limit. */
+    public boolean tryAcquire() {
+        synchronized (this) {
+            if (inFlight < limit()) {
+                inFlight++;
+                return true;
+            }
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Frees the slot of a finished call and adjusts the limit.
+     *
+     * @param dropped whether the call failed or timed out rather than returned an answer
+     */
+    public synchronized void release(long latencyNanos, boolean dropped) {
+        int used = inFlight--;
+        int before = limit();
+        if (dropped) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else {
+            shortRtt = shortRtt == 0 ? latencyNanos : shortRtt + shortWeight * (latencyNanos - shortRtt);
+            longRtt = longRtt == 0 ? latencyNanos : longRtt + longWeight * (latencyNanos - longRtt);
+            // After a slow spell the long average would lag for hundreds of calls; let it catch up
+            if (longRtt > 2 * shortRtt) {
+                longRtt *= 0.95;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+            if (gradient < 1.0 || used >= limit / 2) {
+                double target = gradient < 1.0 ? limit * gradient : limit + Math.sqrt(limit);
+                limit = Math.max(minLimit, Math.min(maxLimit, (1 - smoothing) * limit + smoothing * target));
+            }
+        }
+        if (limit() != before) {
+            log.debug("llm-service concurrency limit {} -> {}", before, limit());
+        }
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+}
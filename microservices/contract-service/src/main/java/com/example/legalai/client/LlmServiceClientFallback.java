@@ -40,6 +40,12 @@ public class LlmServiceClientFallback implements LlmServiceClient {
         return createFallbackResponse("LLM service is temporarily unavailable for risk assessment");
     }
     
+    /** Whether the response was produced here rather than by llm-service. */
+    public static boolean isFallback(ContractAnalysisResponse response) {
+        return response != null && response.getAnalysisResults() != null
+                && response.getAnalysisResults().stream().anyMatch(result -> "FALLBACK".equals(result.get("status")));
+    }
+    
     private ContractAnalysisResponse createFallbackResponse(String message) {
         return ContractAnalysisResponse.builder()
                 .contractTitle("N/A")
@@ -8,6 +8,7 @@ import io.github.resilience4j.retry.RetryRegistry;
 import io.github.resilience4j.timelimiter.TimeLimiter;
 import io.github.resilience4j.timelimiter.TimeLimiterConfig;
 import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import com.example.legalai.exception.ConcurrencyLimitExceededException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -35,7 +36,7 @@ public class CircuitBreakerConfig {
             .permittedNumberOfCallsInHalfOpenState(3)
             .automaticTransitionFromOpenToHalfOpenEnabled(true)
             .recordExceptions(IOException.class, TimeoutException.class, ConnectException.class)
-            .ignoreExceptions(IllegalArgumentException.class)
+            .ignoreExceptions(IllegalArgumentException.class, ConcurrencyLimitExceededException.class)
             .build();
         
         CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(circuitBreakerConfig);
@@ -71,7 +72,7 @@ public class CircuitBreakerConfig {
                 throwable instanceof ConnectException || 
                 throwable instanceof IOException ||
                 throwable instanceof TimeoutException)
-            .ignoreExceptions(IllegalArgumentException.class)
+            .ignoreExceptions(IllegalArgumentException.class, ConcurrencyLimitExceededException.class)
             .build();
         
         RetryRegistry registry = RetryRegistry.of(retryConfig);
@@ -2,6 +2,8 @@ package com.example.legalai.config;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -9,9 +11,13 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 @Slf4j
 @Configuration
@@ -44,18 +50,58 @@ public class DatabaseConfig {
     @Value("${spring.datasource.hikari.max-lifetime:1800000}")
     private long maxLifetime;
 
+    @Value("${datasource.replicas.urls:}")
+    private List<String> replicaUrls;
+
+    @Value("${datasource.replicas.maximum-pool-size:20}")
+    private int replicaMaximumPoolSize;
+
+    @Value("${datasource.replicas.max-lag:5s}")
+    private Duration replicaMaxLag;
+
+    @Value("${datasource.replicas.lag-check-interval:5s}")
+    private Duration replicaLagCheckInterval;
+
+    /**
+     * Primary pool plus one pool per configured replica. Read-only transactions are
+     * routed to replicas; see {@link ReplicaRoutingDataSource}.
+     */
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource routingDataSource(MeterRegistry meterRegistry) {
+        HikariDataSource primary = createPool("LegalAI-DB-Pool", jdbcUrl, maximumPoolSize, false, meterRegistry);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            String url = replicaUrls.get(i).trim();
+            if (!url.isEmpty()) {
+                replicas.add(createPool("LegalAI-DB-Replica-" + i, url, replicaMaximumPoolSize, true, meterRegistry));
+            }
+        }
+        log.info("Configured {} read replica pool(s), max lag: {}", replicas.size(), replicaMaxLag);
+
+        return new ReplicaRoutingDataSource(primary, replicas, replicaMaxLag, replicaLagCheckInterval, meterRegistry);
+    }
+
     @Bean
     @Primary
-    public DataSource dataSource() {
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        // Defers connection acquisition until the first statement, when the
+        // transaction's read-only flag is known and routing can honour it
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private HikariDataSource createPool(String poolName, String url, int maxPoolSize, boolean readOnly,
+                                        MeterRegistry meterRegistry) {
         HikariConfig config = new HikariConfig();
         
-        config.setJdbcUrl(jdbcUrl);
+        config.setJdbcUrl(url);
         config.setUsername(username);
         config.setPassword(password);
         config.setDriverClassName("org.postgresql.Driver");
+        config.setReadOnly(readOnly);
         
         // Connection pool settings
-        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMaximumPoolSize(maxPoolSize);
         config.setMinimumIdle(minimumIdle);
         config.setIdleTimeout(idleTimeout);
         config.setConnectionTimeout(connectionTimeout);
@@ -72,19 +118,21 @@ public class DatabaseConfig {
         config.addDataSourceProperty("useServerPrepStmts", "true");
         config.addDataSourceProperty("useLocalSessionState", "true");
         config.addDataSourceProperty("rewriteBatchedStatements", "true");
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
         config.addDataSourceProperty("cacheResultSetMetadata", "true");
         config.addDataSourceProperty("cacheServerConfiguration", "true");
         config.addDataSourceProperty("elideSetAutoCommits", "true");
         config.addDataSourceProperty("maintainTimeStats", "false");
         
-        // Pool name for monitoring
-        config.setPoolName("LegalAI-DB-Pool");
+        // Pool name for monitoring; hikaricp.* meters are tagged with it
+        config.setPoolName(poolName);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
         
         // Health check
         config.setLeakDetectionThreshold(60000);
         
-        log.info("Configuring HikariCP with maxPoolSize: {}, minIdle: {}", maximumPoolSize, minimumIdle);
+        log.info("Configuring HikariCP pool {} with maxPoolSize: {}, minIdle: {}", poolName, maxPoolSize, minimumIdle);
         
         return new HikariDataSource(config);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+package com.example.legalai.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Gives the streaming export endpoints a longer async timeout than the rest of the API,
+ * so a large bulk ZIP can finish while other async requests keep the default.
+ */
+@Component
+public class ExportAsyncTimeoutInterceptor implements CallableProcessingInterceptor {
+
+    private static final List<String> EXPORT_PATHS = List.of("/api/contracts/export", "/api/contracts/*/export");
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final long timeoutMillis;
+
+    public ExportAsyncTimeoutInterceptor(@Value("${export.async-timeout:10m}") Duration timeout) {
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+        // Runs before the request goes async, while its timeout can still be changed
+        if (servletRequest != null && request instanceof AsyncWebRequest asyncRequest
+                && EXPORT_PATHS.stream().anyMatch(pattern -> pathMatcher.match(pattern, servletRequest.getRequestURI()))) {
+            asyncRequest.setTimeout(timeoutMillis);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.legalai.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Backs the Hibernate second-level and query caches with Caffeine through JCache.
+ *
+ * <p>Regions are created up front from {@code hibernate-cache.regions.*} so every region
+ * is bounded; a region referenced by an entity but missing from configuration is created
+ * by Hibernate with a warning. The update-timestamps region is always unbounded and never
+ * expires: a missing timestamp makes Hibernate treat cached query results as current.
+ */
+@Slf4j
+@Configuration
+public class HibernateCacheConfig {
+
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateJCacheManager(Environment environment) {
+        Map<String, RegionSettings> regions = Binder.get(environment)
+                .bind("hibernate-cache.regions", Bindable.mapOf(String.class, RegionSettings.class))
+                .orElse(Map.of());
+
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                provider.getDefaultURI(), getClass().getClassLoader());
+
+        regions.forEach((name, settings) -> {
+            if (UPDATE_TIMESTAMPS_REGION.equals(name)) {
+                log.warn("Ignoring settings for {}: timestamps must outlive cached query results", name);
+                return;
+            }
+            cacheManager.createCache(name, toConfiguration(settings));
+            log.info("Created Hibernate cache region {} (maxEntries: {}, expireAfterWrite: {})",
+                    name, settings.getMaxEntries(), settings.getExpireAfterWrite());
+        });
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, toConfiguration(new RegionSettings()));
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateSecondLevelCacheCustomizer(CacheManager hibernateJCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateJCacheManager);
+    }
+
+    private CaffeineConfiguration<Object, Object> toConfiguration(RegionSettings settings) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStatisticsEnabled(true);
+        if (settings.getMaxEntries() != null) {
+            configuration.setMaximumSize(OptionalLong.of(settings.getMaxEntries()));
+        }
+        if (settings.getExpireAfterWrite() != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(settings.getExpireAfterWrite().toNanos()));
+        }
+        return configuration;
+    }
+
+    @Data
+    public static class RegionSettings {
+        private Long maxEntries;
+        private Duration expireAfterWrite;
+    }
+}
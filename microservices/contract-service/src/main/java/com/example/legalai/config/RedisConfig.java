@@ -1,5 +1,10 @@
 package com.example.legalai.config;
 
+import com.example.legalai.cache.CacheCodec;
+import com.example.legalai.cache.CompressingCacheSerializer;
+import com.example.legalai.cache.JacksonCacheCodec;
+import com.example.legalai.versioning.ClauseDiffService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -11,10 +16,12 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
+import java.util.List;
 
 @Configuration
 @EnableCaching
@@ -29,6 +36,15 @@ public class RedisConfig {
     @Value("${spring.redis.password:}")
     private String redisPassword;
 
+    @Value("${cache.codec.format:smile}")
+    private String cacheCodecFormat;
+
+    @Value("${cache.codec.compression-threshold:1024}")
+    private int compressionThreshold;
+
+    @Value("${cache.clause-diffs.ttl:24h}")
+    private Duration clauseDiffTtl;
+
     @Bean
     public LettuceConnectionFactory redisConnectionFactory() {
         RedisStandaloneConfiguration redisConfig = new RedisStandaloneConfiguration();
@@ -53,13 +69,27 @@ public class RedisConfig {
     }
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CompressingCacheSerializer cacheValueSerializer(MeterRegistry meterRegistry) {
+        List<CacheCodec> codecs = List.of(JacksonCacheCodec.smile(), JacksonCacheCodec.json());
+        CacheCodec writeCodec = codecs.stream()
+                .filter(codec -> codec.name().equalsIgnoreCase(cacheCodecFormat))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown cache codec: " + cacheCodecFormat));
+        return new CompressingCacheSerializer(writeCodec, codecs, compressionThreshold, meterRegistry);
+    }
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     CompressingCacheSerializer cacheValueSerializer) {
         RedisCacheConfiguration cacheConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(10))
-                .disableCachingNullValues();
+                .disableCachingNullValues()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(cacheValueSerializer));
 
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(cacheConfig)
+                // Diffs of immutable version pairs never go stale
+                .withCacheConfiguration(ClauseDiffService.CACHE, cacheConfig.entryTtl(clauseDiffTtl))
                 .transactionAware()
                 .build();
     }
@@ -2,6 +2,7 @@ package com.example.legalai.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -11,10 +12,18 @@ public class WebMvcConfig implements WebMvcConfigurer {
     @Autowired
     private ServiceAuthenticationInterceptor serviceAuthenticationInterceptor;
 
+    @Autowired
+    private ExportAsyncTimeoutInterceptor exportAsyncTimeoutInterceptor;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(serviceAuthenticationInterceptor)
                 .addPathPatterns("/**")
                 .excludePathPatterns("/actuator/**", "/v3/api-docs/**", "/swagger-ui/**");
     }
-}
\ No newline at end of file
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(exportAsyncTimeoutInterceptor);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.legalai.controller;
+
+import com.example.legalai.exception.ResourceNotFoundException;
+import com.example.legalai.upload.ArchiveFormat;
+import com.example.legalai.upload.ArchiveUploadJob;
+import com.example.legalai.upload.ArchiveUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collection;
+
+/**
+ * 压缩包批量上传：请求体落盘后立即返回 202 和任务 id，后台逐个文件解析并按批保存为合同文档
+ */
+@RestController
+@RequestMapping("/api/contracts/upload/archive")
+public class ArchiveUploadController {
+
+    private final ArchiveUploadService archiveUploadService;
+
+    public ArchiveUploadController(ArchiveUploadService archiveUploadService) {
+        this.archiveUploadService = archiveUploadService;
+    }
+
+    @PostMapping(consumes = {"application/zip", "application/x-zip-compressed", "application/x-tar",
+            "application/gzip", "application/x-gzip"})
+    public ResponseEntity<ArchiveUploadJob> uploadArchive(HttpServletRequest request,
+                                                          @RequestParam(required = false) String format)
+            throws IOException {
+        ArchiveFormat archiveFormat = format != null ? ArchiveFormat.from(format)
+                : ArchiveFormat.fromContentType(request.getContentType());
+        ArchiveUploadJob job = archiveUploadService.start(request.getInputStream(), archiveFormat,
+                "http:" + request.getRemoteAddr());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/contracts/upload/archive/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs")
+    public ResponseEntity<Collection<ArchiveUploadJob>> getJobs() {
+        return ResponseEntity.ok(archiveUploadService.getJobs());
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ArchiveUploadJob> getJob(@PathVariable String id) {
+        return ResponseEntity.ok(archiveUploadService.getJob(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Archive upload job", "id", id)));
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.legalai.controller;
+
+import com.example.legalai.structure.ClauseNode;
+import com.example.legalai.structure.ClauseTree;
+import com.example.legalai.structure.ClauseTreeService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 合同条款结构树：条、款、项、定义与附件及其字符偏移
+ * 路径中的 id 与 /api/contracts/{id} 相同，即合同文档（contract_document）的 id
+ */
+@RestController
+@RequestMapping("/api/contracts/{contractId}/clauses")
+public class ContractClauseController {
+
+    private final ClauseTreeService clauseTreeService;
+
+    public ContractClauseController(ClauseTreeService clauseTreeService) {
+        this.clauseTreeService = clauseTreeService;
+    }
+
+    @GetMapping
+    public ResponseEntity<ClauseTree> getTree(@PathVariable Long contractId) {
+        return ResponseEntity.ok(clauseTreeService.getTree(contractId));
+    }
+
+    @GetMapping("/at")
+    public ResponseEntity<List<ClauseNode>> locate(@PathVariable Long contractId, @RequestParam int offset) {
+        return ResponseEntity.ok(clauseTreeService.locate(contractId, offset));
+    }
+}
@@ -4,13 +4,22 @@ import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.springframework.web.multipart.MultipartFile;
-import com.example.legalai.util.FileTextExtractor;
+import com.example.legalai.exception.BusinessException;
 import org.springframework.http.HttpStatus;
 import com.example.legalai.model.ContractDocument;
+import com.example.legalai.export.ContractExport;
+import com.example.legalai.export.ExportFormat;
+import com.example.legalai.llm.AnalysisResult;
 import com.example.legalai.service.ContractService;
+import com.example.legalai.upload.ContractUploadService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -20,19 +29,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public class ContractController {
 
     private final ContractService contractService;
+    private final ContractUploadService uploadService;
 
-    public ContractController(ContractService contractService) {
+    public ContractController(ContractService contractService, ContractUploadService uploadService) {
         this.contractService = contractService;
+        this.uploadService = uploadService;
     }
 
     @PostMapping("/analyze")
     public ResponseEntity<Map<String, Object>> analyzeContract(@RequestBody ContractDocument contract) {
-        String result = contractService.analyzeContract(contract);
+        AnalysisResult result = contractService.analyzeContract(contract);
 
         ObjectMapper mapper = new ObjectMapper();
         List<Map<String, Object>> parsedResult;
         try {
-            parsedResult = mapper.readValue(result, new TypeReference<>() {});
+            parsedResult = mapper.readValue(result.analysisResult(), new TypeReference<>() {});
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to parse analysis result"));
         }
@@ -40,6 +51,8 @@ public class ContractController {
         Map<String, Object> response = new HashMap<>();
         response.put("title", contract.getTitle());
         response.put("analysisResult", parsedResult);
+        // 模型调用失败时仅返回条款库命中的结果，状态标记为 partial
+        response.put("status", result.modelFailed() ? "partial" : "success");
 
         return ResponseEntity.ok(response);
     }
@@ -50,19 +63,30 @@ public class ContractController {
 
     /**
      * 接收 PDF 或 DOCX 文件并提取其文本内容
-     * 用于合同内容自动填充
+     * 用于合同内容自动填充；相同文件按内容哈希直接返回已提取文本
      */
     @PostMapping("/upload")
-    public ResponseEntity<Map<String, String>> uploadContract(@RequestParam("file") MultipartFile file) {
-        try {
-            String content = FileTextExtractor.extractText(file);
-            Map<String, String> response = new HashMap<>();
-            response.put("content", content);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Failed to extract content: " + e.getMessage()));
-        }
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> uploadContract(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        // Tomcat 线程在等待解析时被释放；解析在独立线程池上执行
+        return uploadService.upload(file)
+                .thenApply(result -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("content", result.content());
+                    response.put("fileHash", result.fileHash());
+                    response.put("fileSize", result.fileSize());
+                    response.put("duplicate", result.duplicate());
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(error -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (cause instanceof BusinessException businessException) {
+                        throw businessException;
+                    }
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(Map.of("error", "Failed to extract content: " + cause.getMessage()));
+                });
     }
 
     @GetMapping("/{id}")
@@ -85,7 +109,10 @@ public class ContractController {
     }
 
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getContractStats() {
+    public ResponseEntity<Map<String, Object>> getContractStats(@RequestParam(required = false) Long ownerId) {
+        if (ownerId != null) {
+            return ResponseEntity.ok(contractService.getOwnerStatistics(ownerId));
+        }
         return ResponseEntity.ok(contractService.getContractStatistics());
     }
 
@@ -112,12 +139,26 @@ public class ContractController {
     }
 
     @PostMapping("/{id}/export")
-    public ResponseEntity<byte[]> exportContract(@PathVariable String id, 
-                                                 @RequestParam String format) {
-        byte[] exportedData = contractService.exportContract(id, format);
+    public ResponseEntity<StreamingResponseBody> exportContract(@PathVariable String id, 
+                                                                @RequestParam String format) {
+        return streamExport(contractService.exportContract(id, ExportFormat.from(format)));
+    }
+
+    /**
+     * 批量导出：以 ZIP 流的形式返回多个合同
+     */
+    @PostMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportContracts(@RequestBody List<Long> ids,
+                                                                 @RequestParam(defaultValue = "json") String format) {
+        return streamExport(contractService.exportContracts(ids, ExportFormat.from(format)));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> streamExport(ContractExport export) {
         return ResponseEntity.ok()
-                .header("Content-Disposition", "attachment; filename=contract." + format)
-                .body(exportedData);
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(export.fileName()).build().toString())
+                .contentType(export.contentType())
+                .body(export::writeTo);
     }
 
 }
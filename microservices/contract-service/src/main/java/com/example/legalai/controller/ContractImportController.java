@@ -0,0 +1,48 @@
+package com.example.legalai.controller;
+
+import com.example.legalai.exception.ResourceNotFoundException;
+import com.example.legalai.importer.ContractImportJob;
+import com.example.legalai.importer.ContractImportService;
+import com.example.legalai.importer.ImportFormat;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * 批量导入：请求体直接以 NDJSON 或 CSV 流式读取，不经过 multipart 临时文件
+ */
+@RestController
+@RequestMapping("/api/contracts/import")
+public class ContractImportController {
+
+    private final ContractImportService importService;
+
+    public ContractImportController(ContractImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping(consumes = {"application/x-ndjson", "application/jsonl", "text/csv"})
+    public ResponseEntity<ContractImportJob> importContracts(HttpServletRequest request,
+                                                             @RequestParam(required = false) String format)
+            throws IOException {
+        ImportFormat importFormat = format != null ? ImportFormat.from(format)
+                : request.getContentType().startsWith("text/csv") ? ImportFormat.CSV : ImportFormat.NDJSON;
+        ContractImportJob job = importService.importContracts(request.getInputStream(), importFormat,
+                "http:" + request.getRemoteAddr());
+        return ResponseEntity.ok(job);
+    }
+
+    @GetMapping("/jobs")
+    public ResponseEntity<Collection<ContractImportJob>> getJobs() {
+        return ResponseEntity.ok(importService.getJobs());
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ContractImportJob> getJob(@PathVariable String id) {
+        return ResponseEntity.ok(importService.getJob(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job", "id", id)));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.legalai.controller;
+
+import com.example.legalai.similarity.ContractSimilarityService;
+import com.example.legalai.similarity.SimilarContract;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 近似重复合同检测：跨所有者返回相似合同及其 Jaccard 相似度估计
+ * contractId 为 contracts 表的记录 id，与 /api/contracts/{id} 的文档 id 不是同一编号
+ */
+@RestController
+@RequestMapping("/api/contracts/records/{contractId}/similar")
+public class ContractSimilarityController {
+
+    private final ContractSimilarityService similarityService;
+
+    public ContractSimilarityController(ContractSimilarityService similarityService) {
+        this.similarityService = similarityService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<SimilarContract>> findSimilar(@PathVariable Long contractId,
+                                                             @RequestParam(required = false) Double threshold,
+                                                             @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(similarityService.findSimilar(contractId, threshold, limit));
+    }
+}
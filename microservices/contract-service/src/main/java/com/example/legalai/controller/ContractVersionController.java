@@ -0,0 +1,68 @@
+package com.example.legalai.controller;
+
+import com.example.legalai.diff.ClauseDiffResult;
+import com.example.legalai.versioning.ClauseDiffService;
+import com.example.legalai.versioning.ContractRevisionSummary;
+import com.example.legalai.versioning.ContractVersionDiff;
+import com.example.legalai.versioning.ContractVersionService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 合同版本历史：列表与相邻版本差异只读取元数据和增量，不还原全文。
+ * contractId 为 contracts 表的记录 id，与 /api/contracts/{id} 的文档 id 不是同一编号
+ */
+@RestController
+@RequestMapping("/api/contracts/records/{contractId}/versions")
+public class ContractVersionController {
+
+    private final ContractVersionService versionService;
+    private final ClauseDiffService clauseDiffService;
+
+    public ContractVersionController(ContractVersionService versionService, ClauseDiffService clauseDiffService) {
+        this.versionService = versionService;
+        this.clauseDiffService = clauseDiffService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ContractRevisionSummary>> getHistory(@PathVariable Long contractId) {
+        return ResponseEntity.ok(versionService.getHistory(contractId));
+    }
+
+    @PostMapping
+    public ResponseEntity<ContractRevisionSummary> addVersion(@PathVariable Long contractId,
+                                                              @RequestBody NewVersionRequest request) {
+        return ResponseEntity.ok(versionService.addVersion(contractId, request.content(),
+                request.authorId(), request.comment()));
+    }
+
+    @GetMapping(value = "/{version}", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> getContent(@PathVariable Long contractId, @PathVariable int version) {
+        return ResponseEntity.ok(versionService.getContent(contractId, version));
+    }
+
+    @GetMapping("/{version}/changes")
+    public ResponseEntity<ContractVersionDiff> getChanges(@PathVariable Long contractId, @PathVariable int version) {
+        return ResponseEntity.ok(versionService.diff(contractId, version - 1, version));
+    }
+
+    @GetMapping("/diff")
+    public ResponseEntity<ContractVersionDiff> diff(@PathVariable Long contractId,
+                                                    @RequestParam int from,
+                                                    @RequestParam int to) {
+        return ResponseEntity.ok(versionService.diff(contractId, from, to));
+    }
+
+    @GetMapping("/clause-diff")
+    public ResponseEntity<ClauseDiffResult> clauseDiff(@PathVariable Long contractId,
+                                                       @RequestParam int from,
+                                                       @RequestParam int to) {
+        return ResponseEntity.ok(clauseDiffService.diff(contractId, from, to));
+    }
+
+    public record NewVersionRequest(String content, Long authorId, String comment) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.legalai.diff;
+
+/**
+ * One clause of a contract text.
+ *
+ * @param label       normalised clause number ("4.2", "article 7", "第三条"), or {@code null}
+ * @param text        original text including line terminators
+ * @param line        1-based line the clause starts on
+ * @param fingerprint hash of the text with case and whitespace normalised
+ */
+public record Clause(String label, String text, int line, long fingerprint) {
+}
@@ -0,0 +1,38 @@
+package com.example.legalai.diff;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClauseChange {
+
+    public enum Type {
+        ADDED,
+        REMOVED,
+        MODIFIED,
+        MOVED
+    }
+
+    private Type type;
+
+    /** Clause number when the clause has one; taken from the new version for modified clauses. */
+    private String label;
+
+    /** 1-based start lines in each version; 0 when the clause does not exist there. */
+    private int fromLine;
+
+    private int toLine;
+
+    /** Whole clause text for added, removed and moved clauses. */
+    private String text;
+
+    /** Word-level changes for modified clauses. */
+    private List<WordSegment> segments;
+}
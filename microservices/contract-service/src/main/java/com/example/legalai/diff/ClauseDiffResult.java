@@ -0,0 +1,29 @@
+package com.example.legalai.diff;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClauseDiffResult {
+
+    private Long contractId;
+
+    private int fromVersion;
+
+    private int toVersion;
+
+    private int fromClauses;
+
+    private int toClauses;
+
+    private int unchangedClauses;
+
+    private List<ClauseChange> changes;
+}
@@ -0,0 +1,264 @@
+package com.example.legalai.diff;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Clause-level comparison of two contract texts.
+ *
+ * <p>Both texts are split into clauses and each clause is reduced to a fingerprint, so the
+ * alignment pass is a Myers diff over a few thousand longs rather than over the text. In
+ * the gaps between aligned runs, clauses whose fingerprint reappears elsewhere are reported
+ * as moved, removed and added clauses are paired by clause number (anywhere) or by word
+ * overlap (within a gap), and only the paired ones get a word-level Myers diff. Whitespace
+ * and case changes do not count as changes, since the fingerprint ignores them.
+ */
+public final class ClauseDiffer {
+
+    /** Minimum word-set Jaccard similarity for an unnumbered clause to count as modified. */
+    private static final double PAIR_SIMILARITY = 0.5;
+
+    /** Similarity comparisons allowed per gap; very large rewrites fall back to add/remove. */
+    private static final int MAX_PAIRING_COMPARISONS = 250_000;
+
+    private ClauseDiffer() {
+    }
+
+    public static ClauseDiffResult diff(String fromText, String toText) {
+        List<Clause> from = ClauseSplitter.split(fromText);
+        List<Clause> to = ClauseSplitter.split(toText);
+        List<MyersDiff.Edit> edits = MyersDiff.diff(fingerprints(from), fingerprints(to));
+
+        int unchanged = 0;
+        List<Gap> gaps = new ArrayList<>();
+        Gap gap = null;
+        for (MyersDiff.Edit edit : edits) {
+            if (edit.operation() == MyersDiff.Operation.EQUAL) {
+                unchanged += edit.aLength();
+                gap = null;
+                continue;
+            }
+            if (gap == null) {
+                gap = new Gap();
+                gaps.add(gap);
+            }
+            for (int i = edit.aStart(); i < edit.aEnd(); i++) {
+                gap.removed.add(i);
+            }
+            for (int i = edit.bStart(); i < edit.bEnd(); i++) {
+                gap.added.add(i);
+            }
+        }
+
+        // A clause that disappears in one place and reappears verbatim in another was moved
+        Map<Long, Deque<Integer>> removedByFingerprint = new HashMap<>();
+        for (Gap g : gaps) {
+            for (int i : g.removed) {
+                removedByFingerprint.computeIfAbsent(from.get(i).fingerprint(), key -> new ArrayDeque<>()).add(i);
+            }
+        }
+        Map<Integer, Integer> movedFrom = new HashMap<>();
+        Set<Integer> movedAway = new HashSet<>();
+        for (Gap g : gaps) {
+            for (int i : g.added) {
+                Deque<Integer> sources = removedByFingerprint.get(to.get(i).fingerprint());
+                if (sources != null && !sources.isEmpty()) {
+                    int source = sources.poll();
+                    movedFrom.put(i, source);
+                    movedAway.add(source);
+                }
+            }
+        }
+
+        // Numbered clauses are paired by number even across gaps (moved and edited)
+        Map<Integer, Integer> pairs = pairByLabel(from, gaps, movedAway, to, movedFrom);
+        Set<Integer> paired = new HashSet<>(pairs.values());
+
+        List<ClauseChange> changes = new ArrayList<>();
+        for (Gap g : gaps) {
+            List<Integer> removed = g.removed.stream()
+                    .filter(i -> !movedAway.contains(i) && !paired.contains(i)).toList();
+            List<Integer> added = g.added.stream()
+                    .filter(i -> !movedFrom.containsKey(i) && !pairs.containsKey(i)).toList();
+            pairBySimilarity(from, removed, to, added, pairs, paired);
+
+            for (int i : g.removed) {
+                if (!paired.contains(i) && !movedAway.contains(i)) {
+                    Clause clause = from.get(i);
+                    changes.add(ClauseChange.builder().type(ClauseChange.Type.REMOVED).label(clause.label())
+                            .fromLine(clause.line()).text(clause.text()).build());
+                }
+            }
+            for (int i : g.added) {
+                Clause clause = to.get(i);
+                Integer source = movedFrom.get(i);
+                if (source != null) {
+                    changes.add(ClauseChange.builder().type(ClauseChange.Type.MOVED).label(clause.label())
+                            .fromLine(from.get(source).line()).toLine(clause.line()).text(clause.text()).build());
+                } else if ((source = pairs.get(i)) != null) {
+                    Clause original = from.get(source);
+                    changes.add(ClauseChange.builder().type(ClauseChange.Type.MODIFIED).label(clause.label())
+                            .fromLine(original.line()).toLine(clause.line())
+                            .segments(wordDiff(original.text(), clause.text())).build());
+                } else {
+                    changes.add(ClauseChange.builder().type(ClauseChange.Type.ADDED).label(clause.label())
+                            .toLine(clause.line()).text(clause.text()).build());
+                }
+            }
+        }
+
+        return ClauseDiffResult.builder()
+                .fromClauses(from.size())
+                .toClauses(to.size())
+                .unchangedClauses(unchanged)
+                .changes(changes)
+                .build();
+    }
+
+    /** Pairs clauses whose number occurs once among the unmatched clauses of each version. */
+    private static Map<Integer, Integer> pairByLabel(List<Clause> from, List<Gap> gaps, Set<Integer> movedAway,
+                                                     List<Clause> to, Map<Integer, Integer> movedFrom) {
+        Map<String, Integer> removedByLabel = new HashMap<>();
+        Map<String, Integer> addedByLabel = new HashMap<>();
+        for (Gap g : gaps) {
+            for (int i : g.removed) {
+                if (!movedAway.contains(i) && from.get(i).label() != null) {
+                    removedByLabel.merge(from.get(i).label(), i, (first, second) -> -1);
+                }
+            }
+            for (int i : g.added) {
+                if (!movedFrom.containsKey(i) && to.get(i).label() != null) {
+                    addedByLabel.merge(to.get(i).label(), i, (first, second) -> -1);
+                }
+            }
+        }
+        Map<Integer, Integer> pairs = new HashMap<>();
+        addedByLabel.forEach((label, added) -> {
+            Integer removed = removedByLabel.get(label);
+            if (added >= 0 && removed != null && removed >= 0) {
+                pairs.put(added, removed);
+            }
+        });
+        return pairs;
+    }
+
+    /**
+     * Pairs the remaining removed and added clauses of one gap by word overlap above
+     * {@link #PAIR_SIMILARITY}, keeping their relative order.
+     */
+    private static void pairBySimilarity(List<Clause> from, List<Integer> removed, List<Clause> to,
+                                         List<Integer> added, Map<Integer, Integer> pairs, Set<Integer> paired) {
+        if (removed.isEmpty() || added.isEmpty()
+                || (long) removed.size() * added.size() > MAX_PAIRING_COMPARISONS) {
+            return;
+        }
+        Map<Integer, Set<String>> addedWords = new HashMap<>();
+        int next = 0;
+        for (int r : removed) {
+            Set<String> originalWords = wordSet(from.get(r).text());
+            int best = -1;
+            double bestScore = PAIR_SIMILARITY;
+            for (int position = next; position < added.size(); position++) {
+                int candidate = added.get(position);
+                double score = jaccard(originalWords,
+                        addedWords.computeIfAbsent(candidate, i -> wordSet(to.get(i).text())));
+                if (score >= bestScore) {
+                    best = position;
+                    bestScore = score;
+                }
+            }
+            if (best >= 0) {
+                pairs.put(added.get(best), r);
+                paired.add(r);
+                next = best + 1;
+            }
+        }
+    }
+
+    static List<WordSegment> wordDiff(String from, String to) {
+        List<String> a = tokens(from);
+        List<String> b = tokens(to);
+        List<WordSegment> segments = new ArrayList<>();
+        for (MyersDiff.Edit edit : MyersDiff.diff(a, b)) {
+            List<String> run = edit.operation() == MyersDiff.Operation.INSERT
+                    ? b.subList(edit.bStart(), edit.bEnd())
+                    : a.subList(edit.aStart(), edit.aEnd());
+            segments.add(new WordSegment(edit.operation(), String.join("", run)));
+        }
+        return segments;
+    }
+
+    /**
+     * Words, whitespace runs and single punctuation marks; CJK ideographs are one token
+     * each since the text has no spaces between words.
+     */
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            int start = i;
+            int c = text.codePointAt(i);
+            i += Character.charCount(c);
+            if (Character.isWhitespace(c)) {
+                while (i < text.length() && Character.isWhitespace(text.codePointAt(i))) {
+                    i += Character.charCount(text.codePointAt(i));
+                }
+            } else if (isWordChar(c)) {
+                while (i < text.length() && isWordChar(text.codePointAt(i))) {
+                    i += Character.charCount(text.codePointAt(i));
+                }
+            }
+            tokens.add(text.substring(start, i));
+        }
+        return tokens;
+    }
+
+    private static boolean isWordChar(int c) {
+        return Character.isLetterOrDigit(c) && !Character.isIdeographic(c);
+    }
+
+    private static Set<String> wordSet(String text) {
+        Set<String> words = new HashSet<>();
+        for (String token : tokens(text)) {
+            if (!token.isBlank()) {
+                words.add(token.toLowerCase(Locale.ROOT));
+            }
+        }
+        return words;
+    }
+
+    private static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() && b.isEmpty()) {
+            return 1.0;
+        }
+        Set<String> smaller = a.size() <= b.size() ? a : b;
+        Set<String> larger = smaller == a ? b : a;
+        int common = 0;
+        for (String word : smaller) {
+            if (larger.contains(word)) {
+                common++;
+            }
+        }
+        return (double) common / (a.size() + b.size() - common);
+    }
+
+    private static List<Long> fingerprints(List<Clause> clauses) {
+        List<Long> fingerprints = new ArrayList<>(clauses.size());
+        for (Clause clause : clauses) {
+            fingerprints.add(clause.fingerprint());
+        }
+        return fingerprints;
+    }
+
+    private static final class Gap {
+        final List<Integer> removed = new ArrayList<>();
+        final List<Integer> added = new ArrayList<>();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.legalai.diff;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits contract text into clauses. A clause starts at a numbered heading
+ * ("4.2", "(b)", "Article 7", "第三条") or after a blank line, so both numbered
+ * agreements and plain paragraph text split sensibly.
+ */
+public final class ClauseSplitter {
+
+    private static final Pattern HEADING = Pattern.compile(
+            "^\\s*((?:article|section|clause|schedule|appendix|annex)\\s+[\\w.]+"
+                    + "|第[一二三四五六七八九十百千零〇\\d]+[条章节款]"
+                    + "|\\([a-z0-9]{1,4}\\)"
+                    + "|\\d{1,3}(?:\\.\\d{1,3})+\\.?|\\d{1,3}\\.)(?=\\s|$)",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ClauseSplitter() {
+    }
+
+    public static List<Clause> split(String text) {
+        List<Clause> clauses = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        String label = null;
+        int start = 1;
+        int lineNumber = 0;
+        for (String line : TextLines.split(text)) {
+            lineNumber++;
+            if (line.isBlank()) {
+                // Blank lines end a clause and belong to none
+                if (!current.isEmpty()) {
+                    clauses.add(clause(label, current.toString(), start));
+                    current.setLength(0);
+                }
+                continue;
+            }
+            Matcher heading = HEADING.matcher(line);
+            boolean isHeading = heading.find();
+            if (isHeading && !current.isEmpty()) {
+                clauses.add(clause(label, current.toString(), start));
+                current.setLength(0);
+            }
+            if (current.isEmpty()) {
+                start = lineNumber;
+                label = isHeading ? normaliseLabel(heading.group(1)) : null;
+            }
+            current.append(line);
+        }
+        if (!current.isEmpty()) {
+            clauses.add(clause(label, current.toString(), start));
+        }
+        return clauses;
+    }
+
+    private static Clause clause(String label, String text, int line) {
+        return new Clause(label, text, line, fingerprint(text));
+    }
+
+    private static String normaliseLabel(String label) {
+        String normalised = label.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        return normalised.endsWith(".") ? normalised.substring(0, normalised.length() - 1) : normalised;
+    }
+
+    /** 64-bit FNV-1a over the text, lower-cased, with whitespace runs collapsed and trimmed. */
+    static long fingerprint(String text) {
+        long hash = FNV_OFFSET;
+        boolean pendingSpace = false;
+        boolean started = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = started;
+                continue;
+            }
+            if (pendingSpace) {
+                hash = (hash ^ ' ') * FNV_PRIME;
+                pendingSpace = false;
+            }
+            hash = (hash ^ Character.toLowerCase(c)) * FNV_PRIME;
+            started = true;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.legalai.diff;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Myers' O(ND) difference algorithm in its linear-space form: each step finds the middle
+ * snake of the remaining range by searching forward and backward at once, then splits the
+ * range there. Only the two diagonal vectors of the current step are alive, so memory is
+ * O(N + M) whatever the edit distance. Common prefixes and suffixes are trimmed first, which
+ * makes the usual case of a few local edits in a long text close to linear time.
+ *
+ * <p>Work is driven from an explicit stack rather than recursion, so deep splits on large,
+ * very different inputs cannot overflow the thread stack.
+ */
+public final class MyersDiff {
+
+    public enum Operation {
+        EQUAL,
+        DELETE,
+        INSERT
+    }
+
+    /** A run of one operation: {@code a[aStart, aEnd)} against {@code b[bStart, bEnd)}. */
+    public record Edit(Operation operation, int aStart, int aEnd, int bStart, int bEnd) {
+
+        public int aLength() {
+            return aEnd - aStart;
+        }
+
+        public int bLength() {
+            return bEnd - bStart;
+        }
+    }
+
+    private MyersDiff() {
+    }
+
+    /** Diffs two token lists by {@code equals}. */
+    public static <T> List<Edit> diff(List<T> a, List<T> b) {
+        Map<T, Integer> ids = new HashMap<>();
+        return diff(intern(a, ids), intern(b, ids));
+    }
+
+    private static <T> int[] intern(List<T> tokens, Map<T, Integer> ids) {
+        int[] result = new int[tokens.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids.computeIfAbsent(tokens.get(i), key -> ids.size());
+        }
+        return result;
+    }
+
+    /** Diffs two sequences of token ids. Edits are in order and adjacent runs are merged. */
+    public static List<Edit> diff(int[] a, int[] b) {
+        List<Edit> edits = new ArrayList<>();
+        Deque<int[]> work = new ArrayDeque<>();
+        work.push(new int[] {0, a.length, 0, b.length});
+
+        while (!work.isEmpty()) {
+            int[] task = work.pop();
+            if (task.length == 3) {
+                // Deferred common suffix: {aStart, bStart, length}
+                emit(edits, Operation.EQUAL, task[0], task[0] + task[2], task[1], task[1] + task[2]);
+                continue;
+            }
+            int aLo = task[0], aHi = task[1], bLo = task[2], bHi = task[3];
+
+            int prefix = 0;
+            while (aLo + prefix < aHi && bLo + prefix < bHi && a[aLo + prefix] == b[bLo + prefix]) {
+                prefix++;
+            }
+            emit(edits, Operation.EQUAL, aLo, aLo + prefix, bLo, bLo + prefix);
+            aLo += prefix;
+            bLo += prefix;
+
+            int suffix = 0;
+            while (aHi - suffix > aLo && bHi - suffix > bLo && a[aHi - suffix - 1] == b[bHi - suffix - 1]) {
+                suffix++;
+            }
+            aHi -= suffix;
+            bHi -= suffix;
+
+            if (suffix > 0) {
+                work.push(new int[] {aHi, bHi, suffix});
+            }
+            if (aLo == aHi) {
+                emit(edits, Operation.INSERT, aLo, aLo, bLo, bHi);
+            } else if (bLo == bHi) {
+                emit(edits, Operation.DELETE, aLo, aHi, bLo, bLo);
+            } else {
+                int[] split = middleSnake(a, aLo, aHi, b, bLo, bHi);
+                if (split == null) {
+                    emit(edits, Operation.DELETE, aLo, aHi, bLo, bLo);
+                    emit(edits, Operation.INSERT, aHi, aHi, bLo, bHi);
+                } else {
+                    // Right half is pushed first so the left half is processed first
+                    work.push(new int[] {aLo + split[0], aHi, bLo + split[1], bHi});
+                    work.push(new int[] {aLo, aLo + split[0], bLo, bLo + split[1]});
+                }
+            }
+        }
+        return edits;
+    }
+
+    /**
+     * Returns the point {x, y} (relative to the range) where the forward and backward
+     * searches meet on an optimal path, or {@code null} if the ranges share nothing.
+     */
+    private static int[] middleSnake(int[] a, int aLo, int aHi, int[] b, int bLo, int bHi) {
+        int n = aHi - aLo;
+        int m = bHi - bLo;
+        int maxD = (n + m + 1) / 2;
+        int offset = maxD;
+        int length = 2 * maxD + 2;
+        int[] forward = new int[length];
+        int[] backward = new int[length];
+        Arrays.fill(forward, -1);
+        Arrays.fill(backward, -1);
+        forward[offset + 1] = 0;
+        backward[offset + 1] = 0;
+        int delta = n - m;
+        // With an odd delta the paths meet during a forward step, otherwise during a backward one
+        boolean checkOnForward = (delta & 1) != 0;
+        int forwardStart = 0, forwardEnd = 0, backwardStart = 0, backwardEnd = 0;
+
+        for (int d = 0; d < maxD; d++) {
+            for (int k = -d + forwardStart; k <= d - forwardEnd; k += 2) {
+                int kOffset = offset + k;
+                int x = k == -d || (k != d && forward[kOffset - 1] < forward[kOffset + 1])
+                        ? forward[kOffset + 1] : forward[kOffset - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && a[aLo + x] == b[bLo + y]) {
+                    x++;
+                    y++;
+                }
+                forward[kOffset] = x;
+                if (x > n) {
+                    forwardEnd += 2;
+                } else if (y > m) {
+                    forwardStart += 2;
+                } else if (checkOnForward) {
+                    int backwardOffset = offset + delta - k;
+                    if (backwardOffset >= 0 && backwardOffset < length && backward[backwardOffset] != -1
+                            && x >= n - backward[backwardOffset]) {
+                        return new int[] {x, y};
+                    }
+                }
+            }
+
+            for (int k = -d + backwardStart; k <= d - backwardEnd; k += 2) {
+                int kOffset = offset + k;
+                int x = k == -d || (k != d && backward[kOffset - 1] < backward[kOffset + 1])
+                        ? backward[kOffset + 1] : backward[kOffset - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && a[aHi - x - 1] == b[bHi - y - 1]) {
+                    x++;
+                    y++;
+                }
+                backward[kOffset] = x;
+                if (x > n) {
+                    backwardEnd += 2;
+                } else if (y > m) {
+                    backwardStart += 2;
+                } else if (!checkOnForward) {
+                    int forwardOffset = offset + delta - k;
+                    if (forwardOffset >= 0 && forwardOffset < length && forward[forwardOffset] != -1) {
+                        int forwardX = forward[forwardOffset];
+                        int forwardY = offset + forwardX - forwardOffset;
+                        if (forwardX >= n - x) {
+                            return new int[] {forwardX, forwardY};
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void emit(List<Edit> edits, Operation operation, int aStart, int aEnd, int bStart, int bEnd) {
+        if (aStart == aEnd && bStart == bEnd) {
+            return;
+        }
+        if (!edits.isEmpty()) {
+            Edit last = edits.get(edits.size() - 1);
+            if (last.operation() == operation && last.aEnd() == aStart && last.bEnd() == bStart) {
+                edits.set(edits.size() - 1, new Edit(operation, last.aStart(), aEnd, last.bStart(), bEnd));
+                return;
+            }
+        }
+        edits.add(new Edit(operation, aStart, aEnd, bStart, bEnd));
+    }
+}
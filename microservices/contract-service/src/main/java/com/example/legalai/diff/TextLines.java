@@ -0,0 +1,32 @@
+package com.example.legalai.diff;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class TextLines {
+
+    private TextLines() {
+    }
+
+    /**
+     * Splits text into lines that keep their terminators, so joining them gives back the
+     * exact input ({@code \r\n} and a missing final newline survive a round trip).
+     */
+    public static List<String> split(String text) {
+        List<String> lines = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return lines;
+        }
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                lines.add(text.substring(start, i + 1));
+                start = i + 1;
+            }
+        }
+        if (start < text.length()) {
+            lines.add(text.substring(start));
+        }
+        return lines;
+    }
+}
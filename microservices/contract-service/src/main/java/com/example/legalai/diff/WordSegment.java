@@ -0,0 +1,16 @@
+package com.example.legalai.diff;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** A run of text inside a modified clause that is unchanged, removed or inserted. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WordSegment {
+
+    private MyersDiff.Operation operation;
+
+    private String text;
+}
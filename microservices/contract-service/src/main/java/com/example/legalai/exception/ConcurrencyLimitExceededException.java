@@ -0,0 +1,16 @@
+package com.example.legalai.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Raised without calling a downstream service because the calls already in flight reach its
+ * adaptive concurrency limit. Circuit breakers ignore it: it says nothing about the service.
+ */
+public class ConcurrencyLimitExceededException extends BusinessException {
+
+    public ConcurrencyLimitExceededException(String service, int limit) {
+        super("CONCURRENCY_LIMIT_EXCEEDED",
+            String.format("%s is at its concurrency limit of %d calls", service, limit),
+            HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
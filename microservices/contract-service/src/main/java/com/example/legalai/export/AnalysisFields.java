@@ -0,0 +1,36 @@
+package com.example.legalai.export;
+
+import com.example.legalai.model.ContractAnalysis;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exported analysis columns, shared by every format so they stay in step.
+ */
+final class AnalysisFields {
+
+    static final String[] COLUMNS = {
+            "analysisId", "analysisType", "status", "riskLevel", "riskScore", "complianceStatus",
+            "processingTimeMs", "createdAt", "completedAt", "identifiedRisks", "recommendations",
+            "complianceViolations", "analysisResult"
+    };
+
+    private AnalysisFields() {
+    }
+
+    static Map<String, Object> of(ContractAnalysis analysis) {
+        Object[] values = {
+                analysis.getAnalysisId(), analysis.getAnalysisType(), analysis.getStatus(),
+                analysis.getRiskLevel(), analysis.getRiskScore(), analysis.getComplianceStatus(),
+                analysis.getProcessingTimeMs(), analysis.getCreatedAt(), analysis.getCompletedAt(),
+                analysis.getIdentifiedRisks(), analysis.getRecommendations(),
+                analysis.getComplianceViolations(), analysis.getAnalysisResult()
+        };
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            fields.put(COLUMNS[i], values[i] instanceof Enum<?> e ? e.name() : values[i]);
+        }
+        return fields;
+    }
+}
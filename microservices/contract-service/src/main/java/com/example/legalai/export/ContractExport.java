@@ -0,0 +1,22 @@
+package com.example.legalai.export;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A prepared export: everything needed for the response headers, plus a writer that
+ * produces the body directly into the response stream.
+ */
+public record ContractExport(String fileName, MediaType contentType, Writer writer) {
+
+    @FunctionalInterface
+    public interface Writer {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        writer.writeTo(out);
+    }
+}
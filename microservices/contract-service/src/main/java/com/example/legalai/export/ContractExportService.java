@@ -0,0 +1,170 @@
+package com.example.legalai.export;
+
+import com.example.legalai.model.ContractAnalysis;
+import com.example.legalai.model.ContractDocument;
+import com.example.legalai.repository.ContractDocumentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams contract exports into the response body.
+ *
+ * <p>Nothing is assembled up front. Each document is read inside a read-only
+ * transaction and written straight to the response. A bulk export writes one ZIP
+ * entry per document and clears the persistence context after each one. Memory per
+ * export therefore stays the same whatever the size of the result.
+ *
+ * <p>Exports carry no analyses. {@link ContractAnalysis} rows belong to the
+ * {@code contracts} table, whose ids are unrelated to {@code contract_document} ids, and
+ * no analysis refers to a document. The writers still accept an analysis stream for a
+ * source that has one. There is no CSV format: it held analyses only, so every document
+ * export in it would have been a bare header.
+ */
+@Slf4j
+@Service
+public class ContractExportService {
+
+    private static final MediaType ZIP = MediaType.parseMediaType("application/zip");
+
+    private final ContractDocumentRepository contractRepo;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<ExportFormat, ContractFormatWriter> writers = new EnumMap<>(ExportFormat.class);
+    private final int bulkMaxContracts;
+    private final Timer exportTimer;
+
+    public ContractExportService(ContractDocumentRepository contractRepo,
+                                 EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${export.bulk.max-contracts:1000}") int bulkMaxContracts) {
+        this.contractRepo = contractRepo;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.bulkMaxContracts = bulkMaxContracts;
+        this.exportTimer = Timer.builder("contract.export")
+                .description("Time spent streaming contract exports")
+                .register(meterRegistry);
+
+        writers.put(ExportFormat.TXT, new TextContractWriter());
+        writers.put(ExportFormat.JSON, new JsonContractWriter());
+        writers.put(ExportFormat.PDF, new PdfContractWriter());
+        writers.put(ExportFormat.DOCX, new DocxContractWriter());
+    }
+
+    public int getBulkMaxContracts() {
+        return bulkMaxContracts;
+    }
+
+    public ContractExport export(ContractDocument contract, ExportFormat format) {
+        return new ContractExport("contract-" + contract.getId() + "." + format.getExtension(),
+                format.getMediaType(),
+                out -> timed(() -> inReadOnlyTransaction(() -> {
+                    writeContract(contract, format, out);
+                    return null;
+                })));
+    }
+
+    /**
+     * Streams the given contracts into one ZIP. Ids that no longer resolve are listed
+     * in {@code manifest.csv} instead of failing a response that is already under way.
+     */
+    public ContractExport exportAll(List<Long> contractIds, ExportFormat format) {
+        return new ContractExport("contracts-" + format.getExtension() + ".zip", ZIP,
+                out -> timed(() -> writeZip(contractIds, format, out)));
+    }
+
+    private void writeZip(List<Long> contractIds, ExportFormat format, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(StreamUtils.nonClosing(out), StandardCharsets.UTF_8);
+        StringBuilder manifest = new StringBuilder("contractId,entry,status\r\n");
+        for (Long id : contractIds) {
+            String entry = "contract-" + id + "." + format.getExtension();
+            boolean found = inReadOnlyTransaction(() -> {
+                Optional<ContractDocument> contract = contractRepo.findById(id);
+                if (contract.isEmpty()) {
+                    return false;
+                }
+                zip.putNextEntry(new ZipEntry(entry));
+                writeContract(contract.get(), format, zip);
+                zip.closeEntry();
+                return true;
+            });
+            manifest.append(id).append(',').append(found ? entry : "").append(',')
+                    .append(found ? "EXPORTED" : "NOT_FOUND").append("\r\n");
+        }
+        zip.putNextEntry(new ZipEntry("manifest.csv"));
+        zip.write(manifest.toString().getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+        zip.finish();
+        zip.flush();
+    }
+
+    private void writeContract(ContractDocument contract, ExportFormat format, OutputStream out) throws IOException {
+        try {
+            writers.get(format).write(contract, Stream.empty(), out);
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    private <T> T inReadOnlyTransaction(IoCallback<T> callback) throws IOException {
+        AtomicReference<IOException> failure = new AtomicReference<>();
+        T result = readOnlyTransaction.execute(status -> {
+            try {
+                return callback.call();
+            } catch (IOException e) {
+                failure.set(e);
+                status.setRollbackOnly();
+                return null;
+            }
+        });
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return result;
+    }
+
+    private void timed(IoAction action) throws IOException {
+        Timer.Sample sample = Timer.start();
+        try {
+            action.run();
+        } catch (UncheckedIOException e) {
+            // Writers rethrow IO failures from inside stream callbacks unchecked
+            throw e.getCause();
+        } finally {
+            sample.stop(exportTimer);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoCallback<T> {
+        T call() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+        void run() throws IOException;
+    }
+}
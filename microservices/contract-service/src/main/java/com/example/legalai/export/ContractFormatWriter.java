@@ -0,0 +1,18 @@
+package com.example.legalai.export;
+
+import com.example.legalai.model.ContractAnalysis;
+import com.example.legalai.model.ContractDocument;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Renders one contract and its analyses in a single format. Analyses arrive as a
+ * cursor-backed stream and must be consumed once, in order, without being collected.
+ * Implementations must not close {@code out}.
+ */
+interface ContractFormatWriter {
+
+    void write(ContractDocument contract, Stream<ContractAnalysis> analyses, OutputStream out) throws IOException;
+}
@@ -0,0 +1,130 @@
+package com.example.legalai.export;
+
+import com.example.legalai.model.ContractAnalysis;
+import com.example.legalai.model.ContractDocument;
+import org.springframework.util.StreamUtils;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes a minimal WordprocessingML package straight into the response. POI's XWPF model
+ * keeps the whole document tree in memory until it is saved; here every paragraph goes
+ * out as soon as it is produced.
+ */
+final class DocxContractWriter implements ContractFormatWriter {
+
+    private static final String W = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    private static final String CONTENT_TYPES = """
+        <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+        <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">\
+        <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>\
+        <Default Extension="xml" ContentType="application/xml"/>\
+        <Override PartName="/word/document.xml" \
+        ContentType="application/vnd.openxmlformats-officedocument.wordprocessingml.document.main+xml"/>\
+        </Types>""";
+
+    private static final String PACKAGE_RELATIONSHIPS = """
+        <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+        <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+        <Relationship Id="rId1" \
+        Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" \
+        Target="word/document.xml"/>\
+        </Relationships>""";
+
+    private final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newFactory();
+
+    @Override
+    public void write(ContractDocument contract, Stream<ContractAnalysis> analyses, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(StreamUtils.nonClosing(out), StandardCharsets.UTF_8);
+        putText(zip, "[Content_Types].xml", CONTENT_TYPES);
+        putText(zip, "_rels/.rels", PACKAGE_RELATIONSHIPS);
+
+        zip.putNextEntry(new ZipEntry("word/document.xml"));
+        try {
+            XMLStreamWriter xml = xmlOutputFactory.createXMLStreamWriter(zip, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeStartElement("w", "document", W);
+            xml.writeNamespace("w", W);
+            xml.writeStartElement("w", "body", W);
+
+            paragraph(xml, contract.getTitle(), true);
+            if (contract.getContent() != null) {
+                for (String line : contract.getContent().split("\r?\n", -1)) {
+                    paragraph(xml, line, false);
+                }
+            }
+            paragraph(xml, "Analyses", true);
+            Iterable<ContractAnalysis> rows = analyses::iterator;
+            for (ContractAnalysis analysis : rows) {
+                for (Map.Entry<String, Object> field : AnalysisFields.of(analysis).entrySet()) {
+                    if (field.getValue() != null) {
+                        paragraph(xml, field.getKey() + ": " + field.getValue(), false);
+                    }
+                }
+                paragraph(xml, "", false);
+            }
+
+            xml.writeEndElement();
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write DOCX document", e);
+        }
+        zip.closeEntry();
+        // Writes the central directory; the non-closing wrapper keeps out open
+        zip.close();
+    }
+
+    private static void putText(ZipOutputStream zip, String name, String text) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(text.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static void paragraph(XMLStreamWriter xml, String text, boolean heading) throws XMLStreamException {
+        xml.writeStartElement("w", "p", W);
+        xml.writeStartElement("w", "r", W);
+        if (heading) {
+            xml.writeStartElement("w", "rPr", W);
+            xml.writeEmptyElement("w", "b", W);
+            xml.writeEmptyElement("w", "sz", W);
+            xml.writeAttribute("w", W, "val", "32");
+            xml.writeEndElement();
+        }
+        xml.writeStartElement("w", "t", W);
+        xml.writeAttribute("xml", "http://www.w3.org/XML/1998/namespace", "space", "preserve");
+        xml.writeCharacters(xmlSafe(text));
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeEndElement();
+    }
+
+    // XML 1.0 forbids most control characters even when escaped
+    private static String xmlSafe(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder clean = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            boolean allowed = c >= 0x20 ? c != 0xFFFE && c != 0xFFFF : c == '\t';
+            if (!allowed && clean == null) {
+                clean = new StringBuilder(text.length()).append(text, 0, i);
+            } else if (allowed && clean != null) {
+                clean.append(c);
+            }
+        }
+        return clean == null ? text : clean.toString();
+    }
+}
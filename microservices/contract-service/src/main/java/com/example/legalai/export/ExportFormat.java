@@ -0,0 +1,44 @@
+package com.example.legalai.export;
+
+import com.example.legalai.exception.BusinessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+    TXT("txt", MediaType.TEXT_PLAIN),
+    JSON("json", MediaType.APPLICATION_JSON),
+    PDF("pdf", MediaType.APPLICATION_PDF),
+    DOCX("docx", MediaType.parseMediaType(
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document"));
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    ExportFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static ExportFormat from(String value) {
+        if (value != null) {
+            String normalized = value.trim().toUpperCase(Locale.ROOT);
+            for (ExportFormat format : values()) {
+                if (format.name().equals(normalized)) {
+                    return format;
+                }
+            }
+        }
+        throw new BusinessException("UNSUPPORTED_EXPORT_FORMAT",
+                "Unsupported export format: " + value, HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.legalai.export;
+
+import com.example.legalai.model.ContractAnalysis;
+import com.example.legalai.model.ContractDocument;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.stream.Stream;
+
+final class JsonContractWriter implements ContractFormatWriter {
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Override
+    public void write(ContractDocument contract, Stream<ContractAnalysis> analyses, OutputStream out) throws IOException {
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(StreamUtils.nonClosing(out))) {
+            generator.writeStartObject();
+            generator.writeObjectField("id", contract.getId());
+            generator.writeStringField("title", contract.getTitle());
+            generator.writeStringField("content", contract.getContent());
+            generator.writeArrayFieldStart("analyses");
+            analyses.forEach(analysis -> {
+                try {
+                    generator.writeStartObject();
+                    for (Map.Entry<String, Object> field : AnalysisFields.of(analysis).entrySet()) {
+                        generator.writeObjectField(field.getKey(), field.getValue());
+                    }
+                    generator.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+}
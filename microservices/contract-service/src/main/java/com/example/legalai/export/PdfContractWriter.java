@@ -0,0 +1,178 @@
+package com.example.legalai.export;
+
+import com.example.legalai.model.ContractAnalysis;
+import com.example.legalai.model.ContractDocument;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Lays the contract out as wrapped Helvetica text. Page content is buffered in a scratch
+ * file rather than on the heap, so memory stays flat however long the contract is.
+ * Characters the standard font cannot encode are replaced with '?'.
+ */
+final class PdfContractWriter implements ContractFormatWriter {
+
+    private static final PDFont BODY_FONT = PDType1Font.HELVETICA;
+    private static final PDFont HEADING_FONT = PDType1Font.HELVETICA_BOLD;
+    private static final float BODY_SIZE = 10;
+    private static final float HEADING_SIZE = 14;
+    private static final float MARGIN = 50;
+
+    @Override
+    public void write(ContractDocument contract, Stream<ContractAnalysis> analyses, OutputStream out) throws IOException {
+        try (PDDocument document = new PDDocument(MemoryUsageSetting.setupTempFileOnly())) {
+            try (PageWriter pages = new PageWriter(document)) {
+                pages.paragraph(contract.getTitle(), HEADING_FONT, HEADING_SIZE);
+                pages.paragraph(contract.getContent(), BODY_FONT, BODY_SIZE);
+                pages.paragraph("Analyses", HEADING_FONT, HEADING_SIZE);
+                analyses.forEach(analysis -> {
+                    try {
+                        for (Map.Entry<String, Object> field : AnalysisFields.of(analysis).entrySet()) {
+                            if (field.getValue() != null) {
+                                pages.paragraph(field.getKey() + ": " + field.getValue(), BODY_FONT, BODY_SIZE);
+                            }
+                        }
+                        pages.gap();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            // PDDocument.save closes the stream it writes to
+            document.save(StreamUtils.nonClosing(out));
+        }
+    }
+
+    private static final class PageWriter implements AutoCloseable {
+
+        private final PDDocument document;
+        private final BitSet checked = new BitSet();
+        private final BitSet encodable = new BitSet();
+        private PDPageContentStream content;
+        private float width;
+        private float y;
+
+        private PageWriter(PDDocument document) {
+            this.document = document;
+        }
+
+        void paragraph(String text, PDFont font, float size) throws IOException {
+            if (text == null) {
+                return;
+            }
+            float leading = size * 1.4f;
+            for (String line : text.split("\r?\n", -1)) {
+                StringBuilder current = new StringBuilder();
+                for (String word : sanitize(line, font).split(" ")) {
+                    String candidate = current.length() == 0 ? word : current + " " + word;
+                    if (textWidth(candidate, font, size) <= width()) {
+                        current.setLength(0);
+                        current.append(candidate);
+                        continue;
+                    }
+                    if (current.length() > 0) {
+                        emit(current.toString(), font, size, leading);
+                        current.setLength(0);
+                    }
+                    // Hard-break words wider than the page
+                    while (textWidth(word, font, size) > width()) {
+                        int cut = word.length() - 1;
+                        while (cut > 1 && textWidth(word.substring(0, cut), font, size) > width()) {
+                            cut--;
+                        }
+                        emit(word.substring(0, cut), font, size, leading);
+                        word = word.substring(cut);
+                    }
+                    current.append(word);
+                }
+                emit(current.toString(), font, size, leading);
+            }
+        }
+
+        void gap() {
+            y -= BODY_SIZE;
+        }
+
+        private void emit(String line, PDFont font, float size, float leading) throws IOException {
+            if (content == null || y - leading < MARGIN) {
+                newPage();
+            }
+            y -= leading;
+            if (!line.isEmpty()) {
+                content.beginText();
+                content.setFont(font, size);
+                content.newLineAtOffset(MARGIN, y);
+                content.showText(line);
+                content.endText();
+            }
+        }
+
+        private void newPage() throws IOException {
+            if (content != null) {
+                content.close();
+            }
+            PDPage page = new PDPage(PDRectangle.A4);
+            document.addPage(page);
+            content = new PDPageContentStream(document, page);
+            width = page.getMediaBox().getWidth() - 2 * MARGIN;
+            y = page.getMediaBox().getHeight() - MARGIN;
+        }
+
+        private float width() {
+            return content == null ? PDRectangle.A4.getWidth() - 2 * MARGIN : width;
+        }
+
+        private static float textWidth(String text, PDFont font, float size) throws IOException {
+            return font.getStringWidth(text) / 1000 * size;
+        }
+
+        private String sanitize(String line, PDFont font) {
+            StringBuilder clean = new StringBuilder(line.length());
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c == '\t') {
+                    clean.append("    ");
+                } else if (Character.isISOControl(c)) {
+                    continue;
+                } else {
+                    clean.append(canEncode(c, font) ? c : '?');
+                }
+            }
+            return clean.toString();
+        }
+
+        // Both fonts share WinAnsiEncoding, so one cache serves either
+        private boolean canEncode(char c, PDFont font) {
+            if (!checked.get(c)) {
+                checked.set(c);
+                try {
+                    font.encode(String.valueOf(c));
+                    encodable.set(c);
+                } catch (IllegalArgumentException | IOException e) {
+                    encodable.clear(c);
+                }
+            }
+            return encodable.get(c);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (content != null) {
+                content.close();
+            }
+        }
+    }
+}
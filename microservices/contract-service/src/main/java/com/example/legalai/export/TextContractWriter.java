@@ -0,0 +1,23 @@
+package com.example.legalai.export;
+
+import com.example.legalai.model.ContractAnalysis;
+import com.example.legalai.model.ContractDocument;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * The original plain-text export: title and content only.
+ */
+final class TextContractWriter implements ContractFormatWriter {
+
+    @Override
+    public void write(ContractDocument contract, Stream<ContractAnalysis> analyses, OutputStream out) throws IOException {
+        out.write(("Title: " + contract.getTitle() + "\n\n").getBytes(StandardCharsets.UTF_8));
+        if (contract.getContent() != null) {
+            out.write(contract.getContent().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
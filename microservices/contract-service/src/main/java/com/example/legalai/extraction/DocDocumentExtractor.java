@@ -0,0 +1,66 @@
+package com.example.legalai.extraction;
+
+import org.apache.poi.hwpf.extractor.WordExtractor;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Word 97-2003 binary documents, stored in an OLE2 compound file.
+ *
+ * <p>Excel, PowerPoint and Outlook files use the same container. Their stream names are
+ * looked for in the leading bytes, but the directory may lie further into the file, so
+ * {@link #extract} also checks for the {@code WordDocument} stream and answers 415 without it.
+ */
+@Component
+@Order(300)
+public class DocDocumentExtractor implements DocumentExtractor {
+
+    private static final byte[] OLE2_SIGNATURE = {
+            (byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1};
+    private static final String WORD_STREAM = "WordDocument";
+    // Directory entries are UTF-16LE; compared against the header read as ISO-8859-1
+    private static final String WORD_ENTRY = entryName(WORD_STREAM);
+    private static final List<String> OTHER_ENTRIES = List.of(
+            entryName("Workbook"), entryName("Book"), entryName("PowerPoint Document"), entryName("__substg1.0_"));
+
+    private static String entryName(String name) {
+        return new String(name.getBytes(StandardCharsets.UTF_16LE), StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public ExtractionFormat format() {
+        return ExtractionFormat.DOC;
+    }
+
+    @Override
+    public boolean accepts(byte[] header, String fileName) {
+        if (header.length < OLE2_SIGNATURE.length) {
+            return false;
+        }
+        for (int i = 0; i < OLE2_SIGNATURE.length; i++) {
+            if (header[i] != OLE2_SIGNATURE[i]) {
+                return false;
+            }
+        }
+        String entries = MappedText.ascii(header, header.length);
+        return entries.contains(WORD_ENTRY) || OTHER_ENTRIES.stream().noneMatch(entries::contains);
+    }
+
+    @Override
+    public String extract(Path file) throws IOException {
+        try (POIFSFileSystem fs = new POIFSFileSystem(file.toFile(), true)) {
+            if (!fs.getRoot().hasEntry(WORD_STREAM)) {
+                throw DocumentExtractor.unsupported("OLE2 file is not a Word document");
+            }
+            try (WordExtractor extractor = new WordExtractor(fs)) {
+                return extractor.getText();
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.legalai.extraction;
+
+import com.example.legalai.exception.BusinessException;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Text extractor for one document format. Implementations are Spring beans picked up by
+ * {@link ExtractorRegistry}, which asks them in {@code @Order} order whether they accept
+ * a file's leading bytes.
+ */
+public interface DocumentExtractor {
+
+    ExtractionFormat format();
+
+    /**
+     * Whether the file looks like this format.
+     *
+     * @param header   up to {@link ExtractorRegistry#HEADER_BYTES} leading bytes of the file
+     * @param fileName original name, possibly {@code null}; only a hint next to the content
+     */
+    boolean accepts(byte[] header, String fileName);
+
+    /**
+     * Extracts the text of a spooled file. The file stays owned by the caller.
+     *
+     * @throws BusinessException 415 when the file was accepted on its leading bytes but turns
+     *                           out to be another format sharing the same container
+     */
+    String extract(Path file) throws IOException;
+
+    static BusinessException unsupported(String reason) {
+        return new BusinessException("UNSUPPORTED_FILE_TYPE", reason, HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.legalai.extraction;
+
+import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipFile;
+
+/**
+ * Word documents in an Office Open XML package. Spreadsheets and presentations are packages
+ * too and also list {@code [Content_Types].xml}, so a package counts as Word only with parts
+ * under {@code word/}; {@link #extract} checks the whole package and answers 415 otherwise.
+ */
+@Component
+@Order(200)
+public class DocxDocumentExtractor implements DocumentExtractor {
+
+    @Override
+    public ExtractionFormat format() {
+        return ExtractionFormat.DOCX;
+    }
+
+    @Override
+    public boolean accepts(byte[] header, String fileName) {
+        if (header.length < 4 || header[0] != 'P' || header[1] != 'K' || header[2] != 3 || header[3] != 4) {
+            return false;
+        }
+        // Any ZIP starts with PK; the first entries of a package name its parts
+        String entries = MappedText.ascii(header, header.length);
+        if (entries.contains("word/")) {
+            return true;
+        }
+        return !entries.contains("xl/") && !entries.contains("ppt/")
+                && ExtractionFormat.fromFileName(fileName).orElse(null) == ExtractionFormat.DOCX;
+    }
+
+    @Override
+    public String extract(Path file) throws IOException {
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            if (zip.stream().noneMatch(entry -> entry.getName().startsWith("word/"))) {
+                throw DocumentExtractor.unsupported("Office package is not a Word document");
+            }
+        }
+        try (InputStream in = Files.newInputStream(file);
+             XWPFDocument document = new XWPFDocument(in);
+             XWPFWordExtractor extractor = new XWPFWordExtractor(document)) {
+            return extractor.getText();
+        }
+    }
+}
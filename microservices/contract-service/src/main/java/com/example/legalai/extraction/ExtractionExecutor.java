@@ -0,0 +1,118 @@
+package com.example.legalai.extraction;
+
+import com.example.legalai.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dedicated pools for document parsing, so uploads never hold Tomcat request threads.
+ *
+ * <p>PDF, DOCX and the remaining formats each have a pool of their own, sized by
+ * {@code extraction.workers.<pdf|docx|other>.threads} and
+ * {@code extraction.workers.<pdf|docx|other>.queue-capacity}. A burst of large PDFs can fill
+ * only the PDF threads and queue, so DOCX and other uploads neither wait behind it nor get
+ * refused because of it, and the reverse. When a format's pool is full, the submission fails
+ * at once with 429 and the caller can retry; nothing waits for capacity.
+ */
+@Slf4j
+@Component
+public class ExtractionExecutor implements DisposableBean {
+
+    private final Map<ExtractionFormat, ThreadPoolExecutor> pools = new EnumMap<>(ExtractionFormat.class);
+    private final Map<ExtractionFormat, Counter> rejected = new EnumMap<>(ExtractionFormat.class);
+
+    public ExtractionExecutor(MeterRegistry meterRegistry,
+                              @Value("${extraction.workers.pdf.threads:2}") int pdfThreads,
+                              @Value("${extraction.workers.pdf.queue-capacity:8}") int pdfQueueCapacity,
+                              @Value("${extraction.workers.docx.threads:1}") int docxThreads,
+                              @Value("${extraction.workers.docx.queue-capacity:8}") int docxQueueCapacity,
+                              @Value("${extraction.workers.other.threads:1}") int otherThreads,
+                              @Value("${extraction.workers.other.queue-capacity:4}") int otherQueueCapacity) {
+        ThreadPoolExecutor pdf = pool(meterRegistry, "pdf", pdfThreads, pdfQueueCapacity);
+        ThreadPoolExecutor docx = pool(meterRegistry, "docx", docxThreads, docxQueueCapacity);
+        ThreadPoolExecutor other = pool(meterRegistry, "other", otherThreads, otherQueueCapacity);
+        for (ExtractionFormat format : ExtractionFormat.values()) {
+            pools.put(format, switch (format) {
+                case PDF -> pdf;
+                case DOCX -> docx;
+                default -> other;
+            });
+            rejected.put(format, Counter.builder("extraction.rejected")
+                    .description("Extractions refused because the format's pool was full")
+                    .tag("format", format.tag())
+                    .register(meterRegistry));
+        }
+    }
+
+    private static ThreadPoolExecutor pool(MeterRegistry meterRegistry, String tag, int threads, int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "extraction-" + tag + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        Gauge.builder("extraction.in.flight", pool, executor -> executor.getActiveCount() + executor.getQueue().size())
+                .description("Extractions queued or running")
+                .tag("format", tag)
+                .register(meterRegistry);
+        Gauge.builder("extraction.queue.size", pool, executor -> executor.getQueue().size())
+                .description("Extractions waiting for a worker")
+                .tag("format", tag)
+                .register(meterRegistry);
+        return pool;
+    }
+
+    /**
+     * Runs {@code task} on the pool of its format.
+     *
+     * @throws BusinessException with 429 when that pool is saturated
+     */
+    public <T> CompletableFuture<T> submit(ExtractionFormat format, Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            pools.get(format).execute(() -> {
+                try {
+                    result.complete(task.call());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw saturated(format);
+        }
+        return result;
+    }
+
+    private BusinessException saturated(ExtractionFormat format) {
+        rejected.get(format).increment();
+        log.debug("Rejecting {} extraction: its pool is full", format);
+        return new BusinessException("EXTRACTION_BUSY", format.name() + " extraction queue is full, retry shortly",
+                HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Override
+    public void destroy() {
+        new HashSet<>(pools.values()).forEach(ThreadPoolExecutor::shutdownNow);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.legalai.extraction;
+
+import java.util.Locale;
+import java.util.Optional;
+
+public enum ExtractionFormat {
+    PDF(".pdf"),
+    DOCX(".docx"),
+    DOC(".doc"),
+    RTF(".rtf"),
+    HTML(".html", ".htm"),
+    MARKDOWN(".md", ".markdown"),
+    TEXT(".txt");
+
+    private final String[] extensions;
+
+    ExtractionFormat(String... extensions) {
+        this.extensions = extensions;
+    }
+
+    /** Format implied by the file name alone; content sniffing in {@link ExtractorRegistry} has the final say. */
+    public static Optional<ExtractionFormat> fromFileName(String fileName) {
+        if (fileName == null) {
+            return Optional.empty();
+        }
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        for (ExtractionFormat format : values()) {
+            for (String extension : format.extensions) {
+                if (lower.endsWith(extension)) {
+                    return Optional.of(format);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.legalai.extraction;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Picks a {@link DocumentExtractor} by content rather than by file name: the first extractor,
+ * in {@code @Order} order, that accepts the file's leading bytes handles it. Extraction
+ * latency is recorded per format in {@code contract.extraction}.
+ */
+@Component
+public class ExtractorRegistry {
+
+    public static final int HEADER_BYTES = 8192;
+
+    private final List<DocumentExtractor> extractors;
+    private final Map<ExtractionFormat, DocumentExtractor> byFormat = new EnumMap<>(ExtractionFormat.class);
+    private final Map<ExtractionFormat, Timer> timers = new EnumMap<>(ExtractionFormat.class);
+
+    public ExtractorRegistry(List<DocumentExtractor> extractors, MeterRegistry meterRegistry) {
+        this.extractors = List.copyOf(extractors);
+        for (DocumentExtractor extractor : this.extractors) {
+            byFormat.putIfAbsent(extractor.format(), extractor);
+            timers.computeIfAbsent(extractor.format(), format -> Timer.builder("contract.extraction")
+                    .description("Time to extract the text of an uploaded document")
+                    .tag("format", format.tag())
+                    .register(meterRegistry));
+        }
+    }
+
+    public Optional<ExtractionFormat> sniff(InputStreamSource source, String fileName) throws IOException {
+        byte[] header;
+        try (InputStream in = source.getInputStream()) {
+            header = in.readNBytes(HEADER_BYTES);
+        }
+        return sniff(header, fileName);
+    }
+
+    public Optional<ExtractionFormat> sniff(byte[] header, String fileName) {
+        for (DocumentExtractor extractor : extractors) {
+            if (extractor.accepts(header, fileName)) {
+                return Optional.of(extractor.format());
+            }
+        }
+        return Optional.empty();
+    }
+
+    public String extract(Path file, ExtractionFormat format) throws IOException {
+        DocumentExtractor extractor = byFormat.get(format);
+        if (extractor == null) {
+            throw new IllegalArgumentException("No extractor for " + format);
+        }
+        Timer.Sample sample = Timer.start();
+        try {
+            return extractor.extract(file);
+        } finally {
+            sample.stop(timers.get(format));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.legalai.extraction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.swing.text.MutableAttributeSet;
+import javax.swing.text.html.HTML;
+import javax.swing.text.html.HTMLEditorKit;
+import javax.swing.text.html.parser.ParserDelegator;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * HTML decoded from the mapped spool file and reduced to text with the JDK's HTML parser:
+ * entities are resolved, script and style content dropped, and block elements end a line.
+ */
+@Component
+@Order(500)
+public class HtmlDocumentExtractor implements DocumentExtractor {
+
+    private static final Set<HTML.Tag> BLOCK_TAGS = Set.of(
+            HTML.Tag.P, HTML.Tag.DIV, HTML.Tag.BR, HTML.Tag.LI, HTML.Tag.TR, HTML.Tag.TABLE,
+            HTML.Tag.H1, HTML.Tag.H2, HTML.Tag.H3, HTML.Tag.H4, HTML.Tag.H5, HTML.Tag.H6,
+            HTML.Tag.BLOCKQUOTE, HTML.Tag.PRE, HTML.Tag.UL, HTML.Tag.OL, HTML.Tag.HR);
+
+    private final Charset fallbackCharset;
+
+    public HtmlDocumentExtractor(@Value("${extraction.text.fallback-charset:GB18030}") Charset fallbackCharset) {
+        this.fallbackCharset = fallbackCharset;
+    }
+
+    @Override
+    public ExtractionFormat format() {
+        return ExtractionFormat.HTML;
+    }
+
+    @Override
+    public boolean accepts(byte[] header, String fileName) {
+        if (!MappedText.looksLikeText(header)) {
+            return false;
+        }
+        String start = MappedText.ascii(header, 1024).stripLeading().toLowerCase(Locale.ROOT);
+        return start.startsWith("<!doctype html") || start.startsWith("<html")
+                || (start.startsWith("<") && (start.contains("<html") || start.contains("<body")))
+                || ExtractionFormat.fromFileName(fileName).orElse(null) == ExtractionFormat.HTML;
+    }
+
+    @Override
+    public String extract(Path file) throws IOException {
+        String html = MappedText.decode(file, fallbackCharset);
+        StringBuilder text = new StringBuilder(html.length() / 2);
+        HTMLEditorKit.ParserCallback callback = new HTMLEditorKit.ParserCallback() {
+            private int skipDepth;
+
+            @Override
+            public void handleStartTag(HTML.Tag tag, MutableAttributeSet attributes, int pos) {
+                if (tag == HTML.Tag.SCRIPT || tag == HTML.Tag.STYLE) {
+                    skipDepth++;
+                } else if (BLOCK_TAGS.contains(tag)) {
+                    newLine();
+                }
+            }
+
+            @Override
+            public void handleEndTag(HTML.Tag tag, int pos) {
+                if (tag == HTML.Tag.SCRIPT || tag == HTML.Tag.STYLE) {
+                    skipDepth = Math.max(0, skipDepth - 1);
+                } else if (BLOCK_TAGS.contains(tag)) {
+                    newLine();
+                }
+            }
+
+            @Override
+            public void handleSimpleTag(HTML.Tag tag, MutableAttributeSet attributes, int pos) {
+                if (BLOCK_TAGS.contains(tag)) {
+                    newLine();
+                }
+            }
+
+            @Override
+            public void handleText(char[] data, int pos) {
+                if (skipDepth == 0) {
+                    if (!text.isEmpty() && text.charAt(text.length() - 1) != '\n') {
+                        text.append(' ');
+                    }
+                    text.append(data);
+                }
+            }
+
+            private void newLine() {
+                if (!text.isEmpty() && text.charAt(text.length() - 1) != '\n') {
+                    text.append('\n');
+                }
+            }
+        };
+        new ParserDelegator().parse(new StringReader(html), callback, true);
+        return text.toString();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.legalai.extraction;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Decoding of plain-text spool files straight from a read-only memory mapping: the decoder
+ * reads the page cache directly, so the only copy is the decoded characters themselves.
+ */
+final class MappedText {
+
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private MappedText() {
+    }
+
+    /**
+     * Decodes {@code file} using its byte order mark, else strict UTF-8, else {@code fallback}
+     * (legacy single- and double-byte encodings never fail to decode).
+     */
+    static String decode(Path file, Charset fallback) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return "";
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Text file too large to map: " + size + " bytes");
+            }
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            Charset bomCharset = byteOrderMark(bytes);
+            if (bomCharset != null) {
+                bytes.position(bomCharset == StandardCharsets.UTF_8 ? 3 : 2);
+                return decode(bytes, bomCharset, CodingErrorAction.REPLACE);
+            }
+            try {
+                return decode(bytes, StandardCharsets.UTF_8, CodingErrorAction.REPORT);
+            } catch (CharacterCodingException e) {
+                bytes.rewind();
+                return decode(bytes, fallback, CodingErrorAction.REPLACE);
+            }
+        }
+    }
+
+    private static String decode(ByteBuffer bytes, Charset charset, CodingErrorAction onError)
+            throws CharacterCodingException {
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(onError)
+                .onUnmappableCharacter(onError);
+        CharBuffer chars = decoder.decode(bytes);
+        return chars.toString();
+    }
+
+    private static Charset byteOrderMark(ByteBuffer bytes) {
+        if (bytes.remaining() >= 3 && bytes.get(0) == UTF8_BOM[0] && bytes.get(1) == UTF8_BOM[1]
+                && bytes.get(2) == UTF8_BOM[2]) {
+            return StandardCharsets.UTF_8;
+        }
+        if (bytes.remaining() >= 2 && bytes.get(0) == (byte) 0xFF && bytes.get(1) == (byte) 0xFE) {
+            return StandardCharsets.UTF_16LE;
+        }
+        if (bytes.remaining() >= 2 && bytes.get(0) == (byte) 0xFE && bytes.get(1) == (byte) 0xFF) {
+            return StandardCharsets.UTF_16BE;
+        }
+        return null;
+    }
+
+    /**
+     * Whether the leading bytes look like text: a byte order mark, or no NUL bytes and few
+     * control characters other than whitespace.
+     */
+    static boolean looksLikeText(byte[] header) {
+        if (header.length == 0) {
+            return false;
+        }
+        if (byteOrderMark(ByteBuffer.wrap(header)) != null) {
+            return true;
+        }
+        int control = 0;
+        for (byte b : header) {
+            if (b == 0) {
+                return false;
+            }
+            if (b > 0 && b < 0x20 && b != '\n' && b != '\r' && b != '\t' && b != '\f') {
+                control++;
+            }
+        }
+        return control * 20 < header.length;
+    }
+
+    /** Leading bytes as Latin-1 text, for matching ASCII signatures. */
+    static String ascii(byte[] header, int limit) {
+        int start = header.length >= 3 && header[0] == UTF8_BOM[0] && header[1] == UTF8_BOM[1]
+                && header[2] == UTF8_BOM[2] ? 3 : 0;
+        return new String(header, start, Math.max(0, Math.min(limit, header.length) - start),
+                StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.legalai.extraction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+/**
+ * Markdown has no signature, so it is recognised by name and text-like content. The text
+ * keeps its line structure; markup that carries no wording (heading and quote markers,
+ * emphasis, code fences, link targets) is removed.
+ */
+@Component
+@Order(600)
+public class MarkdownDocumentExtractor implements DocumentExtractor {
+
+    private static final Pattern FENCE = Pattern.compile("(?m)^\\s*(```|~~~).*$\\R?");
+    private static final Pattern HEADING_OR_QUOTE = Pattern.compile("(?m)^\\s{0,3}(#{1,6}\\s+|>\\s?)");
+    private static final Pattern IMAGE_OR_LINK = Pattern.compile("!?\\[([^\\]]*)]\\([^)]*\\)");
+    private static final Pattern EMPHASIS = Pattern.compile("(\\*\\*|__|\\*|`)(\\S(?:.*?\\S)?)\\1");
+
+    private final Charset fallbackCharset;
+
+    public MarkdownDocumentExtractor(@Value("${extraction.text.fallback-charset:GB18030}") Charset fallbackCharset) {
+        this.fallbackCharset = fallbackCharset;
+    }
+
+    @Override
+    public ExtractionFormat format() {
+        return ExtractionFormat.MARKDOWN;
+    }
+
+    @Override
+    public boolean accepts(byte[] header, String fileName) {
+        return ExtractionFormat.fromFileName(fileName).orElse(null) == ExtractionFormat.MARKDOWN
+                && MappedText.looksLikeText(header);
+    }
+
+    @Override
+    public String extract(Path file) throws IOException {
+        return strip(MappedText.decode(file, fallbackCharset));
+    }
+
+    static String strip(String markdown) {
+        String text = FENCE.matcher(markdown).replaceAll("");
+        text = HEADING_OR_QUOTE.matcher(text).replaceAll("");
+        text = IMAGE_OR_LINK.matcher(text).replaceAll("$1");
+        return EMPHASIS.matcher(text).replaceAll("$2");
+    }
+}
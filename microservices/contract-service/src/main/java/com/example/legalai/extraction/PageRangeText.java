@@ -0,0 +1,5 @@
+package com.example.legalai.extraction;
+
+/** Text of pages {@code firstPage..lastPage} (1-based, inclusive) of a document. */
+public record PageRangeText(int firstPage, int lastPage, int totalPages, String text) {
+}
@@ -0,0 +1,34 @@
+package com.example.legalai.extraction;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Component
+@Order(100)
+public class PdfDocumentExtractor implements DocumentExtractor {
+
+    private final PdfTextExtractor pdfTextExtractor;
+
+    public PdfDocumentExtractor(PdfTextExtractor pdfTextExtractor) {
+        this.pdfTextExtractor = pdfTextExtractor;
+    }
+
+    @Override
+    public ExtractionFormat format() {
+        return ExtractionFormat.PDF;
+    }
+
+    @Override
+    public boolean accepts(byte[] header, String fileName) {
+        // The signature may follow a little leading junk; PDF readers search the first 1 KB
+        return MappedText.ascii(header, 1024).contains("%PDF-");
+    }
+
+    @Override
+    public String extract(Path file) throws IOException {
+        return pdfTextExtractor.extractText(file);
+    }
+}
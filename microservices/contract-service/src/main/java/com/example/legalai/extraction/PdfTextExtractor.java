@@ -0,0 +1,150 @@
+package com.example.legalai.extraction;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * PDF text extraction that works from a spooled temp file and splits the document into page
+ * ranges extracted in parallel on a bounded pool.
+ *
+ * <p>PDFBox documents are not thread-safe, so every task opens its own {@link PDDocument} on
+ * the file. Opening from a file only parses the cross-reference table; page content is read
+ * lazily, and buffers beyond {@code extraction.pdf.max-main-memory} go to a scratch file
+ * instead of the heap. Ranges are handed to the caller's sink in page order as soon as they
+ * and all earlier ranges are done. The only caller today is {@link #extractText(Path)}, which
+ * joins them: uploads store and return the whole text, so nothing consumes pages early yet.
+ * When the queue is full, the submitting thread runs the task itself, which throttles
+ * callers instead of rejecting them.
+ */
+@Slf4j
+@Component
+public class PdfTextExtractor implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+    private final int pagesPerTask;
+    private final long maxMainMemoryBytes;
+    private final Path tempDir;
+
+    public PdfTextExtractor(@Value("${extraction.pdf.threads:4}") int threads,
+                            @Value("${extraction.pdf.queue-capacity:64}") int queueCapacity,
+                            @Value("${extraction.pdf.pages-per-task:20}") int pagesPerTask,
+                            @Value("${extraction.pdf.max-main-memory:16MB}") DataSize maxMainMemory,
+                            @Value("${extraction.temp-dir:${java.io.tmpdir}}") Path tempDir) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "pdf-extract-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.pagesPerTask = pagesPerTask;
+        this.maxMainMemoryBytes = maxMainMemory.toBytes();
+        this.tempDir = tempDir;
+    }
+
+    /** Spools the stream to a temp file, extracts it and returns the whole text. */
+    public String extractText(InputStream in) throws IOException {
+        Path spooled = Files.createTempFile(tempDir, "extract-", ".pdf");
+        try {
+            Files.copy(in, spooled, StandardCopyOption.REPLACE_EXISTING);
+            return extractText(spooled);
+        } finally {
+            Files.deleteIfExists(spooled);
+        }
+    }
+
+    public String extractText(Path pdf) throws IOException {
+        StringBuilder text = new StringBuilder();
+        extract(pdf, range -> text.append(range.text()));
+        return text.toString();
+    }
+
+    /**
+     * Extracts {@code pdf} and passes each page range to {@code sink} in page order, on the
+     * calling thread, as soon as it is available. A hook for consumers that can work page by
+     * page (chunked analysis, progress); production extraction goes through
+     * {@link #extractText(Path)}.
+     */
+    public void extract(Path pdf, Consumer<PageRangeText> sink) throws IOException {
+        int totalPages;
+        try (PDDocument document = open(pdf)) {
+            totalPages = document.getNumberOfPages();
+            if (totalPages <= pagesPerTask) {
+                sink.accept(new PageRangeText(1, totalPages, totalPages, strip(document, 1, totalPages)));
+                return;
+            }
+        }
+
+        List<Future<PageRangeText>> ranges = new ArrayList<>();
+        try {
+            for (int first = 1; first <= totalPages; first += pagesPerTask) {
+                int start = first;
+                int end = Math.min(first + pagesPerTask - 1, totalPages);
+                ranges.add(executor.submit(() -> {
+                    try (PDDocument document = open(pdf)) {
+                        return new PageRangeText(start, end, totalPages, strip(document, start, end));
+                    }
+                }));
+            }
+            for (Future<PageRangeText> range : ranges) {
+                sink.accept(range.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting " + pdf.getFileName(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof UncheckedIOException unchecked) {
+                throw unchecked.getCause();
+            }
+            throw new IOException("Failed to extract " + pdf.getFileName(), e.getCause());
+        } finally {
+            // No-op once everything completed; stops remaining work after a failure
+            ranges.forEach(range -> range.cancel(true));
+        }
+    }
+
+    private PDDocument open(Path pdf) throws IOException {
+        return PDDocument.load(pdf.toFile(), MemoryUsageSetting.setupMixed(maxMainMemoryBytes)
+                .setTempDir(tempDir.toFile()));
+    }
+
+    private static String strip(PDDocument document, int firstPage, int lastPage) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setStartPage(firstPage);
+        stripper.setEndPage(lastPage);
+        return stripper.getText(document);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
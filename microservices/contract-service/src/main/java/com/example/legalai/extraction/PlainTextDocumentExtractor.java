@@ -0,0 +1,37 @@
+package com.example.legalai.extraction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+
+/** Last resort for anything that looks like text; decoded directly from the mapped file. */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class PlainTextDocumentExtractor implements DocumentExtractor {
+
+    private final Charset fallbackCharset;
+
+    public PlainTextDocumentExtractor(@Value("${extraction.text.fallback-charset:GB18030}") Charset fallbackCharset) {
+        this.fallbackCharset = fallbackCharset;
+    }
+
+    @Override
+    public ExtractionFormat format() {
+        return ExtractionFormat.TEXT;
+    }
+
+    @Override
+    public boolean accepts(byte[] header, String fileName) {
+        return MappedText.looksLikeText(header);
+    }
+
+    @Override
+    public String extract(Path file) throws IOException {
+        return MappedText.decode(file, fallbackCharset);
+    }
+}
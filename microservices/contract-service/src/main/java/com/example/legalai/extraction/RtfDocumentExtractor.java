@@ -0,0 +1,39 @@
+package com.example.legalai.extraction;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultStyledDocument;
+import javax.swing.text.rtf.RTFEditorKit;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/** RTF through the JDK's own parser, which works headless and needs no extra dependency. */
+@Component
+@Order(400)
+public class RtfDocumentExtractor implements DocumentExtractor {
+
+    @Override
+    public ExtractionFormat format() {
+        return ExtractionFormat.RTF;
+    }
+
+    @Override
+    public boolean accepts(byte[] header, String fileName) {
+        return MappedText.ascii(header, 16).startsWith("{\\rtf");
+    }
+
+    @Override
+    public String extract(Path file) throws IOException {
+        DefaultStyledDocument document = new DefaultStyledDocument();
+        try (InputStream in = Files.newInputStream(file)) {
+            new RTFEditorKit().read(in, document, 0);
+            return document.getText(0, document.getLength());
+        } catch (BadLocationException e) {
+            throw new IOException("Malformed RTF document", e);
+        }
+    }
+}
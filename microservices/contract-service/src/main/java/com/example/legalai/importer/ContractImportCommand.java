@@ -0,0 +1,71 @@
+package com.example.legalai.importer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command-line import, for migrating archives without going through HTTP:
+ *
+ * <pre>
+ * java -jar contract-service.jar --spring.main.web-application-type=none \
+ *      --import.file=/data/contracts.ndjson [--import.format=csv]
+ * </pre>
+ *
+ * The format defaults to the file extension. The process exits with status 0 when the
+ * import completed (row errors included) and 1 when it was aborted.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "import.file")
+public class ContractImportCommand implements ApplicationRunner {
+
+    private final ContractImportService importService;
+    private final ApplicationContext applicationContext;
+    private final String file;
+    private final String format;
+    private final boolean exitOnCompletion;
+
+    public ContractImportCommand(ContractImportService importService,
+                                 ApplicationContext applicationContext,
+                                 @Value("${import.file}") String file,
+                                 @Value("${import.format:}") String format,
+                                 @Value("${import.exit-on-completion:true}") boolean exitOnCompletion) {
+        this.importService = importService;
+        this.applicationContext = applicationContext;
+        this.file = file;
+        this.format = format;
+        this.exitOnCompletion = exitOnCompletion;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path path = Paths.get(file);
+        ImportFormat importFormat = format.isBlank() ? ImportFormat.fromFileName(file) : ImportFormat.from(format);
+
+        ContractImportJob job;
+        try (InputStream in = Files.newInputStream(path)) {
+            job = importService.importContracts(in, importFormat, path.toAbsolutePath().toString());
+        }
+        job.getErrors().forEach(error ->
+                log.warn("Line {} ({}): {}", error.line(), error.externalRef(), error.message()));
+        if (job.getFailed() > job.getErrors().size()) {
+            log.warn("{} further row errors not shown", job.getFailed() - job.getErrors().size());
+        }
+
+        if (exitOnCompletion) {
+            int status = job.getStatus() == ContractImportJob.Status.COMPLETED ? 0 : 1;
+            System.exit(SpringApplication.exit(applicationContext, () -> status));
+        }
+    }
+}
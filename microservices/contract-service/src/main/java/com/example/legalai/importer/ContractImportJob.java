@@ -0,0 +1,125 @@
+package com.example.legalai.importer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress and outcome of one import, safe to read while the import is running.
+ * Only the first {@code maxErrors} row errors are kept; {@link #getFailed()} counts all.
+ */
+public class ContractImportJob {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String source;
+    private final ImportFormat format;
+    private final Instant startedAt = Instant.now();
+    private final int maxErrors;
+    private final List<ImportRowError> errors = new ArrayList<>();
+
+    final AtomicLong rowsRead = new AtomicLong();
+    final AtomicLong inserted = new AtomicLong();
+    final AtomicLong updated = new AtomicLong();
+    final AtomicLong duplicates = new AtomicLong();
+    final AtomicLong failed = new AtomicLong();
+
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String failureReason;
+
+    ContractImportJob(String source, ImportFormat format, int maxErrors) {
+        this.source = source;
+        this.format = format;
+        this.maxErrors = maxErrors;
+    }
+
+    void recordError(ImportRowError error) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add(error);
+            }
+        }
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(String reason) {
+        finishedAt = Instant.now();
+        failureReason = reason;
+        status = Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public ImportFormat getFormat() {
+        return format;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getInserted() {
+        return inserted.get();
+    }
+
+    public long getUpdated() {
+        return updated.get();
+    }
+
+    /** Rows superseded by a later row with the same external reference in the same batch. */
+    public long getDuplicates() {
+        return duplicates.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public double getRowsPerSecond() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return rowsRead.get() * 1000.0 / millis;
+    }
+
+    public List<ImportRowError> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.legalai.importer;
+
+import com.example.legalai.model.Contract;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A validated import record. {@link #parse} rejects anything that would make COPY or the
+ * merge fail for the whole batch, so only database-side problems (such as an unknown
+ * owner) are left to be detected in SQL.
+ */
+record ContractImportRow(long line, String externalRef, String title, String content,
+                         String contractType, String status, long ownerId) {
+
+    static final int MAX_EXTERNAL_REF_LENGTH = 100;
+    static final int MAX_TITLE_LENGTH = 255;
+
+    static ContractImportRow parse(long line, Map<String, String> fields) {
+        String externalRef = required(fields, "externalRef", "external_ref");
+        if (externalRef.length() > MAX_EXTERNAL_REF_LENGTH) {
+            throw new IllegalArgumentException("externalRef longer than " + MAX_EXTERNAL_REF_LENGTH + " characters");
+        }
+        String title = required(fields, "title", "title");
+        if (title.length() > MAX_TITLE_LENGTH) {
+            throw new IllegalArgumentException("title longer than " + MAX_TITLE_LENGTH + " characters");
+        }
+        // Content is kept verbatim; only identifiers and enums are trimmed
+        String content = fields.get("content");
+        if (content == null || content.isBlank()) {
+            throw new IllegalArgumentException("content is required");
+        }
+
+        String type = optional(fields, "contractType", "contract_type");
+        if (type != null) {
+            type = enumName(Contract.ContractType.class, type, "contractType");
+        }
+        String status = optional(fields, "status", "status");
+        status = status == null ? Contract.ContractStatus.DRAFT.name()
+                : enumName(Contract.ContractStatus.class, status, "status");
+
+        long ownerId;
+        try {
+            ownerId = Long.parseLong(required(fields, "ownerId", "owner_id"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("ownerId is not a number");
+        }
+        for (String text : new String[] {externalRef, title, content}) {
+            if (text.indexOf('\0') >= 0) {
+                throw new IllegalArgumentException("text contains a NUL character");
+            }
+        }
+        return new ContractImportRow(line, externalRef, title, content, type, status, ownerId);
+    }
+
+    static String externalRefOf(Map<String, String> fields) {
+        return optional(fields, "externalRef", "external_ref");
+    }
+
+    private static <E extends Enum<E>> String enumName(Class<E> type, String value, String field) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT)).name();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + field + ": " + value);
+        }
+    }
+
+    private static String required(Map<String, String> fields, String name, String alias) {
+        String value = optional(fields, name, alias);
+        if (value == null) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        return value;
+    }
+
+    private static String optional(Map<String, String> fields, String name, String alias) {
+        String value = fields.get(name);
+        if (value == null) {
+            value = fields.get(alias);
+        }
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
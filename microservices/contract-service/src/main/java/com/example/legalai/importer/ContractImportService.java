@@ -0,0 +1,353 @@
+package com.example.legalai.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk contract import through PostgreSQL COPY.
+ *
+ * <p>Records are validated as they are read and copied straight into a session-local staging
+ * table, so nothing but the current record is held in memory. Every {@code batch-size} rows
+ * the COPY is ended and the staging rows are merged into {@code contracts} with
+ * {@code INSERT ... ON CONFLICT (external_ref) DO UPDATE}, then committed. Rows that fail
+ * validation, reference an unknown owner or, should the set-based merge fail, fail on their
+ * own are recorded as row errors; the rest of the batch still lands.
+ */
+@Slf4j
+@Service
+public class ContractImportService {
+
+    private static final String CREATE_STAGING = """
+        CREATE TEMP TABLE IF NOT EXISTS contract_import_staging (
+            line_no BIGINT NOT NULL,
+            external_ref VARCHAR(100) NOT NULL,
+            title VARCHAR(255) NOT NULL,
+            content TEXT NOT NULL,
+            contract_type VARCHAR(50),
+            status VARCHAR(20) NOT NULL,
+            owner_id BIGINT NOT NULL
+        ) ON COMMIT DELETE ROWS
+        """;
+
+    private static final String COPY_STAGING = "COPY contract_import_staging "
+            + "(line_no, external_ref, title, content, contract_type, status, owner_id) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String UNKNOWN_OWNERS = """
+        DELETE FROM contract_import_staging s
+        WHERE NOT EXISTS (SELECT 1 FROM users u WHERE u.id = s.owner_id)
+        RETURNING line_no, external_ref, owner_id
+        """;
+
+    // The last row per external_ref wins; ON CONFLICT cannot touch the same row twice
+    private static final String MERGE = """
+        WITH merged AS (
+            INSERT INTO contracts (external_ref, title, content, contract_type, status, owner_id, created_at, updated_at)
+            SELECT DISTINCT ON (external_ref)
+                   external_ref, title, content, contract_type, status, owner_id, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+            FROM contract_import_staging
+            %s
+            ORDER BY external_ref, line_no DESC
+            ON CONFLICT (external_ref) DO UPDATE SET
+                title = EXCLUDED.title,
+                content = EXCLUDED.content,
+                contract_type = EXCLUDED.contract_type,
+                status = EXCLUDED.status,
+                owner_id = EXCLUDED.owner_id,
+                is_deleted = FALSE,
+                deleted_at = NULL,
+                updated_at = CURRENT_TIMESTAMP
+            RETURNING (xmax = 0) AS inserted
+        )
+        SELECT COUNT(*) FILTER (WHERE inserted), COUNT(*) FILTER (WHERE NOT inserted) FROM merged
+        """;
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxErrors;
+    private final int retainedJobs;
+    private final Map<String, ContractImportJob> jobs = new ConcurrentHashMap<>();
+
+    private final Counter insertedRows;
+    private final Counter updatedRows;
+    private final Counter duplicateRows;
+    private final Counter failedRows;
+    private final Timer batchTimer;
+    private final AtomicLong rowsPerSecond = new AtomicLong();
+
+    public ContractImportService(DataSource dataSource,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${import.batch-size:10000}") int batchSize,
+                                 @Value("${import.max-errors:1000}") int maxErrors,
+                                 @Value("${import.retained-jobs:20}") int retainedJobs) {
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        this.retainedJobs = retainedJobs;
+
+        this.insertedRows = rowCounter(meterRegistry, "inserted");
+        this.updatedRows = rowCounter(meterRegistry, "updated");
+        this.duplicateRows = rowCounter(meterRegistry, "duplicate");
+        this.failedRows = rowCounter(meterRegistry, "failed");
+        this.batchTimer = Timer.builder("contract.import.batch")
+                .description("Time to COPY, merge and commit one import batch")
+                .register(meterRegistry);
+        Gauge.builder("contract.import.rows.per.second", rowsPerSecond, AtomicLong::get)
+                .description("Throughput of the current or most recent import")
+                .register(meterRegistry);
+    }
+
+    private static Counter rowCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("contract.import.rows")
+                .description("Imported rows by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public Collection<ContractImportJob> getJobs() {
+        return List.copyOf(jobs.values());
+    }
+
+    public Optional<ContractImportJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Imports every record of {@code in} and returns the finished job. Runs on the calling
+     * thread; progress is visible through {@link #getJobs()} while it runs.
+     */
+    public ContractImportJob importContracts(InputStream in, ImportFormat format, String source) {
+        ContractImportJob job = new ContractImportJob(source, format, maxErrors);
+        register(job);
+        log.info("Import {} of {} ({}) started", job.getId(), source, format);
+
+        try (ImportRecordReader reader = format == ImportFormat.CSV
+                     ? new CsvRecordReader(in) : new NdjsonRecordReader(in, objectMapper);
+             Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                run(reader, connection, job);
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    connection.rollback();
+                    statement.execute("DROP TABLE IF EXISTS contract_import_staging");
+                    connection.commit();
+                }
+                connection.setAutoCommit(autoCommit);
+            }
+            job.complete();
+        } catch (Exception e) {
+            log.error("Import {} failed after {} rows", job.getId(), job.getRowsRead(), e);
+            job.fail(e.getMessage());
+        }
+        rowsPerSecond.set((long) job.getRowsPerSecond());
+        log.info("Import {} {}: {} rows read, {} inserted, {} updated, {} duplicates, {} failed, {} rows/s",
+                job.getId(), job.getStatus(), job.getRowsRead(), job.getInserted(), job.getUpdated(),
+                job.getDuplicates(), job.getFailed(), (long) job.getRowsPerSecond());
+        return job;
+    }
+
+    private void run(ImportRecordReader reader, Connection connection, ContractImportJob job)
+            throws IOException, SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_STAGING);
+        }
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+        PGCopyOutputStream copy = null;
+        int staged = 0;
+        try {
+            ImportRecordReader.RawRecord raw;
+            while ((raw = reader.next()) != null) {
+                job.rowsRead.incrementAndGet();
+                if (raw.parseError() != null) {
+                    rejectRow(job, new ImportRowError(raw.line(), null, raw.parseError()));
+                    continue;
+                }
+                ContractImportRow row;
+                try {
+                    row = ContractImportRow.parse(raw.line(), raw.fields());
+                } catch (IllegalArgumentException e) {
+                    rejectRow(job, new ImportRowError(raw.line(), ContractImportRow.externalRefOf(raw.fields()),
+                            e.getMessage()));
+                    continue;
+                }
+                if (copy == null) {
+                    copy = new PGCopyOutputStream(pgConnection, COPY_STAGING, 256 * 1024);
+                }
+                copy.write(toCsvLine(row));
+                if (++staged >= batchSize) {
+                    copy.endCopy();
+                    copy = null;
+                    mergeBatch(connection, job, staged);
+                    staged = 0;
+                }
+            }
+            if (copy != null) {
+                copy.endCopy();
+                copy = null;
+                mergeBatch(connection, job, staged);
+            }
+        } finally {
+            // A connection left in COPY state cannot even be rolled back
+            if (copy != null && copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private void mergeBatch(Connection connection, ContractImportJob job, int staged) throws SQLException {
+        long start = System.nanoTime();
+        int rejected = 0;
+        try (Statement statement = connection.createStatement();
+             ResultSet unknownOwners = statement.executeQuery(UNKNOWN_OWNERS)) {
+            while (unknownOwners.next()) {
+                rejected++;
+                rejectRow(job, new ImportRowError(unknownOwners.getLong(1), unknownOwners.getString(2),
+                        "Unknown owner: " + unknownOwners.getLong(3)));
+            }
+        }
+
+        long inserted;
+        long updated;
+        Savepoint beforeMerge = connection.setSavepoint();
+        try (Statement statement = connection.createStatement();
+             ResultSet counts = statement.executeQuery(MERGE.formatted(""))) {
+            counts.next();
+            inserted = counts.getLong(1);
+            updated = counts.getLong(2);
+        } catch (SQLException e) {
+            connection.rollback(beforeMerge);
+            log.warn("Import {}: set-based merge failed ({}), retrying batch row by row",
+                    job.getId(), e.getMessage());
+            long[] rowCounts = mergeRowByRow(connection, job);
+            inserted = rowCounts[0];
+            updated = rowCounts[1];
+            rejected += (int) rowCounts[2];
+        }
+        connection.commit();
+
+        long duplicates = staged - rejected - inserted - updated;
+        job.inserted.addAndGet(inserted);
+        job.updated.addAndGet(updated);
+        job.duplicates.addAndGet(duplicates);
+        insertedRows.increment(inserted);
+        updatedRows.increment(updated);
+        duplicateRows.increment(duplicates);
+        batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        rowsPerSecond.set((long) job.getRowsPerSecond());
+        log.info("Import {}: {} rows read, {} merged, {} failed, {} rows/s", job.getId(), job.getRowsRead(),
+                job.getInserted() + job.getUpdated(), job.getFailed(), (long) job.getRowsPerSecond());
+    }
+
+    /** Returns {inserted, updated, failed}. Only reached when the set-based merge fails. */
+    private long[] mergeRowByRow(Connection connection, ContractImportJob job) throws SQLException {
+        List<Object[]> keys = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT line_no, external_ref FROM contract_import_staging "
+                     + "ORDER BY external_ref, line_no DESC")) {
+            String previous = null;
+            while (rs.next()) {
+                String externalRef = rs.getString(2);
+                if (!externalRef.equals(previous)) {
+                    keys.add(new Object[] {rs.getLong(1), externalRef});
+                }
+                previous = externalRef;
+            }
+        }
+
+        long[] counts = new long[3];
+        try (PreparedStatement merge = connection.prepareStatement(MERGE.formatted("WHERE line_no = ?"))) {
+            for (Object[] key : keys) {
+                Savepoint savepoint = connection.setSavepoint();
+                try {
+                    merge.setLong(1, (Long) key[0]);
+                    try (ResultSet rs = merge.executeQuery()) {
+                        rs.next();
+                        counts[0] += rs.getLong(1);
+                        counts[1] += rs.getLong(2);
+                    }
+                    connection.releaseSavepoint(savepoint);
+                } catch (SQLException e) {
+                    connection.rollback(savepoint);
+                    counts[2]++;
+                    rejectRow(job, new ImportRowError((Long) key[0], (String) key[1], e.getMessage()));
+                }
+            }
+        }
+        return counts;
+    }
+
+    private void rejectRow(ContractImportJob job, ImportRowError error) {
+        job.recordError(error);
+        failedRows.increment();
+    }
+
+    static byte[] toCsvLine(ContractImportRow row) {
+        StringBuilder line = new StringBuilder(row.content().length() + 128);
+        line.append(row.line()).append(',');
+        appendQuoted(line, row.externalRef()).append(',');
+        appendQuoted(line, row.title()).append(',');
+        appendQuoted(line, row.content()).append(',');
+        appendQuoted(line, row.contractType()).append(',');
+        appendQuoted(line, row.status()).append(',');
+        line.append(row.ownerId()).append('\n');
+        return line.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // In COPY csv an unquoted empty field is NULL and a quoted one is an empty string
+    private static StringBuilder appendQuoted(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        return line.append('"');
+    }
+
+    private void register(ContractImportJob job) {
+        jobs.put(job.getId(), job);
+        if (jobs.size() > retainedJobs) {
+            jobs.values().stream()
+                    .filter(existing -> existing.getStatus() != ContractImportJob.Status.RUNNING)
+                    .min((a, b) -> a.getStartedAt().compareTo(b.getStartedAt()))
+                    .ifPresent(oldest -> jobs.remove(oldest.getId()));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.legalai.importer;
+
+import com.example.legalai.exception.BusinessException;
+import org.springframework.http.HttpStatus;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+    NDJSON,
+    CSV;
+
+    public static ImportFormat from(String value) {
+        if (value != null) {
+            String normalized = value.trim().toUpperCase(Locale.ROOT);
+            if (normalized.equals("JSONL")) {
+                return NDJSON;
+            }
+            for (ImportFormat format : values()) {
+                if (format.name().equals(normalized)) {
+                    return format;
+                }
+            }
+        }
+        throw new BusinessException("UNSUPPORTED_IMPORT_FORMAT",
+                "Unsupported import format: " + value, HttpStatus.BAD_REQUEST);
+    }
+
+    /** Guesses the format from a file name extension, defaulting to NDJSON. */
+    public static ImportFormat fromFileName(String fileName) {
+        return fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".csv") ? CSV : NDJSON;
+    }
+}
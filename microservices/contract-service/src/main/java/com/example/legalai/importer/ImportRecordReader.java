@@ -0,0 +1,27 @@
+package com.example.legalai.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Pulls raw records off an import stream one at a time. A record that cannot be parsed
+ * is returned with a parse error rather than thrown, so one bad line does not end the
+ * import.
+ */
+interface ImportRecordReader extends Closeable {
+
+    /** Returns the next record, or {@code null} at end of input. */
+    RawRecord next() throws IOException;
+
+    record RawRecord(long line, Map<String, String> fields, String parseError) {
+
+        static RawRecord of(long line, Map<String, String> fields) {
+            return new RawRecord(line, fields, null);
+        }
+
+        static RawRecord failed(long line, String parseError) {
+            return new RawRecord(line, Map.of(), parseError);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.legalai.importer;
+
+public record ImportRowError(long line, String externalRef, String message) {
+}
@@ -0,0 +1,219 @@
+package com.example.legalai.library;
+
+import com.example.legalai.diff.Clause;
+import com.example.legalai.diff.ClauseSplitter;
+import com.example.legalai.llm.AnalysisResult;
+import com.example.legalai.llm.LlamaService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Risk analysis of a contract clause by clause, answering repeated clauses from the
+ * {@link ClauseLibraryService} and sending only novel text to the model.
+ *
+ * <p>Novel clauses go to the model in one numbered prompt, and the "index" of each finding
+ * attributes it to its clause. Every novel clause is then stored, with an empty list when
+ * the model found nothing, because a benign result is as reusable as a risky one. Nothing is
+ * stored when any finding lacks a valid index: the clause it belongs to is unknown, and
+ * storing the others' empty lists could record a risky clause as benign for good. When the
+ * model call fails or its answer is not a JSON array, the library findings are returned
+ * alone and the result is marked as partial. Clauses repeated within one contract are sent
+ * once.
+ */
+@Slf4j
+@Service
+public class ClauseAnalysisService {
+
+    /** Bump when the prompt or finding format changes, so older library entries are ignored. */
+    public static final int PROMPT_VERSION = 1;
+
+    private static final String PROMPT = """
+            Read the following numbered contract clauses and return a JSON array of risky clauses. Each item should have an "index" (the number of the clause it comes from), "clause", "reason", and "risk level" field. Respond with JSON only, no explanation.
+
+            Clauses:
+            %s
+            """;
+
+    private static final TypeReference<LinkedHashMap<String, Object>> FINDING = new TypeReference<>() {
+    };
+
+    private final LlamaService llamaService;
+    private final ClauseLibraryService libraryService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Counter libraryCharacters;
+    private final Counter modelCharacters;
+    private final Counter modelCallsAvoided;
+    private final Timer modelTimer;
+
+    public ClauseAnalysisService(LlamaService llamaService,
+                                 ClauseLibraryService libraryService,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${clause-library.enabled:true}") boolean enabled) {
+        this.llamaService = llamaService;
+        this.libraryService = libraryService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.libraryCharacters = characters(meterRegistry, "library");
+        this.modelCharacters = characters(meterRegistry, "model");
+        this.modelCallsAvoided = Counter.builder("contract.clause.library.calls.avoided")
+                .description("Contract analyses answered entirely from the clause library")
+                .register(meterRegistry);
+        this.modelTimer = Timer.builder("contract.clause.analysis.model")
+                .description("Model time spent on the novel clauses of one contract")
+                .register(meterRegistry);
+    }
+
+    private static Counter characters(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("contract.clause.library.characters")
+                .description("Clause text analysed, by whether the library or the model answered")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Risk findings for the contract text. */
+    public AnalysisResult analyze(String content) {
+        List<Clause> clauses = ClauseSplitter.split(content);
+        List<ClauseFingerprint> fingerprints = clauses.stream()
+                .map(clause -> ClauseFingerprint.of(clause.text()))
+                .toList();
+        List<LibraryMatch> matches = libraryService.resolve(fingerprints, PROMPT_VERSION);
+
+        // Novel clauses by exact hash, so a clause repeated in this contract is sent once
+        Map<String, Integer> novel = new LinkedHashMap<>();
+        for (int i = 0; i < clauses.size(); i++) {
+            int length = clauses.get(i).text().length();
+            if (matches.get(i) != null) {
+                libraryCharacters.increment(length);
+            } else if (novel.putIfAbsent(fingerprints.get(i).exactHash(), i) == null) {
+                modelCharacters.increment(length);
+            } else {
+                libraryCharacters.increment(length);
+            }
+        }
+
+        Map<String, List<Map<String, Object>>> modelFindings = Map.of();
+        List<Map<String, Object>> unattributed = List.of();
+        boolean modelFailed = false;
+        if (novel.isEmpty()) {
+            modelCallsAvoided.increment();
+        } else {
+            List<Integer> sent = List.copyOf(novel.values());
+            StringBuilder numbered = new StringBuilder();
+            for (int n = 0; n < sent.size(); n++) {
+                numbered.append('[').append(n + 1).append("] ").append(clauses.get(sent.get(n)).text().strip())
+                        .append("\n\n");
+            }
+            String response = modelTimer.record(() -> llamaService.sendPrompt(PROMPT.formatted(numbered)));
+            List<List<Map<String, Object>>> byClause = attribute(response, sent.size());
+            if (byClause == null) {
+                log.warn("Model answer is not a JSON array; returning the library findings only");
+                modelFailed = true;
+            } else {
+                // Findings the model did not attribute are reported, and then no clause is stored
+                unattributed = byClause.get(sent.size());
+                if (!unattributed.isEmpty()) {
+                    log.warn("{} model findings name no clause; not updating the clause library", unattributed.size());
+                }
+                modelFindings = new LinkedHashMap<>();
+                for (int n = 0; n < sent.size(); n++) {
+                    ClauseFingerprint fingerprint = fingerprints.get(sent.get(n));
+                    if (unattributed.isEmpty()) {
+                        libraryService.store(fingerprint, PROMPT_VERSION, byClause.get(n));
+                    }
+                    modelFindings.put(fingerprint.exactHash(), byClause.get(n));
+                }
+            }
+        }
+
+        List<Map<String, Object>> findings = new ArrayList<>();
+        for (int i = 0; i < clauses.size(); i++) {
+            LibraryMatch match = matches.get(i);
+            if (match == null) {
+                // The first occurrence carries the model's findings; repeats add nothing new
+                if (novel.get(fingerprints.get(i).exactHash()) == i) {
+                    findings.addAll(modelFindings.getOrDefault(fingerprints.get(i).exactHash(), List.of()));
+                }
+                continue;
+            }
+            for (Map<String, Object> stored : match.findings()) {
+                Map<String, Object> finding = new LinkedHashMap<>(stored);
+                if (!match.exact()) {
+                    finding.put("clause", clauses.get(i).text().strip());
+                }
+                finding.put("source", "library");
+                finding.put("similarity", match.similarity());
+                findings.add(finding);
+            }
+        }
+        findings.addAll(unattributed);
+        try {
+            return new AnalysisResult(objectMapper.writeValueAsString(findings), modelFailed);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise clause findings", e);
+        }
+    }
+
+    /**
+     * Findings of the model answer grouped by the clause they name, followed by one more list
+     * of findings without a valid index, or {@code null} when the answer is not a JSON array.
+     */
+    private List<List<Map<String, Object>>> attribute(String response, int clauseCount) {
+        JsonNode array;
+        try {
+            array = objectMapper.readTree(stripCodeFence(response));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return null;
+        }
+        if (array == null || !array.isArray()) {
+            return null;
+        }
+        List<List<Map<String, Object>>> byClause = new ArrayList<>(clauseCount + 1);
+        for (int n = 0; n <= clauseCount; n++) {
+            byClause.add(new ArrayList<>());
+        }
+        for (JsonNode item : array) {
+            if (!item.isObject()) {
+                continue;
+            }
+            int index = item.path("index").asInt(0);
+            Map<String, Object> finding = objectMapper.convertValue(item, FINDING);
+            finding.remove("index");
+            byClause.get(index >= 1 && index <= clauseCount ? index - 1 : clauseCount).add(finding);
+        }
+        return byClause;
+    }
+
+    private static String stripCodeFence(String response) {
+        if (response == null) {
+            return "";
+        }
+        String text = response.strip();
+        if (text.startsWith("```")) {
+            int firstLine = text.indexOf('\n');
+            int fence = text.lastIndexOf("```");
+            if (firstLine > 0 && fence > firstLine) {
+                return text.substring(firstLine + 1, fence);
+            }
+        }
+        return text;
+    }
+}
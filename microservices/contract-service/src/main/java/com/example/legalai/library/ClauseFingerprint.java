@@ -0,0 +1,115 @@
+package com.example.legalai.library;
+
+import com.example.legalai.similarity.MinHash;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Exact and MinHash fingerprints of one clause.
+ *
+ * <p>The text is NFKC-normalised (full-width forms become ASCII), lower-cased, stripped of
+ * its leading clause number and reduced to single spaces, so the same template clause
+ * numbered "4.2" in one contract and "5.1" in another has the same exact hash.
+ *
+ * @param normalisedText text the fingerprints were computed from
+ * @param exactHash      hex SHA-256 of the normalised text
+ * @param signature      {@link MinHash} signature of its character shingles
+ * @param numbers        the digit runs of the text, comma-separated; near-duplicates that
+ *                       differ here ("30 days" against "3 days") may not share a result
+ * @param modalities     the negation and modal words of the text in order, comma-separated;
+ *                       near-duplicates that differ here ("shall" against "shall not", "may"
+ *                       against "must") may not share a result either
+ */
+public record ClauseFingerprint(String normalisedText, String exactHash, int[] signature, String numbers,
+                                String modalities) {
+
+    static final int SHINGLE = 5;
+
+    private static final Pattern LEADING_NUMBER = Pattern.compile(
+            "^(?:(?:article|section|clause)\\s+[\\w.]+|第[一二三四五六七八九十百千零〇\\d]+[条章节款]"
+                    + "|[(（][a-z0-9]{1,4}[)）]|\\d{1,3}(?:\\.\\d{1,3})*\\.?)[\\s.:：、]*");
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+    // Longer Chinese terms first so that 不得 is not read as 不
+    private static final Pattern MODAL_CANDIDATES = Pattern.compile(
+            "[a-z]+(?:['’]t)?|不得|不应|不必|无需|无须|没有|必须|应当|应该|可以|不|无|未|非|勿|须|应|可");
+    private static final Set<String> ENGLISH_MODALITIES = Set.of(
+            "not", "no", "never", "neither", "nor", "none", "nothing", "without",
+            "shall", "must", "may", "might", "will", "would", "should", "can", "could", "need");
+    private static final Map<String, String> CONTRACTION_MODALS = Map.of("ca", "can", "wo", "will", "sha", "shall");
+
+    public static ClauseFingerprint of(String clause) {
+        String text = normalise(clause);
+        return new ClauseFingerprint(text, sha256(text), MinHash.signature(text, SHINGLE), numbers(text),
+                modalities(text));
+    }
+
+    static String normalise(String clause) {
+        String text = Normalizer.normalize(clause, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .strip();
+        Matcher number = LEADING_NUMBER.matcher(text);
+        // Keep a bare heading such as "article 7" as it is rather than reduce it to nothing
+        return number.lookingAt() && number.end() < text.length() ? text.substring(number.end()) : text;
+    }
+
+    private static String numbers(String text) {
+        StringBuilder numbers = new StringBuilder();
+        Matcher digits = DIGITS.matcher(text);
+        while (digits.find()) {
+            if (!numbers.isEmpty()) {
+                numbers.append(',');
+            }
+            numbers.append(digits.group());
+        }
+        return numbers.toString();
+    }
+
+    /** Negation and modal words of a normalised text; contractions count as their modal and "not". */
+    static String modalities(String text) {
+        StringBuilder modalities = new StringBuilder();
+        Matcher word = MODAL_CANDIDATES.matcher(text);
+        while (word.find()) {
+            String token = word.group();
+            if (token.endsWith("n't") || token.endsWith("n’t")) {
+                String base = token.substring(0, token.length() - 3);
+                base = CONTRACTION_MODALS.getOrDefault(base, base);
+                if (ENGLISH_MODALITIES.contains(base)) {
+                    append(modalities, base);
+                }
+                append(modalities, "not");
+            } else if (token.equals("cannot")) {
+                append(modalities, "can");
+                append(modalities, "not");
+            } else if (token.charAt(0) > 'z' || ENGLISH_MODALITIES.contains(token)) {
+                append(modalities, token);
+            }
+        }
+        return modalities.toString();
+    }
+
+    private static void append(StringBuilder list, String token) {
+        if (!list.isEmpty()) {
+            list.append(',');
+        }
+        list.append(token);
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.legalai.library;
+
+import com.example.legalai.similarity.MinHash;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Clause library in {@code clause_library}: risk findings of every analysed clause, stored
+ * once per normalised text and looked up by exact hash first, then by MinHash similarity.
+ *
+ * <p>Near-duplicate candidates come from one GIN lookup of the clauses' LSH band keys
+ * ({@value #BANDS} bands of 8 rows, so clauses above about 0.7 similarity nearly always
+ * share a band). Candidates are then compared by signature, and the most similar one at or
+ * above {@code clause-library.similarity-threshold} is used. Short clauses have too few
+ * shingles for a reliable estimate and only match exactly; near-duplicates must also agree
+ * on their numbers unless {@code clause-library.require-equal-numbers} is off, and on their
+ * negation and modal words unless {@code clause-library.require-equal-modalities} is off, so
+ * "shall not assign" never reuses the result of "shall assign". Modalities are derived from
+ * the stored normalised text.
+ */
+@Service
+public class ClauseLibraryService {
+
+    static final int BANDS = 16;
+
+    private static final TypeReference<List<Map<String, Object>>> FINDINGS = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final double similarityThreshold;
+    private final int minNearDuplicateLength;
+    private final boolean requireEqualNumbers;
+    private final boolean requireEqualModalities;
+    private final Counter exactHits;
+    private final Counter nearHits;
+    private final Counter misses;
+
+    public ClauseLibraryService(JdbcTemplate jdbcTemplate,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${clause-library.similarity-threshold:0.9}") double similarityThreshold,
+                                @Value("${clause-library.min-near-duplicate-length:60}") int minNearDuplicateLength,
+                                @Value("${clause-library.require-equal-numbers:true}") boolean requireEqualNumbers,
+                                @Value("${clause-library.require-equal-modalities:true}") boolean requireEqualModalities) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.similarityThreshold = similarityThreshold;
+        this.minNearDuplicateLength = minNearDuplicateLength;
+        this.requireEqualNumbers = requireEqualNumbers;
+        this.requireEqualModalities = requireEqualModalities;
+        this.exactHits = lookups(meterRegistry, "exact");
+        this.nearHits = lookups(meterRegistry, "near");
+        this.misses = lookups(meterRegistry, "miss");
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("contract.clause.library.lookups")
+                .description("Clause library lookups by whether an exact or near-duplicate entry was found")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Library entries for the given clauses, in the same order, with {@code null} where none
+     * matched. Counts a hit on every entry used.
+     */
+    @Transactional
+    public List<LibraryMatch> resolve(List<ClauseFingerprint> clauses, int promptVersion) {
+        if (clauses.isEmpty()) {
+            return List.of();
+        }
+        LibraryMatch[] matches = new LibraryMatch[clauses.size()];
+
+        Set<String> hashes = new LinkedHashSet<>();
+        clauses.forEach(clause -> hashes.add(clause.exactHash()));
+        Map<String, LibraryMatch> exact = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT id, exact_hash, findings::text AS findings FROM clause_library
+                WHERE prompt_version = ? AND exact_hash = ANY(?)
+                """, ps -> {
+            ps.setInt(1, promptVersion);
+            ps.setArray(2, ps.getConnection().createArrayOf("varchar", hashes.toArray()));
+        }, rs -> {
+            exact.put(rs.getString("exact_hash"),
+                    new LibraryMatch(rs.getLong("id"), true, 1.0, read(rs.getString("findings"))));
+        });
+
+        List<Integer> pending = new ArrayList<>();
+        Set<Long> bandKeys = new LinkedHashSet<>();
+        long[][] clauseBands = new long[clauses.size()][];
+        for (int i = 0; i < clauses.size(); i++) {
+            ClauseFingerprint clause = clauses.get(i);
+            matches[i] = exact.get(clause.exactHash());
+            if (matches[i] == null && clause.normalisedText().length() >= minNearDuplicateLength) {
+                pending.add(i);
+                clauseBands[i] = MinHash.bandKeys(clause.signature(), BANDS);
+                Arrays.stream(clauseBands[i]).forEach(bandKeys::add);
+            }
+        }
+        if (!pending.isEmpty()) {
+            List<Candidate> candidates = new ArrayList<>();
+            jdbcTemplate.query("""
+                    SELECT id, normalized_text, numbers, signature, bands, findings::text AS findings FROM clause_library
+                    WHERE prompt_version = ? AND bands && ?
+                    """, ps -> {
+                ps.setInt(1, promptVersion);
+                ps.setArray(2, ps.getConnection().createArrayOf("bigint", bandKeys.toArray()));
+            }, rs -> {
+                Long[] bands = (Long[]) rs.getArray("bands").getArray();
+                candidates.add(new Candidate(rs.getLong("id"), rs.getString("numbers"),
+                        ClauseFingerprint.modalities(rs.getString("normalized_text")), MinHash.fromBytes(rs.getBytes("signature")), new HashSet<>(Arrays.asList(bands)), rs.getString("findings")));
+            });
+            for (int i : pending) {
+                matches[i] = nearest(clauses.get(i), clauseBands[i], candidates);
+            }
+        }
+
+        Set<Long> used = new LinkedHashSet<>();
+        for (LibraryMatch match : matches) {
+            if (match == null) {
+                misses.increment();
+            } else {
+                (match.exact() ? exactHits : nearHits).increment();
+                used.add(match.entryId());
+            }
+        }
+        if (!used.isEmpty()) {
+            jdbcTemplate.update(con -> {
+                var ps = con.prepareStatement("""
+                        UPDATE clause_library SET hit_count = hit_count + 1, last_hit_at = CURRENT_TIMESTAMP
+                        WHERE id = ANY(?)
+                        """);
+                ps.setArray(1, con.createArrayOf("bigint", used.toArray()));
+                return ps;
+            });
+        }
+        return Arrays.asList(matches);
+    }
+
+    private LibraryMatch nearest(ClauseFingerprint clause, long[] bands, List<Candidate> candidates) {
+        Candidate best = null;
+        double bestSimilarity = similarityThreshold;
+        for (Candidate candidate : candidates) {
+            if (Arrays.stream(bands).noneMatch(candidate.bands()::contains)
+                    || (requireEqualNumbers && !candidate.numbers().equals(clause.numbers()))
+                    || (requireEqualModalities && !candidate.modalities().equals(clause.modalities()))) {
+                continue;
+            }
+            double similarity = MinHash.similarity(clause.signature(), candidate.signature());
+            if (similarity >= bestSimilarity) {
+                best = candidate;
+                bestSimilarity = similarity;
+            }
+        }
+        return best == null ? null : new LibraryMatch(best.id(), false, bestSimilarity, read(best.findings()));
+    }
+
+    /** Adds an analysed clause; a clause already stored under the same hash is left as it is. */
+    @Transactional
+    public void store(ClauseFingerprint clause, int promptVersion, List<Map<String, Object>> findings) {
+        long[] bands = MinHash.bandKeys(clause.signature(), BANDS);
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement("""
+                    INSERT INTO clause_library (prompt_version, exact_hash, normalized_text, numbers, signature, bands, findings)
+                    VALUES (?, ?, ?, ?, ?, ?, ?::jsonb)
+                    ON CONFLICT (prompt_version, exact_hash) DO NOTHING
+                    """);
+            ps.setInt(1, promptVersion);
+            ps.setString(2, clause.exactHash());
+            ps.setString(3, clause.normalisedText());
+            ps.setString(4, clause.numbers());
+            ps.setBytes(5, MinHash.toBytes(clause.signature()));
+            ps.setArray(6, con.createArrayOf("bigint", Arrays.stream(bands).boxed().toArray()));
+            ps.setString(7, write(findings));
+            return ps;
+        });
+    }
+
+    private List<Map<String, Object>> read(String json) {
+        try {
+            return objectMapper.readValue(json, FINDINGS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored clause findings are not valid JSON", e);
+        }
+    }
+
+    private String write(List<Map<String, Object>> findings) {
+        try {
+            return objectMapper.writeValueAsString(findings);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise clause findings", e);
+        }
+    }
+
+    private record Candidate(long id, String numbers, String modalities, int[] signature, Set<Long> bands, String findings) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.legalai.library;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A library entry that stands in for a clause of the contract being analysed.
+ *
+ * @param entryId    {@code clause_library.id}
+ * @param similarity 1.0 for an exact match, otherwise the MinHash estimate
+ * @param findings   risk findings stored for the entry; empty when it was analysed as benign
+ */
+public record LibraryMatch(long entryId, boolean exact, double similarity, List<Map<String, Object>> findings) {
+}
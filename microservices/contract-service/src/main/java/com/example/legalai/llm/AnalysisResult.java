@@ -0,0 +1,12 @@
+package com.example.legalai.llm;
+
+/**
+ * Outcome of one contract analysis.
+ *
+ * @param analysisResult risk findings as a JSON array; when clauses are answered from the
+ *                       clause library, those findings are included even if the model failed
+ * @param modelFailed    the model was called and failed, or answered with something other than
+ *                       a JSON array, so {@code analysisResult} lacks its findings
+ */
+public record AnalysisResult(String analysisResult, boolean modelFailed) {
+}
@@ -1,36 +1,67 @@
 package com.example.legalai.llm;
 
+import com.example.legalai.client.AdaptiveConcurrencyLimiter;
+import com.example.legalai.exception.ConcurrencyLimitExceededException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import java.time.Duration;
 import java.util.Map;
 
 @Service
 public class LlamaService {
 
+    public static final String FAILED = "Failed to call LLaMA model";
+
     private final WebClient webClient;
+    private final String model;
+    private final Duration timeout;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
 
-    public LlamaService() {
+    public LlamaService(@Value("${llama.base-url:http://localhost:11434}") String baseUrl,
+                        @Value("${llama.model:llama3}") String model,
+                        @Value("${llama.timeout:120s}") Duration timeout,
+                        AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.model = model;
+        this.timeout = timeout;
+        this.concurrencyLimiter = concurrencyLimiter;
         this.webClient = WebClient.builder()
-            .baseUrl("http://localhost:11434")
+            .baseUrl(baseUrl)
             .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
             .build();
     }
 
+    /**
+     * Generates a response to {@code prompt}, or returns {@link #FAILED} when the call fails or
+     * takes longer than {@code llama.timeout}. Calls beyond the adaptive concurrency limit are
+     * rejected before reaching the model; failed and timed-out calls shrink the limit.
+     */
     public String sendPrompt(String prompt) {
+        if (!concurrencyLimiter.tryAcquire()) {
+            throw new ConcurrencyLimitExceededException("llama", concurrencyLimiter.limit());
+        }
         Map<String, Object> body = Map.of(
-            "model", "llama3",
+            "model", model,
             "prompt", prompt,
             "stream", false
         );
 
-        return webClient.post()
-            .uri("/api/generate")
-            .bodyValue(body)
-            .retrieve()
-            .bodyToMono(Map.class)
-            .map(resp -> (String) resp.get("response"))
-            .onErrorReturn("Failed to call LLaMA model")
-            .block();
+        long start = System.nanoTime();
+        String response = FAILED;
+        try {
+            response = webClient.post()
+                .uri("/api/generate")
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(Map.class)
+                .map(resp -> (String) resp.get("response"))
+                .timeout(timeout)
+                .onErrorReturn(FAILED)
+                .block();
+            return response;
+        } finally {
+            concurrencyLimiter.release(System.nanoTime() - start, FAILED.equals(response) || response == null);
+        }
     }
 }
@@ -27,7 +27,8 @@ public class ContractAnalysis {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @Column(name = "analysis_id", unique = true, nullable = false)
+    // Since partitioning (V6) the database only enforces (analysis_id, created_at); the UUID keeps it unique
+    @Column(name = "analysis_id", nullable = false)
     private String analysisId;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -131,10 +131,11 @@ public class PerformanceMonitoringController {
         
         try (Connection connection = dataSource.getConnection()) {
             // Connection pool metrics
-            javax.sql.DataSource hikariDataSource = dataSource;
-            if (hikariDataSource instanceof com.zaxxer.hikari.HikariDataSource) {
-                com.zaxxer.hikari.HikariDataSource hikari = 
-                        (com.zaxxer.hikari.HikariDataSource) hikariDataSource;
+            // The pool sits behind the lazy/routing proxies; outside a read-only
+            // transaction unwrap resolves to the primary pool
+            if (dataSource.isWrapperFor(com.zaxxer.hikari.HikariDataSource.class)) {
+                com.zaxxer.hikari.HikariDataSource hikari =
+                        dataSource.unwrap(com.zaxxer.hikari.HikariDataSource.class);
                 
                 com.zaxxer.hikari.HikariPoolMXBean poolBean = hikari.getHikariPoolMXBean();
                 if (poolBean != null) {
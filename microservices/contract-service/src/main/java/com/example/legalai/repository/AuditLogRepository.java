@@ -20,6 +20,20 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
             @Param("entityId") Long entityId, 
             Pageable pageable);
     
+    // Bounded on created_at so only the partitions covering the window are scanned
+    @Query("SELECT al FROM AuditLog al WHERE al.entityType = :entityType AND al.entityId = :entityId " +
+           "AND al.createdAt >= :since ORDER BY al.createdAt DESC")
+    Page<AuditLog> findByEntityTypeAndEntityIdAndCreatedAtAfter(
+            @Param("entityType") String entityType,
+            @Param("entityId") Long entityId,
+            @Param("since") LocalDateTime since,
+            Pageable pageable);
+    
+    @Query("SELECT al FROM AuditLog al WHERE al.createdAt >= :since AND al.createdAt < :until ORDER BY al.createdAt DESC")
+    Page<AuditLog> findByCreatedAtBetween(@Param("since") LocalDateTime since, 
+                                          @Param("until") LocalDateTime until, 
+                                          Pageable pageable);
+    
     @Query("SELECT al FROM AuditLog al WHERE al.user.id = :userId ORDER BY al.createdAt DESC")
     Page<AuditLog> findByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId, Pageable pageable);
     
@@ -5,6 +5,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -48,6 +49,24 @@ public interface ContractAnalysisRepository extends JpaRepository<ContractAnalys
     @Query("SELECT ca FROM ContractAnalysis ca WHERE ca.contract.owner.id = :ownerId ORDER BY ca.createdAt DESC")
     Page<ContractAnalysis> findByContractOwnerIdOrderByCreatedAtDesc(@Param("ownerId") Long ownerId, Pageable pageable);
     
-    @Query("DELETE FROM ContractAnalysis ca WHERE ca.status IN ('COMPLETED', 'FAILED') AND ca.createdAt < :cutoffDate")
-    void deleteOldAnalyses(@Param("cutoffDate") LocalDateTime cutoffDate);
-}
\ No newline at end of file
+    /**
+     * Deletes one key range of finished analyses older than the cutoff. Callers walk the id
+     * space in bounded chunks (see {@code AnalysisRetentionService}) instead of issuing one
+     * table-wide DELETE.
+     */
+    @Modifying
+    @Query("DELETE FROM ContractAnalysis ca WHERE ca.id BETWEEN :fromId AND :toId " +
+           "AND ca.status IN ('COMPLETED', 'FAILED') AND ca.createdAt < :cutoffDate")
+    int deleteOldAnalysesInRange(@Param("fromId") Long fromId, 
+                                 @Param("toId") Long toId, 
+                                 @Param("cutoffDate") LocalDateTime cutoffDate);
+
+    /**
+     * Deletes exactly the analyses retention has just archived, so a row that became
+     * finished after the archive was read is left for the next run instead of being lost.
+     */
+    @Modifying
+    @Query("DELETE FROM ContractAnalysis ca WHERE ca.id IN :ids AND ca.createdAt < :cutoffDate")
+    int deleteArchivedAnalyses(@Param("ids") List<Long> ids,
+                               @Param("cutoffDate") LocalDateTime cutoffDate);
+}
@@ -1,12 +1,14 @@
 package com.example.legalai.repository;
 
 import com.example.legalai.model.Contract;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +16,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
 public interface ContractRepository extends JpaRepository<Contract, Long>, JpaSpecificationExecutor<Contract> {
     
@@ -23,6 +27,7 @@ public interface ContractRepository extends JpaRepository<Contract, Long>, JpaSp
     @Query("SELECT c FROM Contract c WHERE c.owner.id = :ownerId AND c.deleted = false")
     Page<Contract> findByOwnerIdAndActiveTrue(@Param("ownerId") Long ownerId, Pageable pageable);
     
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     @Query("SELECT c FROM Contract c WHERE c.id = :id AND c.deleted = false")
     Optional<Contract> findByIdAndActiveTrue(@Param("id") Long id);
     
@@ -47,6 +52,7 @@ public interface ContractRepository extends JpaRepository<Contract, Long>, JpaSp
     @Query("UPDATE Contract c SET c.deleted = true, c.deletedAt = :deletedAt WHERE c.id = :id")
     void softDeleteById(@Param("id") Long id, @Param("deletedAt") LocalDateTime deletedAt);
     
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     @Query("SELECT COUNT(c) FROM Contract c WHERE c.owner.id = :ownerId AND c.deleted = false")
     long countByOwnerId(@Param("ownerId") Long ownerId);
     
@@ -0,0 +1,245 @@
+package com.example.legalai.retention;
+
+import com.example.legalai.repository.ContractAnalysisRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Purges finished contract analyses past their retention in bounded key-range chunks.
+ *
+ * <p>Each chunk is a short transaction over at most {@code chunk-size} ids, followed by a
+ * pause, so locks and WAL bursts stay small and live traffic keeps its latency. Progress is
+ * checkpointed in {@code retention_checkpoints}; an interrupted run resumes from the last
+ * committed id with the same cutoff. In {@code ARCHIVE} mode every chunk is written to a
+ * gzip-compressed NDJSON file and synced to disk before its rows are deleted, and only
+ * the rows in the file are deleted.
+ */
+@Slf4j
+@Service
+public class AnalysisRetentionService {
+
+    static final String JOB_NAME = "contract-analyses";
+
+    private static final String FINISHED = "status IN ('COMPLETED', 'FAILED')";
+
+    public enum Mode {
+        DELETE,
+        ARCHIVE
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ContractAnalysisRepository analysisRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper archiveMapper;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private final boolean enabled;
+    private final Duration retention;
+    private final Mode mode;
+    private final int chunkSize;
+    private final Duration chunkPause;
+    private final Path archiveDir;
+
+    private final Counter processedRows;
+    private final Timer chunkTimer;
+    private final AtomicLong rowsPerSecond = new AtomicLong();
+
+    public AnalysisRetentionService(JdbcTemplate jdbcTemplate,
+                                    ContractAnalysisRepository analysisRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${retention.analyses.enabled:true}") boolean enabled,
+                                    @Value("${retention.analyses.retention:180d}") Duration retention,
+                                    @Value("${retention.analyses.mode:DELETE}") Mode mode,
+                                    @Value("${retention.analyses.chunk-size:1000}") int chunkSize,
+                                    @Value("${retention.analyses.chunk-pause:250ms}") Duration chunkPause,
+                                    @Value("${retention.analyses.archive-dir:archive}") String archiveDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.analysisRepository = analysisRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archiveMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.enabled = enabled;
+        this.retention = retention;
+        this.mode = mode;
+        this.chunkSize = chunkSize;
+        this.chunkPause = chunkPause;
+        this.archiveDir = Paths.get(archiveDir);
+
+        this.processedRows = Counter.builder("retention.rows")
+                .description("Rows removed by retention")
+                .tag("job", JOB_NAME)
+                .tag("mode", mode.name().toLowerCase())
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("retention.chunk")
+                .description("Time to archive and delete one retention chunk")
+                .tag("job", JOB_NAME)
+                .register(meterRegistry);
+        Gauge.builder("retention.rows.per.second", rowsPerSecond, AtomicLong::get)
+                .description("Throughput of the current or most recent retention run")
+                .tag("job", JOB_NAME)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${retention.analyses.cron:0 30 3 * * *}")
+    public void scheduledPurge() {
+        if (enabled) {
+            purge();
+        }
+    }
+
+    /**
+     * Runs (or resumes) a purge. Returns the number of rows removed, or -1 if a run is
+     * already in progress on this instance.
+     */
+    public long purge() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Analysis retention already running, skipping");
+            return -1;
+        }
+        try {
+            return runChunks();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long runChunks() {
+        Checkpoint checkpoint = loadOrCreateCheckpoint();
+        long lastId = checkpoint.lastId();
+        long removed = 0;
+        long startNanos = System.nanoTime();
+        log.info("Analysis retention {} of rows before {} starting after id {}",
+                mode, checkpoint.cutoff(), lastId);
+
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM contract_analyses WHERE " + FINISHED
+                            + " AND created_at < ? AND id > ? ORDER BY id LIMIT ?",
+                    Long.class, Timestamp.valueOf(checkpoint.cutoff()), lastId, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            long fromId = ids.get(0);
+            long toId = ids.get(ids.size() - 1);
+
+            long chunkStart = System.nanoTime();
+            List<Long> archived = mode == Mode.ARCHIVE ? archive(fromId, toId, checkpoint.cutoff()) : null;
+            Integer deleted = transactionTemplate.execute(status -> {
+                int count = archived == null
+                        ? analysisRepository.deleteOldAnalysesInRange(fromId, toId, checkpoint.cutoff())
+                        : archived.isEmpty() ? 0 : analysisRepository.deleteArchivedAnalyses(archived, checkpoint.cutoff());
+                jdbcTemplate.update("UPDATE retention_checkpoints SET last_id = ?, "
+                                + "rows_processed = rows_processed + ?, updated_at = CURRENT_TIMESTAMP "
+                                + "WHERE job_name = ?",
+                        toId, count, JOB_NAME);
+                return count;
+            });
+            chunkTimer.record(System.nanoTime() - chunkStart, TimeUnit.NANOSECONDS);
+
+            int count = deleted != null ? deleted : 0;
+            removed += count;
+            lastId = toId;
+            processedRows.increment(count);
+            long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            rowsPerSecond.set(removed * 1000 / elapsedMillis);
+
+            if (!pause()) {
+                log.warn("Analysis retention interrupted after id {}, will resume on next run", lastId);
+                return removed;
+            }
+        }
+
+        jdbcTemplate.update("DELETE FROM retention_checkpoints WHERE job_name = ?", JOB_NAME);
+        log.info("Analysis retention finished: {} rows in {} ms", removed,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return removed;
+    }
+
+    private Checkpoint loadOrCreateCheckpoint() {
+        List<Checkpoint> existing = jdbcTemplate.query(
+                "SELECT cutoff, last_id FROM retention_checkpoints WHERE job_name = ?",
+                (rs, rowNum) -> new Checkpoint(rs.getTimestamp("cutoff").toLocalDateTime(), rs.getLong("last_id")),
+                JOB_NAME);
+        if (!existing.isEmpty()) {
+            return existing.get(0);
+        }
+        Checkpoint fresh = new Checkpoint(LocalDateTime.now().minus(retention), 0L);
+        jdbcTemplate.update("INSERT INTO retention_checkpoints (job_name, cutoff, last_id) VALUES (?, ?, ?)",
+                JOB_NAME, Timestamp.valueOf(fresh.cutoff()), fresh.lastId());
+        return fresh;
+    }
+
+    /** Writes the chunk's finished rows to an archive file and returns their ids. */
+    private List<Long> archive(long fromId, long toId, LocalDateTime cutoff) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT * FROM contract_analyses WHERE id BETWEEN ? AND ? AND " + FINISHED
+                        + " AND created_at < ? ORDER BY id",
+                fromId, toId, Timestamp.valueOf(cutoff));
+        Path target = archiveDir.resolve(String.format("contract_analyses_%d-%d.ndjson.gz", fromId, toId));
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        try {
+            Files.createDirectories(archiveDir);
+            try (FileOutputStream file = new FileOutputStream(partial.toFile());
+                 GZIPOutputStream gzip = new GZIPOutputStream(new BufferedOutputStream(file, 64 * 1024))) {
+                for (Map<String, Object> row : rows) {
+                    gzip.write(archiveMapper.writeValueAsBytes(row));
+                    gzip.write('\n');
+                }
+                gzip.finish();
+                gzip.flush();
+                file.getChannel().force(true);
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return rows.stream().map(row -> ((Number) row.get("id")).longValue()).toList();
+        } catch (IOException e) {
+            // Rows are only deleted after a successful archive, so failing here loses nothing
+            throw new UncheckedIOException("Failed to archive analyses " + fromId + "-" + toId, e);
+        }
+    }
+
+    private boolean pause() {
+        if (chunkPause.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(chunkPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record Checkpoint(LocalDateTime cutoff, long lastId) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.legalai.retention;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the monthly partitions of {@code audit_logs} and {@code contract_analyses}
+ * (see V6 migration) ahead of the clock and drops partitions past their retention.
+ *
+ * <p>Dropping a partition is a metadata operation, so retention no longer produces
+ * the table-wide DELETE and WAL volume of row-by-row cleanup. A retention of zero
+ * keeps the table's partitions forever.
+ */
+@Slf4j
+@Service
+public class PartitionMaintenanceService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final Map<String, Duration> retentionByTable = new LinkedHashMap<>();
+
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate,
+                                       @Value("${partitioning.months-ahead:3}") int monthsAhead,
+                                       @Value("${partitioning.audit-logs.retention:365d}") Duration auditLogRetention,
+                                       @Value("${partitioning.contract-analyses.retention:0d}") Duration analysisRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionByTable.put("audit_logs", auditLogRetention);
+        this.retentionByTable.put("contract_analyses", analysisRetention);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${partitioning.cron:0 15 2 * * *}")
+    public void maintainPartitions() {
+        retentionByTable.forEach((table, retention) -> {
+            try {
+                jdbcTemplate.queryForObject("SELECT ensure_monthly_partitions(?, ?)",
+                        Integer.class, table, monthsAhead);
+                if (!retention.isZero()) {
+                    Integer dropped = jdbcTemplate.queryForObject(
+                            "SELECT drop_expired_partitions(?, make_interval(days => ?))",
+                            Integer.class, table, (int) retention.toDays());
+                    if (dropped != null && dropped > 0) {
+                        log.info("Dropped {} expired partitions of {} (retention: {})", dropped, table, retention);
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Partition maintenance failed for {}", table, e);
+            }
+        });
+    }
+}
@@ -1,17 +1,31 @@
 package com.example.legalai.service;
 
+import com.example.legalai.audit.AsyncAuditLogWriter;
+import com.example.legalai.audit.AuditEvent;
+import com.example.legalai.client.AdaptiveConcurrencyLimiter;
 import com.example.legalai.client.LlmServiceClient;
+import com.example.legalai.client.LlmServiceClientFallback;
 import com.example.legalai.dto.ContractAnalysisRequest;
 import com.example.legalai.dto.ContractAnalysisResponse;
+import com.example.legalai.exception.BusinessException;
+import com.example.legalai.exception.ConcurrencyLimitExceededException;
+import com.example.legalai.exception.ResourceNotFoundException;
+import com.example.legalai.export.ContractExport;
+import com.example.legalai.export.ContractExportService;
+import com.example.legalai.export.ExportFormat;
+import com.example.legalai.library.ClauseAnalysisService;
+import com.example.legalai.model.AuditLog;
 import com.example.legalai.model.ContractDocument;
+import com.example.legalai.llm.AnalysisResult;
 import com.example.legalai.llm.LlamaService;
 import com.example.legalai.repository.ContractDocumentRepository;
+import com.example.legalai.stats.ContractStatisticsService;
+import com.example.legalai.structure.ClauseTreeService;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -21,11 +35,14 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Service
@@ -34,21 +51,51 @@ public class ContractService {
     private final LlamaService llamaService;
     private final ContractDocumentRepository contractRepo;
     private final LlmServiceClient llmServiceClient;
+    private final AsyncAuditLogWriter auditLogWriter;
+    private final ContractStatisticsService statisticsService;
+    private final ContractExportService contractExportService;
+    private final ClauseAnalysisService clauseAnalysisService;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ClauseTreeService clauseTreeService;
     private static final String SERVICE_AUTH_KEY = "internal-service-key";
 
     @Autowired
     public ContractService(LlamaService llamaService, 
                           ContractDocumentRepository contractRepo,
-                          LlmServiceClient llmServiceClient) {
+                          LlmServiceClient llmServiceClient,
+                          AsyncAuditLogWriter auditLogWriter,
+                          ContractStatisticsService statisticsService,
+                          ContractExportService contractExportService,
+                          ClauseAnalysisService clauseAnalysisService,
+                          AdaptiveConcurrencyLimiter concurrencyLimiter,
+                          ClauseTreeService clauseTreeService) {
         this.llamaService = llamaService;
         this.contractRepo = contractRepo;
         this.llmServiceClient = llmServiceClient;
+        this.auditLogWriter = auditLogWriter;
+        this.statisticsService = statisticsService;
+        this.contractExportService = contractExportService;
+        this.clauseAnalysisService = clauseAnalysisService;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.clauseTreeService = clauseTreeService;
     }
 
     @CacheEvict(value = "contracts", allEntries = true)
-    public String analyzeContract(ContractDocument contract) {
+    public AnalysisResult analyzeContract(ContractDocument contract) {
+        // 先分析后保存：并发上限拒绝时不留下未分析的合同记录
+        AnalysisResult result = analyze(contract);
+
         // 保存合同内容到数据库
-        contractRepo.save(contract);
+        ContractDocument saved = contractRepo.save(contract);
+        audit(saved.getId(), AuditLog.AuditAction.ANALYZE);
+        return result;
+    }
+
+    private AnalysisResult analyze(ContractDocument contract) {
+        // 条款库命中的条款不再发送给模型
+        if (clauseAnalysisService.isEnabled() && contract.getContent() != null && !contract.getContent().isBlank()) {
+            return clauseAnalysisService.analyze(contract.getContent());
+        }
 
         // 构造 LLM prompt
         String prompt = String.format("""
@@ -59,7 +106,8 @@ public class ContractService {
             """, contract.getContent());
 
         // 返回分析结果
-        return llamaService.sendPrompt(prompt);
+        String response = llamaService.sendPrompt(prompt);
+        return new AnalysisResult(response, LlamaService.FAILED.equals(response));
     }
     
     @CircuitBreaker(name = "llm-service", fallbackMethod = "analyzeContractFallback")
@@ -67,12 +115,21 @@ public class ContractService {
     @TimeLimiter(name = "llm-service")
     public CompletableFuture<ContractAnalysisResponse> analyzeContractWithCircuitBreaker(
             ContractAnalysisRequest request) {
+        // 超过自适应并发上限时立即拒绝，不再排队等待慢请求
+        if (!concurrencyLimiter.tryAcquire()) {
+            throw new ConcurrencyLimitExceededException("llm-service", concurrencyLimiter.limit());
+        }
         String correlationId = UUID.randomUUID().toString();
         log.info("Analyzing contract with correlation ID: {}", correlationId);
-        
-        return CompletableFuture.supplyAsync(() -> 
+
+        long start = System.nanoTime();
+        CompletableFuture<ContractAnalysisResponse> call = CompletableFuture.supplyAsync(() ->
             llmServiceClient.analyzeContract(request, correlationId, SERVICE_AUTH_KEY)
         );
+        // The time limiter cancels the returned copy; the slot stays taken until the call itself ends
+        call.whenComplete((response, ex) -> concurrencyLimiter.release(System.nanoTime() - start,
+            ex != null || LlmServiceClientFallback.isFallback(response)));
+        return call.thenApply(Function.identity());
     }
     
     public CompletableFuture<ContractAnalysisResponse> analyzeContractFallback(
@@ -93,11 +150,13 @@ public class ContractService {
         return CompletableFuture.completedFuture(fallbackResponse);
     }
     @Cacheable(value = "contracts", key = "'all-contracts'")
+    @Transactional(readOnly = true)
     public List<ContractDocument> getAllContracts() {
         log.info("Fetching all contracts from database");
         return contractRepo.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Optional<ContractDocument> getContractById(String id) {
         try {
             return contractRepo.findById(Long.parseLong(id));
@@ -107,27 +166,32 @@ public class ContractService {
     }
 
     @CacheEvict(value = "contracts", allEntries = true)
+    @Transactional
     public ContractDocument updateContract(String id, ContractDocument contract) {
         Long contractId = parseIdOrThrow(id);
         ContractDocument existing = contractRepo.findById(contractId)
             .orElseThrow(() -> new IllegalArgumentException("Contract not found: " + id));
         existing.setTitle(contract.getTitle());
         existing.setContent(contract.getContent());
-        return contractRepo.save(existing);
+        ContractDocument saved = contractRepo.save(existing);
+        audit(contractId, AuditLog.AuditAction.UPDATE);
+        return saved;
     }
 
     @CacheEvict(value = "contracts", allEntries = true)
     public void deleteContract(String id) {
         Long contractId = parseIdOrThrow(id);
         contractRepo.deleteById(contractId);
+        clauseTreeService.delete(contractId);
+        audit(contractId, AuditLog.AuditAction.DELETE);
     }
 
     public Map<String, Object> getContractStatistics() {
-        long total = contractRepo.count();
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalContracts", total);
-        stats.put("timestamp", LocalDateTime.now().toString());
-        return stats;
+        return statisticsService.getGlobalStatistics();
+    }
+
+    public Map<String, Object> getOwnerStatistics(Long ownerId) {
+        return statisticsService.getOwnerStatistics(ownerId);
     }
 
     public Map<String, Object> addReview(String id, Map<String, Object> review) {
@@ -139,6 +203,7 @@ public class ContractService {
         return result;
     }
 
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getContractHistory(String id) {
         Optional<ContractDocument> contractOpt = getContractById(id);
         if (contractOpt.isEmpty()) {
@@ -156,15 +221,17 @@ public class ContractService {
     public List<Map<String, Object>> batchAnalyze(List<ContractDocument> contracts) {
         List<Map<String, Object>> results = new ArrayList<>();
         for (ContractDocument contract : contracts) {
-            String analysis = analyzeContract(contract);
+            AnalysisResult analysis = analyzeContract(contract);
             results.add(Map.of(
                 "title", contract.getTitle(),
-                "analysisResult", analysis
+                "analysisResult", analysis.analysisResult(),
+                "status", analysis.modelFailed() ? "partial" : "success"
             ));
         }
         return results;
     }
 
+    @Transactional(readOnly = true)
     public List<ContractDocument> searchContracts(String query) {
         String normalizedQuery = query == null ? "" : query.toLowerCase(Locale.ROOT);
         return contractRepo.findAll().stream()
@@ -173,11 +240,32 @@ public class ContractService {
             .toList();
     }
 
-    public byte[] exportContract(String id, String format) {
+    @Transactional(readOnly = true)
+    public ContractExport exportContract(String id, ExportFormat format) {
         ContractDocument contract = getContractById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Contract not found: " + id));
-        String payload = "Title: " + contract.getTitle() + "\n\n" + contract.getContent();
-        return payload.getBytes(StandardCharsets.UTF_8);
+            .orElseThrow(() -> new ResourceNotFoundException("Contract", "id", id));
+        audit(contract.getId(), AuditLog.AuditAction.EXPORT);
+        return contractExportService.export(contract, format);
+    }
+
+    public ContractExport exportContracts(List<Long> ids, ExportFormat format) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BusinessException("EMPTY_EXPORT", "No contract ids given", HttpStatus.BAD_REQUEST);
+        }
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        if (distinctIds.size() > contractExportService.getBulkMaxContracts()) {
+            throw new BusinessException("EXPORT_TOO_LARGE", "At most "
+                + contractExportService.getBulkMaxContracts() + " contracts can be exported at once",
+                HttpStatus.BAD_REQUEST);
+        }
+        distinctIds.forEach(contractId -> audit(contractId, AuditLog.AuditAction.EXPORT));
+        return contractExportService.exportAll(distinctIds, format);
+    }
+
+    private void audit(Long contractId, AuditLog.AuditAction action) {
+        if (contractId != null) {
+            auditLogWriter.record(AuditEvent.of(ContractDocument.class.getSimpleName(), contractId, action));
+        }
     }
 
     private Long parseIdOrThrow(String id) {
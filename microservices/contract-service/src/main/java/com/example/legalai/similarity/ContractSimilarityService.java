@@ -0,0 +1,209 @@
+package com.example.legalai.similarity;
+
+import com.example.legalai.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Near-duplicate detection over all contracts, whatever their owner, with a MinHash LSH
+ * index in {@code contract_signatures} (see V14 migration).
+ *
+ * <p>A trigger queues every contract whose text is written, and {@link #indexPending()}
+ * drains the queue in batches. Rows are claimed with {@code SKIP LOCKED}, so several
+ * instances can index side by side. A query for a contract whose signature is still queued
+ * computes it on the spot, so a contract uploaded a moment ago can already be checked.
+ *
+ * <p>Signatures use {@value #SHINGLE}-character shingles and {@value #BANDS} bands of 4
+ * rows. That makes texts from about 0.4 similarity upwards share a band, which covers the
+ * usual thresholds for re-uploaded drafts. A query is one GIN lookup plus a signature
+ * comparison per candidate; it never reads contract text. Contracts without text are not
+ * indexed: all empty texts share one signature, so they would all match each other.
+ */
+@Slf4j
+@Service
+public class ContractSimilarityService {
+
+    static final int SHINGLE = 9;
+    static final int BANDS = 32;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final double defaultThreshold;
+    private final int maxResults;
+    private final int batchSize;
+    private final Timer queryTimer;
+    private final Counter indexed;
+
+    public ContractSimilarityService(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${similarity.default-threshold:0.5}") double defaultThreshold,
+                                     @Value("${similarity.max-results:50}") int maxResults,
+                                     @Value("${similarity.index.batch-size:200}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultThreshold = defaultThreshold;
+        this.maxResults = maxResults;
+        this.batchSize = batchSize;
+        this.queryTimer = Timer.builder("contract.similarity.query")
+                .description("Time to find the near-duplicates of one contract")
+                .register(meterRegistry);
+        this.indexed = Counter.builder("contract.similarity.indexed")
+                .description("Contract signatures computed and stored in the LSH index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Contracts at or above {@code threshold} similarity to the given one, most similar
+     * first. Deleted contracts are left out, and a contract without text matches nothing;
+     * {@code null} arguments take the configured defaults.
+     */
+    public List<SimilarContract> findSimilar(long contractId, Double threshold, Integer limit) {
+        double minimum = threshold != null ? threshold : defaultThreshold;
+        int max = Math.min(limit != null && limit > 0 ? limit : maxResults, maxResults);
+        return queryTimer.record(() -> {
+            int[] signature = signatureOf(contractId);
+            if (signature == null) {
+                return List.of();
+            }
+            long[] bands = MinHash.bandKeys(signature, BANDS);
+            List<SimilarContract> similar = new ArrayList<>();
+            jdbcTemplate.query("""
+                    SELECT s.contract_id, s.signature, c.title, c.owner_id
+                    FROM contract_signatures s JOIN contracts c ON c.id = s.contract_id
+                    WHERE s.bands && ? AND s.contract_id <> ? AND NOT COALESCE(c.is_deleted, FALSE)
+                    """, ps -> {
+                ps.setArray(1, ps.getConnection().createArrayOf("bigint", Arrays.stream(bands).boxed().toArray()));
+                ps.setLong(2, contractId);
+            }, rs -> {
+                double similarity = MinHash.similarity(signature, MinHash.fromBytes(rs.getBytes("signature")));
+                if (similarity >= minimum) {
+                    long ownerId = rs.getLong("owner_id");
+                    similar.add(new SimilarContract(rs.getLong("contract_id"), rs.getString("title"),
+                            rs.wasNull() ? null : ownerId, similarity));
+                }
+            });
+            similar.sort(Comparator.comparingDouble(SimilarContract::similarity).reversed()
+                    .thenComparingLong(SimilarContract::contractId));
+            return similar.size() > max ? List.copyOf(similar.subList(0, max)) : similar;
+        });
+    }
+
+    /**
+     * The stored signature, or a freshly indexed one when the contract is queued or was never
+     * indexed; {@code null} when the contract has no text.
+     */
+    private int[] signatureOf(long contractId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("""
+                SELECT s.signature, q.contract_id IS NOT NULL AS queued
+                FROM contracts c
+                LEFT JOIN contract_signatures s ON s.contract_id = c.id
+                LEFT JOIN contract_signature_queue q ON q.contract_id = c.id
+                WHERE c.id = ? AND NOT COALESCE(c.is_deleted, FALSE)
+                """, contractId);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Contract", "id", contractId);
+        }
+        byte[] stored = (byte[]) rows.get(0).get("signature");
+        if (stored != null && !Boolean.TRUE.equals(rows.get(0).get("queued"))) {
+            return MinHash.fromBytes(stored);
+        }
+        return transactionTemplate.execute(status -> {
+            Map<String, Object> row = jdbcTemplate.queryForMap("""
+                    SELECT COALESCE(c.content, '') AS content, q.queued_at
+                    FROM contracts c LEFT JOIN contract_signature_queue q ON q.contract_id = c.id
+                    WHERE c.id = ?
+                    """, contractId);
+            return index(contractId, (String) row.get("content"), (Timestamp) row.get("queued_at"));
+        });
+    }
+
+    /** Signs a batch of queued contracts per transaction until the queue is empty. */
+    @Scheduled(fixedDelayString = "${similarity.index.interval:5s}")
+    public void indexPending() {
+        int total = 0;
+        Integer done;
+        do {
+            done = transactionTemplate.execute(status -> {
+                List<Map<String, Object>> batch = jdbcTemplate.queryForList("""
+                        SELECT q.contract_id, q.queued_at, COALESCE(c.content, '') AS content
+                        FROM contract_signature_queue q JOIN contracts c ON c.id = q.contract_id
+                        ORDER BY q.queued_at
+                        LIMIT ?
+                        FOR UPDATE OF q SKIP LOCKED
+                        """, batchSize);
+                for (Map<String, Object> row : batch) {
+                    index(((Number) row.get("contract_id")).longValue(), (String) row.get("content"),
+                            (Timestamp) row.get("queued_at"));
+                }
+                return batch.size();
+            });
+            total += done == null ? 0 : done;
+        } while (done != null && done == batchSize);
+        if (total > 0) {
+            log.debug("Indexed {} contract signatures", total);
+        }
+    }
+
+    /**
+     * Stores the signature of {@code content} and dequeues the contract, unless it was queued
+     * again after {@code queuedAt} by a newer write. Empty content removes the contract from
+     * the index and returns {@code null}. Runs in the caller's transaction.
+     */
+    private int[] index(long contractId, String content, Timestamp queuedAt) {
+        String text = normalise(content);
+        if (text.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM contract_signatures WHERE contract_id = ?", contractId);
+            dequeue(contractId, queuedAt);
+            return null;
+        }
+        int[] signature = MinHash.signature(text, SHINGLE);
+        Object[] bands = Arrays.stream(MinHash.bandKeys(signature, BANDS)).boxed().toArray();
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement("""
+                    INSERT INTO contract_signatures (contract_id, signature, bands) VALUES (?, ?, ?)
+                    ON CONFLICT (contract_id) DO UPDATE SET signature = EXCLUDED.signature,
+                        bands = EXCLUDED.bands, updated_at = CURRENT_TIMESTAMP
+                    """);
+            ps.setLong(1, contractId);
+            ps.setBytes(2, MinHash.toBytes(signature));
+            ps.setArray(3, con.createArrayOf("bigint", bands));
+            return ps;
+        });
+        dequeue(contractId, queuedAt);
+        indexed.increment();
+        return signature;
+    }
+
+    private void dequeue(long contractId, Timestamp queuedAt) {
+        if (queuedAt != null) {
+            jdbcTemplate.update("DELETE FROM contract_signature_queue WHERE contract_id = ? AND queued_at = ?",
+                    contractId, queuedAt);
+        }
+    }
+
+    /** Full-width forms folded, lower case and single spaces, so formatting changes do not count. */
+    static String normalise(String content) {
+        return Normalizer.normalize(content, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .strip();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.legalai.similarity;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signatures over character shingles, and the LSH band keys derived from them.
+ *
+ * <p>The fraction of equal positions in two signatures estimates the Jaccard similarity of
+ * the texts' shingle sets; with {@value #HASHES} hashes the standard error is about 0.04.
+ * Character shingles work the same for spaced and unspaced (CJK) scripts, so callers only
+ * need to normalise case and whitespace first.
+ *
+ * <p>Each shingle is hashed once to 64 bits and then permuted {@value #HASHES} times with
+ * {@code a * x + b}, keeping the high 32 bits. The permutation constants come from a fixed
+ * seed, so signatures stay comparable across restarts and instances.
+ */
+public final class MinHash {
+
+    public static final int HASHES = 128;
+
+    private static final long[] MULTIPLIERS = new long[HASHES];
+    private static final long[] OFFSETS = new long[HASHES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5eed_c1a0_5e5L);
+        for (int i = 0; i < HASHES; i++) {
+            MULTIPLIERS[i] = random.nextLong() | 1;
+            OFFSETS[i] = random.nextLong();
+        }
+    }
+
+    private MinHash() {
+    }
+
+    /**
+     * Signature of the {@code shingle}-character windows of {@code text}. A text shorter than
+     * one shingle is a single shingle. An empty text has no shingles and gets all {@code -1}:
+     * it estimates 0 against any non-empty text but 1.0 against another empty one, so callers
+     * should leave empty texts out of comparisons.
+     */
+    public static int[] signature(CharSequence text, int shingle) {
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, -1);
+        int windows = Math.max(1, text.length() - shingle + 1);
+        if (text.isEmpty()) {
+            return signature;
+        }
+        for (int start = 0; start < windows; start++) {
+            long hash = 0xcbf29ce484222325L;
+            int end = Math.min(text.length(), start + shingle);
+            for (int i = start; i < end; i++) {
+                hash = (hash ^ text.charAt(i)) * 0x100000001b3L;
+            }
+            hash ^= hash >>> 31;
+            for (int h = 0; h < HASHES; h++) {
+                int permuted = (int) ((MULTIPLIERS[h] * hash + OFFSETS[h]) >>> 32);
+                if (Integer.compareUnsigned(permuted, signature[h]) < 0) {
+                    signature[h] = permuted;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /** Estimated Jaccard similarity: the fraction of positions where the signatures agree. */
+    public static double similarity(int[] first, int[] second) {
+        int equal = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / HASHES;
+    }
+
+    /**
+     * One key per band of {@code HASHES / bands} rows. Two signatures share a key for some
+     * band with probability {@code 1 - (1 - s^rows)^bands} for similarity {@code s}, so the
+     * keys index near-duplicates without comparing every pair. The band number is mixed in,
+     * so keys of different bands never collide by construction.
+     */
+    public static long[] bandKeys(int[] signature, int bands) {
+        if (HASHES % bands != 0) {
+            throw new IllegalArgumentException(HASHES + " hashes do not divide into " + bands + " bands");
+        }
+        int rows = HASHES / bands;
+        long[] keys = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            long key = 0x9e3779b97f4a7c15L * (band + 1);
+            for (int row = band * rows; row < (band + 1) * rows; row++) {
+                key = (key ^ (signature[row] & 0xffffffffL)) * 0xff51afd7ed558ccdL;
+                key ^= key >>> 33;
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    public static byte[] toBytes(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    public static int[] fromBytes(byte[] bytes) {
+        int[] signature = new int[bytes.length / Integer.BYTES];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+}
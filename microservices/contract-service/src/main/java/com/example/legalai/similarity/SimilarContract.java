@@ -0,0 +1,9 @@
+package com.example.legalai.similarity;
+
+/**
+ * A contract whose text is close to the one queried.
+ *
+ * @param similarity estimated Jaccard similarity of the two texts' shingle sets
+ */
+public record SimilarContract(long contractId, String title, Long ownerId, double similarity) {
+}
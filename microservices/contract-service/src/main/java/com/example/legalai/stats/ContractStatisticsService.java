@@ -0,0 +1,188 @@
+package com.example.legalai.stats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves contract and analysis statistics from the trigger-maintained rollup tables
+ * (see V8 migration) instead of aggregating the base tables on every request.
+ *
+ * <p>Global figures are kept as an in-memory snapshot that is reloaded at most once per
+ * {@code statistics.snapshot-ttl}; while one caller reloads, the others keep getting the
+ * previous snapshot. A scheduled reconciliation recounts the base tables, repairs any
+ * drift in the rollups and reports it through {@code statistics.reconcile.drift}.
+ *
+ * <p>{@code totalContracts} counts the {@code contract_document} rows behind
+ * {@code /api/contracts}, as it always has; that count is taken once per snapshot. The
+ * status and type breakdowns come from the rollup over the {@code contracts} table, which
+ * has those columns, and are reported under {@code managedContracts*}.
+ */
+@Slf4j
+@Service
+public class ContractStatisticsService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long snapshotTtlNanos;
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private final Counter contractDrift;
+    private final Counter analysisDrift;
+
+    private volatile Snapshot snapshot;
+
+    public ContractStatisticsService(JdbcTemplate jdbcTemplate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${statistics.snapshot-ttl:5s}") Duration snapshotTtl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotTtlNanos = snapshotTtl.toNanos();
+        this.contractDrift = driftCounter(meterRegistry, "contract_stats_rollup");
+        this.analysisDrift = driftCounter(meterRegistry, "analysis_stats_rollup");
+    }
+
+    private static Counter driftCounter(MeterRegistry meterRegistry, String rollup) {
+        return Counter.builder("statistics.reconcile.drift")
+                .description("Rollup keys found out of sync with their base table")
+                .tag("rollup", rollup)
+                .register(meterRegistry);
+    }
+
+    public Map<String, Object> getGlobalStatistics() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    try {
+                        snapshot = load();
+                    } catch (Exception e) {
+                        // Nothing to fall back on yet; the next caller tries again
+                        log.warn("Failed to load statistics snapshot: {}", e.getMessage());
+                        return unavailable();
+                    }
+                }
+                current = snapshot;
+            }
+        } else if (System.nanoTime() - current.loadedAt() > snapshotTtlNanos
+                && refreshing.compareAndSet(false, true)) {
+            try {
+                snapshot = load();
+                current = snapshot;
+            } catch (Exception e) {
+                log.warn("Failed to refresh statistics snapshot, serving previous one: {}", e.getMessage());
+            } finally {
+                refreshing.set(false);
+            }
+        }
+        return current.statistics();
+    }
+
+    public Map<String, Object> getOwnerStatistics(Long ownerId) {
+        Map<String, Long> byStatus = new TreeMap<>();
+        Map<String, Long> byType = new TreeMap<>();
+        long total = 0;
+        for (Map<String, Object> row : jdbcTemplate.queryForList(
+                "SELECT contract_type, status, contract_count FROM contract_stats_rollup "
+                        + "WHERE owner_id = ? AND contract_count <> 0", ownerId)) {
+            long count = ((Number) row.get("contract_count")).longValue();
+            byStatus.merge((String) row.get("status"), count, Long::sum);
+            byType.merge((String) row.get("contract_type"), count, Long::sum);
+            total += count;
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("ownerId", ownerId);
+        stats.put("managedContracts", total);
+        stats.put("managedContractsByStatus", byStatus);
+        stats.put("managedContractsByType", byType);
+        stats.put("timestamp", LocalDateTime.now().toString());
+        return stats;
+    }
+
+    @Scheduled(cron = "${statistics.reconcile.cron:0 45 * * * *}")
+    public void reconcile() {
+        reconcile("contract_stats_rollup", "SELECT reconcile_contract_stats()", contractDrift);
+        reconcile("analysis_stats_rollup", "SELECT reconcile_analysis_stats()", analysisDrift);
+        snapshot = null;
+    }
+
+    private void reconcile(String rollup, String sql, Counter driftCounter) {
+        try {
+            Integer drifted = jdbcTemplate.queryForObject(sql, Integer.class);
+            if (drifted != null && drifted > 0) {
+                driftCounter.increment(drifted);
+                log.warn("Reconciled {}: {} key(s) had drifted from the base table", rollup, drifted);
+            }
+        } catch (Exception e) {
+            log.error("Statistics reconciliation failed for {}", rollup, e);
+        }
+    }
+
+    private static Map<String, Object> unavailable() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("available", false);
+        stats.put("timestamp", LocalDateTime.now().toString());
+        return stats;
+    }
+
+    private Snapshot load() {
+        Long totalContracts = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contract_document", Long.class);
+        Map<String, Long> contractsByStatus = new TreeMap<>();
+        Map<String, Long> contractsByType = new TreeMap<>();
+        long managedContracts = 0;
+        for (Map<String, Object> row : jdbcTemplate.queryForList(
+                "SELECT contract_type, status, SUM(contract_count) AS contract_count "
+                        + "FROM contract_stats_rollup GROUP BY contract_type, status")) {
+            long count = ((Number) row.get("contract_count")).longValue();
+            if (count != 0) {
+                contractsByStatus.merge((String) row.get("status"), count, Long::sum);
+                contractsByType.merge((String) row.get("contract_type"), count, Long::sum);
+                managedContracts += count;
+            }
+        }
+
+        Map<String, Long> analysesByStatus = new TreeMap<>();
+        Map<String, Long> completedByRiskLevel = new TreeMap<>();
+        long processingTimeSum = 0;
+        long processingTimeCount = 0;
+        for (Map<String, Object> row : jdbcTemplate.queryForList(
+                "SELECT status, risk_level, analysis_count, processing_time_sum, processing_time_count "
+                        + "FROM analysis_stats_rollup WHERE analysis_count <> 0")) {
+            String status = (String) row.get("status");
+            long count = ((Number) row.get("analysis_count")).longValue();
+            analysesByStatus.merge(status, count, Long::sum);
+            if ("COMPLETED".equals(status)) {
+                completedByRiskLevel.merge((String) row.get("risk_level"), count, Long::sum);
+                processingTimeSum += ((Number) row.get("processing_time_sum")).longValue();
+                processingTimeCount += ((Number) row.get("processing_time_count")).longValue();
+            }
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("available", true);
+        stats.put("totalContracts", totalContracts != null ? totalContracts : 0L);
+        stats.put("managedContracts", managedContracts);
+        stats.put("managedContractsByStatus", Collections.unmodifiableMap(contractsByStatus));
+        stats.put("managedContractsByType", Collections.unmodifiableMap(contractsByType));
+        stats.put("analysesByStatus", Collections.unmodifiableMap(analysesByStatus));
+        stats.put("riskLevels", Collections.unmodifiableMap(completedByRiskLevel));
+        if (processingTimeCount > 0) {
+            stats.put("averageProcessingTimeMs", (double) processingTimeSum / processingTimeCount);
+        }
+        stats.put("timestamp", LocalDateTime.now().toString());
+        return new Snapshot(Collections.unmodifiableMap(stats), System.nanoTime());
+    }
+
+    private record Snapshot(Map<String, Object> statistics, long loadedAt) {
+    }
+}
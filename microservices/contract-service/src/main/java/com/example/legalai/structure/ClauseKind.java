@@ -0,0 +1,13 @@
+package com.example.legalai.structure;
+
+public enum ClauseKind {
+    /** Text before the first heading: title, parties, recitals. */
+    PREAMBLE,
+    SCHEDULE,
+    /** Part or chapter grouping articles ("Part II", "第三章", "第一节"). */
+    PART,
+    ARTICLE,
+    SECTION,
+    SUBCLAUSE,
+    DEFINITION
+}
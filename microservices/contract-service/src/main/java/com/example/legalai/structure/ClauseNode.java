@@ -0,0 +1,21 @@
+package com.example.legalai.structure;
+
+import java.util.List;
+
+/**
+ * One node of a contract's clause tree. Offsets are UTF-16 character indexes into the
+ * contract text, as used by Java and JavaScript strings, so they can drive highlighting
+ * directly.
+ *
+ * @param label    normalised number or defined term ("4.2", "article 7", "(a)", "Affiliate")
+ * @param title    rest of the heading line, or {@code null}
+ * @param start    offset of the heading's first character
+ * @param end      exclusive end of the last non-blank line of the node, including its children
+ */
+public record ClauseNode(ClauseKind kind, String label, String title, int start, int end,
+                         List<ClauseNode> children) {
+
+    public ClauseNode withoutChildren() {
+        return new ClauseNode(kind, label, title, start, end, List.of());
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.legalai.structure;
+
+import java.util.List;
+
+/**
+ * Clause tree of a contract document's current text.
+ *
+ * @param contractId    id of the {@code contract_document}
+ * @param contentHash   SHA-256 of the text the tree was parsed from
+ * @param parserVersion {@link ClauseTreeParser#VERSION} that produced it
+ */
+public record ClauseTree(long contractId, String contentHash, int parserVersion, int nodeCount,
+                         List<ClauseNode> clauses) {
+}
@@ -0,0 +1,324 @@
+package com.example.legalai.structure;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds a {@link ClauseNode} tree from contract text in one pass over its lines.
+ *
+ * <p>Each heading gets a rank: schedules highest, then parts and chapters, articles,
+ * sections, deeper decimal numbers, and finally parenthesised items. A heading closes every
+ * open node of the same or a lower rank and becomes a child of whatever is left open, so the
+ * stack of open nodes is the path from the root to the current clause. Parenthesised items
+ * have no fixed rank: an item in a numbering style that is already open ({@code (b)} after
+ * {@code (a)}) is its sibling, a new style opens a deeper level. Definitions nest under the
+ * current clause and close at the next definition.
+ *
+ * <p>Every line is matched once against anchored patterns and each node is pushed and popped
+ * once, so parsing is linear in the length of the text.
+ */
+public final class ClauseTreeParser {
+
+    /** Bump when the parsing rules change, so stored trees are rebuilt. */
+    public static final int VERSION = 1;
+
+    private static final String CN_NUMBER = "[一二三四五六七八九十百千零〇\\d]+";
+
+    private static final Pattern HEADING = Pattern.compile(
+            "[ \\t\\u3000]*(?:"
+                    + "(?<schedule>(?:schedule|appendix|annex|exhibit)\\s+[\\w.]+|附[件表]" + CN_NUMBER + ")"
+                    + "|(?<part>(?:part|chapter)\\s+[\\w.]+|第" + CN_NUMBER + "章)"
+                    + "|(?<division>第" + CN_NUMBER + "节)"
+                    + "|(?<article>(?:article|clause)\\s+[\\w.]+|第" + CN_NUMBER + "条|[一二三四五六七八九十百]{1,4}、)"
+                    + "|(?<section>section\\s+[\\w.]+)"
+                    + "|(?<decimal>\\d{1,3}(?:\\.\\d{1,3})+\\.?|\\d{1,3}\\.)"
+                    + "|(?<item>[(（](?:[a-z]{1,2}|[ivxlc]{1,6}|\\d{1,3}|[一二三四五六七八九十]{1,3})[)）])"
+                    + ")(?:(?<=[条章节、一二三四五六七八九十百千零〇)）])|(?=[\\s.:：,，\\-–—]|$))",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+    private static final Pattern DEFINITION = Pattern.compile(
+            "[ \\t\\u3000]*(?:[(（][a-z0-9]{1,4}[)）]\\s*)?[\"“「]([^\"”」\\n]{1,80})[\"”」]\\s*,?\\s*"
+                    + "(?:(?:shall\\s+)?means?\\b|(?:shall\\s+have|has)\\s+the\\s+meaning|includes?\\b"
+                    + "|refers?\\s+to|是指|系指|指)",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+    private static final Pattern ROMAN = Pattern.compile("[ivxlcdm]+");
+
+    private static final int SCHEDULE_RANK = 0;
+    private static final int PART_RANK = 10;
+    private static final int DIVISION_RANK = 15;
+    private static final int ARTICLE_RANK = 20;
+    // A bare "1." nests under a named "Article 1" but above "1.1"
+    private static final int NUMBERED_ARTICLE_RANK = 25;
+    private static final int SECTION_RANK = 30;
+    private static final int ITEM_RANK = 100;
+    private static final int MAX_TITLE_LENGTH = 120;
+
+    private enum Style { LETTER, ROMAN, DIGIT, CHINESE }
+
+    private ClauseTreeParser() {
+    }
+
+    public static List<ClauseNode> parse(String text) {
+        List<Builder> roots = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        Deque<Builder> open = new ArrayDeque<>();
+        Matcher heading = HEADING.matcher(text);
+        Matcher definition = DEFINITION.matcher(text);
+        Builder preamble = null;
+        int lastContentEnd = 0;
+        int lineStart = 0;
+
+        while (lineStart < text.length()) {
+            int newline = text.indexOf('\n', lineStart);
+            int lineEnd = newline < 0 ? text.length() : newline;
+            int contentStart = lineStart;
+            while (contentStart < lineEnd && Character.isWhitespace(text.charAt(contentStart))) {
+                contentStart++;
+            }
+            if (contentStart < lineEnd) {
+                int contentEnd = lineEnd;
+                while (Character.isWhitespace(text.charAt(contentEnd - 1))) {
+                    contentEnd--;
+                }
+                Builder node = null;
+                if (definition.region(lineStart, lineEnd).lookingAt()) {
+                    node = new Builder(ClauseKind.DEFINITION, definition.group(1).strip(), null, contentStart);
+                    closeDefinition(open, lastContentEnd);
+                    node.rank = open.isEmpty() ? 5 : open.peek().rank + 5;
+                } else if (heading.region(lineStart, lineEnd).lookingAt()) {
+                    node = heading(heading, text, contentStart, contentEnd, open);
+                    while (!open.isEmpty() && open.peek().rank >= node.rank) {
+                        open.pop().end = lastContentEnd;
+                    }
+                }
+
+                if (node != null) {
+                    if (preamble != null && preamble.end < 0) {
+                        preamble.end = lastContentEnd;
+                    }
+                    (open.isEmpty() ? roots : open.peek().children).add(node);
+                    open.push(node);
+                } else if (open.isEmpty() && roots.isEmpty()) {
+                    preamble = new Builder(ClauseKind.PREAMBLE, null, null, contentStart);
+                    roots.add(preamble);
+                }
+                lastContentEnd = contentEnd;
+            }
+            lineStart = newline < 0 ? text.length() : newline + 1;
+        }
+
+        while (!open.isEmpty()) {
+            open.pop().end = lastContentEnd;
+        }
+        if (preamble != null && preamble.end < 0) {
+            preamble.end = lastContentEnd;
+        }
+        List<ClauseNode> nodes = new ArrayList<>(roots.size());
+        for (Builder root : roots) {
+            nodes.add(root.build());
+        }
+        return nodes;
+    }
+
+    /** Closes the innermost open definition and everything nested in it. */
+    private static void closeDefinition(Deque<Builder> open, int end) {
+        for (Builder node : open) {
+            if (node.kind == ClauseKind.DEFINITION) {
+                Builder closed;
+                do {
+                    closed = open.pop();
+                    closed.end = end;
+                } while (closed != node);
+                return;
+            }
+            if (node.style == null) {
+                return;
+            }
+        }
+    }
+
+    private static Builder heading(Matcher heading, String text, int start, int contentEnd, Deque<Builder> open) {
+        String title = title(text, heading.end(), contentEnd);
+        String token;
+        if ((token = heading.group("schedule")) != null) {
+            return ranked(ClauseKind.SCHEDULE, token, title, start, SCHEDULE_RANK);
+        }
+        if ((token = heading.group("part")) != null) {
+            return ranked(ClauseKind.PART, token, title, start, PART_RANK);
+        }
+        if ((token = heading.group("division")) != null) {
+            return ranked(ClauseKind.PART, token, title, start, DIVISION_RANK);
+        }
+        if ((token = heading.group("article")) != null) {
+            return ranked(ClauseKind.ARTICLE, token, title, start, ARTICLE_RANK);
+        }
+        if ((token = heading.group("section")) != null) {
+            return ranked(ClauseKind.SECTION, token, title, start, SECTION_RANK);
+        }
+        if ((token = heading.group("decimal")) != null) {
+            String label = normaliseLabel(token);
+            int depth = 1;
+            for (int i = 0; i < label.length(); i++) {
+                if (label.charAt(i) == '.') {
+                    depth++;
+                }
+            }
+            ClauseKind kind = depth == 1 ? ClauseKind.ARTICLE : depth == 2 ? ClauseKind.SECTION : ClauseKind.SUBCLAUSE;
+            return ranked(kind, token, title, start, depth == 1 ? NUMBERED_ARTICLE_RANK : 10 + 10 * depth);
+        }
+        return item(heading.group("item"), title, start, open);
+    }
+
+    private static Builder item(String token, String title, int start, Deque<Builder> open) {
+        String label = "(" + token.substring(1, token.length() - 1).toLowerCase(Locale.ROOT) + ")";
+        Style style = style(label.substring(1, label.length() - 1), open);
+        Builder node = new Builder(ClauseKind.SUBCLAUSE, label, title, start);
+        node.style = style;
+        for (Builder openNode : open) {
+            if (openNode.style == null) {
+                break;
+            }
+            if (openNode.style == style) {
+                node.rank = openNode.rank;
+                return node;
+            }
+        }
+        node.rank = open.isEmpty() ? ITEM_RANK : Math.max(ITEM_RANK, open.peek().rank + 1);
+        return node;
+    }
+
+    /**
+     * Numbering style of an item. Single letters that are also roman numerals ("i", "v",
+     * "x") continue an open letter list when they follow its last letter, continue an open
+     * roman list otherwise, and start a roman list only as "i".
+     */
+    private static Style style(String value, Deque<Builder> open) {
+        char first = value.charAt(0);
+        if (first >= '0' && first <= '9') {
+            return Style.DIGIT;
+        }
+        if (first > 0x7f) {
+            return Style.CHINESE;
+        }
+        if (!ROMAN.matcher(value).matches()) {
+            return Style.LETTER;
+        }
+        if (value.length() > 1) {
+            return Style.ROMAN;
+        }
+        boolean romanOpen = false;
+        for (Builder openNode : open) {
+            if (openNode.style == null) {
+                break;
+            }
+            if (openNode.style == Style.LETTER && openNode.label.charAt(1) == first - 1) {
+                return Style.LETTER;
+            }
+            romanOpen |= openNode.style == Style.ROMAN;
+        }
+        return romanOpen || first == 'i' ? Style.ROMAN : Style.LETTER;
+    }
+
+    private static Builder ranked(ClauseKind kind, String token, String title, int start, int rank) {
+        Builder node = new Builder(kind, normaliseLabel(token), title, start);
+        node.rank = rank;
+        return node;
+    }
+
+    private static String normaliseLabel(String token) {
+        String label = token.strip().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        return label.endsWith(".") || label.endsWith("、") ? label.substring(0, label.length() - 1) : label;
+    }
+
+    private static String title(String text, int from, int to) {
+        int start = from;
+        while (start < to && (Character.isWhitespace(text.charAt(start)) || ".:：,，-–—".indexOf(text.charAt(start)) >= 0)) {
+            start++;
+        }
+        if (start >= to) {
+            return null;
+        }
+        return to - start > MAX_TITLE_LENGTH
+                ? text.substring(start, start + MAX_TITLE_LENGTH).stripTrailing() + "…"
+                : text.substring(start, to);
+    }
+
+    /**
+     * The nodes containing {@code offset}, outermost first, found by binary search on each
+     * level's start offsets. Empty when the offset lies between clauses.
+     */
+    public static List<ClauseNode> path(List<ClauseNode> roots, int offset) {
+        List<ClauseNode> path = new ArrayList<>();
+        List<ClauseNode> level = roots;
+        while (!level.isEmpty()) {
+            int low = 0;
+            int high = level.size() - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (level.get(mid).start() <= offset) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            if (found < 0 || offset >= level.get(found).end()) {
+                break;
+            }
+            ClauseNode node = level.get(found);
+            path.add(node);
+            level = node.children();
+        }
+        return path;
+    }
+
+    public static int count(List<ClauseNode> nodes) {
+        int count = 0;
+        Deque<List<ClauseNode>> pending = new ArrayDeque<>();
+        pending.push(nodes);
+        while (!pending.isEmpty()) {
+            for (ClauseNode node : pending.pop()) {
+                count++;
+                if (!node.children().isEmpty()) {
+                    pending.push(node.children());
+                }
+            }
+        }
+        return count;
+    }
+
+    private static final class Builder {
+        final ClauseKind kind;
+        final String label;
+        final String title;
+        final int start;
+        final List<Builder> children = new ArrayList<>();
+        int end = -1;
+        int rank;
+        Style style;
+
+        Builder(ClauseKind kind, String label, String title, int start) {
+            this.kind = kind;
+            this.label = label;
+            this.title = title;
+            this.start = start;
+        }
+
+        ClauseNode build() {
+            List<ClauseNode> built = new ArrayList<>(children.size());
+            for (Builder child : children) {
+                built.add(child.build());
+            }
+            return new ClauseNode(kind, label, title, start, end, built);
+        }
+    }
+}
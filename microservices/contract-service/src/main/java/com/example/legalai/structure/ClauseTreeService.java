@@ -0,0 +1,127 @@
+package com.example.legalai.structure;
+
+import com.example.legalai.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores the {@link ClauseTreeParser} tree of each contract document in
+ * {@code contract_document_clause_trees}.
+ *
+ * <p>Trees are built on first read. A read compares the stored hash and parser version with
+ * a hash of {@code contract_document.content} computed in the database, so a fresh tree is
+ * returned without transferring the text, and a document whose text changed is re-parsed
+ * once.
+ */
+@Slf4j
+@Service
+public class ClauseTreeService {
+
+    private static final TypeReference<List<ClauseNode>> NODES = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Timer parseTimer;
+
+    public ClauseTreeService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.parseTimer = Timer.builder("contract.clause.parse")
+                .description("Time to parse a contract text into its clause tree")
+                .register(meterRegistry);
+    }
+
+    @Transactional
+    public ClauseTree getTree(long documentId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("""
+                SELECT encode(sha256(convert_to(COALESCE(d.content, ''), 'UTF8')), 'hex') AS current_hash,
+                       t.content_hash, t.parser_version, t.node_count, t.tree::text AS tree
+                FROM contract_document d LEFT JOIN contract_document_clause_trees t ON t.document_id = d.id
+                WHERE d.id = ?
+                """, documentId);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Contract", "id", documentId);
+        }
+        Map<String, Object> row = rows.get(0);
+        String currentHash = (String) row.get("current_hash");
+        Number parserVersion = (Number) row.get("parser_version");
+        if (currentHash.equals(row.get("content_hash")) && parserVersion != null
+                && parserVersion.intValue() == ClauseTreeParser.VERSION) {
+            return new ClauseTree(documentId, currentHash, ClauseTreeParser.VERSION,
+                    ((Number) row.get("node_count")).intValue(), read((String) row.get("tree")));
+        }
+
+        String content = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(content, '') FROM contract_document WHERE id = ?", String.class, documentId);
+        log.debug("Rebuilding clause tree of contract document {}", documentId);
+        return store(documentId, content);
+    }
+
+    private ClauseTree store(long documentId, String content) {
+        List<ClauseNode> nodes = parseTimer.record(() -> ClauseTreeParser.parse(content));
+        ClauseTree tree = new ClauseTree(documentId, sha256(content), ClauseTreeParser.VERSION,
+                ClauseTreeParser.count(nodes), nodes);
+        jdbcTemplate.update("""
+                INSERT INTO contract_document_clause_trees (document_id, content_hash, parser_version, node_count, tree)
+                VALUES (?, ?, ?, ?, ?::jsonb)
+                ON CONFLICT (document_id) DO UPDATE SET content_hash = EXCLUDED.content_hash,
+                    parser_version = EXCLUDED.parser_version, node_count = EXCLUDED.node_count,
+                    tree = EXCLUDED.tree, updated_at = CURRENT_TIMESTAMP
+                """, documentId, tree.contentHash(), tree.parserVersion(), tree.nodeCount(), write(nodes));
+        return tree;
+    }
+
+    /** Removes the tree of a deleted document. */
+    @Transactional
+    public void delete(long documentId) {
+        jdbcTemplate.update("DELETE FROM contract_document_clause_trees WHERE document_id = ?", documentId);
+    }
+
+    /** Innermost-last path of clauses containing {@code offset}, without their children. */
+    @Transactional
+    public List<ClauseNode> locate(long documentId, int offset) {
+        return ClauseTreeParser.path(getTree(documentId).clauses(), offset).stream()
+                .map(ClauseNode::withoutChildren)
+                .toList();
+    }
+
+    private List<ClauseNode> read(String json) {
+        try {
+            return objectMapper.readValue(json, NODES);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored clause tree is not valid JSON", e);
+        }
+    }
+
+    private String write(List<ClauseNode> nodes) {
+        try {
+            return objectMapper.writeValueAsString(nodes);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise clause tree", e);
+        }
+    }
+
+    static String sha256(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
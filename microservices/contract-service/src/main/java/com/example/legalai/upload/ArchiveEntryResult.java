@@ -0,0 +1,73 @@
+package com.example.legalai.upload;
+
+/**
+ * Progress of one file of an archive upload. Updated from extraction threads while the
+ * upload runs, so every field is volatile.
+ */
+public class ArchiveEntryResult {
+
+    public enum Status {
+        QUEUED,
+        EXTRACTED,
+        SAVED,
+        SKIPPED,
+        FAILED
+    }
+
+    private final String name;
+    private volatile long size;
+    private volatile Status status = Status.QUEUED;
+    private volatile boolean duplicate;
+    private volatile Long documentId;
+    private volatile String error;
+
+    ArchiveEntryResult(String name) {
+        this.name = name;
+    }
+
+    void extracted(long size, boolean duplicate) {
+        this.size = size;
+        this.duplicate = duplicate;
+        this.status = Status.EXTRACTED;
+    }
+
+    void saved(Long documentId) {
+        this.documentId = documentId;
+        this.status = Status.SAVED;
+    }
+
+    void skipped(String reason) {
+        this.error = reason;
+        this.status = Status.SKIPPED;
+    }
+
+    void failed(String reason) {
+        this.error = reason;
+        this.status = Status.FAILED;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /** Whether the text came from an earlier extraction of identical bytes. */
+    public boolean isDuplicate() {
+        return duplicate;
+    }
+
+    public Long getDocumentId() {
+        return documentId;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
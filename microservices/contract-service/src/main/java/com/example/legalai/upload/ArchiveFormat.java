@@ -0,0 +1,56 @@
+package com.example.legalai.upload;
+
+import com.example.legalai.exception.BusinessException;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.springframework.http.HttpStatus;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+public enum ArchiveFormat {
+    ZIP,
+    TAR,
+    TAR_GZ;
+
+    /** Opens a forward-only reader over {@code in}; nothing is buffered beyond the current entry. */
+    public ArchiveInputStream open(InputStream in) throws IOException {
+        InputStream buffered = new BufferedInputStream(in, 64 * 1024);
+        return switch (this) {
+            // Stored entries with data descriptors are common in ZIPs written by streaming tools
+            case ZIP -> new ZipArchiveInputStream(buffered, StandardCharsets.UTF_8.name(), true, true);
+            case TAR -> new TarArchiveInputStream(buffered);
+            case TAR_GZ -> new TarArchiveInputStream(new GzipCompressorInputStream(buffered));
+        };
+    }
+
+    public static ArchiveFormat from(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "zip" -> ZIP;
+            case "tar" -> TAR;
+            case "tar.gz", "tgz", "tar_gz" -> TAR_GZ;
+            default -> throw new BusinessException("UNSUPPORTED_ARCHIVE_FORMAT",
+                    "Unsupported archive format: " + value, HttpStatus.BAD_REQUEST);
+        };
+    }
+
+    public static ArchiveFormat fromContentType(String contentType) {
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("application/zip") || type.startsWith("application/x-zip-compressed")) {
+            return ZIP;
+        }
+        if (type.startsWith("application/x-tar")) {
+            return TAR;
+        }
+        if (type.startsWith("application/gzip") || type.startsWith("application/x-gzip")) {
+            return TAR_GZ;
+        }
+        throw new BusinessException("UNSUPPORTED_ARCHIVE_FORMAT",
+                "Unsupported archive content type: " + contentType, HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+    }
+}
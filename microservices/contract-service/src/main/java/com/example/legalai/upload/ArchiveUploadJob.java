@@ -0,0 +1,121 @@
+package com.example.legalai.upload;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Progress and outcome of one archive upload, safe to read while the upload is running.
+ * Per-file results are kept for every entry the upload looked at.
+ */
+public class ArchiveUploadJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String source;
+    private final ArchiveFormat format;
+    private final Instant startedAt = Instant.now();
+    private final List<ArchiveEntryResult> entries = new ArrayList<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant finishedAt;
+    private volatile String failureReason;
+
+    ArchiveUploadJob(String source, ArchiveFormat format) {
+        this.source = source;
+        this.format = format;
+    }
+
+    ArchiveEntryResult addEntry(String name) {
+        ArchiveEntryResult entry = new ArchiveEntryResult(name);
+        synchronized (entries) {
+            entries.add(entry);
+        }
+        return entry;
+    }
+
+    void start() {
+        status = Status.RUNNING;
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(String reason) {
+        finishedAt = Instant.now();
+        failureReason = reason;
+        status = Status.FAILED;
+    }
+
+    private long count(ArchiveEntryResult.Status wanted) {
+        synchronized (entries) {
+            return entries.stream().filter(entry -> entry.getStatus() == wanted).count();
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public ArchiveFormat getFormat() {
+        return format;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public int getTotal() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getSaved() {
+        return count(ArchiveEntryResult.Status.SAVED);
+    }
+
+    public long getSkipped() {
+        return count(ArchiveEntryResult.Status.SKIPPED);
+    }
+
+    public long getFailed() {
+        return count(ArchiveEntryResult.Status.FAILED);
+    }
+
+    /** Queued or extracted but not yet saved. */
+    public long getPending() {
+        return count(ArchiveEntryResult.Status.QUEUED) + count(ArchiveEntryResult.Status.EXTRACTED);
+    }
+
+    public List<ArchiveEntryResult> getEntries() {
+        synchronized (entries) {
+            return List.copyOf(entries);
+        }
+    }
+}
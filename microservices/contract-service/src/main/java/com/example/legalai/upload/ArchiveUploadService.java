@@ -0,0 +1,394 @@
+package com.example.legalai.upload;
+
+import com.example.legalai.exception.BusinessException;
+import com.example.legalai.extraction.ExtractionFormat;
+import com.example.legalai.extraction.ExtractorRegistry;
+import com.example.legalai.model.ContractDocument;
+import com.example.legalai.repository.ContractDocumentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports every supported document in a ZIP or TAR stream as a {@link ContractDocument}.
+ *
+ * <p>The request body is spooled to one temp file, up to {@code archive-upload.max-size}, and
+ * the job is queued on a small worker pool of its own; the request returns as soon as the
+ * body is on disk. At most {@code archive-upload.workers + archive-upload.queue-capacity}
+ * archives are accepted at once, further ones are refused with 429 before their body is read.
+ * A worker reads the archive forward-only. Each entry is spooled to its own temp file while
+ * being hashed, so the archive is never held in memory or unpacked as a whole. Its format is
+ * then sniffed from the spooled bytes by the {@link ExtractorRegistry}, so entries are
+ * recognised whatever their names, and supported ones are handed to
+ * {@link ContractUploadService#extract}. That call reuses stored text for files seen before
+ * and otherwise extracts on the extraction pool of the entry's format. At most
+ * {@code archive-upload.parallelism} entries of one archive are in extraction at a time,
+ * which bounds its temp-file footprint. When the pool answers 429 the entry is retried with
+ * backoff instead of failing, so an archive upload yields to interactive uploads rather than
+ * being refused by them. Extracted documents are saved in batches of
+ * {@code archive-upload.batch-size}, one transaction per batch.
+ */
+@Slf4j
+@Service
+public class ArchiveUploadService implements DisposableBean {
+
+    private static final long MAX_BACKOFF_MILLIS = 1000;
+
+    private final ContractUploadService uploadService;
+    private final ExtractorRegistry extractorRegistry;
+    private final ContractDocumentRepository documentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int parallelism;
+    private final int batchSize;
+    private final int maxEntries;
+    private final long maxEntrySize;
+    private final long submitTimeoutMillis;
+    private final Path tempDir;
+    private final int retainedJobs;
+    private final long maxArchiveSize;
+    private final Semaphore admitted;
+    private final ThreadPoolExecutor workers;
+    private final Map<String, ArchiveUploadJob> jobs = new ConcurrentHashMap<>();
+
+    public ArchiveUploadService(ContractUploadService uploadService,
+                                ExtractorRegistry extractorRegistry,
+                                ContractDocumentRepository documentRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${archive-upload.parallelism:4}") int parallelism,
+                                @Value("${archive-upload.batch-size:50}") int batchSize,
+                                @Value("${archive-upload.max-entries:5000}") int maxEntries,
+                                @Value("${archive-upload.max-entry-size:100MB}") DataSize maxEntrySize,
+                                @Value("${archive-upload.submit-timeout:2m}") Duration submitTimeout,
+                                @Value("${extraction.temp-dir:${java.io.tmpdir}}") Path tempDir,
+                                @Value("${archive-upload.retained-jobs:20}") int retainedJobs,
+                                @Value("${archive-upload.max-size:2GB}") DataSize maxArchiveSize,
+                                @Value("${archive-upload.workers:2}") int workers,
+                                @Value("${archive-upload.queue-capacity:8}") int queueCapacity) {
+        this.uploadService = uploadService;
+        this.extractorRegistry = extractorRegistry;
+        this.documentRepository = documentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.maxEntries = maxEntries;
+        this.maxEntrySize = maxEntrySize.toBytes();
+        this.submitTimeoutMillis = submitTimeout.toMillis();
+        this.tempDir = tempDir;
+        this.retainedJobs = retainedJobs;
+        this.maxArchiveSize = maxArchiveSize.toBytes();
+        this.admitted = new Semaphore(workers + queueCapacity);
+        AtomicInteger threadCount = new AtomicInteger();
+        // Admission is bounded by the semaphore, so the queue never grows past queue-capacity
+        this.workers = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "archive-upload-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.workers.allowCoreThreadTimeOut(true);
+    }
+
+    public Collection<ArchiveUploadJob> getJobs() {
+        return List.copyOf(jobs.values());
+    }
+
+    public Optional<ArchiveUploadJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Spools the archive and queues it, returning the job while it is still {@code QUEUED}.
+     * Progress is visible through {@link #getJob(String)}.
+     *
+     * @throws BusinessException 429 when too many archives are in progress, 413 when the
+     *                           archive is larger than {@code archive-upload.max-size}
+     */
+    public ArchiveUploadJob start(InputStream in, ArchiveFormat format, String source) throws IOException {
+        if (!admitted.tryAcquire()) {
+            throw new BusinessException("ARCHIVE_UPLOADS_BUSY", "Too many archive uploads in progress",
+                    HttpStatus.TOO_MANY_REQUESTS);
+        }
+        Path spooled;
+        try {
+            spooled = Files.createTempFile(tempDir, "archive-upload-", ".part");
+        } catch (IOException | RuntimeException e) {
+            admitted.release();
+            throw e;
+        }
+        ArchiveUploadJob job;
+        try {
+            spoolArchive(in, spooled);
+            job = new ArchiveUploadJob(source, format);
+            workers.execute(() -> {
+                try (InputStream archive = Files.newInputStream(spooled)) {
+                    process(job, archive);
+                } catch (IOException e) {
+                    job.fail(e.getMessage());
+                } finally {
+                    deleteQuietly(spooled);
+                    admitted.release();
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(spooled);
+            admitted.release();
+            throw e;
+        }
+        register(job);
+        log.info("Archive upload {} of {} ({}) queued", job.getId(), source, format);
+        return job;
+    }
+
+    private void spoolArchive(InputStream in, Path target) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long size = 0;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                size += read;
+                if (size > maxArchiveSize) {
+                    throw new BusinessException("ARCHIVE_TOO_LARGE", "Archive is larger than "
+                            + maxArchiveSize + " bytes", HttpStatus.PAYLOAD_TOO_LARGE);
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled archive {}: {}", file, e.getMessage());
+        }
+    }
+
+    /** Reads the whole archive on the calling worker and finishes the job. */
+    private void process(ArchiveUploadJob job, InputStream in) {
+        job.start();
+        log.info("Archive upload {} of {} ({}) started", job.getId(), job.getSource(), job.getFormat());
+        ArchiveFormat format = job.getFormat();
+
+        Semaphore slots = new Semaphore(parallelism);
+        Queue<Extracted> ready = new ConcurrentLinkedQueue<>();
+        try (ArchiveInputStream archive = format.open(in)) {
+            ArchiveEntry entry;
+            while ((entry = archive.getNextEntry()) != null) {
+                if (entry.isDirectory() || isMetadata(entry.getName())) {
+                    continue;
+                }
+                if (job.getTotal() >= maxEntries) {
+                    throw new IllegalStateException("Archive has more than " + maxEntries + " files");
+                }
+                ArchiveEntryResult result = job.addEntry(entry.getName());
+                if (!archive.canReadEntryData(entry)) {
+                    result.failed("Entry uses an unsupported compression method or encryption");
+                    continue;
+                }
+
+                slots.acquire();
+                dispatch(archive, entry.getName(), result, slots, ready);
+                saveReady(ready, false);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Interrupted");
+        } catch (Exception e) {
+            log.error("Archive upload {} failed after {} files", job.getId(), job.getTotal(), e);
+            job.fail(e.getMessage());
+        }
+
+        // Entries already dispatched are still saved when reading the archive failed
+        try {
+            slots.acquire(parallelism);
+            slots.release(parallelism);
+            saveReady(ready, true);
+            if (job.getStatus() == ArchiveUploadJob.Status.RUNNING) {
+                job.complete();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Interrupted");
+        }
+        log.info("Archive upload {} {}: {} files, {} saved, {} skipped, {} failed",
+                job.getId(), job.getStatus(), job.getTotal(), job.getSaved(), job.getSkipped(), job.getFailed());
+    }
+
+    /** Spools the current entry, sniffs its format, then extracts it; always releases its slot. */
+    private void dispatch(InputStream archive, String name, ArchiveEntryResult result,
+                          Semaphore slots, Queue<Extracted> ready) throws IOException, InterruptedException {
+        Path spooled = Files.createTempFile(tempDir, "archive-", ".part");
+        CompletableFuture<ContractUploadService.UploadResult> extraction;
+        try {
+            MessageDigest digest = ContractUploadService.sha256();
+            long size = spool(archive, spooled, digest);
+            Optional<ExtractionFormat> format = extractorRegistry.sniff(new FileSystemResource(spooled), name);
+            if (format.isEmpty()) {
+                Files.deleteIfExists(spooled);
+                result.skipped("Unsupported file type");
+                slots.release();
+                return;
+            }
+            extraction = submit(new FileSystemResource(spooled), name, format.get(),
+                    HexFormat.of().formatHex(digest.digest()), size);
+        } catch (EntryTooLargeException | BusinessException e) {
+            Files.deleteIfExists(spooled);
+            result.failed(e.getMessage());
+            slots.release();
+            return;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            Files.deleteIfExists(spooled);
+            slots.release();
+            throw e;
+        }
+        extraction.whenComplete((extracted, error) -> {
+            try {
+                Files.deleteIfExists(spooled);
+            } catch (IOException e) {
+                log.warn("Could not delete spooled entry {}: {}", spooled, e.getMessage());
+            }
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof BusinessException business
+                        && business.getHttpStatus() == HttpStatus.UNSUPPORTED_MEDIA_TYPE) {
+                    // Sniffed as Word from its container, but another Office format inside
+                    result.skipped("Unsupported file type");
+                } else {
+                    result.failed("Extraction failed: " + cause.getMessage());
+                }
+            } else {
+                result.extracted(extracted.fileSize(), extracted.duplicate());
+                ready.add(new Extracted(result, title(name), extracted.content()));
+            }
+            slots.release();
+        });
+    }
+
+    private long spool(InputStream entry, Path target, MessageDigest digest) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long size = 0;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = entry.read(buffer)) > 0) {
+                size += read;
+                if (size > maxEntrySize) {
+                    throw new EntryTooLargeException("File is larger than " + maxEntrySize + " bytes");
+                }
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+        }
+        return size;
+    }
+
+    /** Retries while the extraction pool is full, up to {@code archive-upload.submit-timeout}. */
+    private CompletableFuture<ContractUploadService.UploadResult> submit(FileSystemResource source, String name,
+                                                                        ExtractionFormat format, String hash,
+                                                                        long size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + submitTimeoutMillis;
+        long backoff = 20;
+        while (true) {
+            try {
+                return uploadService.extract(source, name, format, hash, size);
+            } catch (BusinessException e) {
+                if (e.getHttpStatus() != HttpStatus.TOO_MANY_REQUESTS || System.currentTimeMillis() >= deadline) {
+                    throw e;
+                }
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    private void saveReady(Queue<Extracted> ready, boolean flush) {
+        while (ready.size() >= batchSize || (flush && !ready.isEmpty())) {
+            List<Extracted> batch = new ArrayList<>(batchSize);
+            Extracted next;
+            while (batch.size() < batchSize && (next = ready.poll()) != null) {
+                batch.add(next);
+            }
+            List<ContractDocument> documents = new ArrayList<>(batch.size());
+            for (Extracted extracted : batch) {
+                ContractDocument document = new ContractDocument();
+                document.setTitle(extracted.title());
+                document.setContent(extracted.content());
+                documents.add(document);
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> documentRepository.saveAll(documents));
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).result().saved(documents.get(i).getId());
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to save a batch of {} archive documents", batch.size(), e);
+                batch.forEach(extracted -> extracted.result().failed("Save failed: " + e.getMessage()));
+            }
+        }
+    }
+
+    private static boolean isMetadata(String name) {
+        String fileName = name.substring(name.lastIndexOf('/') + 1);
+        return name.startsWith("__MACOSX/") || fileName.startsWith("._") || fileName.startsWith(".");
+    }
+
+    private static String title(String name) {
+        String fileName = name.substring(name.lastIndexOf('/') + 1);
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    private void register(ArchiveUploadJob job) {
+        jobs.put(job.getId(), job);
+        if (jobs.size() > retainedJobs) {
+            jobs.values().stream()
+                    .filter(existing -> existing.getFinishedAt() != null)
+                    .min((a, b) -> a.getStartedAt().compareTo(b.getStartedAt()))
+                    .ifPresent(oldest -> jobs.remove(oldest.getId()));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdownNow();
+    }
+
+    private record Extracted(ArchiveEntryResult result, String title, String content) {
+    }
+
+    private static final class EntryTooLargeException extends IOException {
+        EntryTooLargeException(String message) {
+            super(message);
+        }
+    }
+}
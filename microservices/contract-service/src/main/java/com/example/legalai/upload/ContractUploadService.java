@@ -0,0 +1,181 @@
+package com.example.legalai.upload;
+
+import com.example.legalai.exception.BusinessException;
+import com.example.legalai.extraction.ExtractionExecutor;
+import com.example.legalai.extraction.ExtractionFormat;
+import com.example.legalai.extraction.ExtractorRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Upload text extraction deduplicated by content hash.
+ *
+ * <p>The multipart upload, which the container already holds in memory or in its own temp
+ * file, is read up to three times: its first bytes to sniff the format, the whole of it to
+ * compute its SHA-256, and, for a file not seen before, once more to spool it to
+ * {@code extraction.temp-dir} for the extractor. The hash is looked up in
+ * {@code file_extractions}. Known files return the stored text without being parsed again.
+ * Analyses are not reused: uploads become {@code contract_document} rows, which record
+ * neither the file hash nor an owner, so no analysis can be traced back to a file or safely
+ * shared with another uploader. Only unknown files are
+ * extracted, on the {@link ExtractionExecutor}, and concurrent uploads of the same new file
+ * share one extraction. The format is sniffed from the content by the
+ * {@link ExtractorRegistry}; the file name is only a hint.
+ */
+@Slf4j
+@Service
+public class ContractUploadService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExtractorRegistry extractorRegistry;
+    private final ExtractionExecutor extractionExecutor;
+    private final Path tempDir;
+    private final Counter hits;
+    private final Counter misses;
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    public ContractUploadService(JdbcTemplate jdbcTemplate, ExtractorRegistry extractorRegistry,
+                                 ExtractionExecutor extractionExecutor, MeterRegistry meterRegistry,
+                                 @Value("${extraction.temp-dir:${java.io.tmpdir}}") Path tempDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.extractorRegistry = extractorRegistry;
+        this.extractionExecutor = extractionExecutor;
+        this.tempDir = tempDir;
+        this.hits = uploadCounter(meterRegistry, "duplicate");
+        this.misses = uploadCounter(meterRegistry, "extracted");
+    }
+
+    private static Counter uploadCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("contract.upload")
+                .description("Uploaded files by whether their text had to be extracted")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hashes the upload on the calling thread and answers known files immediately; new files
+     * are extracted on the {@link ExtractionExecutor}, so the returned future may complete on
+     * one of its threads.
+     *
+     * @throws BusinessException 415 for unsupported types, 429 when extraction is saturated
+     */
+    public CompletableFuture<UploadResult> upload(MultipartFile file) throws IOException {
+        String fileName = file.getOriginalFilename();
+        ExtractionFormat format = extractorRegistry.sniff(file, fileName)
+                .orElseThrow(() -> new BusinessException("UNSUPPORTED_FILE_TYPE",
+                        "Unsupported document format", HttpStatus.UNSUPPORTED_MEDIA_TYPE));
+        return extract(file, fileName, format, hash(file), file.getSize());
+    }
+
+    /**
+     * Returns the text of a file whose SHA-256 is already known: stored text for known files,
+     * otherwise a shared or new extraction of {@code source} on the {@link ExtractionExecutor}.
+     *
+     * @throws BusinessException 429 when extraction is saturated
+     */
+    public CompletableFuture<UploadResult> extract(InputStreamSource source, String fileName, ExtractionFormat format,
+                                                   String fileHash, long fileSize) {
+        List<String> known = jdbcTemplate.queryForList("""
+                UPDATE file_extractions SET upload_count = upload_count + 1, last_uploaded_at = CURRENT_TIMESTAMP
+                WHERE file_hash = ? RETURNING extracted_text
+                """, String.class, fileHash);
+        if (!known.isEmpty()) {
+            hits.increment();
+            return CompletableFuture.completedFuture(
+                    new UploadResult(fileHash, fileSize, true, known.get(0)));
+        }
+
+        CompletableFuture<String> extraction = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(fileHash, extraction);
+        if (existing != null) {
+            hits.increment();
+            return existing.thenApply(text -> new UploadResult(fileHash, fileSize, true, text));
+        }
+        try {
+            extractionExecutor.submit(format, () -> extractAndStore(source, fileName, format, fileHash, fileSize))
+                    .whenComplete((text, error) -> {
+                        inFlight.remove(fileHash, extraction);
+                        if (error != null) {
+                            extraction.completeExceptionally(error);
+                        } else {
+                            extraction.complete(text);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            inFlight.remove(fileHash, extraction);
+            extraction.completeExceptionally(e);
+            throw e;
+        }
+        return extraction.thenApply(text -> new UploadResult(fileHash, fileSize, false, text));
+    }
+
+    private String extractAndStore(InputStreamSource source, String fileName, ExtractionFormat format,
+                                   String fileHash, long fileSize) throws IOException {
+        String text;
+        if (source instanceof FileSystemResource file) {
+            // Already on disk (archive entries): extract in place, no second copy
+            text = extractorRegistry.extract(file.getFile().toPath(), format);
+        } else {
+            Path spooled = Files.createTempFile(tempDir, "upload-", ".part");
+            try {
+                try (InputStream in = source.getInputStream()) {
+                    Files.copy(in, spooled, StandardCopyOption.REPLACE_EXISTING);
+                }
+                text = extractorRegistry.extract(spooled, format);
+            } finally {
+                Files.deleteIfExists(spooled);
+            }
+        }
+        jdbcTemplate.update("""
+                INSERT INTO file_extractions (file_hash, file_size, file_name, extracted_text)
+                VALUES (?, ?, ?, ?)
+                ON CONFLICT (file_hash) DO UPDATE SET upload_count = file_extractions.upload_count + 1,
+                    last_uploaded_at = CURRENT_TIMESTAMP
+                """, fileHash, fileSize, fileName, text);
+        misses.increment();
+        return text;
+    }
+
+    static String hash(MultipartFile file) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = file.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record UploadResult(String fileHash, long fileSize, boolean duplicate, String content) {
+    }
+}
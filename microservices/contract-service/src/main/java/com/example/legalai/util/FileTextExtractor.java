@@ -6,6 +6,7 @@ import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.io.InputStream;
 
 public class FileTextExtractor {
@@ -13,23 +14,36 @@ public class FileTextExtractor {
     public static String extractText(MultipartFile file) {
         try {
             String filename = file.getOriginalFilename();
-            InputStream inputStream = file.getInputStream();
-
-            if (filename != null && filename.toLowerCase().endsWith(".pdf")) {
-                try (PDDocument document = PDDocument.load(inputStream)) {
-                    PDFTextStripper stripper = new PDFTextStripper();
-                    return stripper.getText(document);
-                }
-            } else if (filename != null && filename.toLowerCase().endsWith(".docx")) {
-                try (XWPFDocument doc = new XWPFDocument(inputStream)) {
-                    XWPFWordExtractor extractor = new XWPFWordExtractor(doc);
-                    return extractor.getText();
-                }
-            } else {
+            if (!isSupported(filename)) {
                 return "❌ Unsupported file type.";
             }
+            return extractText(file.getInputStream(), filename);
         } catch (Exception e) {
             return "❌ Failed to extract text: " + e.getMessage();
         }
     }
+
+    public static boolean isSupported(String filename) {
+        return filename != null
+                && (filename.toLowerCase().endsWith(".pdf") || filename.toLowerCase().endsWith(".docx"));
+    }
+
+    /**
+     * Extracts text from a PDF or DOCX stream, chosen by file name. Unlike
+     * {@link #extractText(MultipartFile)} failures are thrown rather than returned as text.
+     */
+    public static String extractText(InputStream inputStream, String filename) throws IOException {
+        if (filename != null && filename.toLowerCase().endsWith(".pdf")) {
+            try (PDDocument document = PDDocument.load(inputStream)) {
+                PDFTextStripper stripper = new PDFTextStripper();
+                return stripper.getText(document);
+            }
+        } else if (filename != null && filename.toLowerCase().endsWith(".docx")) {
+            try (XWPFDocument doc = new XWPFDocument(inputStream);
+                 XWPFWordExtractor extractor = new XWPFWordExtractor(doc)) {
+                return extractor.getText();
+            }
+        }
+        throw new IllegalArgumentException("Unsupported file type: " + filename);
+    }
 }
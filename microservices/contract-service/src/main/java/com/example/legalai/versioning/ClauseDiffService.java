@@ -0,0 +1,39 @@
+package com.example.legalai.versioning;
+
+import com.example.legalai.diff.ClauseDiffResult;
+import com.example.legalai.diff.ClauseDiffer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Clause-level redline between two versions of a contract. Stored versions never change,
+ * so results are cached per version pair for as long as {@code cache.clause-diffs.ttl}.
+ */
+@Service
+public class ClauseDiffService {
+
+    public static final String CACHE = "contract-clause-diffs";
+
+    private final ContractVersionService versionService;
+    private final Timer diffTimer;
+
+    public ClauseDiffService(ContractVersionService versionService, MeterRegistry meterRegistry) {
+        this.versionService = versionService;
+        this.diffTimer = Timer.builder("contract.clause.diff")
+                .description("Time to align and diff two contract versions, excluding reconstruction")
+                .register(meterRegistry);
+    }
+
+    @Cacheable(value = CACHE, key = "#contractId + ':' + #fromVersion + ':' + #toVersion")
+    public ClauseDiffResult diff(long contractId, int fromVersion, int toVersion) {
+        String from = versionService.getContent(contractId, fromVersion);
+        String to = versionService.getContent(contractId, toVersion);
+        ClauseDiffResult result = diffTimer.record(() -> ClauseDiffer.diff(from, to));
+        result.setContractId(contractId);
+        result.setFromVersion(fromVersion);
+        result.setToVersion(toVersion);
+        return result;
+    }
+}
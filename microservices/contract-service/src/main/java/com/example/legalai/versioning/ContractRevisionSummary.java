@@ -0,0 +1,18 @@
+package com.example.legalai.versioning;
+
+import java.time.LocalDateTime;
+
+/**
+ * Revision metadata as returned by the history API; never carries the text itself.
+ */
+public record ContractRevisionSummary(int version,
+                                      boolean snapshot,
+                                      int contentLength,
+                                      String contentHash,
+                                      int linesAdded,
+                                      int linesRemoved,
+                                      long storedBytes,
+                                      Long authorId,
+                                      String comment,
+                                      LocalDateTime createdAt) {
+}
@@ -0,0 +1,10 @@
+package com.example.legalai.versioning;
+
+import java.util.List;
+
+public record ContractVersionDiff(long contractId, int fromVersion, int toVersion, List<Change> changes) {
+
+    /** Lines removed at {@code fromLine} and added at {@code toLine}; both 1-based. */
+    public record Change(int fromLine, List<String> removed, int toLine, List<String> added) {
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.legalai.versioning;
+
+import com.example.legalai.diff.MyersDiff;
+import com.example.legalai.diff.TextLines;
+import com.example.legalai.exception.BusinessException;
+import com.example.legalai.exception.ResourceNotFoundException;
+import com.example.legalai.model.Contract;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contract version history stored as snapshots plus line deltas (see V10 migration).
+ *
+ * <p>Each new revision is stored as a {@link TextDelta} against its predecessor. A full
+ * snapshot is added when {@code versions.snapshot-interval} revisions have passed since the
+ * last one, or when the delta is larger than {@code versions.snapshot-ratio} of the text.
+ * Reading a version therefore means one snapshot plus a bounded number of deltas. The
+ * current text also stays in {@code contracts.content}, so ordinary reads never touch this
+ * table. History and adjacent-version diffs are served from metadata and deltas only.
+ */
+@Slf4j
+@Service
+public class ContractVersionService {
+
+    private static final String SUMMARY_COLUMNS = """
+        version, snapshot IS NOT NULL AS is_snapshot, content_length, content_hash, lines_added, lines_removed,
+        COALESCE(octet_length(snapshot), 0) + COALESCE(octet_length(delta), 0) AS stored_bytes,
+        author_id, comment, created_at
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int snapshotInterval;
+    private final double snapshotRatio;
+    private final DistributionSummary storedBytes;
+
+    public ContractVersionService(JdbcTemplate jdbcTemplate,
+                                  EntityManagerFactory entityManagerFactory,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${versions.snapshot-interval:10}") int snapshotInterval,
+                                  @Value("${versions.snapshot-ratio:0.5}") double snapshotRatio) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.snapshotInterval = snapshotInterval;
+        this.snapshotRatio = snapshotRatio;
+        this.storedBytes = DistributionSummary.builder("contract.revision.stored.bytes")
+                .description("Bytes stored per contract revision")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records {@code content} as the next version of the contract and makes it current.
+     */
+    @Transactional
+    public ContractRevisionSummary addVersion(long contractId, String content, Long authorId, String comment) {
+        if (content == null || content.isEmpty()) {
+            throw new BusinessException("EMPTY_CONTENT", "Version content must not be empty", HttpStatus.BAD_REQUEST);
+        }
+        // Row lock serialises concurrent edits of one contract
+        List<Map<String, Object>> current = jdbcTemplate.queryForList(
+                "SELECT content, version FROM contracts WHERE id = ? AND is_deleted = FALSE FOR UPDATE",
+                contractId);
+        if (current.isEmpty()) {
+            throw new ResourceNotFoundException("Contract", "id", contractId);
+        }
+        String currentContent = (String) current.get(0).get("content");
+
+        List<Map<String, Object>> latestRows = jdbcTemplate.queryForList("""
+                SELECT version, content_hash,
+                       (SELECT MAX(version) FROM contract_revisions s
+                        WHERE s.contract_id = r.contract_id AND s.snapshot IS NOT NULL) AS snapshot_version
+                FROM contract_revisions r WHERE contract_id = ? ORDER BY version DESC LIMIT 1
+                """, contractId);
+
+        int version;
+        String previous;
+        int lastSnapshot;
+        if (latestRows.isEmpty()) {
+            // First tracked change: the current text becomes the baseline snapshot under the
+            // contract's own version number, so numbering continues from it
+            Number currentVersion = (Number) current.get(0).get("version");
+            int baseline = currentVersion != null ? currentVersion.intValue() : 1;
+            insertRevision(contractId, baseline, currentContent, true, null, 0, 0, null, null);
+            version = baseline + 1;
+            previous = currentContent;
+            lastSnapshot = baseline;
+        } else {
+            Map<String, Object> latest = latestRows.get(0);
+            int latestVersion = ((Number) latest.get("version")).intValue();
+            version = latestVersion + 1;
+            lastSnapshot = ((Number) latest.get("snapshot_version")).intValue();
+            // contracts.content is normally the latest revision; if it was changed outside the
+            // version history, diff against the recorded revision to keep the chain valid
+            previous = sha256(currentContent).equals(latest.get("content_hash"))
+                    ? currentContent : reconstruct(contractId, latestVersion);
+        }
+
+        byte[] delta = TextDelta.encode(previous, content);
+        int[] lineCounts = countChanges(delta);
+        boolean snapshot = version - lastSnapshot >= snapshotInterval
+                || delta.length > snapshotRatio * content.getBytes(StandardCharsets.UTF_8).length;
+        insertRevision(contractId, version, content, snapshot, delta, lineCounts[0], lineCounts[1], authorId, comment);
+
+        jdbcTemplate.update("UPDATE contracts SET content = ?, version = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?",
+                content, version, contractId);
+        // The row changed behind Hibernate's back
+        entityManagerFactory.getCache().evict(Contract.class, contractId);
+
+        return getHistory(contractId).stream()
+                .filter(revision -> revision.version() == version)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Transactional(readOnly = true)
+    public List<ContractRevisionSummary> getHistory(long contractId) {
+        return jdbcTemplate.query("SELECT " + SUMMARY_COLUMNS
+                        + " FROM contract_revisions WHERE contract_id = ? ORDER BY version DESC",
+                (rs, rowNum) -> new ContractRevisionSummary(
+                        rs.getInt("version"),
+                        rs.getBoolean("is_snapshot"),
+                        rs.getInt("content_length"),
+                        rs.getString("content_hash"),
+                        rs.getInt("lines_added"),
+                        rs.getInt("lines_removed"),
+                        rs.getLong("stored_bytes"),
+                        rs.getObject("author_id", Long.class),
+                        rs.getString("comment"),
+                        rs.getTimestamp("created_at").toLocalDateTime()),
+                contractId);
+    }
+
+    @Transactional(readOnly = true)
+    public String getContent(long contractId, int version) {
+        return reconstruct(contractId, version);
+    }
+
+    /**
+     * Changes between two versions. Adjacent versions are answered from the stored delta
+     * alone; anything else reconstructs both texts and diffs them.
+     */
+    @Transactional(readOnly = true)
+    public ContractVersionDiff diff(long contractId, int fromVersion, int toVersion) {
+        if (toVersion == fromVersion + 1) {
+            List<byte[]> deltas = jdbcTemplate.query(
+                    "SELECT delta FROM contract_revisions WHERE contract_id = ? AND version = ?",
+                    (rs, rowNum) -> rs.getBytes(1), contractId, toVersion);
+            if (!deltas.isEmpty() && deltas.get(0) != null) {
+                List<ContractVersionDiff.Change> changes = new ArrayList<>();
+                for (TextDelta.Hunk hunk : TextDelta.hunks(deltas.get(0))) {
+                    changes.add(new ContractVersionDiff.Change(hunk.baseLine(), hunk.removed(),
+                            hunk.targetLine(), hunk.added()));
+                }
+                return new ContractVersionDiff(contractId, fromVersion, toVersion, changes);
+            }
+        }
+        List<String> from = TextLines.split(reconstruct(contractId, fromVersion));
+        List<String> to = TextLines.split(reconstruct(contractId, toVersion));
+        return new ContractVersionDiff(contractId, fromVersion, toVersion, toChanges(from, to));
+    }
+
+    static List<ContractVersionDiff.Change> toChanges(List<String> from, List<String> to) {
+        List<ContractVersionDiff.Change> changes = new ArrayList<>();
+        List<MyersDiff.Edit> edits = MyersDiff.diff(from, to);
+        for (int i = 0; i < edits.size(); i++) {
+            MyersDiff.Edit edit = edits.get(i);
+            if (edit.operation() == MyersDiff.Operation.EQUAL) {
+                continue;
+            }
+            // A delete directly followed by an insert is one replacement
+            MyersDiff.Edit next = i + 1 < edits.size() ? edits.get(i + 1) : null;
+            if (edit.operation() == MyersDiff.Operation.DELETE && next != null
+                    && next.operation() == MyersDiff.Operation.INSERT) {
+                changes.add(new ContractVersionDiff.Change(edit.aStart() + 1, from.subList(edit.aStart(), edit.aEnd()),
+                        next.bStart() + 1, to.subList(next.bStart(), next.bEnd())));
+                i++;
+            } else if (edit.operation() == MyersDiff.Operation.DELETE) {
+                changes.add(new ContractVersionDiff.Change(edit.aStart() + 1, from.subList(edit.aStart(), edit.aEnd()),
+                        edit.bStart() + 1, List.of()));
+            } else {
+                changes.add(new ContractVersionDiff.Change(edit.aStart() + 1, List.of(),
+                        edit.bStart() + 1, to.subList(edit.bStart(), edit.bEnd())));
+            }
+        }
+        return changes;
+    }
+
+    private String reconstruct(long contractId, int version) {
+        StringBuilder[] text = {null};
+        String[] expectedHash = {null};
+        jdbcTemplate.query("""
+                SELECT version, snapshot, snapshot_encoding, delta, content_hash FROM contract_revisions
+                WHERE contract_id = ? AND version <= ?
+                  AND version >= (SELECT MAX(version) FROM contract_revisions
+                                  WHERE contract_id = ? AND version <= ? AND snapshot IS NOT NULL)
+                ORDER BY version
+                """, rs -> {
+                    String current;
+                    if (text[0] == null) {
+                        byte[] snapshot = rs.getBytes("snapshot");
+                        current = "PLAIN".equals(rs.getString("snapshot_encoding"))
+                                ? new String(snapshot, StandardCharsets.UTF_8) : TextDelta.decompress(snapshot);
+                    } else {
+                        current = TextDelta.apply(text[0].toString(), rs.getBytes("delta"));
+                    }
+                    text[0] = new StringBuilder(current);
+                    expectedHash[0] = rs.getString("content_hash");
+                }, contractId, version, contractId, version);
+
+        if (text[0] == null) {
+            throw new ResourceNotFoundException("Contract version", "version", contractId + "/" + version);
+        }
+        String content = text[0].toString();
+        if (!sha256(content).equals(expectedHash[0])) {
+            throw new IllegalStateException("Reconstructed version " + version + " of contract " + contractId
+                    + " does not match its recorded hash");
+        }
+        return content;
+    }
+
+    private void insertRevision(long contractId, int version, String content, boolean snapshot, byte[] delta,
+                                int linesAdded, int linesRemoved, Long authorId, String comment) {
+        byte[] snapshotBytes = snapshot ? TextDelta.compress(content) : null;
+        jdbcTemplate.update("""
+                INSERT INTO contract_revisions (contract_id, version, snapshot, snapshot_encoding, delta,
+                    content_length, content_hash, lines_added, lines_removed, author_id, comment, created_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """,
+                contractId, version, snapshotBytes, snapshot ? "DEFLATE" : null, delta,
+                content.codePointCount(0, content.length()), sha256(content), linesAdded, linesRemoved,
+                authorId, comment, new Timestamp(System.currentTimeMillis()));
+        storedBytes.record((snapshotBytes != null ? snapshotBytes.length : 0) + (delta != null ? delta.length : 0));
+    }
+
+    private static int[] countChanges(byte[] delta) {
+        int added = 0;
+        int removed = 0;
+        for (TextDelta.Hunk hunk : TextDelta.hunks(delta)) {
+            added += hunk.added().size();
+            removed += hunk.removed().size();
+        }
+        return new int[] {added, removed};
+    }
+
+    static String sha256(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
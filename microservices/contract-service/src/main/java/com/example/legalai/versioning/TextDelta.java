@@ -0,0 +1,230 @@
+package com.example.legalai.versioning;
+
+import com.example.legalai.diff.MyersDiff;
+import com.example.legalai.diff.TextLines;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Line-based delta between two versions of a text, stored deflate-compressed.
+ *
+ * <p>The delta is a sequence of COPY (n lines unchanged), DELETE (the removed lines) and
+ * INSERT (the added lines) operations against the previous version. Removed lines are
+ * stored, not just counted. That makes a delta reversible and lets the history API show a
+ * version's changes from the delta alone. It also lets {@link #apply} check that it is
+ * being applied to the base it was computed from.
+ */
+final class TextDelta {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int COPY = 0;
+    private static final int DELETE = 1;
+    private static final int INSERT = 2;
+    private static final int END = 0xFF;
+
+    /** A contiguous change: lines removed at {@code baseLine} and added at {@code targetLine} (1-based). */
+    record Hunk(int baseLine, List<String> removed, int targetLine, List<String> added) {
+    }
+
+    private TextDelta() {
+    }
+
+    static byte[] encode(String base, String target) {
+        List<String> baseLines = TextLines.split(base);
+        List<String> targetLines = TextLines.split(target);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            out.writeByte(FORMAT_VERSION);
+            for (MyersDiff.Edit edit : MyersDiff.diff(baseLines, targetLines)) {
+                switch (edit.operation()) {
+                    case EQUAL -> {
+                        out.writeByte(COPY);
+                        writeVarInt(out, edit.aLength());
+                    }
+                    case DELETE -> writeLines(out, DELETE, baseLines.subList(edit.aStart(), edit.aEnd()));
+                    case INSERT -> writeLines(out, INSERT, targetLines.subList(edit.bStart(), edit.bEnd()));
+                }
+            }
+            out.writeByte(END);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            // A caller-supplied Deflater is not ended by the stream; release its native memory
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    static String apply(String base, byte[] delta) {
+        List<String> baseLines = TextLines.split(base);
+        StringBuilder target = new StringBuilder(base.length());
+        int position = 0;
+        try (DataInputStream in = open(delta)) {
+            int op;
+            while ((op = in.readUnsignedByte()) != END) {
+                int count = readVarInt(in);
+                if (position + (op == INSERT ? 0 : count) > baseLines.size()) {
+                    throw new IllegalStateException("Delta runs past the end of its base text");
+                }
+                if (op == COPY) {
+                    for (int i = 0; i < count; i++) {
+                        target.append(baseLines.get(position++));
+                    }
+                } else if (op == DELETE) {
+                    for (int i = 0; i < count; i++) {
+                        if (!readLine(in).equals(baseLines.get(position++))) {
+                            throw new IllegalStateException("Delta does not match its base text");
+                        }
+                    }
+                } else if (op == INSERT) {
+                    for (int i = 0; i < count; i++) {
+                        target.append(readLine(in));
+                    }
+                } else {
+                    throw new IllegalStateException("Unknown delta operation " + op);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (position != baseLines.size()) {
+            throw new IllegalStateException("Delta does not cover its whole base text");
+        }
+        return target.toString();
+    }
+
+    /** Decodes the changes a delta describes without needing either full text. */
+    static List<Hunk> hunks(byte[] delta) {
+        List<Hunk> hunks = new ArrayList<>();
+        int baseLine = 1;
+        int targetLine = 1;
+        List<String> removed = new ArrayList<>();
+        List<String> added = new ArrayList<>();
+        int hunkBase = 1;
+        int hunkTarget = 1;
+        try (DataInputStream in = open(delta)) {
+            int op;
+            while ((op = in.readUnsignedByte()) != END) {
+                int count = readVarInt(in);
+                if (op == COPY) {
+                    if (!removed.isEmpty() || !added.isEmpty()) {
+                        hunks.add(new Hunk(hunkBase, List.copyOf(removed), hunkTarget, List.copyOf(added)));
+                        removed.clear();
+                        added.clear();
+                    }
+                    baseLine += count;
+                    targetLine += count;
+                    continue;
+                }
+                if (removed.isEmpty() && added.isEmpty()) {
+                    hunkBase = baseLine;
+                    hunkTarget = targetLine;
+                }
+                for (int i = 0; i < count; i++) {
+                    if (op == DELETE) {
+                        removed.add(readLine(in));
+                        baseLine++;
+                    } else {
+                        added.add(readLine(in));
+                        targetLine++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!removed.isEmpty() || !added.isEmpty()) {
+            hunks.add(new Hunk(hunkBase, List.copyOf(removed), hunkTarget, List.copyOf(added)));
+        }
+        return hunks;
+    }
+
+    static byte[] compress(String text) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, text.length() / 3));
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bytes, deflater)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    static String decompress(byte[] data) {
+        Inflater inflater = new Inflater(true);
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(data), inflater)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static DataInputStream open(byte[] delta) throws IOException {
+        Inflater inflater = new Inflater(true);
+        DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(delta), inflater) {
+            @Override
+            public void close() throws IOException {
+                super.close();
+                inflater.end();
+            }
+        });
+        int format = in.readUnsignedByte();
+        if (format != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported delta format " + format);
+        }
+        return in;
+    }
+
+    private static void writeLines(DataOutputStream out, int op, List<String> lines) throws IOException {
+        out.writeByte(op);
+        writeVarInt(out, lines.size());
+        for (String line : lines) {
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readLine(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in delta");
+    }
+}
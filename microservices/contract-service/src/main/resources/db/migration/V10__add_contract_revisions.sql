@@ -0,0 +1,44 @@
+-- Version history stored as periodic snapshots plus line deltas.
+-- Every revision after the first carries a delta against its predecessor; every
+-- versions.snapshot-interval revisions (or when a delta is nearly as large as the text)
+-- the full text is stored as well, so reconstruction replays a bounded number of deltas.
+CREATE TABLE contract_revisions (
+    id BIGSERIAL PRIMARY KEY,
+    contract_id BIGINT NOT NULL,
+    version INTEGER NOT NULL,
+    snapshot BYTEA,
+    -- DEFLATE for snapshots written by the service, PLAIN for rows backfilled below
+    snapshot_encoding VARCHAR(10),
+    delta BYTEA,
+    content_length INTEGER NOT NULL,
+    content_hash VARCHAR(64) NOT NULL,
+    lines_added INTEGER NOT NULL DEFAULT 0,
+    lines_removed INTEGER NOT NULL DEFAULT 0,
+    author_id BIGINT,
+    comment VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_contract_revisions_contract FOREIGN KEY (contract_id) REFERENCES contracts(id) ON DELETE CASCADE,
+    CONSTRAINT fk_contract_revisions_author FOREIGN KEY (author_id) REFERENCES users(id),
+    CONSTRAINT uk_contract_revisions_version UNIQUE (contract_id, version),
+    CONSTRAINT chk_revision_has_body CHECK (snapshot IS NOT NULL OR delta IS NOT NULL),
+    CONSTRAINT chk_revision_encoding CHECK (snapshot IS NULL OR snapshot_encoding IN ('DEFLATE', 'PLAIN'))
+);
+
+-- Finds the nearest snapshot at or below a version
+CREATE INDEX idx_contract_revisions_snapshots ON contract_revisions(contract_id, version) WHERE snapshot IS NOT NULL;
+
+-- Bodies are already deflated; skip TOAST's own compression attempt
+ALTER TABLE contract_revisions ALTER COLUMN snapshot SET STORAGE EXTERNAL;
+ALTER TABLE contract_revisions ALTER COLUMN delta SET STORAGE EXTERNAL;
+
+-- Existing versions become plain snapshots under their root contract
+INSERT INTO contract_revisions (contract_id, version, snapshot, snapshot_encoding, content_length, content_hash, created_at)
+SELECT COALESCE(parent_contract_id, id),
+       COALESCE(version, 1),
+       convert_to(content, 'UTF8'),
+       'PLAIN',
+       length(content),
+       encode(sha256(convert_to(content, 'UTF8')), 'hex'),
+       created_at
+FROM contracts
+ON CONFLICT (contract_id, version) DO NOTHING;
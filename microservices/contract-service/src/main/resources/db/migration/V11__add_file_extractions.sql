@@ -0,0 +1,11 @@
+-- Extracted text of uploaded files keyed by SHA-256 of the file bytes, so an identical
+-- upload costs one hash pass and an indexed lookup instead of another extraction.
+CREATE TABLE file_extractions (
+    file_hash VARCHAR(64) PRIMARY KEY,
+    file_size BIGINT NOT NULL,
+    file_name VARCHAR(255),
+    extracted_text TEXT NOT NULL,
+    upload_count BIGINT NOT NULL DEFAULT 1,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_uploaded_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
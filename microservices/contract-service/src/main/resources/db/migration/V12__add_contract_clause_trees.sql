@@ -0,0 +1,14 @@
+-- Clause tree of each contract document's current text (articles, sections, items,
+-- definitions, schedules with character offsets), so consumers address clauses without
+-- re-parsing. A row is valid while content_hash matches the document text and
+-- parser_version the running parser; stale rows are rebuilt on read.
+-- contract_document is not created by these migrations, so document_id carries no foreign
+-- key; ContractService removes a document's tree when it deletes the document.
+CREATE TABLE contract_document_clause_trees (
+    document_id BIGINT PRIMARY KEY,
+    content_hash VARCHAR(64) NOT NULL,
+    parser_version INTEGER NOT NULL,
+    node_count INTEGER NOT NULL,
+    tree JSONB NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,21 @@
+-- Risk results of analysed clauses, keyed by fingerprints of their normalised text, so a
+-- clause already seen in any contract is not sent to the model again.
+-- Near-duplicates are found through bands: LSH keys of the MinHash signature, any one of
+-- which is shared by similar clauses with high probability.
+-- Rows are only valid for the prompt_version that produced them.
+CREATE TABLE clause_library (
+    id BIGSERIAL PRIMARY KEY,
+    prompt_version INTEGER NOT NULL,
+    exact_hash VARCHAR(64) NOT NULL,
+    normalized_text TEXT NOT NULL,
+    numbers TEXT NOT NULL,
+    signature BYTEA NOT NULL,
+    bands BIGINT[] NOT NULL,
+    findings JSONB NOT NULL,
+    hit_count BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_hit_at TIMESTAMP,
+    CONSTRAINT uk_clause_library_hash UNIQUE (prompt_version, exact_hash)
+);
+
+CREATE INDEX idx_clause_library_bands ON clause_library USING GIN (bands);
@@ -0,0 +1,37 @@
+-- MinHash signatures of contract texts with their LSH band keys, so near-duplicate
+-- contracts are found through the GIN index on bands instead of pairwise comparison.
+CREATE TABLE contract_signatures (
+    contract_id BIGINT PRIMARY KEY,
+    signature BYTEA NOT NULL,
+    bands BIGINT[] NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_contract_signatures_contract FOREIGN KEY (contract_id) REFERENCES contracts(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_contract_signatures_bands ON contract_signatures USING GIN (bands);
+
+-- Contracts whose signature is missing or stale. Every write path (JPA, JDBC, COPY import)
+-- goes through the trigger below; the service drains the queue in the background.
+CREATE TABLE contract_signature_queue (
+    contract_id BIGINT PRIMARY KEY,
+    queued_at TIMESTAMP NOT NULL DEFAULT clock_timestamp(),
+    CONSTRAINT fk_contract_signature_queue_contract FOREIGN KEY (contract_id) REFERENCES contracts(id) ON DELETE CASCADE
+);
+
+CREATE OR REPLACE FUNCTION queue_contract_signature()
+RETURNS TRIGGER AS $$
+BEGIN
+    -- queued_at moves on a repeated change, so an indexer that read older text keeps the row
+    INSERT INTO contract_signature_queue (contract_id) VALUES (NEW.id)
+    ON CONFLICT (contract_id) DO UPDATE SET queued_at = EXCLUDED.queued_at;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_contract_signature
+    AFTER INSERT OR UPDATE OF content ON contracts
+    FOR EACH ROW EXECUTE FUNCTION queue_contract_signature();
+
+-- Existing contracts are indexed by the first runs of the service
+INSERT INTO contract_signature_queue (contract_id)
+SELECT id FROM contracts WHERE NOT COALESCE(is_deleted, FALSE);
@@ -0,0 +1,45 @@
+-- A partition cannot be created for a month that already has rows in the DEFAULT partition:
+-- Postgres rejects it because those rows would then belong to two partitions. Rows land in
+-- DEFAULT when maintenance falls behind, so create_monthly_partition now builds the month
+-- as a standalone table, moves the month's rows out of DEFAULT into it and attaches it, all
+-- in the caller's transaction.
+CREATE OR REPLACE FUNCTION create_monthly_partition(parent_table TEXT, month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    range_start DATE := date_trunc('month', month_start)::DATE;
+    range_end DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := format('%s_p%s', parent_table, to_char(range_start, 'YYYYMM'));
+    default_name TEXT := parent_table || '_default';
+    moved BIGINT;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+    IF to_regclass(default_name) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, parent_table, range_start, range_end);
+        RETURN partition_name;
+    END IF;
+
+    -- The check constraint lets ATTACH skip re-validating the moved rows
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                   partition_name, parent_table);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (created_at >= %L AND created_at < %L)',
+                   partition_name, partition_name || '_range', range_start, range_end);
+    EXECUTE format('WITH moved AS (DELETE FROM %I WHERE created_at >= %L AND created_at < %L RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved',
+                   default_name, range_start, range_end, partition_name);
+    GET DIAGNOSTICS moved = ROW_COUNT;
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   parent_table, partition_name, range_start, range_end);
+    EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', partition_name, partition_name || '_range');
+    IF moved > 0 THEN
+        RAISE NOTICE 'Moved % rows of % from % into %', moved, parent_table, default_name, partition_name;
+    END IF;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON CONSTRAINT uk_contract_analyses_analysis_id ON contract_analyses IS
+    'Unique per (analysis_id, created_at) only: a partitioned table cannot enforce analysis_id alone. '
+    'Uniqueness of analysis_id itself relies on it being a freshly generated UUID.';
@@ -0,0 +1,37 @@
+-- V10 backfilled every contracts row as version COALESCE(version, 1) of its root contract with
+-- ON CONFLICT DO NOTHING, so when two rows of one root carried the same version number only
+-- one of them reached contract_revisions. The other rows are still in contracts; this lists
+-- those whose text differs from the revision that was kept, so they can be reviewed.
+-- Backfilled revisions are the only PLAIN snapshots.
+CREATE TABLE contract_revision_backfill_conflicts (
+    contract_id BIGINT PRIMARY KEY,
+    root_contract_id BIGINT NOT NULL,
+    version INTEGER NOT NULL,
+    content_hash VARCHAR(64) NOT NULL,
+    kept_content_hash VARCHAR(64) NOT NULL,
+    detected_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE contract_revision_backfill_conflicts IS
+    'contracts rows whose text V10 did not backfill because their root already had a revision with that version';
+
+INSERT INTO contract_revision_backfill_conflicts (contract_id, root_contract_id, version, content_hash, kept_content_hash)
+SELECT c.id, r.contract_id, r.version, encode(sha256(convert_to(c.content, 'UTF8')), 'hex'), r.content_hash
+FROM contracts c
+JOIN contract_revisions r
+  ON r.contract_id = COALESCE(c.parent_contract_id, c.id)
+ AND r.version = COALESCE(c.version, 1)
+ AND r.snapshot_encoding = 'PLAIN'
+WHERE r.content_hash <> encode(sha256(convert_to(c.content, 'UTF8')), 'hex');
+
+DO $$
+DECLARE
+    conflicts BIGINT;
+BEGIN
+    SELECT COUNT(*) INTO conflicts FROM contract_revision_backfill_conflicts;
+    IF conflicts > 0 THEN
+        RAISE WARNING '% contract version(s) were not backfilled into contract_revisions; see contract_revision_backfill_conflicts',
+            conflicts;
+    END IF;
+END;
+$$;
@@ -0,0 +1,166 @@
+-- Monthly range partitioning for audit_logs and contract_analyses
+-- Primary and unique keys on a partitioned table must include the partition key,
+-- so they become (id, created_at) and (analysis_id, created_at).
+
+-- Partition helpers
+CREATE OR REPLACE FUNCTION create_monthly_partition(parent_table TEXT, month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    range_start DATE := date_trunc('month', month_start)::DATE;
+    range_end DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := format('%s_p%s', parent_table, to_char(range_start, 'YYYYMM'));
+BEGIN
+    IF to_regclass(partition_name) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, parent_table, range_start, range_end);
+    END IF;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Creates partitions from the current month up to months_ahead months in the future
+CREATE OR REPLACE FUNCTION ensure_monthly_partitions(parent_table TEXT, months_ahead INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    created INTEGER := 0;
+    month_offset INTEGER;
+BEGIN
+    FOR month_offset IN 0..months_ahead LOOP
+        PERFORM create_monthly_partition(parent_table,
+            (date_trunc('month', CURRENT_DATE) + make_interval(months => month_offset))::DATE);
+        created := created + 1;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches and drops every monthly partition whose upper bound is older than the retention
+-- window. Retention is enforced per whole month; rows are never deleted individually.
+CREATE OR REPLACE FUNCTION drop_expired_partitions(parent_table TEXT, retention INTERVAL)
+RETURNS INTEGER AS $$
+DECLARE
+    cutoff DATE := (CURRENT_DATE - retention)::DATE;
+    expired RECORD;
+    dropped INTEGER := 0;
+BEGIN
+    FOR expired IN
+        SELECT child.relname AS name
+        FROM pg_inherits
+        JOIN pg_class parent ON pg_inherits.inhparent = parent.oid
+        JOIN pg_class child ON pg_inherits.inhrelid = child.oid
+        WHERE parent.relname = parent_table
+          AND child.relname ~ ('^' || parent_table || '_p[0-9]{6}$')
+          AND (to_date(right(child.relname, 6), 'YYYYMM') + INTERVAL '1 month')::DATE <= cutoff
+    LOOP
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent_table, expired.name);
+        EXECUTE format('DROP TABLE %I', expired.name);
+        dropped := dropped + 1;
+    END LOOP;
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Creates a partition for every month between the oldest row in source_table and months_ahead
+CREATE OR REPLACE FUNCTION create_partitions_for_range(parent_table TEXT, source_table TEXT, months_ahead INTEGER)
+RETURNS void AS $$
+DECLARE
+    oldest DATE;
+    month_cursor DATE;
+BEGIN
+    EXECUTE format('SELECT min(created_at)::DATE FROM %I', source_table) INTO oldest;
+    month_cursor := date_trunc('month', COALESCE(oldest, CURRENT_DATE))::DATE;
+    WHILE month_cursor <= (date_trunc('month', CURRENT_DATE) + make_interval(months => months_ahead))::DATE LOOP
+        PERFORM create_monthly_partition(parent_table, month_cursor);
+        month_cursor := (month_cursor + INTERVAL '1 month')::DATE;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- audit_logs
+ALTER TABLE audit_logs RENAME TO audit_logs_legacy;
+ALTER SEQUENCE audit_logs_id_seq OWNED BY NONE;
+
+CREATE TABLE audit_logs (
+    id BIGINT NOT NULL DEFAULT nextval('audit_logs_id_seq'),
+    entity_type VARCHAR(50) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    action VARCHAR(50) NOT NULL,
+    user_id BIGINT,
+    user_agent TEXT,
+    ip_address VARCHAR(45),
+    old_values TEXT,
+    new_values TEXT,
+    correlation_id VARCHAR(36),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_audit_logs PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_audit_logs_user FOREIGN KEY (user_id) REFERENCES users(id)
+) PARTITION BY RANGE (created_at);
+
+SELECT create_partitions_for_range('audit_logs', 'audit_logs_legacy', 3);
+CREATE TABLE audit_logs_default PARTITION OF audit_logs DEFAULT;
+
+INSERT INTO audit_logs SELECT * FROM audit_logs_legacy;
+DROP TABLE audit_logs_legacy;
+ALTER SEQUENCE audit_logs_id_seq OWNED BY audit_logs.id;
+
+-- Indexes on the parent are created on every current and future partition
+CREATE INDEX idx_audit_entity ON audit_logs(entity_type, entity_id, created_at);
+CREATE INDEX idx_audit_user ON audit_logs(user_id, created_at);
+CREATE INDEX idx_audit_action ON audit_logs(action, created_at);
+CREATE INDEX idx_audit_correlation ON audit_logs(correlation_id);
+CREATE INDEX idx_audit_timestamp ON audit_logs USING brin(created_at);
+
+-- Retention now drops whole partitions instead of deleting rows one by one
+CREATE OR REPLACE FUNCTION cleanup_old_audit_logs()
+RETURNS void AS $$
+BEGIN
+    PERFORM drop_expired_partitions('audit_logs', INTERVAL '1 year');
+END;
+$$ LANGUAGE plpgsql;
+
+-- contract_analyses
+ALTER TABLE contract_analyses RENAME TO contract_analyses_legacy;
+ALTER SEQUENCE contract_analyses_id_seq OWNED BY NONE;
+
+CREATE TABLE contract_analyses (
+    id BIGINT NOT NULL DEFAULT nextval('contract_analyses_id_seq'),
+    analysis_id VARCHAR(36) NOT NULL,
+    contract_id BIGINT NOT NULL,
+    analysis_type VARCHAR(30) NOT NULL,
+    analysis_result TEXT,
+    risk_score DECIMAL(5,2),
+    risk_level VARCHAR(10),
+    identified_risks TEXT,
+    recommendations TEXT,
+    compliance_status BOOLEAN,
+    compliance_violations TEXT,
+    processing_time_ms BIGINT,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    error_message TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP,
+    CONSTRAINT pk_contract_analyses PRIMARY KEY (id, created_at),
+    CONSTRAINT uk_contract_analyses_analysis_id UNIQUE (analysis_id, created_at),
+    CONSTRAINT fk_contract_analyses_contract FOREIGN KEY (contract_id) REFERENCES contracts(id) ON DELETE CASCADE,
+    CONSTRAINT chk_analysis_id_uuid
+        CHECK (analysis_id ~ '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$'),
+    CONSTRAINT chk_risk_score_range
+        CHECK (risk_score IS NULL OR (risk_score >= 0 AND risk_score <= 100))
+) PARTITION BY RANGE (created_at);
+
+SELECT create_partitions_for_range('contract_analyses', 'contract_analyses_legacy', 3);
+CREATE TABLE contract_analyses_default PARTITION OF contract_analyses DEFAULT;
+
+INSERT INTO contract_analyses SELECT * FROM contract_analyses_legacy;
+DROP TABLE contract_analyses_legacy;
+ALTER SEQUENCE contract_analyses_id_seq OWNED BY contract_analyses.id;
+
+CREATE INDEX idx_analysis_contract ON contract_analyses(contract_id, created_at);
+CREATE INDEX idx_analysis_status ON contract_analyses(status, created_at);
+CREATE INDEX idx_analysis_analysis_id ON contract_analyses(analysis_id);
+CREATE INDEX idx_analysis_created_at ON contract_analyses USING brin(created_at);
+
+DROP FUNCTION create_partitions_for_range(TEXT, TEXT, INTEGER);
+
+ANALYZE audit_logs;
+ANALYZE contract_analyses;
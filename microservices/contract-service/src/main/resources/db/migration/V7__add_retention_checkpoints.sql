@@ -0,0 +1,13 @@
+-- Progress of chunked retention jobs, so an interrupted purge resumes where it stopped
+CREATE TABLE retention_checkpoints (
+    job_name VARCHAR(100) PRIMARY KEY,
+    cutoff TIMESTAMP NOT NULL,
+    last_id BIGINT NOT NULL DEFAULT 0,
+    rows_processed BIGINT NOT NULL DEFAULT 0,
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Supports the key-range scan used by the analysis retention job
+CREATE INDEX idx_analysis_retention ON contract_analyses(id, created_at)
+WHERE status IN ('COMPLETED', 'FAILED');
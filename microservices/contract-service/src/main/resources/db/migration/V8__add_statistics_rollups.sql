@@ -0,0 +1,154 @@
+-- Trigger-maintained rollups so statistics never scan contracts or contract_analyses.
+-- Every write adjusts the counter rows of the keys it leaves and enters; the
+-- reconcile_* functions rebuild the rollups from the base tables and report drift.
+
+-- Live (non-deleted) contracts per owner, type and status
+CREATE TABLE contract_stats_rollup (
+    owner_id BIGINT NOT NULL,
+    contract_type VARCHAR(50) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    contract_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_contract_stats_rollup PRIMARY KEY (owner_id, contract_type, status)
+);
+
+-- Analyses per status and risk level, with the sums needed for averages
+CREATE TABLE analysis_stats_rollup (
+    status VARCHAR(20) NOT NULL,
+    risk_level VARCHAR(10) NOT NULL,
+    analysis_count BIGINT NOT NULL DEFAULT 0,
+    processing_time_sum BIGINT NOT NULL DEFAULT 0,
+    processing_time_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_analysis_stats_rollup PRIMARY KEY (status, risk_level)
+);
+
+-- NULL types and risk levels are counted under 'NONE' so they can be part of the key
+CREATE OR REPLACE FUNCTION apply_contract_stats_delta(p_owner BIGINT, p_type VARCHAR, p_status VARCHAR, p_delta INTEGER)
+RETURNS void AS $$
+BEGIN
+    INSERT INTO contract_stats_rollup (owner_id, contract_type, status, contract_count)
+    VALUES (p_owner, COALESCE(p_type, 'NONE'), p_status, p_delta)
+    ON CONFLICT (owner_id, contract_type, status)
+    DO UPDATE SET contract_count = contract_stats_rollup.contract_count + EXCLUDED.contract_count;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION maintain_contract_stats()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') AND NOT COALESCE(OLD.is_deleted, FALSE) THEN
+        PERFORM apply_contract_stats_delta(OLD.owner_id, OLD.contract_type, OLD.status, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NOT COALESCE(NEW.is_deleted, FALSE) THEN
+        PERFORM apply_contract_stats_delta(NEW.owner_id, NEW.contract_type, NEW.status, 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_contract_stats
+    AFTER INSERT OR DELETE OR UPDATE OF owner_id, contract_type, status, is_deleted ON contracts
+    FOR EACH ROW EXECUTE FUNCTION maintain_contract_stats();
+
+CREATE OR REPLACE FUNCTION apply_analysis_stats_delta(p_status VARCHAR, p_risk VARCHAR, p_processing_time BIGINT, p_delta INTEGER)
+RETURNS void AS $$
+BEGIN
+    INSERT INTO analysis_stats_rollup (status, risk_level, analysis_count, processing_time_sum, processing_time_count)
+    VALUES (p_status, COALESCE(p_risk, 'NONE'), p_delta,
+            COALESCE(p_processing_time, 0) * p_delta,
+            CASE WHEN p_processing_time IS NULL THEN 0 ELSE p_delta END)
+    ON CONFLICT (status, risk_level)
+    DO UPDATE SET analysis_count = analysis_stats_rollup.analysis_count + EXCLUDED.analysis_count,
+                  processing_time_sum = analysis_stats_rollup.processing_time_sum + EXCLUDED.processing_time_sum,
+                  processing_time_count = analysis_stats_rollup.processing_time_count + EXCLUDED.processing_time_count;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION maintain_analysis_stats()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM apply_analysis_stats_delta(OLD.status, OLD.risk_level, OLD.processing_time_ms, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM apply_analysis_stats_delta(NEW.status, NEW.risk_level, NEW.processing_time_ms, 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Row triggers on the partitioned parent are cloned onto every partition.
+-- Dropping a whole partition fires no row trigger; reconciliation absorbs that.
+CREATE TRIGGER trg_analysis_stats
+    AFTER INSERT OR DELETE OR UPDATE OF status, risk_level, processing_time_ms ON contract_analyses
+    FOR EACH ROW EXECUTE FUNCTION maintain_analysis_stats();
+
+-- Rebuilds a rollup from its base table and returns how many keys had drifted.
+-- EXCLUSIVE mode waits for in-flight writers and holds off new ones (their triggers
+-- need ROW EXCLUSIVE) so the recount and the swap see the same committed state.
+CREATE OR REPLACE FUNCTION reconcile_contract_stats()
+RETURNS INTEGER AS $$
+DECLARE
+    drifted INTEGER;
+BEGIN
+    LOCK TABLE contract_stats_rollup IN EXCLUSIVE MODE;
+
+    CREATE TEMP TABLE contract_stats_actual ON COMMIT DROP AS
+    SELECT owner_id, COALESCE(contract_type, 'NONE') AS contract_type, status, COUNT(*) AS contract_count
+    FROM contracts
+    WHERE NOT COALESCE(is_deleted, FALSE)
+    GROUP BY 1, 2, 3;
+
+    SELECT COUNT(*) INTO drifted
+    FROM contract_stats_actual a
+    FULL JOIN (SELECT * FROM contract_stats_rollup WHERE contract_count <> 0) r
+      USING (owner_id, contract_type, status)
+    WHERE a.contract_count IS DISTINCT FROM r.contract_count;
+
+    IF drifted > 0 THEN
+        DELETE FROM contract_stats_rollup;
+        INSERT INTO contract_stats_rollup SELECT * FROM contract_stats_actual;
+    ELSE
+        DELETE FROM contract_stats_rollup WHERE contract_count = 0;
+    END IF;
+    DROP TABLE contract_stats_actual;
+    RETURN drifted;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION reconcile_analysis_stats()
+RETURNS INTEGER AS $$
+DECLARE
+    drifted INTEGER;
+BEGIN
+    LOCK TABLE analysis_stats_rollup IN EXCLUSIVE MODE;
+
+    CREATE TEMP TABLE analysis_stats_actual ON COMMIT DROP AS
+    SELECT status, COALESCE(risk_level, 'NONE') AS risk_level,
+           COUNT(*) AS analysis_count,
+           COALESCE(SUM(processing_time_ms), 0) AS processing_time_sum,
+           COUNT(processing_time_ms) AS processing_time_count
+    FROM contract_analyses
+    GROUP BY 1, 2;
+
+    SELECT COUNT(*) INTO drifted
+    FROM analysis_stats_actual a
+    FULL JOIN (SELECT * FROM analysis_stats_rollup WHERE analysis_count <> 0) r
+      USING (status, risk_level)
+    WHERE a.analysis_count IS DISTINCT FROM r.analysis_count
+       OR a.processing_time_sum IS DISTINCT FROM r.processing_time_sum
+       OR a.processing_time_count IS DISTINCT FROM r.processing_time_count;
+
+    IF drifted > 0 THEN
+        DELETE FROM analysis_stats_rollup;
+        INSERT INTO analysis_stats_rollup SELECT * FROM analysis_stats_actual;
+    ELSE
+        DELETE FROM analysis_stats_rollup WHERE analysis_count = 0;
+    END IF;
+    DROP TABLE analysis_stats_actual;
+    RETURN drifted;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Seed from existing rows
+SELECT reconcile_contract_stats();
+SELECT reconcile_analysis_stats();
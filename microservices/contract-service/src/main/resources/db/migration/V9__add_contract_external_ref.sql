@@ -0,0 +1,5 @@
+-- Identifier of a contract in the system it was imported from. Bulk import merges on it,
+-- so re-running an import updates rows instead of duplicating them.
+ALTER TABLE contracts ADD COLUMN external_ref VARCHAR(100);
+
+CREATE UNIQUE INDEX uk_contracts_external_ref ON contracts(external_ref);
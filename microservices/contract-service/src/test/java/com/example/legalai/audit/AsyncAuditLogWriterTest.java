@@ -0,0 +1,93 @@
+package com.example.legalai.audit;
+
+import com.example.legalai.model.AuditLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AsyncAuditLogWriterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private AsyncAuditLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new AsyncAuditLogWriter(jdbcTemplate, mock(PlatformTransactionManager.class), meterRegistry,
+                64, 10, Duration.ofMillis(10), AsyncAuditLogWriter.OverflowPolicy.DROP_NEWEST, Duration.ofMillis(10));
+    }
+
+    @Test
+    void testOversizedValuesAreTruncatedToTheirColumns() throws Exception {
+        PreparedStatement ps = mock(PreparedStatement.class);
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenAnswer(invocation -> {
+            BatchPreparedStatementSetter setter = invocation.getArgument(1);
+            for (int i = 0; i < setter.getBatchSize(); i++) {
+                setter.setValues(ps, i);
+            }
+            return new int[setter.getBatchSize()];
+        });
+
+        writer.start();
+        writer.record(AuditEvent.of("Contract", 1L, AuditLog.AuditAction.UPDATE).toBuilder()
+                .ipAddress("10.0.0.1, ".repeat(10))
+                .correlationId("c".repeat(80))
+                .build());
+        writer.stop();
+
+        verify(ps).setString(6, "10.0.0.1, ".repeat(10).substring(0, 45));
+        verify(ps).setString(9, "c".repeat(36));
+        assertEquals(1.0, written());
+    }
+
+    @Test
+    void testFailedBatchIsRetriedRowByRowSoOnlyBadRowsAreLost() {
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("fk_audit_logs_user"));
+        List<Integer> calls = new ArrayList<>();
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(invocation -> {
+            calls.add(calls.size());
+            if (calls.size() == 3) {
+                throw new DataIntegrityViolationException("fk_audit_logs_user");
+            }
+            return 1;
+        });
+
+        writer.start();
+        for (long id = 1; id <= 5; id++) {
+            writer.record(AuditEvent.of("Contract", id, AuditLog.AuditAction.CREATE));
+        }
+        writer.stop();
+
+        assertEquals(5, calls.size());
+        assertEquals(4.0, written());
+        assertEquals(1.0, meterRegistry.get("audit.writer.events").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    void testTruncateKeepsShortValues() {
+        assertNull(AsyncAuditLogWriter.truncate(null, 5));
+        assertEquals("abc", AsyncAuditLogWriter.truncate("abc", 5));
+        assertEquals("abcde", AsyncAuditLogWriter.truncate("abcdefg", 5));
+    }
+
+    private double written() {
+        return meterRegistry.get("audit.writer.events").tag("outcome", "written").counter().count();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.legalai.cache;
+
+import com.example.legalai.model.ContractDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressingCacheSerializerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CompressingCacheSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        List<CacheCodec> codecs = List.of(JacksonCacheCodec.smile(), JacksonCacheCodec.json());
+        serializer = new CompressingCacheSerializer(codecs.get(0), codecs, 1024, meterRegistry);
+    }
+
+    @Test
+    void testRoundTripContractList() {
+        List<ContractDocument> contracts = contracts(3, "Short clause");
+
+        byte[] bytes = serializer.serialize(contracts);
+        Object restored = serializer.deserialize(bytes);
+
+        assertEquals(CompressingCacheSerializer.MAGIC, bytes[0]);
+        assertInstanceOf(List.class, restored);
+        List<?> list = (List<?>) restored;
+        assertEquals(3, list.size());
+        ContractDocument first = (ContractDocument) list.get(0);
+        assertEquals(0L, first.getId());
+        assertEquals("Contract 0", first.getTitle());
+    }
+
+    @Test
+    void testLargeEntriesAreCompressedAndSmallerThanJson() {
+        List<ContractDocument> contracts = contracts(200, "The Supplier shall indemnify the Customer. ".repeat(20));
+
+        byte[] bytes = serializer.serialize(contracts);
+        byte[] legacy = new GenericJackson2JsonRedisSerializer().serialize(contracts);
+
+        assertEquals(CompressingCacheSerializer.FLAG_LZ4, bytes[2]);
+        assertTrue(bytes.length < legacy.length / 4, "expected compact entry, got " + bytes.length);
+        assertEquals(200, ((List<?>) serializer.deserialize(bytes)).size());
+        assertEquals(1, meterRegistry.get("cache.codec.serialize").timer().count());
+    }
+
+    @Test
+    void testReadsEntriesWrittenByFormerJdkSerializer() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("titles", new ArrayList<>(List.of("Lease", "NDA")));
+        value.put("count", 2L);
+        byte[] legacy = new JdkSerializationRedisSerializer().serialize(value);
+
+        Object restored = serializer.deserialize(legacy);
+
+        assertEquals(value, restored);
+    }
+
+    @Test
+    void testRejectsUnframedEntriesOfOtherFormats() {
+        byte[] json = new GenericJackson2JsonRedisSerializer().serialize(contracts(1, "Other"));
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(json));
+    }
+
+    @Test
+    void testReadsEntriesWrittenWithAnotherRegisteredCodec() {
+        List<CacheCodec> codecs = List.of(JacksonCacheCodec.json(), JacksonCacheCodec.smile());
+        CompressingCacheSerializer jsonWriter = new CompressingCacheSerializer(codecs.get(0), codecs, 1024, meterRegistry);
+
+        byte[] bytes = jsonWriter.serialize(contracts(5, "Clause"));
+
+        assertEquals(5, ((List<?>) serializer.deserialize(bytes)).size());
+    }
+
+    @Test
+    void testNullValues() {
+        assertEquals(0, serializer.serialize(null).length);
+        assertNull(serializer.deserialize(new byte[0]));
+        assertNull(serializer.deserialize(null));
+    }
+
+    private List<ContractDocument> contracts(int count, String content) {
+        List<ContractDocument> contracts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ContractDocument contract = new ContractDocument();
+            contract.setId((long) i);
+            contract.setTitle("Contract " + i);
+            contract.setContent(content);
+            contracts.add(contract);
+        }
+        return contracts;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.legalai.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofSeconds(2).toNanos();
+    private static final long SLOW = Duration.ofSeconds(8).toNanos();
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(meterRegistry, 4, 1, 32, 1.5, 0.2, 0.9, 10, 100);
+    }
+
+    /** Keeps the limiter fully used, finishing one call at a time with the given latency. */
+    private void saturate(int calls, long latencyNanos) {
+        while (limiter.tryAcquire()) {
+        }
+        for (int i = 0; i < calls; i++) {
+            limiter.release(latencyNanos, false);
+            while (limiter.tryAcquire()) {
+            }
+        }
+    }
+
+    @Test
+    void rejectsBeyondTheLimitAndExposesIt() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+
+        assertEquals(4.0, meterRegistry.get("contract.llm.concurrency.limit").gauge().value());
+        assertEquals(4.0, meterRegistry.get("contract.llm.concurrency.in.flight").gauge().value());
+        assertEquals(1.0, meterRegistry.get("contract.llm.concurrency.rejected").counter().count());
+    }
+
+    @Test
+    void growsWhileLatencyHoldsAndShrinksWhenItRises() {
+        saturate(100, FAST);
+        int grown = limiter.limit();
+        assertTrue(grown > 16, "limit should grow under steady latency, was " + grown);
+
+        saturate(30, SLOW);
+        assertTrue(limiter.limit() < grown / 2, "limit should shrink when latency quadruples, was " + limiter.limit());
+    }
+
+    @Test
+    void doesNotGrowWhileMostlyIdle() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST, false);
+        }
+
+        assertEquals(4, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void backsOffOnFailuresDownToTheMinimum() {
+        saturate(50, FAST);
+        int before = limiter.limit();
+
+        limiter.release(SLOW, true);
+        assertEquals((int) (before * 0.9), limiter.limit(), 1);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(SLOW, true);
+        }
+        assertEquals(1, limiter.limit());
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.legalai.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportAsyncTimeoutInterceptorTest {
+
+    private final ExportAsyncTimeoutInterceptor interceptor = new ExportAsyncTimeoutInterceptor(Duration.ofMinutes(10));
+
+    private long timeoutAfterInterceptor(String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setAsyncSupported(true);
+        StandardServletAsyncWebRequest asyncRequest = new StandardServletAsyncWebRequest(request, new MockHttpServletResponse());
+        asyncRequest.setTimeout(30_000L);
+
+        interceptor.beforeConcurrentHandling(asyncRequest, () -> null);
+        asyncRequest.startAsync();
+        return request.getAsyncContext().getTimeout();
+    }
+
+    @Test
+    void testExportEndpointsGetTheExportTimeout() throws Exception {
+        assertEquals(600_000L, timeoutAfterInterceptor("/api/contracts/42/export"));
+        assertEquals(600_000L, timeoutAfterInterceptor("/api/contracts/export"));
+    }
+
+    @Test
+    void testOtherEndpointsKeepTheDefaultTimeout() throws Exception {
+        assertEquals(30_000L, timeoutAfterInterceptor("/api/contracts/42/analyze"));
+        assertEquals(30_000L, timeoutAfterInterceptor("/api/contracts/42/export/status"));
+    }
+}
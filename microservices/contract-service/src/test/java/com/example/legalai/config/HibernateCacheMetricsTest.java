@@ -0,0 +1,44 @@
+package com.example.legalai.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.autoconfigure.metrics.orm.jpa.HibernateMetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HibernateCacheMetricsTest {
+
+    @Test
+    void testSecondLevelCacheStatisticsArePublishedAsMeters() {
+        Statistics statistics = mock(Statistics.class);
+        when(statistics.isStatisticsEnabled()).thenReturn(true);
+        when(statistics.getQueryCacheHitCount()).thenReturn(7L);
+        when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[]{"com.example.legalai.model.User"});
+        CacheRegionStatistics region = mock(CacheRegionStatistics.class);
+        when(region.getHitCount()).thenReturn(42L);
+        when(statistics.getDomainDataRegionStatistics("com.example.legalai.model.User")).thenReturn(region);
+        SessionFactory sessionFactory = mock(SessionFactory.class, RETURNS_DEEP_STUBS);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(sessionFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(HibernateMetricsAutoConfiguration.class))
+                .withBean(SimpleMeterRegistry.class)
+                .withBean("entityManagerFactory", EntityManagerFactory.class, () -> sessionFactory)
+                .run(context -> {
+                    MeterRegistry registry = context.getBean(MeterRegistry.class);
+                    assertEquals(42.0, registry.get("hibernate.second.level.cache.requests")
+                            .tags("region", "com.example.legalai.model.User", "result", "hit").functionCounter().count());
+                    assertEquals(7.0, registry.get("hibernate.cache.query.requests")
+                            .tag("result", "hit").functionCounter().count());
+                });
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.legalai.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReplicaRoutingDataSource routing;
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (routing != null) {
+            routing.close();
+        }
+    }
+
+    @Test
+    void testWritesAlwaysGoToPrimary() throws Exception {
+        routing = create(replica("replica-0", 0), replica("replica-1", 0));
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testReadOnlyTransactionsRoundRobinAcrossReplicas() throws Exception {
+        routing = create(replica("replica-0", 0), replica("replica-1", 0));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Set<Object> keys = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            keys.add(routing.determineCurrentLookupKey());
+        }
+
+        assertEquals(Set.of("replica-0", "replica-1"), keys);
+        assertEquals(4.0, meterRegistry.get("datasource.routing").tag("target", "replica").counter().count());
+    }
+
+    @Test
+    void testLaggingAndFailedReplicasAreSkipped() throws Exception {
+        HikariDataSource lagging = replica("replica-0", 60_000);
+        HikariDataSource failed = mock(HikariDataSource.class);
+        when(failed.getPoolName()).thenReturn("replica-1");
+        when(failed.getConnection()).thenThrow(new SQLException("connection refused"));
+        routing = create(lagging, failed);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+        assertEquals(1.0, meterRegistry.get("datasource.routing").tag("target", "fallback").counter().count());
+        assertEquals(0.0, meterRegistry.get("datasource.replica.available").tag("pool", "replica-0").gauge().value());
+        assertEquals(60.0, meterRegistry.get("datasource.replica.lag").tag("pool", "replica-0").gauge().value());
+    }
+
+    private ReplicaRoutingDataSource create(HikariDataSource... replicas) {
+        // A long interval leaves the scheduled probe out of the way; probes are run explicitly
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(mock(HikariDataSource.class),
+                List.of(replicas), Duration.ofSeconds(5), Duration.ofHours(1), meterRegistry);
+        dataSource.afterPropertiesSet();
+        dataSource.probeReplicas();
+        return dataSource;
+    }
+
+    private static HikariDataSource replica(String name, double lagMillis) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(lagMillis);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+
+        HikariDataSource pool = mock(HikariDataSource.class);
+        when(pool.getPoolName()).thenReturn(name);
+        when(pool.getConnection()).thenReturn(connection);
+        return pool;
+    }
+}
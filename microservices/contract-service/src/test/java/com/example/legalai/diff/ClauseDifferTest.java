@@ -0,0 +1,127 @@
+package com.example.legalai.diff;
+
+import com.example.legalai.cache.JacksonCacheCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClauseDifferTest {
+
+    private static final String BASE = """
+            1. Definitions
+            "Goods" means the products listed in Schedule 1.
+
+            2. Delivery
+            The Supplier shall deliver the Goods within 30 days of the order.
+
+            3. Payment
+            The Buyer shall pay each invoice within 60 days.
+
+            4. Confidentiality
+            Each party shall keep the terms of this agreement confidential.
+
+            Signed by the parties on the date above.
+            """;
+
+    private static ClauseChange only(List<ClauseChange> changes, ClauseChange.Type type) {
+        List<ClauseChange> matching = changes.stream().filter(change -> change.getType() == type).toList();
+        assertEquals(1, matching.size(), type + " changes: " + changes);
+        return matching.get(0);
+    }
+
+    @Test
+    void testSplitsOnNumberedHeadingsAndBlankLines() {
+        List<Clause> clauses = ClauseSplitter.split(BASE + "第五条 争议解决\n本合同适用中华人民共和国法律。\n(a) first\n(b) second\n");
+
+        assertEquals(8, clauses.size());
+        assertEquals("2", clauses.get(1).label());
+        assertEquals(4, clauses.get(1).line());
+        assertNull(clauses.get(4).label());
+        assertEquals("第五条", clauses.get(5).label());
+        assertEquals("(b)", clauses.get(7).label());
+        assertEquals(ClauseSplitter.fingerprint("A  b\n"), ClauseSplitter.fingerprint(" a B"));
+    }
+
+    @Test
+    void testReportsModifiedAddedAndRemovedClauses() {
+        String target = """
+                1. Definitions
+                "Goods"   means the products listed in Schedule 1.
+
+                4. Confidentiality
+                Each party shall keep the terms of this agreement confidential.
+
+                2. Delivery
+                The Supplier shall deliver the Goods within 45 days of the order.
+
+                5. Termination
+                Either party may terminate on 90 days notice.
+
+                Signed by the parties on the date above.
+                """;
+
+        ClauseDiffResult result = ClauseDiffer.diff(BASE, target);
+
+        assertEquals(5, result.getFromClauses());
+        assertEquals(5, result.getToClauses());
+        // Clause 2 both moved below clause 4 and changed; it is still paired by its number
+        ClauseChange modified = only(result.getChanges(), ClauseChange.Type.MODIFIED);
+        assertEquals("2", modified.getLabel());
+        assertEquals(4, modified.getFromLine());
+        assertEquals(7, modified.getToLine());
+        assertEquals(List.of(
+                        new WordSegment(MyersDiff.Operation.DELETE, "30"),
+                        new WordSegment(MyersDiff.Operation.INSERT, "45")),
+                modified.getSegments().stream()
+                        .filter(segment -> segment.getOperation() != MyersDiff.Operation.EQUAL).toList());
+        assertEquals("3", only(result.getChanges(), ClauseChange.Type.REMOVED).getLabel());
+        assertEquals("5", only(result.getChanges(), ClauseChange.Type.ADDED).getLabel());
+        assertEquals(3, result.getUnchangedClauses());
+    }
+
+    @Test
+    void testVerbatimRelocationIsReportedAsMove() {
+        ClauseDiffResult result = ClauseDiffer.diff("A one.\n\nB two.\n\nC three.\n\nD four.\n",
+                "B two.\n\nC three.\n\nD four.\n\nA  one.\n");
+
+        ClauseChange moved = only(result.getChanges(), ClauseChange.Type.MOVED);
+        assertEquals(1, moved.getFromLine());
+        assertEquals(7, moved.getToLine());
+        assertEquals(1, result.getChanges().size());
+    }
+
+    @Test
+    void testUnnumberedParagraphsPairBySimilarity() {
+        ClauseDiffResult result = ClauseDiffer.diff(
+                "The tenant pays rent monthly in advance to the landlord.\n\nUnrelated text here.\n",
+                "The tenant pays rent quarterly in advance to the landlord.\n\nCompletely new words now.\n");
+
+        ClauseChange modified = only(result.getChanges(), ClauseChange.Type.MODIFIED);
+        assertEquals(1, modified.getToLine());
+        only(result.getChanges(), ClauseChange.Type.REMOVED);
+        only(result.getChanges(), ClauseChange.Type.ADDED);
+    }
+
+    @Test
+    void testLargeDocumentAndCacheRoundTrip() throws Exception {
+        StringBuilder base = new StringBuilder();
+        for (int i = 1; i <= 3000; i++) {
+            base.append(i / 100 + 1).append('.').append(i % 100).append(" The parties agree to obligation ")
+                    .append(i).append(" as set out in the schedule.\n\n");
+        }
+        String target = base.toString()
+                .replace("obligation 1500 as", "obligation 1500 (as amended) as")
+                .replace("30.99 The parties agree to obligation 2999 as set out in the schedule.\n\n", "");
+
+        ClauseDiffResult result = ClauseDiffer.diff(base.toString(), target);
+
+        assertEquals(2998, result.getUnchangedClauses());
+        assertEquals(2, result.getChanges().size());
+
+        JacksonCacheCodec codec = JacksonCacheCodec.smile();
+        byte[] encoded = codec.encode(result);
+        assertEquals(result, codec.decode(encoded, 0, encoded.length));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.legalai.diff;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MyersDiffTest {
+
+    private static List<String> chars(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (char c : text.toCharArray()) {
+            tokens.add(String.valueOf(c));
+        }
+        return tokens;
+    }
+
+    private static int editCount(List<MyersDiff.Edit> edits) {
+        int count = 0;
+        for (MyersDiff.Edit edit : edits) {
+            if (edit.operation() != MyersDiff.Operation.EQUAL) {
+                count += edit.aLength() + edit.bLength();
+            }
+        }
+        return count;
+    }
+
+    /** Replays the edits on {@code a} and checks they produce {@code b}. */
+    private static <T> void assertTransforms(List<T> a, List<T> b, List<MyersDiff.Edit> edits) {
+        List<T> result = new ArrayList<>();
+        int aPos = 0;
+        int bPos = 0;
+        for (MyersDiff.Edit edit : edits) {
+            assertEquals(aPos, edit.aStart());
+            assertEquals(bPos, edit.bStart());
+            switch (edit.operation()) {
+                case EQUAL -> {
+                    assertEquals(a.subList(edit.aStart(), edit.aEnd()), b.subList(edit.bStart(), edit.bEnd()));
+                    result.addAll(a.subList(edit.aStart(), edit.aEnd()));
+                }
+                case INSERT -> result.addAll(b.subList(edit.bStart(), edit.bEnd()));
+                case DELETE -> assertEquals(0, edit.bLength());
+            }
+            aPos = edit.aEnd();
+            bPos = edit.bEnd();
+        }
+        assertEquals(a.size(), aPos);
+        assertEquals(b, result);
+    }
+
+    @Test
+    void testFindsShortestEditScript() {
+        // Classic example from Myers' paper: D = 5
+        List<String> a = chars("ABCABBA");
+        List<String> b = chars("CBABAC");
+        List<MyersDiff.Edit> edits = MyersDiff.diff(a, b);
+
+        assertEquals(5, editCount(edits));
+        assertTransforms(a, b, edits);
+    }
+
+    @Test
+    void testEmptyAndIdenticalInputs() {
+        assertTrue(MyersDiff.diff(List.of(), List.of()).isEmpty());
+        assertEquals(List.of(new MyersDiff.Edit(MyersDiff.Operation.INSERT, 0, 0, 0, 2)),
+                MyersDiff.diff(List.of(), List.of("x", "y")));
+        assertEquals(List.of(new MyersDiff.Edit(MyersDiff.Operation.EQUAL, 0, 3, 0, 3)),
+                MyersDiff.diff(chars("abc"), chars("abc")));
+    }
+
+    @Test
+    void testRandomEditsRoundTrip() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<Integer> a = new ArrayList<>();
+            for (int i = random.nextInt(300); i > 0; i--) {
+                a.add(random.nextInt(8));
+            }
+            List<Integer> b = new ArrayList<>(a);
+            for (int i = random.nextInt(20); i > 0; i--) {
+                if (!b.isEmpty() && random.nextBoolean()) {
+                    b.remove(random.nextInt(b.size()));
+                } else {
+                    b.add(random.nextInt(b.size() + 1), random.nextInt(8));
+                }
+            }
+            assertTransforms(a, b, MyersDiff.diff(a, b));
+        }
+    }
+}
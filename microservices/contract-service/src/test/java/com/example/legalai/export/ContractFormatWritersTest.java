@@ -0,0 +1,85 @@
+package com.example.legalai.export;
+
+import com.example.legalai.model.ContractAnalysis;
+import com.example.legalai.model.ContractDocument;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContractFormatWritersTest {
+
+    private static ContractDocument contract(String content) {
+        ContractDocument contract = new ContractDocument();
+        contract.setId(7L);
+        contract.setTitle("Supply Agreement, 2024");
+        contract.setContent(content);
+        return contract;
+    }
+
+    private static Stream<ContractAnalysis> analyses() {
+        return Stream.of(ContractAnalysis.builder()
+                .analysisId("3f1c2a4e-0000-4000-8000-000000000001")
+                .analysisType(ContractAnalysis.AnalysisType.RISK_ASSESSMENT)
+                .status(ContractAnalysis.AnalysisStatus.COMPLETED)
+                .riskLevel(ContractAnalysis.RiskLevel.HIGH)
+                .riskScore(82.5)
+                .recommendations("=HYPERLINK(\"x\")")
+                .createdAt(LocalDateTime.of(2024, 5, 1, 12, 0))
+                .build());
+    }
+
+    private static byte[] write(ContractFormatWriter writer, ContractDocument contract) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(contract, analyses(), out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void testJsonContainsContractAndAnalyses() throws Exception {
+        JsonNode json = new ObjectMapper().readTree(write(new JsonContractWriter(), contract("Body")));
+
+        assertEquals(7, json.get("id").asInt());
+        assertEquals("Body", json.get("content").asText());
+        assertEquals("HIGH", json.get("analyses").get(0).get("riskLevel").asText());
+        assertEquals("2024-05-01T12:00:00", json.get("analyses").get(0).get("createdAt").asText());
+    }
+
+    @Test
+    void testPdfIsReadableAndWrapsLongContent() throws Exception {
+        String content = "Clause 1. " + "The supplier shall deliver goods. ".repeat(400) + "\n合同条款\nEnd.";
+        byte[] pdf = write(new PdfContractWriter(), contract(content));
+
+        try (PDDocument document = PDDocument.load(pdf)) {
+            assertTrue(document.getNumberOfPages() > 1);
+            String text = new PDFTextStripper().getText(document);
+            assertTrue(text.contains("Supply Agreement, 2024"));
+            assertTrue(text.contains("????"));
+            assertTrue(text.contains("riskLevel: HIGH"));
+        }
+    }
+
+    @Test
+    void testDocxOpensInPoi() throws Exception {
+        byte[] docx = write(new DocxContractWriter(), contract("First line\nSecond \u0001line"));
+
+        try (XWPFDocument document = new XWPFDocument(new ByteArrayInputStream(docx));
+             XWPFWordExtractor extractor = new XWPFWordExtractor(document)) {
+            String text = extractor.getText();
+            assertTrue(text.contains("Supply Agreement, 2024"));
+            assertTrue(text.contains("Second line"));
+            assertTrue(text.contains("riskScore: 82.5"));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.legalai.extraction;
+
+import com.example.legalai.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExtractionExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExtractionExecutor executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // PDF: 1 thread + 2 queued; DOCX: 1 + 1; everything else: 1 + 1
+        executor = new ExtractionExecutor(meterRegistry, 1, 2, 1, 1, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.destroy();
+    }
+
+    private CompletableFuture<String> blocked(ExtractionFormat format) {
+        return executor.submit(format, () -> {
+            release.await();
+            return format.name();
+        });
+    }
+
+    @Test
+    void testFullFormatPoolRejectsWithTooManyRequestsWhileOtherFormatsRun() throws Exception {
+        CompletableFuture<String> first = blocked(ExtractionFormat.PDF);
+        blocked(ExtractionFormat.PDF);
+        blocked(ExtractionFormat.PDF);
+
+        BusinessException rejected = assertThrows(BusinessException.class, () -> blocked(ExtractionFormat.PDF));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getHttpStatus());
+        assertEquals(1.0, meterRegistry.get("extraction.rejected").tag("format", "pdf").counter().count());
+        assertEquals(2.0, meterRegistry.get("extraction.queue.size").tag("format", "pdf").gauge().value());
+
+        // DOCX neither queues behind the PDFs nor is refused because of them
+        CompletableFuture<String> docx = executor.submit(ExtractionFormat.DOCX, () -> "DOCX");
+        assertEquals("DOCX", docx.get(5, TimeUnit.SECONDS));
+        assertFalse(first.isDone());
+        release.countDown();
+        assertEquals("PDF", first.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testBurstOfPdfAndDocxLeavesOtherFormatsAccepted() throws Exception {
+        blocked(ExtractionFormat.PDF);
+        blocked(ExtractionFormat.PDF);
+        blocked(ExtractionFormat.PDF);
+        blocked(ExtractionFormat.DOCX);
+        blocked(ExtractionFormat.DOCX);
+        assertThrows(BusinessException.class, () -> blocked(ExtractionFormat.DOCX));
+
+        assertEquals("HTML", executor.submit(ExtractionFormat.HTML, () -> "HTML").get(5, TimeUnit.SECONDS));
+        assertEquals(0.0, meterRegistry.get("extraction.rejected").tag("format", "html").counter().count());
+    }
+
+    @Test
+    void testRemainingFormatsShareOnePool() {
+        blocked(ExtractionFormat.HTML);
+        blocked(ExtractionFormat.TEXT);
+
+        assertThrows(BusinessException.class, () -> blocked(ExtractionFormat.RTF));
+        assertEquals(1.0, meterRegistry.get("extraction.queue.size").tag("format", "other").gauge().value());
+        assertEquals(1.0, meterRegistry.get("extraction.rejected").tag("format", "rtf").counter().count());
+    }
+
+    @Test
+    void testTaskFailureCompletesFutureExceptionally() {
+        CompletableFuture<String> failed = executor.submit(ExtractionFormat.PDF, () -> {
+            throw new IOException("corrupt");
+        });
+
+        Exception error = assertThrows(Exception.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, error.getCause());
+    }
+}
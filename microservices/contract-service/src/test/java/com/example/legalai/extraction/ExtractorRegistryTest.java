@@ -0,0 +1,143 @@
+package com.example.legalai.extraction;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.example.legalai.exception.BusinessException;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.springframework.http.HttpStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ExtractorRegistryTest {
+
+    private static final Charset GB18030 = Charset.forName("GB18030");
+
+    @TempDir
+    Path tempDir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExtractorRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new ExtractorRegistry(List.of(
+                new PdfDocumentExtractor(mock(PdfTextExtractor.class)),
+                new DocxDocumentExtractor(),
+                new DocDocumentExtractor(),
+                new RtfDocumentExtractor(),
+                new HtmlDocumentExtractor(GB18030),
+                new MarkdownDocumentExtractor(GB18030),
+                new PlainTextDocumentExtractor(GB18030)), meterRegistry);
+    }
+
+    private Optional<ExtractionFormat> sniff(String content, String fileName) {
+        return registry.sniff(content.getBytes(StandardCharsets.UTF_8), fileName);
+    }
+
+    private Path write(String name, byte[] content) throws Exception {
+        return Files.write(tempDir.resolve(name), content);
+    }
+
+    @Test
+    void testSniffingPrefersContentOverFileName() throws Exception {
+        byte[] docx;
+        try (XWPFDocument document = new XWPFDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            document.createParagraph().createRun().setText("Clause");
+            document.write(out);
+            docx = out.toByteArray();
+        }
+        byte[] ole2 = {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1, 0, 0};
+
+        assertEquals(Optional.of(ExtractionFormat.PDF), sniff("%PDF-1.7\n%âãÏÓ", "upload.bin"));
+        assertEquals(Optional.of(ExtractionFormat.DOCX), registry.sniff(docx, null));
+        assertEquals(Optional.of(ExtractionFormat.DOC), registry.sniff(ole2, "lease.pdf"));
+        assertEquals(Optional.of(ExtractionFormat.RTF), sniff("{\\rtf1\\ansi Hello}", "lease.docx"));
+        assertEquals(Optional.of(ExtractionFormat.HTML), sniff("  <!DOCTYPE html><p>x</p>", "export"));
+        assertEquals(Optional.of(ExtractionFormat.MARKDOWN), sniff("# Terms", "terms.md"));
+        assertEquals(Optional.of(ExtractionFormat.TEXT), sniff("# Terms", "terms.pdf"));
+        assertEquals(Optional.empty(), registry.sniff(new byte[] {(byte) 0x89, 'P', 'N', 'G', 0, 0, 0}, "a.txt"));
+        assertEquals(Optional.empty(), registry.sniff(new byte[0], "empty.txt"));
+    }
+
+    @Test
+    void testPlainTextIsDecodedByBomThenUtf8ThenFallback() throws Exception {
+        String text = "第一条 租赁期限为三年。";
+        Path utf8 = write("utf8.txt", text.getBytes(StandardCharsets.UTF_8));
+        Path legacy = write("gb.txt", text.getBytes(GB18030));
+        ByteArrayOutputStream utf16 = new ByteArrayOutputStream();
+        utf16.write(new byte[] {(byte) 0xFF, (byte) 0xFE});
+        utf16.write(text.getBytes(StandardCharsets.UTF_16LE));
+        Path bom = write("utf16.txt", utf16.toByteArray());
+
+        assertEquals(text, registry.extract(utf8, ExtractionFormat.TEXT));
+        assertEquals(text, registry.extract(legacy, ExtractionFormat.TEXT));
+        assertEquals(text, registry.extract(bom, ExtractionFormat.TEXT));
+        assertEquals("", registry.extract(write("empty.txt", new byte[0]), ExtractionFormat.TEXT));
+        assertEquals(4, meterRegistry.get("contract.extraction").tag("format", "text").timer().count());
+    }
+
+    @Test
+    void testMarkupFormatsAreReducedToText() throws Exception {
+        Path html = write("page.html", ("<html><head><style>p{}</style><script>var x = 1;</script></head>"
+                + "<body><h1>Lease</h1><p>Rent &amp; deposit</p><div>Term</div></body></html>")
+                .getBytes(StandardCharsets.UTF_8));
+        Path markdown = write("terms.md", ("## 1. Payment\n> Quoted **bold** and [a link](http://x)\n"
+                + "```\ncode\n```\n").getBytes(StandardCharsets.UTF_8));
+        Path rtf = write("memo.rtf", "{\\rtf1\\ansi{\\fonttbl\\f0\\fswiss Helvetica;}\\f0 Notice period\\par}"
+                .getBytes(StandardCharsets.US_ASCII));
+
+        String htmlText = registry.extract(html, ExtractionFormat.HTML);
+        assertEquals("Lease\nRent & deposit\nTerm\n", htmlText);
+        assertEquals("1. Payment\nQuoted bold and a link\ncode\n", registry.extract(markdown, ExtractionFormat.MARKDOWN));
+        assertTrue(registry.extract(rtf, ExtractionFormat.RTF).contains("Notice period"));
+    }
+
+    @Test
+    void testOtherOfficeFormatsAreNotTakenForWord() throws Exception {
+        byte[] xlsx;
+        byte[] pptx;
+        byte[] xls;
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            workbook.createSheet("Rent").createRow(0).createCell(0).setCellValue("Clause");
+            workbook.write(out);
+            xlsx = out.toByteArray();
+        }
+        try (XMLSlideShow slides = new XMLSlideShow(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            slides.createSlide();
+            slides.write(out);
+            pptx = out.toByteArray();
+        }
+        try (HSSFWorkbook workbook = new HSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            workbook.createSheet("Rent").createRow(0).createCell(0).setCellValue("Clause");
+            workbook.write(out);
+            xls = out.toByteArray();
+        }
+
+        assertNotEquals(Optional.of(ExtractionFormat.DOCX), registry.sniff(xlsx, "lease.docx"));
+        assertNotEquals(Optional.of(ExtractionFormat.DOCX), registry.sniff(pptx, null));
+        assertNotEquals(Optional.of(ExtractionFormat.DOC), registry.sniff(xls, "lease.doc"));
+
+        // Past the leading bytes, extraction itself refuses with 415 rather than failing in POI
+        BusinessException notWord = assertThrows(BusinessException.class,
+                () -> registry.extract(write("book.docx", xlsx), ExtractionFormat.DOCX));
+        assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE, notWord.getHttpStatus());
+        BusinessException notDoc = assertThrows(BusinessException.class,
+                () -> registry.extract(write("book.doc", xls), ExtractionFormat.DOC));
+        assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE, notDoc.getHttpStatus());
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.legalai.extraction;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfTextExtractorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private PdfTextExtractor extractor;
+
+    @BeforeEach
+    void setUp() {
+        extractor = new PdfTextExtractor(3, 2, 4, DataSize.ofKilobytes(64), tempDir);
+    }
+
+    @AfterEach
+    void tearDown() {
+        extractor.destroy();
+    }
+
+    private Path pdf(int pages) throws IOException {
+        Path file = tempDir.resolve("doc-" + pages + ".pdf");
+        try (PDDocument document = new PDDocument()) {
+            for (int i = 1; i <= pages; i++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 12);
+                    content.newLineAtOffset(72, 700);
+                    content.showText("Page " + i + " clause text");
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+        return file;
+    }
+
+    @Test
+    void testParallelRangesMatchSinglePassInPageOrder() throws Exception {
+        Path file = pdf(37);
+        List<PageRangeText> ranges = new ArrayList<>();
+
+        extractor.extract(file, ranges::add);
+
+        assertEquals(10, ranges.size());
+        assertEquals(1, ranges.get(0).firstPage());
+        assertEquals(37, ranges.get(9).lastPage());
+        for (int i = 1; i < ranges.size(); i++) {
+            assertEquals(ranges.get(i - 1).lastPage() + 1, ranges.get(i).firstPage());
+        }
+        assertTrue(ranges.get(2).text().contains("Page 9 clause text"));
+        try (PDDocument document = PDDocument.load(file.toFile())) {
+            assertEquals(new PDFTextStripper().getText(document), extractor.extractText(file));
+        }
+    }
+
+    @Test
+    void testStreamIsSpooledAndRemoved() throws Exception {
+        byte[] bytes = Files.readAllBytes(pdf(2));
+
+        String text = extractor.extractText(new ByteArrayInputStream(bytes));
+
+        assertTrue(text.contains("Page 2 clause text"));
+        try (var files = Files.list(tempDir)) {
+            assertTrue(files.noneMatch(path -> path.getFileName().toString().startsWith("extract-")));
+        }
+    }
+
+    @Test
+    void testCorruptFileFailsWithIOException() throws Exception {
+        Path file = tempDir.resolve("broken.pdf");
+        Files.writeString(file, "%PDF-1.4 not really");
+
+        assertThrows(IOException.class, () -> extractor.extractText(file));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.legalai.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportRecordReaderTest {
+
+    private static ByteArrayInputStream input(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testCsvHandlesQuotesAndMultilineFields() throws Exception {
+        String csv = "externalRef,title,content,ownerId\r\n"
+                + "A-1,\"Lease, office\",\"Line one\nLine \"\"two\"\"\",1\r\n"
+                + "\r\n"
+                + "A-2,Short,Body,2\r\n"
+                + "A-3,Broken,1\r\n";
+        try (CsvRecordReader reader = new CsvRecordReader(input(csv))) {
+            ImportRecordReader.RawRecord first = reader.next();
+            assertEquals(2, first.line());
+            assertEquals("Lease, office", first.fields().get("title"));
+            assertEquals("Line one\nLine \"two\"", first.fields().get("content"));
+
+            ImportRecordReader.RawRecord second = reader.next();
+            assertEquals(5, second.line());
+            assertEquals("A-2", second.fields().get("externalRef"));
+
+            ImportRecordReader.RawRecord broken = reader.next();
+            assertEquals(6, broken.line());
+            assertNotNull(broken.parseError());
+
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void testNdjsonReportsMalformedLinesAndContinues() throws Exception {
+        String ndjson = "{\"externalRef\":\"A-1\",\"ownerId\":1,\"title\":\"T\"}\n"
+                + "{not json\n"
+                + "\n"
+                + "{\"externalRef\":\"A-2\",\"content\":null}\n";
+        try (NdjsonRecordReader reader = new NdjsonRecordReader(input(ndjson), new ObjectMapper())) {
+            ImportRecordReader.RawRecord first = reader.next();
+            assertEquals("1", first.fields().get("ownerId"));
+
+            ImportRecordReader.RawRecord malformed = reader.next();
+            assertEquals(2, malformed.line());
+            assertTrue(malformed.parseError().startsWith("Malformed JSON"));
+
+            ImportRecordReader.RawRecord last = reader.next();
+            assertEquals(4, last.line());
+            assertTrue(last.fields().containsKey("content"));
+            assertNull(last.fields().get("content"));
+
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void testRowValidationAndCopyEncoding() {
+        ContractImportRow row = ContractImportRow.parse(3, Map.of(
+                "external_ref", " X-9 ", "title", "Say \"hi\"", "content", "  body\n",
+                "contract_type", "nda", "owner_id", "42"));
+
+        assertEquals("X-9", row.externalRef());
+        assertEquals("NDA", row.contractType());
+        assertEquals("DRAFT", row.status());
+        assertEquals("3,\"X-9\",\"Say \"\"hi\"\"\",\"  body\n\",\"NDA\",\"DRAFT\",42\n",
+                new String(ContractImportService.toCsvLine(row), StandardCharsets.UTF_8));
+
+        IllegalArgumentException unknownStatus = assertThrows(IllegalArgumentException.class,
+                () -> ContractImportRow.parse(1, Map.of("externalRef", "X", "title", "T", "content", "C",
+                        "status", "LOST", "ownerId", "1")));
+        assertEquals("Unknown status: LOST", unknownStatus.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> ContractImportRow.parse(1, Map.of("externalRef", "X", "title", "T", "ownerId", "1")));
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.legalai.library;
+
+import com.example.legalai.llm.AnalysisResult;
+import com.example.legalai.llm.LlamaService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ClauseAnalysisServiceTest {
+
+    private static final String CONTRACT = """
+            1. The Supplier shall deliver the goods within 30 days of the order.
+
+            2. The Customer shall pay each invoice within 60 days.
+
+            3. The Supplier may amend these terms at any time without notice.
+
+            4. The Customer shall pay each invoice within 60 days.
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private LlamaService llamaService;
+    private ClauseLibraryService libraryService;
+    private SimpleMeterRegistry meterRegistry;
+    private ClauseAnalysisService service;
+
+    @BeforeEach
+    void setUp() {
+        llamaService = mock(LlamaService.class);
+        libraryService = mock(ClauseLibraryService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new ClauseAnalysisService(llamaService, libraryService, objectMapper, meterRegistry, true);
+    }
+
+    @Test
+    void sendsOnlyNovelClausesAndStoresTheirResults() throws Exception {
+        // Clause 1 is in the library; clauses 2 and 4 are the same novel text
+        doAnswer(invocation -> {
+            List<ClauseFingerprint> clauses = invocation.getArgument(0);
+            List<LibraryMatch> matches = new ArrayList<>(Arrays.asList(new LibraryMatch[clauses.size()]));
+            matches.set(0, new LibraryMatch(7L, false, 0.94, List.of(Map.of(
+                    "clause", "deliver within 30 days", "reason", "tight deadline", "risk level", "LOW"))));
+            return matches;
+        }).when(libraryService).resolve(anyList(), eq(ClauseAnalysisService.PROMPT_VERSION));
+        when(llamaService.sendPrompt(anyString())).thenReturn("""
+                ```json
+                [{"index": 2, "clause": "may amend these terms", "reason": "unilateral amendment", "risk level": "HIGH"}]
+                ```""");
+
+        List<Map<String, Object>> findings = objectMapper.readValue(service.analyze(CONTRACT).analysisResult(),
+                new TypeReference<>() {
+                });
+
+        ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+        verify(llamaService).sendPrompt(prompt.capture());
+        assertFalse(prompt.getValue().contains("deliver the goods"));
+        assertTrue(prompt.getValue().contains("[1] 2. The Customer shall pay"));
+        assertTrue(prompt.getValue().contains("[2] 3. The Supplier may amend"));
+        assertFalse(prompt.getValue().contains("[3]"));
+
+        ArgumentCaptor<List<Map<String, Object>>> stored = ArgumentCaptor.forClass(List.class);
+        verify(libraryService, times(2)).store(any(), eq(ClauseAnalysisService.PROMPT_VERSION), stored.capture());
+        assertEquals(List.of(), stored.getAllValues().get(0));
+        assertEquals("unilateral amendment", stored.getAllValues().get(1).get(0).get("reason"));
+        assertFalse(stored.getAllValues().get(1).get(0).containsKey("index"));
+
+        assertEquals(2, findings.size());
+        assertEquals("library", findings.get(0).get("source"));
+        assertEquals("1. The Supplier shall deliver the goods within 30 days of the order.", findings.get(0).get("clause"));
+        assertEquals("HIGH", findings.get(1).get("risk level"));
+    }
+
+    @Test
+    void skipsTheModelWhenEveryClauseIsKnown() throws Exception {
+        doAnswer(invocation -> {
+            List<ClauseFingerprint> clauses = invocation.getArgument(0);
+            return clauses.stream().map(clause -> new LibraryMatch(1L, true, 1.0, List.of())).toList();
+        }).when(libraryService).resolve(anyList(), anyInt());
+
+        assertEquals(new AnalysisResult("[]", false), service.analyze(CONTRACT));
+        verifyNoInteractions(llamaService);
+        assertEquals(1.0, meterRegistry.counter("contract.clause.library.calls.avoided").count());
+    }
+
+    @Test
+    void failedModelCallKeepsLibraryFindingsAndStoresNothing() throws Exception {
+        doAnswer(invocation -> {
+            List<ClauseFingerprint> clauses = invocation.getArgument(0);
+            List<LibraryMatch> matches = new ArrayList<>(Arrays.asList(new LibraryMatch[clauses.size()]));
+            matches.set(0, new LibraryMatch(7L, true, 1.0, List.of(Map.of(
+                    "clause", "deliver within 30 days", "reason", "tight deadline", "risk level", "LOW"))));
+            return matches;
+        }).when(libraryService).resolve(anyList(), anyInt());
+        when(llamaService.sendPrompt(anyString())).thenReturn(LlamaService.FAILED);
+
+        AnalysisResult result = service.analyze(CONTRACT);
+
+        assertTrue(result.modelFailed());
+        List<Map<String, Object>> findings = objectMapper.readValue(result.analysisResult(), new TypeReference<>() {
+        });
+        assertEquals(1, findings.size());
+        assertEquals("tight deadline", findings.get(0).get("reason"));
+        verify(libraryService, never()).store(any(), anyInt(), anyList());
+    }
+
+    @Test
+    void findingsWithoutAnIndexAreReportedButNothingIsStored() throws Exception {
+        doAnswer(invocation -> Arrays.asList(new LibraryMatch[((List<?>) invocation.getArgument(0)).size()]))
+                .when(libraryService).resolve(anyList(), anyInt());
+        when(llamaService.sendPrompt(anyString())).thenReturn("""
+                [{"clause": "may amend these terms", "reason": "unilateral amendment", "risk level": "HIGH"}]""");
+
+        AnalysisResult result = service.analyze(CONTRACT);
+
+        assertFalse(result.modelFailed());
+        assertTrue(result.analysisResult().contains("unilateral amendment"));
+        // The other clauses would be stored as benign although the finding may be theirs
+        verify(libraryService, never()).store(any(), anyInt(), anyList());
+    }
+
+    @Test
+    void fingerprintIgnoresNumberingCaseAndWhitespace() {
+        ClauseFingerprint first = ClauseFingerprint.of("4.2 The Supplier shall\n  indemnify the Customer.");
+        ClauseFingerprint second = ClauseFingerprint.of("第五条 the supplier shall indemnify the customer.");
+        ClauseFingerprint heading = ClauseFingerprint.of("Article 7");
+
+        assertEquals(first.exactHash(), ClauseFingerprint.of("(b) THE SUPPLIER SHALL INDEMNIFY THE CUSTOMER.").exactHash());
+        assertEquals(first.exactHash(), second.exactHash());
+        assertEquals("article 7", heading.normalisedText());
+        assertEquals("30,5", ClauseFingerprint.of("1. Pay within 30 days at 5% interest").numbers());
+    }
+
+    @Test
+    void fingerprintKeepsNegationAndModalWordsInOrder() {
+        assertEquals("shall,not", ClauseFingerprint.of("The Supplier shall not assign this Agreement.").modalities());
+        assertEquals("shall", ClauseFingerprint.of("The Supplier shall assign this Agreement.").modalities());
+        assertEquals("can,not,will,not", ClauseFingerprint.of("It can't and won't be assigned.").modalities());
+        assertEquals("not", ClauseFingerprint.of("The Customer doesn't pay interest.").modalities());
+        assertEquals("不得,应当", ClauseFingerprint.of("第三条 乙方不得转让本合同，且应当通知甲方。").modalities());
+        assertEquals("", ClauseFingerprint.of("Notices go to the registered address.").modalities());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.legalai.library;
+
+import com.example.legalai.similarity.MinHash;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ClauseLibraryServiceTest {
+
+    private static final String STORED =
+            "The Supplier shall assign this Agreement to an affiliate upon thirty days written notice.";
+
+    /** Normalised texts of the fake clause_library rows; ids are their positions plus one. */
+    private final List<String> library = new ArrayList<>();
+
+    private ClauseLibraryService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (int i = 0; i < library.size(); i++) {
+                handler.processRow(candidate(i + 1, ClauseFingerprint.of(library.get(i))));
+            }
+            return null;
+        }).when(jdbcTemplate).query(contains("bands && ?"), any(PreparedStatementSetter.class),
+                any(RowCallbackHandler.class));
+        service = new ClauseLibraryService(jdbcTemplate, new ObjectMapper(), new SimpleMeterRegistry(),
+                0.6, 20, true, true);
+    }
+
+    private static ResultSet candidate(long id, ClauseFingerprint fingerprint) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        Array bands = mock(Array.class);
+        when(bands.getArray()).thenReturn(Arrays.stream(MinHash.bandKeys(fingerprint.signature(),
+                ClauseLibraryService.BANDS)).boxed().toArray(Long[]::new));
+        when(rs.getLong("id")).thenReturn(id);
+        when(rs.getString("normalized_text")).thenReturn(fingerprint.normalisedText());
+        when(rs.getString("numbers")).thenReturn(fingerprint.numbers());
+        when(rs.getBytes("signature")).thenReturn(MinHash.toBytes(fingerprint.signature()));
+        when(rs.getArray("bands")).thenReturn(bands);
+        when(rs.getString("findings")).thenReturn("[]");
+        return rs;
+    }
+
+    private LibraryMatch resolve(String clause) {
+        return service.resolve(List.of(ClauseFingerprint.of(clause)), ClauseAnalysisService.PROMPT_VERSION).get(0);
+    }
+
+    @Test
+    void reusesANearDuplicateWithTheSameModalities() {
+        library.add(ClauseFingerprint.of(STORED).normalisedText());
+
+        LibraryMatch match = resolve("The Supplier shall assign this Agreement to an affiliate upon thirty days' written notice.");
+
+        assertNotNull(match);
+        assertFalse(match.exact());
+        assertEquals(1L, match.entryId());
+    }
+
+    @Test
+    void negationOrADifferentModalIsNeverANearDuplicate() {
+        library.add(ClauseFingerprint.of(STORED).normalisedText());
+
+        String negated = "The Supplier shall not assign this Agreement to an affiliate upon thirty days written notice.";
+        String permissive = "The Supplier may assign this Agreement to an affiliate upon thirty days written notice.";
+        for (String clause : List.of(negated, permissive)) {
+            assertTrue(MinHash.similarity(ClauseFingerprint.of(STORED).signature(),
+                    ClauseFingerprint.of(clause).signature()) >= 0.6, "similar enough to match otherwise");
+            assertNull(resolve(clause));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.legalai.llm;
+
+import com.example.legalai.client.AdaptiveConcurrencyLimiter;
+import com.example.legalai.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LlamaServiceTest {
+
+    private AdaptiveConcurrencyLimiter limiter;
+    private LlamaService service;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), 2, 1, 32, 1.5, 0.2, 0.5, 10, 100);
+        // Nothing listens on port 1, so every generation fails at once
+        service = new LlamaService("http://127.0.0.1:1", "llama3", Duration.ofSeconds(5), limiter);
+    }
+
+    @Test
+    void testRejectsPromptsAtTheConcurrencyLimit() {
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+
+        assertThrows(ConcurrencyLimitExceededException.class, () -> service.sendPrompt("prompt"));
+        assertEquals(2, limiter.inFlight());
+    }
+
+    @Test
+    void testFailedGenerationFreesItsSlotAndBacksOff() {
+        assertEquals(LlamaService.FAILED, service.sendPrompt("prompt"));
+
+        assertEquals(0, limiter.inFlight());
+        assertEquals(1, limiter.limit());
+    }
+
+    @Test
+    void testGenerationPastTheTimeoutFailsAndBacksOff() throws IOException {
+        // The server accepts connections but never answers
+        try (ServerSocket server = new ServerSocket(0)) {
+            LlamaService slow = new LlamaService("http://127.0.0.1:" + server.getLocalPort(), "llama3",
+                    Duration.ofMillis(200), limiter);
+
+            assertTimeoutPreemptively(Duration.ofSeconds(5),
+                    () -> assertEquals(LlamaService.FAILED, slow.sendPrompt("prompt")));
+        }
+
+        assertEquals(0, limiter.inFlight());
+        assertEquals(1, limiter.limit());
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.legalai.retention;
+
+import com.example.legalai.repository.ContractAnalysisRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AnalysisRetentionServiceTest {
+
+    private static final LocalDateTime OLD = LocalDateTime.now().minusDays(400);
+
+    /** id -> status of the fake contract_analyses rows, all created at {@link #OLD} unless recent. */
+    private final TreeMap<Long, String> rows = new TreeMap<>();
+    private final Map<Long, LocalDateTime> createdAt = new HashMap<>();
+    private final List<String> statements = new ArrayList<>();
+    private Object[] checkpoint;
+
+    private JdbcTemplate jdbcTemplate;
+    private ContractAnalysisRepository repository;
+
+    @TempDir
+    Path archiveDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        repository = mock(ContractAnalysisRepository.class);
+        for (long id = 1; id <= 25; id++) {
+            rows.put(id, id % 5 == 0 ? "PENDING" : "COMPLETED");
+            createdAt.put(id, OLD);
+        }
+        createdAt.put(24L, LocalDateTime.now());
+
+        when(jdbcTemplate.query(startsWith("SELECT cutoff, last_id"), any(RowMapper.class), eq(AnalysisRetentionService.JOB_NAME)))
+                .thenAnswer(invocation -> {
+                    if (checkpoint == null) {
+                        return List.of();
+                    }
+                    ResultSet rs = mock(ResultSet.class);
+                    when(rs.getTimestamp("cutoff")).thenReturn((Timestamp) checkpoint[0]);
+                    when(rs.getLong("last_id")).thenReturn((Long) checkpoint[1]);
+                    RowMapper<?> mapper = invocation.getArgument(1);
+                    return List.of(mapper.mapRow(rs, 0));
+                });
+        when(jdbcTemplate.update(startsWith("INSERT INTO retention_checkpoints"), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    checkpoint = new Object[]{invocation.getArgument(2), invocation.getArgument(3)};
+                    return 1;
+                });
+        when(jdbcTemplate.update(startsWith("UPDATE retention_checkpoints"), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    checkpoint[1] = invocation.getArgument(1);
+                    return 1;
+                });
+        when(jdbcTemplate.update(startsWith("DELETE FROM retention_checkpoints"), any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    checkpoint = null;
+                    return 1;
+                });
+        when(jdbcTemplate.queryForList(startsWith("SELECT id FROM"), eq(Long.class), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    LocalDateTime cutoff = ((Timestamp) invocation.getArgument(2)).toLocalDateTime();
+                    long after = invocation.getArgument(3);
+                    int limit = invocation.getArgument(4);
+                    statements.add("select after " + after);
+                    return finished(cutoff).filter(id -> id > after).limit(limit).toList();
+                });
+        when(repository.deleteOldAnalysesInRange(anyLong(), anyLong(), any())).thenAnswer(invocation -> {
+            long from = invocation.getArgument(0);
+            long to = invocation.getArgument(1);
+            List<Long> ids = finished(invocation.getArgument(2)).filter(id -> id >= from && id <= to).toList();
+            ids.forEach(rows::remove);
+            statements.add("delete " + from + "-" + to);
+            return ids.size();
+        });
+    }
+
+    @AfterEach
+    void clearInterrupt() {
+        Thread.interrupted();
+    }
+
+    private Stream<Long> finished(LocalDateTime cutoff) {
+        return rows.entrySet().stream()
+                .filter(row -> !row.getValue().equals("PENDING") && createdAt.get(row.getKey()).isBefore(cutoff))
+                .map(Map.Entry::getKey);
+    }
+
+    private AnalysisRetentionService service(AnalysisRetentionService.Mode mode, Duration pause) {
+        return new AnalysisRetentionService(jdbcTemplate, repository, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), true, Duration.ofDays(180), mode, 8, pause, archiveDir.toString());
+    }
+
+    @Test
+    void testPurgesFinishedOldRowsInBoundedChunks() {
+        long removed = service(AnalysisRetentionService.Mode.DELETE, Duration.ZERO).purge();
+
+        // 25 rows, minus 5 pending and the recent one
+        assertEquals(19, removed);
+        assertEquals(List.of("select after 0", "delete 1-9", "select after 9", "delete 11-19",
+                "select after 19", "delete 21-23", "select after 23"), statements);
+        assertEquals(List.of(5L, 10L, 15L, 20L, 24L, 25L), List.copyOf(rows.keySet()));
+        assertNull(checkpoint, "a finished run clears its checkpoint");
+    }
+
+    @Test
+    void testInterruptedRunResumesFromCheckpointWithSameCutoff() {
+        AnalysisRetentionService service = service(AnalysisRetentionService.Mode.DELETE, Duration.ofMillis(1));
+
+        Thread.currentThread().interrupt();
+        assertEquals(8, service.purge());
+        assertEquals(9L, checkpoint[1]);
+        Timestamp cutoff = (Timestamp) checkpoint[0];
+        assertTrue(Thread.interrupted());
+
+        // Rows finishing meanwhile below the checkpoint are not revisited; the cutoff is kept
+        rows.put(5L, "COMPLETED");
+        statements.clear();
+        assertEquals(11, service.purge());
+        assertEquals("select after 9", statements.get(0));
+        assertTrue(rows.containsKey(5L));
+        verify(jdbcTemplate, times(1)).update(startsWith("INSERT INTO retention_checkpoints"), any(), eq(cutoff), any());
+    }
+
+    @Test
+    void testArchiveModeDeletesExactlyTheArchivedRows() throws Exception {
+        when(jdbcTemplate.queryForList(startsWith("SELECT * FROM contract_analyses"), anyLong(), anyLong(), any()))
+                .thenAnswer(invocation -> {
+                    long from = invocation.getArgument(1);
+                    long to = invocation.getArgument(2);
+                    List<Map<String, Object>> archived = finished(((Timestamp) invocation.getArgument(3)).toLocalDateTime())
+                            .filter(id -> id >= from && id <= to)
+                            .map(id -> Map.<String, Object>of("id", id, "status", rows.get(id)))
+                            .toList();
+                    // Becomes finished after the archive was read but before the delete
+                    if (from == 1) {
+                        rows.put(5L, "FAILED");
+                    }
+                    return archived;
+                });
+        List<List<Long>> deletedIds = new ArrayList<>();
+        when(repository.deleteArchivedAnalyses(anyList(), any())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            deletedIds.add(ids);
+            ids.forEach(rows::remove);
+            return ids.size();
+        });
+
+        long removed = service(AnalysisRetentionService.Mode.ARCHIVE, Duration.ZERO).purge();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 6L, 7L, 8L, 9L), deletedIds.get(0));
+        verify(repository, never()).deleteOldAnalysesInRange(anyLong(), anyLong(), any());
+        assertFalse(deletedIds.stream().flatMap(List::stream).anyMatch(id -> id == 5L),
+                "row 5 was not in the first archive, so the first chunk must not delete it");
+        assertEquals(19, removed);
+
+        Path firstChunk = archiveDir.resolve("contract_analyses_1-9.ndjson.gz");
+        List<JsonNode> archived = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(firstChunk)), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                archived.add(new ObjectMapper().readTree(line));
+            }
+        }
+        assertEquals(8, archived.size());
+        try (Stream<Path> files = Files.list(archiveDir)) {
+            assertTrue(files.noneMatch(file -> file.toString().endsWith(".part")));
+        }
+    }
+}
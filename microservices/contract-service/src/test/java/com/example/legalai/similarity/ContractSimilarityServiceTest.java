@@ -0,0 +1,112 @@
+package com.example.legalai.similarity;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ContractSimilarityServiceTest {
+
+    private static final String CONTRACT = IntStream.rangeClosed(1, 30)
+            .mapToObj(n -> n + ". The Supplier shall perform obligation number " + n
+                    + " in accordance with the specification agreed between the parties.\n")
+            .reduce("", String::concat);
+
+    private JdbcTemplate jdbcTemplate;
+    private ContractSimilarityService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        service = new ContractSimilarityService(jdbcTemplate, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), 0.5, 2, 100);
+    }
+
+    @Test
+    void redraftedContractsShareABandAndUnrelatedOnesDoNot() {
+        int[] original = signature(CONTRACT);
+        int[] redraft = signature(CONTRACT.replace("obligation number 7 ", "duty number 7 ")
+                .replace("Supplier", "SUPPLIER"));
+        int[] unrelated = signature("第一条 甲方应当按照本合同约定的时间和方式向乙方支付租金。第二条 乙方应当妥善保管租赁物。");
+
+        assertTrue(MinHash.similarity(original, redraft) > 0.9);
+        assertTrue(sharesBand(original, redraft));
+        assertFalse(sharesBand(original, unrelated));
+    }
+
+    @Test
+    void returnsCandidatesAboveThresholdMostSimilarFirst() throws Exception {
+        int[] self = signature(CONTRACT);
+        Map<String, Object> row = new HashMap<>();
+        row.put("signature", MinHash.toBytes(self));
+        row.put("queued", false);
+        when(jdbcTemplate.queryForList(anyString(), eq(1L))).thenReturn(List.of(row));
+
+        List<Object[]> candidates = List.of(
+                new Object[]{2L, signature(CONTRACT.replace("specification", "statement of work")), "Draft B"},
+                new Object[]{3L, self, "Copy"},
+                new Object[]{4L, signature(CONTRACT.substring(0, 200)), "Fragment"},
+                new Object[]{5L, signature(CONTRACT.replace("Supplier", "Contractor")), "Draft C"});
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (Object[] candidate : candidates) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("contract_id")).thenReturn((Long) candidate[0]);
+                when(rs.getBytes("signature")).thenReturn(MinHash.toBytes((int[]) candidate[1]));
+                when(rs.getString("title")).thenReturn((String) candidate[2]);
+                when(rs.getLong("owner_id")).thenReturn(9L);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+
+        List<SimilarContract> similar = service.findSimilar(1L, null, null);
+
+        assertEquals(2, similar.size(), "capped at max-results");
+        assertEquals(3L, similar.get(0).contractId());
+        assertEquals(1.0, similar.get(0).similarity());
+        assertTrue(similar.get(1).similarity() >= 0.5);
+        assertEquals(9L, similar.get(1).ownerId());
+        assertTrue(service.findSimilar(1L, 0.99, 10).stream().allMatch(s -> s.contractId() == 3L));
+    }
+
+    @Test
+    void contractWithoutTextIsUnindexedAndMatchesNothing() {
+        Map<String, Object> row = new HashMap<>();
+        row.put("signature", MinHash.toBytes(MinHash.signature("", ContractSimilarityService.SHINGLE)));
+        row.put("queued", true);
+        when(jdbcTemplate.queryForList(anyString(), eq(1L))).thenReturn(List.of(row));
+        Map<String, Object> queued = new HashMap<>();
+        queued.put("content", " \n ");
+        queued.put("queued_at", null);
+        when(jdbcTemplate.queryForMap(anyString(), eq(1L))).thenReturn(queued);
+
+        assertEquals(List.of(), service.findSimilar(1L, null, null));
+        verify(jdbcTemplate).update("DELETE FROM contract_signatures WHERE contract_id = ?", 1L);
+        verify(jdbcTemplate, never()).query(anyString(), any(PreparedStatementSetter.class),
+                any(RowCallbackHandler.class));
+    }
+
+    private static int[] signature(String text) {
+        return MinHash.signature(ContractSimilarityService.normalise(text), ContractSimilarityService.SHINGLE);
+    }
+
+    private static boolean sharesBand(int[] first, int[] second) {
+        long[] a = MinHash.bandKeys(first, ContractSimilarityService.BANDS);
+        long[] b = MinHash.bandKeys(second, ContractSimilarityService.BANDS);
+        return IntStream.range(0, a.length).anyMatch(band -> a[band] == b[band]);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.legalai.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinHashTest {
+
+    private static final String CLAUSE = "the supplier shall indemnify the customer against all losses, damages, "
+            + "costs and expenses arising out of any breach of this agreement by the supplier or its personnel";
+
+    @Test
+    void estimatesJaccardSimilarityOfShingles() {
+        int[] original = MinHash.signature(CLAUSE, 5);
+        int[] edited = MinHash.signature(CLAUSE.replace("its personnel", "its subcontractors"), 5);
+        int[] unrelated = MinHash.signature("either party may terminate this agreement on thirty days written "
+                + "notice to the other party without giving any reason for doing so", 5);
+
+        assertEquals(1.0, MinHash.similarity(original, MinHash.signature(CLAUSE, 5)));
+        assertTrue(MinHash.similarity(original, edited) > 0.75, "small edit keeps most shingles");
+        assertTrue(MinHash.similarity(original, unrelated) < 0.2, "different clauses share few shingles");
+    }
+
+    @Test
+    void similarSignaturesShareABandKeyAndRoundTrip() {
+        int[] original = MinHash.signature(CLAUSE, 5);
+        int[] edited = MinHash.signature(CLAUSE.replace("losses", "loss"), 5);
+
+        long[] first = MinHash.bandKeys(original, 16);
+        long[] second = MinHash.bandKeys(edited, 16);
+        assertEquals(16, first.length);
+        assertTrue(IntStream.range(0, 16).anyMatch(band -> first[band] == second[band]));
+        assertArrayEquals(original, MinHash.fromBytes(MinHash.toBytes(original)));
+        assertThrows(IllegalArgumentException.class, () -> MinHash.bandKeys(original, 7));
+    }
+
+    @Test
+    void emptyTextMatchesNothing() {
+        int[] empty = MinHash.signature("", 5);
+        assertTrue(Arrays.stream(empty).allMatch(value -> value == -1));
+        assertEquals(0.0, MinHash.similarity(empty, MinHash.signature("a", 5)));
+    }
+}
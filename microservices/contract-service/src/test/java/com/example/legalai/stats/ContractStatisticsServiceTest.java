@@ -0,0 +1,94 @@
+package com.example.legalai.stats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ContractStatisticsServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contract_document", Long.class)).thenReturn(7L);
+        when(jdbcTemplate.queryForList(contains("FROM contract_stats_rollup GROUP BY"))).thenReturn(List.of(
+                Map.of("contract_type", "NDA", "status", "DRAFT", "contract_count", 3L),
+                Map.of("contract_type", "NONE", "status", "SIGNED", "contract_count", 2L),
+                Map.of("contract_type", "NDA", "status", "SIGNED", "contract_count", 0L)));
+        when(jdbcTemplate.queryForList(contains("FROM analysis_stats_rollup"))).thenReturn(List.of(
+                Map.of("status", "COMPLETED", "risk_level", "HIGH", "analysis_count", 4L,
+                        "processing_time_sum", 400L, "processing_time_count", 4L),
+                Map.of("status", "PENDING", "risk_level", "NONE", "analysis_count", 1L,
+                        "processing_time_sum", 0L, "processing_time_count", 0L)));
+    }
+
+    @Test
+    void testGlobalStatisticsAreFoldedFromRollups() {
+        ContractStatisticsService service = new ContractStatisticsService(jdbcTemplate, meterRegistry, Duration.ofMinutes(1));
+
+        Map<String, Object> stats = service.getGlobalStatistics();
+
+        assertEquals(7L, stats.get("totalContracts"));
+        assertEquals(5L, stats.get("managedContracts"));
+        assertEquals(Map.of("DRAFT", 3L, "SIGNED", 2L), stats.get("managedContractsByStatus"));
+        assertEquals(Map.of("NDA", 3L, "NONE", 2L), stats.get("managedContractsByType"));
+        assertEquals(Map.of("COMPLETED", 4L, "PENDING", 1L), stats.get("analysesByStatus"));
+        assertEquals(Map.of("HIGH", 4L), stats.get("riskLevels"));
+        assertEquals(100.0, stats.get("averageProcessingTimeMs"));
+    }
+
+    @Test
+    void testSnapshotIsReusedWithinTtlAndDroppedAfterReconcile() {
+        ContractStatisticsService service = new ContractStatisticsService(jdbcTemplate, meterRegistry, Duration.ofMinutes(1));
+        when(jdbcTemplate.queryForObject(eq("SELECT reconcile_contract_stats()"), eq(Integer.class))).thenReturn(2);
+        when(jdbcTemplate.queryForObject(eq("SELECT reconcile_analysis_stats()"), eq(Integer.class))).thenReturn(0);
+
+        service.getGlobalStatistics();
+        service.getGlobalStatistics();
+        verify(jdbcTemplate, times(1)).queryForList(contains("FROM contract_stats_rollup GROUP BY"));
+
+        service.reconcile();
+        service.getGlobalStatistics();
+        verify(jdbcTemplate, times(2)).queryForList(contains("FROM contract_stats_rollup GROUP BY"));
+        assertEquals(2.0, meterRegistry.get("statistics.reconcile.drift")
+                .tag("rollup", "contract_stats_rollup").counter().count());
+    }
+
+    @Test
+    void testFailedRefreshServesPreviousSnapshot() {
+        ContractStatisticsService service = new ContractStatisticsService(jdbcTemplate, meterRegistry, Duration.ZERO);
+        Map<String, Object> first = service.getGlobalStatistics();
+
+        when(jdbcTemplate.queryForList(contains("FROM contract_stats_rollup GROUP BY")))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        assertSame(first, service.getGlobalStatistics());
+    }
+
+    @Test
+    void testColdStartFailureReturnsUnavailableAndRetries() {
+        ContractStatisticsService service = new ContractStatisticsService(jdbcTemplate, meterRegistry, Duration.ofMinutes(1));
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contract_document", Long.class))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(7L);
+
+        Map<String, Object> stats = service.getGlobalStatistics();
+        assertEquals(false, stats.get("available"));
+        assertNull(stats.get("totalContracts"));
+
+        assertEquals(7L, service.getGlobalStatistics().get("totalContracts"));
+    }
+}
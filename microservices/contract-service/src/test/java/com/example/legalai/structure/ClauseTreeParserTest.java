@@ -0,0 +1,125 @@
+package com.example.legalai.structure;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClauseTreeParserTest {
+
+    private static final String AGREEMENT = """
+            SERVICES AGREEMENT
+            This agreement is made between A and B.
+
+            ARTICLE 1 - DEFINITIONS
+            1.1 In this agreement:
+            "Affiliate" means any entity that:
+            (a) controls a party; or
+            (b) is controlled by a party;
+            "Services" means the services in Schedule 1.
+            1.2 Headings do not affect interpretation.
+
+            Article 2 - Payment
+            2.1 Fees are payable within 30 days.
+              (a) invoices are issued monthly;
+              (b) late amounts bear interest:
+                (i) at 2% above base rate;
+                (ii) from the due date;
+              (c) disputes do not suspend payment.
+
+            Schedule 1 Services
+            1. Hosting
+            2. Support
+            """;
+
+    private static String text(ClauseNode node) {
+        return AGREEMENT.substring(node.start(), node.end());
+    }
+
+    @Test
+    void testBuildsNestedTreeWithOffsets() {
+        List<ClauseNode> roots = ClauseTreeParser.parse(AGREEMENT);
+
+        assertEquals(List.of(ClauseKind.PREAMBLE, ClauseKind.ARTICLE, ClauseKind.ARTICLE, ClauseKind.SCHEDULE),
+                roots.stream().map(ClauseNode::kind).toList());
+        assertEquals("SERVICES AGREEMENT\nThis agreement is made between A and B.", text(roots.get(0)));
+
+        ClauseNode article1 = roots.get(1);
+        assertEquals("article 1", article1.label());
+        assertEquals("DEFINITIONS", article1.title());
+        ClauseNode section11 = article1.children().get(0);
+        assertEquals("1.1", section11.label());
+        assertEquals(ClauseKind.SECTION, section11.kind());
+
+        List<ClauseNode> definitions = section11.children();
+        assertEquals(List.of("Affiliate", "Services"), definitions.stream().map(ClauseNode::label).toList());
+        assertEquals(ClauseKind.DEFINITION, definitions.get(0).kind());
+        assertEquals(List.of("(a)", "(b)"), definitions.get(0).children().stream().map(ClauseNode::label).toList());
+        assertTrue(text(definitions.get(0)).endsWith("is controlled by a party;"));
+        assertEquals("1.2", article1.children().get(1).label());
+
+        ClauseNode section21 = roots.get(2).children().get(0);
+        assertEquals(List.of("(a)", "(b)", "(c)"), section21.children().stream().map(ClauseNode::label).toList());
+        ClauseNode interest = section21.children().get(1);
+        assertEquals(List.of("(i)", "(ii)"), interest.children().stream().map(ClauseNode::label).toList());
+        assertEquals("(i) at 2% above base rate;", text(interest.children().get(0)));
+
+        ClauseNode schedule = roots.get(3);
+        assertEquals("schedule 1", schedule.label());
+        assertEquals(List.of("1", "2"), schedule.children().stream().map(ClauseNode::label).toList());
+        assertEquals(AGREEMENT.stripTrailing().length(), schedule.end());
+        assertEquals(18, ClauseTreeParser.count(roots));
+    }
+
+    @Test
+    void testLetterIFollowingHIsNotRoman() {
+        StringBuilder text = new StringBuilder("1. Obligations\n");
+        for (char c = 'a'; c <= 'j'; c++) {
+            text.append('(').append(c).append(") item\n");
+        }
+
+        ClauseNode article = ClauseTreeParser.parse(text.toString()).get(0);
+
+        assertEquals(10, article.children().size());
+        assertEquals("(i)", article.children().get(8).label());
+        assertTrue(article.children().get(8).children().isEmpty());
+    }
+
+    @Test
+    void testChineseHeadings() {
+        String contract = """
+                第一章 总则
+                第一条 本合同适用于房屋租赁。
+                （一）租赁期限为三年；
+                （二）租金按月支付。
+                第二条 定义
+                “出租人”是指甲方。
+                第二章 附则
+                第三条 本合同一式两份。
+                附件一 房屋清单
+                """;
+
+        List<ClauseNode> roots = ClauseTreeParser.parse(contract);
+
+        assertEquals(List.of("第一章", "第二章", "附件一"), roots.stream().map(ClauseNode::label).toList());
+        ClauseNode article1 = roots.get(0).children().get(0);
+        assertEquals("第一条", article1.label());
+        assertEquals("本合同适用于房屋租赁。", article1.title());
+        assertEquals(List.of("(一)", "(二)"), article1.children().stream().map(ClauseNode::label).toList());
+        assertEquals(ClauseKind.DEFINITION, roots.get(0).children().get(1).children().get(0).kind());
+        assertEquals("第三条", roots.get(1).children().get(0).label());
+    }
+
+    @Test
+    void testPathFindsInnermostClause() {
+        List<ClauseNode> roots = ClauseTreeParser.parse(AGREEMENT);
+        int offset = AGREEMENT.indexOf("2% above");
+
+        List<String> path = ClauseTreeParser.path(roots, offset).stream().map(ClauseNode::label).toList();
+
+        assertEquals(List.of("article 2", "2.1", "(b)", "(i)"), path);
+        assertTrue(ClauseTreeParser.path(roots, AGREEMENT.indexOf("\n\nArticle 2") + 1).isEmpty());
+        assertTrue(ClauseTreeParser.parse("").isEmpty());
+    }
+}
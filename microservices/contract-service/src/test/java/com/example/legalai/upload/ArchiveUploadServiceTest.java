@@ -0,0 +1,225 @@
+package com.example.legalai.upload;
+
+import com.example.legalai.exception.BusinessException;
+import com.example.legalai.extraction.DocxDocumentExtractor;
+import com.example.legalai.extraction.ExtractionFormat;
+import com.example.legalai.extraction.ExtractorRegistry;
+import com.example.legalai.extraction.PdfDocumentExtractor;
+import com.example.legalai.extraction.PdfTextExtractor;
+import com.example.legalai.extraction.PlainTextDocumentExtractor;
+import com.example.legalai.model.ContractDocument;
+import com.example.legalai.repository.ContractDocumentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ArchiveUploadServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ContractUploadService uploadService;
+    private ContractDocumentRepository repository;
+    private ArchiveUploadService service;
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        uploadService = mock(ContractUploadService.class);
+        repository = mock(ContractDocumentRepository.class);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ContractDocument> documents = invocation.getArgument(0);
+            documents.forEach(document -> document.setId(ids.incrementAndGet()));
+            return documents;
+        });
+        // Echo the spooled bytes back as the extracted text
+        when(uploadService.extract(any(), anyString(), any(), anyString(), anyLong())).thenAnswer(invocation -> {
+            InputStreamSource source = invocation.getArgument(0);
+            try (InputStream in = source.getInputStream()) {
+                String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                return CompletableFuture.completedFuture(new ContractUploadService.UploadResult(
+                        invocation.getArgument(3), invocation.getArgument(4), false, text));
+            }
+        });
+        ExtractorRegistry registry = new ExtractorRegistry(List.of(
+                new PdfDocumentExtractor(mock(PdfTextExtractor.class)),
+                new DocxDocumentExtractor(),
+                new PlainTextDocumentExtractor(StandardCharsets.UTF_8)), new SimpleMeterRegistry());
+        service = new ArchiveUploadService(uploadService, registry, repository, mock(PlatformTransactionManager.class),
+                2, 2, 100, DataSize.ofBytes(64), Duration.ofSeconds(5), tempDir, 5,
+                DataSize.ofKilobytes(64), 1, 1);
+    }
+
+    /** Starts the upload and waits for its worker to finish it. */
+    private ArchiveUploadJob upload(byte[] archive, ArchiveFormat format) throws Exception {
+        ArchiveUploadJob job = service.start(new ByteArrayInputStream(archive), format, "test");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (job.getFinishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertNotNull(job.getFinishedAt(), "upload did not finish");
+        return job;
+    }
+
+    private long tempFiles() throws IOException {
+        try (var files = Files.list(tempDir)) {
+            return files.count();
+        }
+    }
+
+    private static byte[] zip(String... namesAndContents) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(namesAndContents[i]));
+                zip.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void testZipEntriesAreExtractedAndSavedInBatches() throws Exception {
+        byte[] archive = zip(
+                "deal/lease.pdf", "lease text",
+                "deal/nda.docx", "nda text",
+                "deal/logo.png", "\u0089PNG\u0000\u0000",
+                "__MACOSX/deal/._lease.pdf", "resource fork",
+                "deal/huge.pdf", "x".repeat(100),
+                "supply.PDF", "supply text");
+
+        ArchiveUploadJob job = upload(archive, ArchiveFormat.ZIP);
+
+        assertEquals(ArchiveUploadJob.Status.COMPLETED, job.getStatus());
+        assertEquals(5, job.getTotal());
+        assertEquals(3, job.getSaved());
+        assertEquals(1, job.getSkipped());
+        assertEquals(1, job.getFailed());
+        ArchiveEntryResult lease = job.getEntries().get(0);
+        assertEquals("deal/lease.pdf", lease.getName());
+        assertNotNull(lease.getDocumentId());
+        assertTrue(job.getEntries().get(3).getError().contains("larger than"));
+        verify(repository, times(2)).saveAll(anyList());
+        // The spooled archive is removed right after the job finishes
+        for (int i = 0; i < 100 && tempFiles() > 0; i++) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, tempFiles());
+    }
+
+    @Test
+    void testTarEntriesRetryWhileExtractionIsSaturated() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new BusinessException("EXTRACTION_BUSY", "busy", HttpStatus.TOO_MANY_REQUESTS);
+            }
+            return CompletableFuture.completedFuture(new ContractUploadService.UploadResult(
+                    "hash", 4, true, "text"));
+        }).when(uploadService).extract(any(), anyString(), eq(ExtractionFormat.PDF), anyString(), anyLong());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(bytes)) {
+            byte[] content = "%PDF-1.4 body".getBytes(StandardCharsets.UTF_8);
+            TarArchiveEntry entry = new TarArchiveEntry("contracts/master.pdf");
+            entry.setSize(content.length);
+            tar.putArchiveEntry(entry);
+            tar.write(content);
+            tar.closeArchiveEntry();
+        }
+
+        ArchiveUploadJob job = upload(bytes.toByteArray(), ArchiveFormat.TAR);
+
+        assertEquals(3, attempts.get());
+        ArchiveEntryResult entry = job.getEntries().get(0);
+        assertEquals(ArchiveEntryResult.Status.SAVED, entry.getStatus());
+        assertTrue(entry.isDuplicate());
+    }
+
+    @Test
+    void testFailedExtractionIsReportedPerFile() throws Exception {
+        doReturn(CompletableFuture.failedFuture(new IOException("corrupt xref")))
+                .when(uploadService).extract(any(), eq("bad.pdf"), any(), anyString(), anyLong());
+
+        ArchiveUploadJob job = upload(zip("bad.pdf", "?", "good.docx", "ok"), ArchiveFormat.ZIP);
+
+        assertEquals(ArchiveUploadJob.Status.COMPLETED, job.getStatus());
+        assertEquals("Extraction failed: corrupt xref", job.getEntries().get(0).getError());
+        assertEquals(ArchiveEntryResult.Status.SAVED, job.getEntries().get(1).getStatus());
+    }
+
+    @Test
+    void testStartReturnsBeforeProcessingAndRefusesBeyondCapacity() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return CompletableFuture.completedFuture(new ContractUploadService.UploadResult("hash", 2, false, "ok"));
+        }).when(uploadService).extract(any(), anyString(), any(), anyString(), anyLong());
+
+        ArchiveUploadJob running = service.start(new ByteArrayInputStream(zip("a.txt", "ok")), ArchiveFormat.ZIP, "test");
+        ArchiveUploadJob queued = service.start(new ByteArrayInputStream(zip("b.txt", "ok")), ArchiveFormat.ZIP, "test");
+        BusinessException busy = assertThrows(BusinessException.class,
+                () -> service.start(new ByteArrayInputStream(zip("c.txt", "ok")), ArchiveFormat.ZIP, "test"));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, busy.getHttpStatus());
+        assertNull(running.getFinishedAt());
+        assertEquals(ArchiveUploadJob.Status.QUEUED, queued.getStatus());
+        assertTrue(service.getJob(queued.getId()).isPresent());
+
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (queued.getFinishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(ArchiveUploadJob.Status.COMPLETED, running.getStatus());
+        assertEquals(ArchiveUploadJob.Status.COMPLETED, queued.getStatus());
+        assertEquals(ArchiveUploadJob.Status.COMPLETED, upload(zip("c.txt", "ok"), ArchiveFormat.ZIP).getStatus());
+    }
+
+    @Test
+    void testOversizedArchiveIsRefusedAndNotKept() throws Exception {
+        // Random letters barely compress, so the archive stays above the 64 KB limit
+        StringBuilder noise = new StringBuilder();
+        Random random = new Random(1);
+        for (int i = 0; i < 200_000; i++) {
+            noise.append((char) ('a' + random.nextInt(26)));
+        }
+        byte[] archive = zip("big.txt", noise.toString());
+
+        BusinessException tooLarge = assertThrows(BusinessException.class,
+                () -> service.start(new ByteArrayInputStream(archive), ArchiveFormat.ZIP, "test"));
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, tooLarge.getHttpStatus());
+        assertEquals(0, tempFiles());
+        assertTrue(service.getJobs().isEmpty());
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.legalai.upload;
+
+import com.example.legalai.exception.BusinessException;
+import com.example.legalai.extraction.DocxDocumentExtractor;
+import com.example.legalai.extraction.ExtractionExecutor;
+import com.example.legalai.extraction.ExtractorRegistry;
+import com.example.legalai.extraction.PdfDocumentExtractor;
+import com.example.legalai.extraction.PdfTextExtractor;
+import com.example.legalai.extraction.PlainTextDocumentExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ContractUploadServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private ExtractionExecutor executor;
+    private ContractUploadService service;
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new ExtractionExecutor(meterRegistry, 1, 1, 1, 1, 1, 1);
+        ExtractorRegistry registry = new ExtractorRegistry(List.of(
+                new PdfDocumentExtractor(mock(PdfTextExtractor.class)),
+                new DocxDocumentExtractor(),
+                new PlainTextDocumentExtractor(StandardCharsets.UTF_8)), meterRegistry);
+        service = new ContractUploadService(jdbcTemplate, registry, executor, meterRegistry, tempDir);
+    }
+
+    private static MockMultipartFile docx(String text) throws Exception {
+        try (XWPFDocument document = new XWPFDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            document.createParagraph().createRun().setText(text);
+            document.write(out);
+            return new MockMultipartFile("file", "lease.docx", null, out.toByteArray());
+        }
+    }
+
+    private double uploads(String result) {
+        return meterRegistry.get("contract.upload").tag("result", result).counter().count();
+    }
+
+    @Test
+    void testKnownFileSkipsExtraction() throws Exception {
+        // Not a valid DOCX: extracting it would fail, so success proves it was never parsed
+        MockMultipartFile file = new MockMultipartFile("file", "lease.docx", null, "not a zip".getBytes());
+        when(jdbcTemplate.queryForList(contains("UPDATE file_extractions"), eq(String.class), anyString()))
+                .thenReturn(List.of("Stored text"));
+
+        CompletableFuture<ContractUploadService.UploadResult> upload = service.upload(file);
+
+        assertTrue(upload.isDone());
+        ContractUploadService.UploadResult result = upload.join();
+        assertTrue(result.duplicate());
+        assertEquals("Stored text", result.content());
+        assertEquals(ContractUploadService.hash(file), result.fileHash());
+        assertEquals(64, result.fileHash().length());
+        assertEquals(1.0, uploads("duplicate"));
+        verify(jdbcTemplate, never()).update(contains("INSERT INTO file_extractions"), any(Object[].class));
+    }
+
+    @Test
+    void testNewFileIsExtractedAndStored() throws Exception {
+        MockMultipartFile file = docx("The tenant shall pay rent.");
+        when(jdbcTemplate.queryForList(contains("UPDATE file_extractions"), eq(String.class), anyString()))
+                .thenReturn(List.of());
+
+        ContractUploadService.UploadResult result = service.upload(file).get(10, TimeUnit.SECONDS);
+
+        assertFalse(result.duplicate());
+        assertTrue(result.content().contains("The tenant shall pay rent."));
+        verify(jdbcTemplate).update(contains("INSERT INTO file_extractions"),
+                eq(result.fileHash()), eq(file.getSize()), eq("lease.docx"), eq(result.content()));
+        assertEquals(1.0, uploads("extracted"));
+        assertEquals(1, meterRegistry.get("contract.extraction").tag("format", "docx").timer().count());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testFormatIsSniffedFromContentNotName() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "scan.pdf", null,
+                "Plain text despite the name".getBytes(StandardCharsets.UTF_8));
+        when(jdbcTemplate.queryForList(contains("UPDATE file_extractions"), eq(String.class), anyString()))
+                .thenReturn(List.of());
+
+        ContractUploadService.UploadResult result = service.upload(file).get(10, TimeUnit.SECONDS);
+
+        assertEquals("Plain text despite the name", result.content());
+        assertEquals(1, meterRegistry.get("contract.extraction").tag("format", "text").timer().count());
+    }
+
+    @Test
+    void testUnsupportedTypeIsRejectedBeforeHashing() {
+        MockMultipartFile file = new MockMultipartFile("file", "logo.docx", null, new byte[] {(byte) 0x89, 'P', 'N', 'G', 0, 0});
+
+        assertThrows(BusinessException.class, () -> service.upload(file));
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.legalai.versioning;
+
+import com.example.legalai.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ContractVersionServiceTest {
+
+    private static final long CONTRACT_ID = 7L;
+
+    /** Rows of the fake contract_revisions table for {@link #CONTRACT_ID}. */
+    private final List<Map<String, Object>> revisions = new ArrayList<>();
+    private final Map<String, Object> contract = new HashMap<>();
+
+    private JdbcTemplate jdbcTemplate;
+    private ContractVersionService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        service = new ContractVersionService(jdbcTemplate, mock(EntityManagerFactory.class, RETURNS_DEEP_STUBS),
+                new SimpleMeterRegistry(), 3, 0.5);
+
+        when(jdbcTemplate.queryForList(startsWith("SELECT content, version FROM contracts"), eq(CONTRACT_ID)))
+                .thenAnswer(invocation -> contract.isEmpty() ? List.of() : List.of(new HashMap<>(contract)));
+        when(jdbcTemplate.update(startsWith("UPDATE contracts SET content"), any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    contract.put("content", invocation.getArgument(1));
+                    contract.put("version", invocation.getArgument(2));
+                    return 1;
+                });
+        when(jdbcTemplate.update(startsWith("INSERT INTO contract_revisions"), any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    byte[] snapshot = invocation.getArgument(3);
+                    byte[] delta = invocation.getArgument(5);
+                    Map<String, Object> row = new HashMap<>();
+                    row.put("version", invocation.getArgument(2));
+                    row.put("snapshot", snapshot);
+                    row.put("snapshot_encoding", invocation.getArgument(4));
+                    row.put("delta", delta);
+                    row.put("is_snapshot", snapshot != null);
+                    row.put("content_length", invocation.getArgument(6));
+                    row.put("content_hash", invocation.getArgument(7));
+                    row.put("lines_added", invocation.getArgument(8));
+                    row.put("lines_removed", invocation.getArgument(9));
+                    row.put("stored_bytes", (long) ((snapshot != null ? snapshot.length : 0) + (delta != null ? delta.length : 0)));
+                    row.put("author_id", invocation.getArgument(10));
+                    row.put("comment", invocation.getArgument(11));
+                    row.put("created_at", invocation.getArgument(12));
+                    revisions.add(row);
+                    return 1;
+                });
+        when(jdbcTemplate.queryForList(contains("FROM contract_revisions r WHERE contract_id = ?"), eq(CONTRACT_ID)))
+                .thenAnswer(invocation -> revisions.stream()
+                        .max(Comparator.comparingInt(row -> version(row)))
+                        .map(latest -> List.of(Map.<String, Object>of(
+                                "version", latest.get("version"),
+                                "content_hash", latest.get("content_hash"),
+                                "snapshot_version", revisions.stream()
+                                        .filter(row -> row.get("snapshot") != null)
+                                        .mapToInt(ContractVersionServiceTest::version).max().orElseThrow())))
+                        .orElse(List.of()));
+        when(jdbcTemplate.query(startsWith("SELECT version, snapshot IS NOT NULL"), any(RowMapper.class), eq(CONTRACT_ID)))
+                .thenAnswer(invocation -> {
+                    RowMapper<?> mapper = invocation.getArgument(1);
+                    List<Object> mapped = new ArrayList<>();
+                    for (Map<String, Object> row : revisions.stream()
+                            .sorted(Comparator.comparingInt(ContractVersionServiceTest::version).reversed()).toList()) {
+                        mapped.add(mapper.mapRow(resultSet(row), mapped.size()));
+                    }
+                    return mapped;
+                });
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            int target = invocation.getArgument(3);
+            int base = revisions.stream()
+                    .filter(row -> version(row) <= target && row.get("snapshot") != null)
+                    .mapToInt(ContractVersionServiceTest::version).max().orElse(Integer.MAX_VALUE);
+            for (Map<String, Object> row : revisions.stream()
+                    .filter(row -> version(row) >= base && version(row) <= target)
+                    .sorted(Comparator.comparingInt(ContractVersionServiceTest::version)).toList()) {
+                handler.processRow(resultSet(row));
+            }
+            return null;
+        }).when(jdbcTemplate).query(contains("AND version <= ?"), any(RowCallbackHandler.class),
+                eq(CONTRACT_ID), anyInt(), eq(CONTRACT_ID), anyInt());
+    }
+
+    private static int version(Map<String, Object> row) {
+        return ((Number) row.get("version")).intValue();
+    }
+
+    private static ResultSet resultSet(Map<String, Object> row) {
+        Answer<Object> byColumn = invocation -> {
+            if (invocation.getArguments().length == 0 || !(invocation.getArgument(0) instanceof String column)) {
+                return null;
+            }
+            Object value = row.get(column);
+            return switch (invocation.getMethod().getName()) {
+                case "getInt" -> value == null ? 0 : ((Number) value).intValue();
+                case "getLong" -> value == null ? 0L : ((Number) value).longValue();
+                case "getBoolean" -> Boolean.TRUE.equals(value);
+                default -> value;
+            };
+        };
+        return mock(ResultSet.class, byColumn);
+    }
+
+    private void givenContract(String content, Integer version) {
+        contract.put("content", content);
+        contract.put("version", version);
+    }
+
+    private static String clauses(int count, String suffix) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            text.append("Clause ").append(i).append(". The parties agree to term ").append(i)
+                    .append(i == count ? suffix : "").append(".\n");
+        }
+        return text.toString();
+    }
+
+    @Test
+    void testFirstVersionSeedsNumberingFromTheContract() {
+        givenContract(clauses(40, ""), 4);
+
+        ContractRevisionSummary added = service.addVersion(CONTRACT_ID, clauses(40, " as amended"), 3L, "redline");
+
+        assertEquals(5, added.version());
+        assertEquals(List.of(4, 5), revisions.stream().map(ContractVersionServiceTest::version).toList());
+        assertTrue((Boolean) revisions.get(0).get("is_snapshot"), "the current text becomes the baseline snapshot");
+        assertFalse(added.snapshot());
+        assertEquals(1, added.linesAdded());
+        assertEquals(1, added.linesRemoved());
+        assertEquals(5, contract.get("version"));
+        assertEquals(clauses(40, " as amended"), contract.get("content"));
+    }
+
+    @Test
+    void testContractWithoutVersionStartsAtOne() {
+        givenContract(clauses(10, ""), null);
+
+        assertEquals(2, service.addVersion(CONTRACT_ID, clauses(10, " again"), null, null).version());
+        assertEquals(1, version(revisions.get(0)));
+    }
+
+    @Test
+    void testChainOfDeltasIsResnapshottedAndEveryVersionReconstructs() {
+        givenContract(clauses(40, ""), 1);
+        List<String> texts = new ArrayList<>(List.of(clauses(40, "")));
+        for (int i = 1; i <= 7; i++) {
+            String next = clauses(40, " v" + i);
+            texts.add(next);
+            service.addVersion(CONTRACT_ID, next, null, "round " + i);
+        }
+
+        // Baseline snapshot at 1, then one every three revisions
+        assertEquals(List.of(1, 4, 7), revisions.stream()
+                .filter(row -> row.get("snapshot") != null).map(ContractVersionServiceTest::version).toList());
+        assertTrue(revisions.stream().skip(1).allMatch(row -> row.get("delta") != null));
+        long deltaOnly = revisions.stream().filter(row -> row.get("snapshot") == null)
+                .mapToLong(row -> ((byte[]) row.get("delta")).length).max().orElseThrow();
+        assertTrue(deltaOnly < texts.get(0).getBytes(StandardCharsets.UTF_8).length / 4,
+                "deltas should be far smaller than the text, was " + deltaOnly);
+
+        for (int version = 1; version <= 8; version++) {
+            assertEquals(texts.get(version - 1), service.getContent(CONTRACT_ID, version), "version " + version);
+        }
+        assertEquals(List.of(8, 7, 6, 5, 4, 3, 2, 1),
+                service.getHistory(CONTRACT_ID).stream().map(ContractRevisionSummary::version).toList());
+    }
+
+    @Test
+    void testContentChangedOutsideHistoryIsDiffedAgainstTheRecordedRevision() {
+        givenContract(clauses(20, ""), 1);
+        service.addVersion(CONTRACT_ID, clauses(20, " v1"), null, null);
+        contract.put("content", "rewritten elsewhere\n");
+
+        service.addVersion(CONTRACT_ID, clauses(20, " v2"), null, null);
+
+        assertEquals(clauses(20, " v1"), service.getContent(CONTRACT_ID, 2));
+        assertEquals(clauses(20, " v2"), service.getContent(CONTRACT_ID, 3));
+    }
+
+    @Test
+    void testCorruptedChainIsDetectedByHash() {
+        givenContract(clauses(20, ""), 1);
+        service.addVersion(CONTRACT_ID, clauses(20, " v1"), null, null);
+        revisions.get(1).put("content_hash", ContractVersionService.sha256("something else"));
+
+        assertThrows(IllegalStateException.class, () -> service.getContent(CONTRACT_ID, 2));
+    }
+
+    @Test
+    void testMissingContractAndVersion() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> service.addVersion(CONTRACT_ID, "text", null, null));
+        assertThrows(ResourceNotFoundException.class, () -> service.getContent(CONTRACT_ID, 1));
+        verify(jdbcTemplate, never()).update(startsWith("INSERT INTO contract_revisions"), any(Object[].class));
+        assertEquals(0, revisions.size());
+        assertNull(contract.get("version"));
+    }
+}
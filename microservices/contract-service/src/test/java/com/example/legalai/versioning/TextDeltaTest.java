@@ -0,0 +1,62 @@
+package com.example.legalai.versioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextDeltaTest {
+
+    private static String clauses(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            text.append("Clause ").append(i).append(". The parties agree to term ").append(i).append(".\n");
+        }
+        return text.toString();
+    }
+
+    @Test
+    void testRoundTripKeepsLineEndingsAndUnicode() {
+        String base = clauses(50) + "第五十一条 保密义务\r\nno trailing newline";
+        String target = base.replace("Clause 7.", "Clause 7 (amended).")
+                .replace("第五十一条 保密义务\r\n", "")
+                + "\nAppendix A\n";
+
+        byte[] delta = TextDelta.encode(base, target);
+
+        assertEquals(target, TextDelta.apply(base, delta));
+        assertTrue(delta.length < target.getBytes(StandardCharsets.UTF_8).length / 4);
+    }
+
+    @Test
+    void testHunksAreReadableFromDeltaAlone() {
+        String base = "a\nb\nc\nd\n";
+        String target = "a\nB\nc\nd\ne\n";
+
+        List<TextDelta.Hunk> hunks = TextDelta.hunks(TextDelta.encode(base, target));
+
+        assertEquals(2, hunks.size());
+        assertEquals(new TextDelta.Hunk(2, List.of("b\n"), 2, List.of("B\n")), hunks.get(0));
+        assertEquals(new TextDelta.Hunk(5, List.of(), 5, List.of("e\n")), hunks.get(1));
+    }
+
+    @Test
+    void testApplyRejectsWrongBase() {
+        byte[] delta = TextDelta.encode("a\nb\n", "a\nc\n");
+
+        assertThrows(IllegalStateException.class, () -> TextDelta.apply("a\nx\n", delta));
+        assertThrows(IllegalStateException.class, () -> TextDelta.apply("a\nb\nextra\n", delta));
+    }
+
+    @Test
+    void testSnapshotCompressionRoundTrip() {
+        String text = clauses(200);
+        byte[] compressed = TextDelta.compress(text);
+
+        assertEquals(text, TextDelta.decompress(compressed));
+        assertEquals("", TextDelta.decompress(TextDelta.compress("")));
+        assertTrue(compressed.length < text.length() / 4);
+    }
+}
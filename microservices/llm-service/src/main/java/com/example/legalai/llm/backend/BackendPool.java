@@ -0,0 +1,172 @@
+package com.example.legalai.llm.backend;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The Ollama hosts of {@code llama.backends} and the choice of host for each generation.
+ *
+ * <p>A model listed in {@code llama.pinned-models} only goes to its pinned hosts; any other
+ * model may go to every host. Among the healthy candidates the pool picks by
+ * {@code llama.balancing}, starting the scan at a rotating offset so equal hosts share work
+ * evenly. A host is marked down after {@code llama.health.failure-threshold} failed
+ * generations in a row or a failed probe, and is back up on its next success. When every
+ * candidate is down, requests still go to them rather than fail without trying.
+ */
+@Component
+public class BackendPool {
+
+    private static final Logger log = LoggerFactory.getLogger(BackendPool.class);
+
+    private final List<OllamaBackend> backends = new ArrayList<>();
+    private final Map<String, List<OllamaBackend>> pinned = new LinkedHashMap<>();
+    private final BalancingStrategy strategy;
+    private final int failureThreshold;
+    private final Duration probeTimeout;
+    private final AtomicInteger rotation = new AtomicInteger();
+
+    public BackendPool(MeterRegistry meterRegistry,
+                       @Value("${llama.backends:${llama.base-url:http://localhost:11434}}") String urls,
+                       @Value("${llama.pinned-models:}") String pinnedModels,
+                       @Value("${llama.balancing:least-outstanding}") String balancing,
+                       @Value("${llama.health.failure-threshold:3}") int failureThreshold,
+                       @Value("${llama.health.timeout:2s}") Duration probeTimeout) {
+        Map<String, OllamaBackend> byUrl = new LinkedHashMap<>();
+        for (String url : split(urls, ",")) {
+            byUrl.computeIfAbsent(trimSlash(url), key -> new OllamaBackend(key, meterRegistry));
+        }
+        if (byUrl.isEmpty()) {
+            throw new IllegalStateException("llama.backends lists no Ollama endpoint");
+        }
+        backends.addAll(byUrl.values());
+        // model=url|url entries; a pinned url must also be a configured backend
+        for (String entry : split(pinnedModels, ",")) {
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalStateException("llama.pinned-models entry is not model=url|url: " + entry);
+            }
+            List<OllamaBackend> hosts = new ArrayList<>();
+            for (String url : split(entry.substring(separator + 1), "\\|")) {
+                OllamaBackend backend = byUrl.get(trimSlash(url));
+                if (backend == null) {
+                    throw new IllegalStateException("Model " + entry.substring(0, separator)
+                        + " is pinned to " + url + ", which is not in llama.backends");
+                }
+                hosts.add(backend);
+            }
+            pinned.put(entry.substring(0, separator).strip(), List.copyOf(hosts));
+        }
+        this.strategy = BalancingStrategy.valueOf(balancing.strip().toUpperCase(Locale.ROOT).replace('-', '_'));
+        this.failureThreshold = failureThreshold;
+        this.probeTimeout = probeTimeout;
+        log.info("Ollama backends {} balanced by {}, pinned models {}", backends, strategy, pinned.keySet());
+    }
+
+    private static List<String> split(String value, String separator) {
+        return Arrays.stream(value.split(separator)).map(String::strip).filter(part -> !part.isEmpty()).toList();
+    }
+
+    private static String trimSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /** Hosts allowed to serve the model, healthy or not. */
+    public List<OllamaBackend> candidates(String model) {
+        return pinned.getOrDefault(model, backends);
+    }
+
+    /** Picks a host for a generation with the model and counts it in flight until {@link #release}. */
+    public OllamaBackend acquire(String model) {
+        return acquire(model, List.of());
+    }
+
+    /**
+     * As {@link #acquire(String)}, avoiding the given hosts when another candidate exists, so
+     * a second attempt at the same generation lands elsewhere.
+     */
+    public OllamaBackend acquire(String model, List<OllamaBackend> avoid) {
+        List<OllamaBackend> candidates = candidates(model);
+        OllamaBackend chosen = pick(candidates, avoid, true);
+        if (chosen == null) {
+            chosen = pick(candidates, avoid, false);
+        }
+        if (chosen == null) {
+            chosen = pick(candidates, List.of(), false);
+        }
+        chosen.started();
+        return chosen;
+    }
+
+    private OllamaBackend pick(List<OllamaBackend> candidates, List<OllamaBackend> avoid, boolean healthyOnly) {
+        int offset = Math.floorMod(rotation.getAndIncrement(), candidates.size());
+        OllamaBackend best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = 0; i < candidates.size(); i++) {
+            OllamaBackend backend = candidates.get((offset + i) % candidates.size());
+            if ((healthyOnly && !backend.isHealthy()) || avoid.contains(backend)) {
+                continue;
+            }
+            double score = score(backend);
+            if (score < bestScore) {
+                best = backend;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private double score(OllamaBackend backend) {
+        return switch (strategy) {
+            // In-flight count dominates; the latency average only breaks ties
+            case LEAST_OUTSTANDING -> backend.inFlight() + backend.ewmaNanos() / 1e15;
+            // A host never measured scores as if it were as fast as possible, so it gets tried
+            case EWMA -> Math.max(backend.ewmaNanos(), 1) * (backend.inFlight() + 1);
+        };
+    }
+
+    public void release(OllamaBackend backend, long nanos, boolean succeeded) {
+        if (backend.finished(nanos, succeeded, failureThreshold)) {
+            log.warn("Ollama backend {} marked down after {} failed generations", backend, failureThreshold);
+        }
+    }
+
+    /** Releases a generation cancelled before it finished, such as the losing side of a hedge. */
+    public void cancel(OllamaBackend backend) {
+        backend.cancelled();
+    }
+
+    /** Asks every host for its version; a host that answers within the timeout is up. */
+    @Scheduled(fixedDelayString = "${llama.health.interval:10s}")
+    public void probe() {
+        Flux.fromIterable(backends)
+            .flatMap(backend -> backend.webClient().get()
+                .uri("/api/version")
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(probeTimeout)
+                .map(response -> true)
+                .onErrorResume(e -> Mono.just(false))
+                .doOnNext(answered -> {
+                    if (backend.isHealthy() != answered) {
+                        log.info("Ollama backend {} is {}", backend, answered ? "up" : "down");
+                    }
+                    backend.probed(answered);
+                }))
+            .blockLast(probeTimeout.multipliedBy(2));
+    }
+}
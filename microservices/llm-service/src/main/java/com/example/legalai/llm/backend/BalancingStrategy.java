@@ -0,0 +1,9 @@
+package com.example.legalai.llm.backend;
+
+/** How {@link BackendPool} picks among the healthy backends that may serve a model. */
+public enum BalancingStrategy {
+    /** Fewest requests in flight; ties go to the lower latency average. */
+    LEAST_OUTSTANDING,
+    /** Lowest latency average scaled by requests in flight plus one, so a slow host gets less work. */
+    EWMA
+}
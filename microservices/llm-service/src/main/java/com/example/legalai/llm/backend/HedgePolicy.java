@@ -0,0 +1,131 @@
+package com.example.legalai.llm.backend;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * When a generation gets a second attempt on another host, and how many such attempts the
+ * service may send.
+ *
+ * <p>The delay is the {@code llama.hedge.percentile} of the recent times to first token of
+ * the model, never below {@code llama.hedge.min-delay}. Until {@value #MIN_SAMPLES} samples
+ * exist it is {@code llama.hedge.initial-delay}. A request that has not produced a token by
+ * then is likely stalled behind a model swap or a busy host.
+ *
+ * <p>Hedges are paid from a token bucket. Every generation adds {@code llama.hedge.budget}
+ * tokens, up to {@code llama.hedge.burst}, and each hedge takes one. Sustained hedging is
+ * therefore capped at that fraction of traffic, however slow the hosts get, and a host
+ * outage cannot double the load on the others.
+ */
+@Component
+public class HedgePolicy {
+
+    static final int MIN_SAMPLES = 20;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long initialDelayNanos;
+    private final int sampleSize;
+    private final double budget;
+    private final double burst;
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Counter throttled;
+    private double tokens;
+
+    public HedgePolicy(MeterRegistry meterRegistry,
+                       @Value("${llama.hedge.enabled:false}") boolean enabled,
+                       @Value("${llama.hedge.percentile:0.95}") double percentile,
+                       @Value("${llama.hedge.min-delay:250ms}") Duration minDelay,
+                       @Value("${llama.hedge.initial-delay:3s}") Duration initialDelay,
+                       @Value("${llama.hedge.samples:200}") int sampleSize,
+                       @Value("${llama.hedge.budget:0.05}") double budget,
+                       @Value("${llama.hedge.burst:5}") double burst) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.initialDelayNanos = initialDelay.toNanos();
+        this.sampleSize = sampleSize;
+        this.budget = budget;
+        this.burst = burst;
+        this.tokens = burst;
+        this.throttled = Counter.builder("llm.hedge.throttled")
+            .description("Hedges not sent because the hedge budget was spent")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** How long a generation with the model may go without a first token before it is hedged. */
+    public Duration delay(String model) {
+        return Duration.ofNanos(samples(model).delayNanos());
+    }
+
+    public void recordFirstToken(String model, long nanos) {
+        samples(model).add(nanos);
+    }
+
+    /** Adds the budget share of one generation. */
+    public synchronized void deposit() {
+        tokens = Math.min(burst, tokens + budget);
+    }
+
+    /** Takes one hedge from the budget, or returns false when it is spent. */
+    public boolean tryHedge() {
+        synchronized (this) {
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+        }
+        throttled.increment();
+        return false;
+    }
+
+    private Samples samples(String model) {
+        return samples.computeIfAbsent(model, key -> {
+            Samples created = new Samples();
+            Gauge.builder("llm.hedge.delay", created, s -> s.delayNanos() / 1e9)
+                .description("Time without a first token after which a generation is hedged")
+                .baseUnit("seconds")
+                .tag("model", key)
+                .register(meterRegistry);
+            return created;
+        });
+    }
+
+    /** The last {@code llama.hedge.samples} times to first token of one model. */
+    private final class Samples {
+
+        private final long[] ring = new long[sampleSize];
+        private int count;
+        private long delayNanos = initialDelayNanos;
+
+        synchronized void add(long nanos) {
+            ring[count % ring.length] = nanos;
+            count++;
+            if (count >= MIN_SAMPLES) {
+                long[] sorted = Arrays.copyOf(ring, Math.min(count, ring.length));
+                Arrays.sort(sorted);
+                int rank = (int) Math.ceil(percentile * sorted.length) - 1;
+                delayNanos = Math.max(minDelayNanos, sorted[Math.max(0, rank)]);
+            }
+        }
+
+        synchronized long delayNanos() {
+            return delayNanos;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.legalai.llm.backend;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One Ollama host of the {@link BackendPool}, with the load and latency state used to
+ * balance across hosts. Latency is an exponentially weighted moving average of successful
+ * generations; failures leave it unchanged and count towards marking the host down.
+ */
+public final class OllamaBackend {
+
+    private static final double EWMA_WEIGHT = 0.3;
+
+    private final String url;
+    private final WebClient webClient;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final Timer successes;
+    private final Timer failures;
+    private volatile double ewmaNanos;
+    private volatile boolean healthy = true;
+
+    OllamaBackend(String url, MeterRegistry meterRegistry) {
+        this.url = url;
+        this.webClient = WebClient.builder()
+            .baseUrl(url)
+            .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .build();
+        Gauge.builder("llm.backend.in.flight", inFlight, AtomicInteger::get)
+            .description("Generations outstanding on the backend")
+            .tag("backend", url)
+            .register(meterRegistry);
+        Gauge.builder("llm.backend.healthy", this, backend -> backend.healthy ? 1 : 0)
+            .description("1 while the backend answers health probes and requests")
+            .tag("backend", url)
+            .register(meterRegistry);
+        Gauge.builder("llm.backend.latency.ewma", this, backend -> backend.ewmaNanos / 1e9)
+            .description("Moving average of successful generation latency used for balancing")
+            .baseUnit("seconds")
+            .tag("backend", url)
+            .register(meterRegistry);
+        this.successes = latency(meterRegistry, url, "success");
+        this.failures = latency(meterRegistry, url, "failure");
+    }
+
+    private static Timer latency(MeterRegistry meterRegistry, String url, String outcome) {
+        return Timer.builder("llm.backend.latency")
+            .description("Generation latency per backend")
+            .tags("backend", url, "outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    public String url() {
+        return url;
+    }
+
+    public WebClient webClient() {
+        return webClient;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    double ewmaNanos() {
+        return ewmaNanos;
+    }
+
+    void started() {
+        inFlight.incrementAndGet();
+    }
+
+    /** @return whether this failure reached {@code failureThreshold} and marked the backend down */
+    boolean finished(long nanos, boolean succeeded, int failureThreshold) {
+        inFlight.decrementAndGet();
+        if (succeeded) {
+            successes.record(nanos, TimeUnit.NANOSECONDS);
+            double previous = ewmaNanos;
+            ewmaNanos = previous == 0 ? nanos : EWMA_WEIGHT * nanos + (1 - EWMA_WEIGHT) * previous;
+            consecutiveFailures.set(0);
+            healthy = true;
+            return false;
+        }
+        failures.record(nanos, TimeUnit.NANOSECONDS);
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold && healthy) {
+            healthy = false;
+            return true;
+        }
+        return false;
+    }
+
+    /** A generation abandoned by the caller: no longer outstanding, but says nothing about the host. */
+    void cancelled() {
+        inFlight.decrementAndGet();
+    }
+
+    void probed(boolean answered) {
+        if (answered) {
+            consecutiveFailures.set(0);
+        }
+        healthy = answered;
+    }
+
+    @Override
+    public String toString() {
+        return url;
+    }
+}
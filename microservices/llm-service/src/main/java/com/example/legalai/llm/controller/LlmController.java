@@ -1,10 +1,12 @@
 package com.example.legalai.llm.controller;
 
 import com.example.legalai.llm.service.LlmService;
+import com.example.legalai.llm.service.ScreenedAnalysis;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -19,13 +21,23 @@ public class LlmController {
     public ResponseEntity<Map<String, Object>> analyzeContract(@RequestBody Map<String, String> request) {
         try {
             String content = request.get("content");
-            String result = llmService.analyzeContract(content);
-            
-            Map<String, Object> response = Map.of(
-                "analysisResult", result,
-                "status", "success"
-            );
-            
+            // contract-service sends analysisDepth; routing rules are keyed by either
+            String analysisType = request.getOrDefault("analysisType", request.get("analysisDepth"));
+            ScreenedAnalysis result = llmService.analyzeScreened(content, analysisType);
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("analysisResult", result.analysisResult());
+            // Rule findings are returned even when the large model fails; the status says so
+            response.put("status", result.modelFailed() ? "partial" : "success");
+            response.put("modelFailed", result.modelFailed());
+            if (result.modelResponse() != null) {
+                response.put("modelResponse", result.modelResponse());
+            }
+            if (result.screening() != null) {
+                response.put("screening", result.screening());
+            }
+            response.put("routing", result.routing());
+
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
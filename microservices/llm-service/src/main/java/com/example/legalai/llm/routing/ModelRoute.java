@@ -0,0 +1,11 @@
+package com.example.legalai.llm.routing;
+
+/** The most expensive tier a request needed, used to tag per-route latency and GPU time. */
+public enum ModelRoute {
+    /** Answered by the rule engine alone. */
+    RULES,
+    /** Triaged by the small model, nothing escalated. */
+    SMALL,
+    /** At least one clause went to the large model. */
+    LARGE
+}
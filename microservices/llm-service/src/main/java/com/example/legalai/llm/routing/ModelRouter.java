@@ -0,0 +1,172 @@
+package com.example.legalai.llm.routing;
+
+import com.example.legalai.llm.service.Generation;
+import com.example.legalai.llm.service.OllamaClient;
+import com.example.legalai.llm.service.Prompts;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Chooses the model tier for each clause from the routing rule of the request's analysis
+ * type, and records per-route latency and GPU time.
+ *
+ * <p>Small-model triage sends all ambiguous clauses in one numbered prompt and asks for a
+ * 0-10 risk and complexity score per clause. A clause escalates when either score reaches
+ * the rule's {@code escalateScore}. A clause the answer does not score escalates too, and
+ * so does every clause when the answer cannot be read: triage may save large-model time
+ * but must never hide a clause.
+ */
+@Service
+public class ModelRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(ModelRouter.class);
+
+    private final Map<String, RoutingRule> rules = new LinkedHashMap<>();
+    private final RoutingRule defaultRule;
+    private final String defaultModel;
+    private final OllamaClient ollamaClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public ModelRouter(OllamaClient ollamaClient,
+                       ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       @Value("${routing.rules:classpath:routing-rules.json}") Resource rulesResource,
+                       @Value("${routing.default-type:standard}") String defaultType,
+                       @Value("${llama.model:llama3}") String defaultModel) throws IOException {
+        this.ollamaClient = ollamaClient;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.defaultModel = defaultModel;
+        try (InputStream in = rulesResource.getInputStream()) {
+            for (RoutingRule rule : objectMapper.readValue(in, new TypeReference<List<RoutingRule>>() {
+            })) {
+                if (rule.triage() == TriageMode.SMALL_MODEL && rule.smallModel() == null) {
+                    throw new IllegalStateException("Routing rule " + rule.analysisType() + " triages without a smallModel");
+                }
+                rules.put(rule.analysisType().toLowerCase(Locale.ROOT), rule);
+            }
+        }
+        this.defaultRule = rules.get(defaultType.toLowerCase(Locale.ROOT));
+        if (defaultRule == null) {
+            throw new IllegalStateException("No routing rule for default analysis type " + defaultType);
+        }
+        log.info("Loaded routing rules for analysis types {}", rules.keySet());
+    }
+
+    /** The rule of the analysis type, or of {@code routing.default-type} when unknown or absent. */
+    public RoutingRule rule(String analysisType) {
+        return analysisType == null ? defaultRule
+            : rules.getOrDefault(analysisType.toLowerCase(Locale.ROOT), defaultRule);
+    }
+
+    public String largeModel(RoutingRule rule) {
+        return rule.largeModel() != null ? rule.largeModel() : defaultModel;
+    }
+
+    /** Models that triage for some analysis type. */
+    public Set<String> smallModels() {
+        Set<String> models = new LinkedHashSet<>();
+        rules.values().stream()
+            .filter(rule -> rule.triage() == TriageMode.SMALL_MODEL)
+            .forEach(rule -> models.add(rule.smallModel()));
+        return models;
+    }
+
+    /** Models that analyse for some analysis type, including {@code llama.model}. */
+    public Set<String> largeModels() {
+        Set<String> models = new LinkedHashSet<>();
+        rules.values().forEach(rule -> models.add(largeModel(rule)));
+        models.add(defaultModel);
+        return models;
+    }
+
+    /** Which of the ambiguous clauses escalate; see the class comment for the rules. */
+    public TriageResult triage(RoutingRule rule, List<String> clauses) {
+        boolean[] escalate = new boolean[clauses.size()];
+        Arrays.fill(escalate, true);
+        if (rule.triage() != TriageMode.SMALL_MODEL || clauses.isEmpty()) {
+            return new TriageResult(escalate, 0);
+        }
+        StringBuilder numbered = new StringBuilder(Prompts.TRIAGE_LEAD);
+        for (int i = 0; i < clauses.size(); i++) {
+            numbered.append('[').append(i + 1).append("] ").append(clauses.get(i).strip()).append("\n\n");
+        }
+        Generation generation = ollamaClient.generate(rule.smallModel(), Prompts.TRIAGE_SYSTEM, numbered.toString());
+        JsonNode scores = generation.succeeded() ? readArray(generation.response()) : null;
+        if (scores == null) {
+            log.debug("Triage answer from {} unreadable; escalating all {} clauses", rule.smallModel(), clauses.size());
+            return new TriageResult(escalate, generation.gpuNanos());
+        }
+        for (JsonNode score : scores) {
+            int index = score.path("index").asInt(0);
+            if (index >= 1 && index <= clauses.size() && score.has("risk") && score.has("complexity")) {
+                escalate[index - 1] = Math.max(score.path("risk").asInt(10), score.path("complexity").asInt(10))
+                    >= rule.escalateScore();
+            }
+        }
+        return new TriageResult(escalate, generation.gpuNanos());
+    }
+
+    private JsonNode readArray(String response) {
+        String json = response == null ? "" : response.strip();
+        if (json.startsWith("```")) {
+            json = json.substring(json.indexOf('\n') + 1, Math.max(json.indexOf('\n') + 1, json.lastIndexOf("```"))).strip();
+        }
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            return node != null && node.isArray() ? node : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /** Records one request: its end-to-end latency and GPU time, and how many clauses each tier settled. */
+    public void record(RouteSummary summary, Duration latency, int settledByRules, int settledBySmallModel) {
+        String type = summary.analysisType();
+        String route = summary.route().name().toLowerCase(Locale.ROOT);
+        Timer.builder("llm.route.latency")
+            .description("Analysis latency per request, by analysis type and the most expensive tier used")
+            .tags("type", type, "route", route)
+            .register(meterRegistry)
+            .record(latency);
+        DistributionSummary.builder("llm.route.gpu.seconds")
+            .description("Model prompt processing and generation seconds per request")
+            .baseUnit("seconds")
+            .tags("type", type, "route", route)
+            .register(meterRegistry)
+            .record(summary.gpuSeconds());
+        clauses(type, "rules").increment(settledByRules);
+        clauses(type, "small").increment(settledBySmallModel);
+        clauses(type, "large").increment(summary.escalated());
+    }
+
+    private Counter clauses(String type, String tier) {
+        return Counter.builder("llm.route.clauses")
+            .description("Clauses settled by each tier")
+            .tags("type", type, "tier", tier)
+            .register(meterRegistry);
+    }
+}
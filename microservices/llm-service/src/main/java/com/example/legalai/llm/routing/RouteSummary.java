@@ -0,0 +1,12 @@
+package com.example.legalai.llm.routing;
+
+/**
+ * How one request was routed.
+ *
+ * @param triaged    ambiguous clauses scored by the small model
+ * @param escalated  clauses sent to the large model
+ * @param gpuSeconds prompt processing plus generation time reported by Ollama, all models
+ */
+public record RouteSummary(String analysisType, ModelRoute route, String largeModel, int triaged, int escalated,
+                           double gpuSeconds) {
+}
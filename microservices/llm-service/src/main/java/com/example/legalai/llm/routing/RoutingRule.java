@@ -0,0 +1,14 @@
+package com.example.legalai.llm.routing;
+
+/**
+ * Routing of one analysis type, loaded from {@code routing.rules}.
+ *
+ * @param analysisType  value of the request's {@code analysisType} (or {@code analysisDepth})
+ * @param smallModel    Ollama model that scores clauses when {@code triage} is SMALL_MODEL
+ * @param largeModel    Ollama model for full analysis; {@code llama.model} when absent
+ * @param escalateScore a triaged clause escalates when its risk or complexity (0-10) reaches this
+ * @param escalateRisky also send clauses the rules found risky to the large model, for its reasoning
+ */
+public record RoutingRule(String analysisType, TriageMode triage, String smallModel, String largeModel,
+                          int escalateScore, boolean escalateRisky) {
+}
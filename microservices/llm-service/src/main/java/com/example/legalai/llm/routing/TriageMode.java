@@ -0,0 +1,9 @@
+package com.example.legalai.llm.routing;
+
+/** How clauses the rule engine leaves ambiguous are sorted before the large model. */
+public enum TriageMode {
+    /** Every ambiguous clause escalates to the large model. */
+    RULES,
+    /** A small model scores ambiguous clauses and only high scorers escalate. */
+    SMALL_MODEL
+}
@@ -0,0 +1,8 @@
+package com.example.legalai.llm.routing;
+
+/**
+ * @param escalate per clause, whether it goes on to the large model
+ * @param gpuNanos GPU time of the triage generation
+ */
+public record TriageResult(boolean[] escalate, long gpuNanos) {
+}
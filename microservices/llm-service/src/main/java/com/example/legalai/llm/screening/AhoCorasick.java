@@ -0,0 +1,227 @@
+package com.example.legalai.llm.screening;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-phrase matcher compiled to a flat deterministic automaton.
+ *
+ * <p>Characters are lower-cased and runs of whitespace are read as one space, so "Force
+ * Majeure" matches "force\n majeure". Every character of a phrase is mapped to a dense class
+ * number and the automaton is stored as one {@code int[]} of {@code states x classes}
+ * transitions with failure links already folded in, so a scan costs one table lookup per
+ * character and never backtracks. Phrases starting or ending with a letter or digit of a
+ * spaced script only match at word boundaries ("lien" does not match "client"); CJK phrases
+ * match anywhere.
+ *
+ * <p>Instances are immutable and safe to share between threads.
+ */
+public final class AhoCorasick {
+
+    /** Receives matches in order of their end offset. */
+    @FunctionalInterface
+    public interface MatchHandler {
+        /**
+         * @param pattern index of the phrase in the compiled list
+         * @param start   offset of the first matched character
+         * @param end     exclusive end offset
+         * @param word    number of words before {@code end}, for proximity checks
+         */
+        void onMatch(int pattern, int start, int end, int word);
+    }
+
+    private static final byte SPACE = 1;
+    private static final byte WORD = 2;
+    private static final byte IDEOGRAPH = 4;
+    /** Character kinds, looked up instead of calling the {@code Character} predicates per character. */
+    private static final byte[] KINDS = new byte[Character.MAX_VALUE + 1];
+
+    static {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            if (Character.isWhitespace(c)) {
+                KINDS[c] = SPACE;
+            } else if (Character.isIdeographic(c)) {
+                KINDS[c] = IDEOGRAPH;
+            } else if (Character.isLetterOrDigit(c)) {
+                KINDS[c] = WORD;
+            }
+        }
+    }
+
+    /** Class of every character, upper case included, so scanning needs no case folding. */
+    private final char[] classOf = new char[Character.MAX_VALUE + 1];
+    private final int width;
+    private final int[] transitions;
+    private final int[][] outputs;
+    private final int[] lengths;
+    private final boolean[] boundedStart;
+    private final boolean[] boundedEnd;
+    private final int maxLength;
+
+    private AhoCorasick(List<String> patterns) {
+        int patternCount = patterns.size();
+        lengths = new int[patternCount];
+        boundedStart = new boolean[patternCount];
+        boundedEnd = new boolean[patternCount];
+
+        // Trie over normalised phrases, with character classes assigned as they appear
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        trie.add(new HashMap<>());
+        ends.add(new ArrayList<>());
+        int classes = 0;
+        int longest = 0;
+        for (int p = 0; p < patternCount; p++) {
+            String phrase = normalise(patterns.get(p));
+            if (phrase.isEmpty()) {
+                throw new IllegalArgumentException("Empty phrase at index " + p);
+            }
+            lengths[p] = phrase.length();
+            longest = Math.max(longest, phrase.length());
+            boundedStart[p] = isWordChar(phrase.charAt(0));
+            boundedEnd[p] = isWordChar(phrase.charAt(phrase.length() - 1));
+            int state = 0;
+            for (int i = 0; i < phrase.length(); i++) {
+                char c = phrase.charAt(i);
+                if (classOf[c] == 0) {
+                    classOf[c] = (char) ++classes;
+                }
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new HashMap<>());
+                    ends.add(new ArrayList<>());
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            ends.get(state).add(p);
+        }
+        maxLength = longest;
+        width = classes + 1;
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            char lower = Character.toLowerCase((char) c);
+            if (lower != c && classOf[c] == 0) {
+                classOf[c] = classOf[lower];
+            }
+        }
+
+        // Breadth-first: a state's failure target is always finished before the state itself
+        int states = trie.size();
+        transitions = new int[states * width];
+        outputs = new int[states][];
+        int[] failure = new int[states];
+        outputs[0] = toArray(ends.get(0));
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (Map.Entry<Character, Integer> edge : trie.get(0).entrySet()) {
+            transitions[classOf[edge.getKey()]] = edge.getValue();
+            queue.add(edge.getValue());
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] own = toArray(ends.get(state));
+            int[] inherited = outputs[failure[state]];
+            outputs[state] = inherited.length == 0 ? own : concat(own, inherited);
+            System.arraycopy(transitions, failure[state] * width, transitions, state * width, width);
+            for (Map.Entry<Character, Integer> edge : trie.get(state).entrySet()) {
+                int cls = classOf[edge.getKey()];
+                int child = edge.getValue();
+                failure[child] = transitions[failure[state] * width + cls];
+                transitions[state * width + cls] = child;
+                queue.add(child);
+            }
+        }
+    }
+
+    public static AhoCorasick compile(List<String> patterns) {
+        return new AhoCorasick(patterns);
+    }
+
+    public int patternCount() {
+        return lengths.length;
+    }
+
+    public void scan(CharSequence text, MatchHandler handler) {
+        // Original offsets of the last maxLength characters fed to the automaton, so matches
+        // map back to the text even where whitespace runs were collapsed
+        int capacity = Math.max(1, maxLength);
+        int[] fedAt = new int[capacity];
+        int slot = 0;
+        int state = 0;
+        int words = 0;
+        byte previous = SPACE;
+        int length = text.length();
+        int spaceClass = classOf[' '];
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            byte kind = KINDS[c];
+            int cls;
+            if (kind == SPACE) {
+                if (previous == SPACE) {
+                    continue;
+                }
+                cls = spaceClass;
+            } else {
+                // Each ideograph counts as a word, so proximity works for unspaced scripts too
+                if (kind == IDEOGRAPH || (kind == WORD && previous != WORD)) {
+                    words++;
+                }
+                cls = classOf[c];
+            }
+            previous = kind;
+            fedAt[slot] = i;
+            if (++slot == capacity) {
+                slot = 0;
+            }
+            state = transitions[state * width + cls];
+            int[] matched = outputs[state];
+            for (int pattern : matched) {
+                int back = slot - lengths[pattern];
+                int start = fedAt[back < 0 ? back + capacity : back];
+                if (boundedStart[pattern] && start > 0 && KINDS[text.charAt(start - 1)] == WORD) {
+                    continue;
+                }
+                if (boundedEnd[pattern] && i + 1 < length && KINDS[text.charAt(i + 1)] == WORD) {
+                    continue;
+                }
+                handler.onMatch(pattern, start, i + 1, words);
+            }
+        }
+    }
+
+    static String normalise(String phrase) {
+        StringBuilder normalised = new StringBuilder(phrase.length());
+        boolean space = false;
+        for (int i = 0; i < phrase.length(); i++) {
+            char c = phrase.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = !normalised.isEmpty();
+                continue;
+            }
+            if (space) {
+                normalised.append(' ');
+                space = false;
+            }
+            normalised.append(Character.toLowerCase(c));
+        }
+        return normalised.toString();
+    }
+
+    private static boolean isWordChar(char c) {
+        return KINDS[c] == WORD;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
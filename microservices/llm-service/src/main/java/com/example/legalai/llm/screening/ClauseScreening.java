@@ -0,0 +1,12 @@
+package com.example.legalai.llm.screening;
+
+import java.util.List;
+
+/**
+ * Pre-screening outcome for one clause.
+ *
+ * @param riskLevel highest level among the risky rules that fired, or {@code null}
+ */
+public record ClauseScreening(String clause, ScreeningVerdict verdict, int riskScore, int benignScore,
+                              String riskLevel, List<RuleHit> hits) {
+}
@@ -0,0 +1,47 @@
+package com.example.legalai.llm.screening;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Splits contract text into clauses for screening: a clause ends at a blank line or before a
+ * numbered heading ("4.", "4.2", "Article 7", "第三条"). Lettered items such as "(a)" stay in
+ * their clause so the model sees them in context.
+ */
+public final class ClauseSegmenter {
+
+    private static final Pattern HEADING = Pattern.compile(
+            "\\s*(?:(?:article|section|clause)\\s+[\\w.]+|第[一二三四五六七八九十百千零〇\\d]+条|\\d{1,3}(?:\\.\\d{1,3})+\\.?|\\d{1,3}\\.)"
+                    + "(?:\\s|$|(?<=条))",
+            Pattern.CASE_INSENSITIVE);
+
+    private ClauseSegmenter() {
+    }
+
+    public static List<String> split(String text) {
+        List<String> clauses = new ArrayList<>();
+        if (text == null) {
+            return clauses;
+        }
+        StringBuilder current = new StringBuilder();
+        for (String line : text.split("\\R", -1)) {
+            if (line.isBlank() || HEADING.matcher(line).lookingAt()) {
+                flush(current, clauses);
+            }
+            if (!line.isBlank()) {
+                current.append(line).append('\n');
+            }
+        }
+        flush(current, clauses);
+        return clauses;
+    }
+
+    private static void flush(StringBuilder current, List<String> clauses) {
+        String clause = current.toString().strip();
+        if (!clause.isEmpty()) {
+            clauses.add(clause);
+        }
+        current.setLength(0);
+    }
+}
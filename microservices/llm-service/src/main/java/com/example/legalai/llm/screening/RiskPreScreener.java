@@ -0,0 +1,199 @@
+package com.example.legalai.llm.screening;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Classifies clauses as benign, risky or ambiguous from phrase dictionaries, proximity rules
+ * and regular expressions, so only ambiguous clauses need a model generation.
+ *
+ * <p>All phrases of all rules (including proximity terms and regex anchors) are compiled into
+ * one {@link AhoCorasick} automaton, so a clause is scanned once whatever the number of rules.
+ * Proximity is checked during the scan from the word position of the latest hit on each side.
+ * Rules with a pattern but no anchors run their expression on every clause and are the only
+ * part whose cost grows with the rule count.
+ *
+ * <p>A clause is {@code RISKY} when the weights of its risky rules reach
+ * {@code screening.risky-threshold}, {@code BENIGN} when no risky rule fired and its benign
+ * weights reach {@code screening.benign-threshold}, and {@code AMBIGUOUS} otherwise.
+ */
+@Service
+public class RiskPreScreener {
+
+    private static final Logger log = LoggerFactory.getLogger(RiskPreScreener.class);
+
+    private static final List<String> RISK_LEVELS = List.of("LOW", "MEDIUM", "HIGH", "CRITICAL");
+
+    private static final int PHRASE = 0;
+    private static final int FIRST = 1;
+    private static final int SECOND = 2;
+    private static final int ANCHOR = 3;
+
+    private final List<ScreeningRule> rules;
+    private final AhoCorasick automaton;
+    /** Per phrase: the (rule << 2 | role) entries it belongs to. */
+    private final int[][] phraseRoles;
+    private final Pattern[] patterns;
+    private final boolean[] anchored;
+    private final int riskyThreshold;
+    private final int benignThreshold;
+    private final Map<ScreeningVerdict, Counter> clauseCounters = new EnumMap<>(ScreeningVerdict.class);
+
+    public RiskPreScreener(ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${screening.rules:classpath:screening-rules.json}") Resource rulesResource,
+                           @Value("${screening.risky-threshold:3}") int riskyThreshold,
+                           @Value("${screening.benign-threshold:1}") int benignThreshold) throws IOException {
+        try (InputStream in = rulesResource.getInputStream()) {
+            this.rules = List.copyOf(objectMapper.readValue(in, new TypeReference<List<ScreeningRule>>() {
+            }));
+        }
+        this.riskyThreshold = riskyThreshold;
+        this.benignThreshold = benignThreshold;
+
+        Map<String, List<Integer>> roles = new LinkedHashMap<>();
+        patterns = new Pattern[rules.size()];
+        anchored = new boolean[rules.size()];
+        for (int r = 0; r < rules.size(); r++) {
+            ScreeningRule rule = rules.get(r);
+            if (rule.verdict() == null || rule.verdict() == ScreeningVerdict.AMBIGUOUS) {
+                throw new IllegalStateException("Screening rule " + rule.name() + " must be RISKY or BENIGN");
+            }
+            addPhrases(roles, rule.phrases(), r, PHRASE);
+            if (rule.proximity() != null) {
+                addPhrases(roles, rule.proximity().first(), r, FIRST);
+                addPhrases(roles, rule.proximity().second(), r, SECOND);
+            }
+            if (rule.pattern() != null) {
+                patterns[r] = Pattern.compile(rule.pattern(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+                anchored[r] = rule.anchors() != null && !rule.anchors().isEmpty();
+                addPhrases(roles, rule.anchors(), r, ANCHOR);
+            }
+        }
+        this.automaton = AhoCorasick.compile(new ArrayList<>(roles.keySet()));
+        this.phraseRoles = roles.values().stream()
+                .map(list -> list.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+
+        for (ScreeningVerdict verdict : ScreeningVerdict.values()) {
+            clauseCounters.put(verdict, Counter.builder("llm.prescreen.clauses")
+                    .description("Clauses classified by the rule-based pre-screen")
+                    .tag("verdict", verdict.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        log.info("Loaded {} screening rules with {} phrases", rules.size(), automaton.patternCount());
+    }
+
+    private static void addPhrases(Map<String, List<Integer>> roles, List<String> phrases, int rule, int role) {
+        if (phrases == null) {
+            return;
+        }
+        for (String phrase : phrases) {
+            roles.computeIfAbsent(AhoCorasick.normalise(phrase), key -> new ArrayList<>()).add(rule << 2 | role);
+        }
+    }
+
+    public ClauseScreening screen(String clause) {
+        int ruleCount = rules.size();
+        int[] evidenceStart = new int[ruleCount];
+        int[] evidenceEnd = new int[ruleCount];
+        int[] lastFirst = new int[ruleCount];
+        int[] lastSecond = new int[ruleCount];
+        int[] lastFirstStart = new int[ruleCount];
+        int[] lastSecondStart = new int[ruleCount];
+        boolean[] anchorSeen = new boolean[ruleCount];
+        Arrays.fill(evidenceStart, -1);
+        Arrays.fill(lastFirst, -1);
+        Arrays.fill(lastSecond, -1);
+
+        automaton.scan(clause, (phrase, start, end, word) -> {
+            for (int entry : phraseRoles[phrase]) {
+                int r = entry >>> 2;
+                if (evidenceStart[r] >= 0) {
+                    continue;
+                }
+                switch (entry & 3) {
+                    case PHRASE -> {
+                        evidenceStart[r] = start;
+                        evidenceEnd[r] = end;
+                    }
+                    case FIRST -> {
+                        if (lastSecond[r] >= 0 && word - lastSecond[r] <= rules.get(r).proximity().within()) {
+                            evidenceStart[r] = lastSecondStart[r];
+                            evidenceEnd[r] = end;
+                        }
+                        lastFirst[r] = word;
+                        lastFirstStart[r] = start;
+                    }
+                    case SECOND -> {
+                        if (lastFirst[r] >= 0 && word - lastFirst[r] <= rules.get(r).proximity().within()) {
+                            evidenceStart[r] = lastFirstStart[r];
+                            evidenceEnd[r] = end;
+                        }
+                        lastSecond[r] = word;
+                        lastSecondStart[r] = start;
+                    }
+                    default -> anchorSeen[r] = true;
+                }
+            }
+        });
+
+        List<RuleHit> hits = new ArrayList<>();
+        int riskScore = 0;
+        int benignScore = 0;
+        int riskLevel = -1;
+        for (int r = 0; r < ruleCount; r++) {
+            ScreeningRule rule = rules.get(r);
+            String evidence = null;
+            if (evidenceStart[r] >= 0) {
+                evidence = clause.substring(evidenceStart[r], evidenceEnd[r]);
+            } else if (patterns[r] != null && (!anchored[r] || anchorSeen[r])) {
+                Matcher matcher = patterns[r].matcher(clause);
+                if (matcher.find()) {
+                    evidence = matcher.group();
+                }
+            }
+            if (evidence == null) {
+                continue;
+            }
+            int weight = Math.max(1, rule.weight());
+            hits.add(new RuleHit(rule.name(), rule.verdict(), rule.riskLevel(), rule.reason(), evidence));
+            if (rule.verdict() == ScreeningVerdict.RISKY) {
+                riskScore += weight;
+                riskLevel = Math.max(riskLevel, RISK_LEVELS.indexOf(rule.riskLevel()));
+            } else {
+                benignScore += weight;
+            }
+        }
+
+        ScreeningVerdict verdict;
+        if (riskScore >= riskyThreshold) {
+            verdict = ScreeningVerdict.RISKY;
+        } else if (riskScore == 0 && benignScore >= benignThreshold) {
+            verdict = ScreeningVerdict.BENIGN;
+        } else {
+            verdict = ScreeningVerdict.AMBIGUOUS;
+        }
+        clauseCounters.get(verdict).increment();
+        return new ClauseScreening(clause, verdict, riskScore, benignScore,
+                riskLevel >= 0 ? RISK_LEVELS.get(riskLevel) : null, hits);
+    }
+}
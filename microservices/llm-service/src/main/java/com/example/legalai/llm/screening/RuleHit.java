@@ -0,0 +1,9 @@
+package com.example.legalai.llm.screening;
+
+/**
+ * A rule that fired on a clause.
+ *
+ * @param evidence the matched text
+ */
+public record RuleHit(String rule, ScreeningVerdict verdict, String riskLevel, String reason, String evidence) {
+}
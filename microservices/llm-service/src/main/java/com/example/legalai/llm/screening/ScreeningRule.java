@@ -0,0 +1,21 @@
+package com.example.legalai.llm.screening;
+
+import java.util.List;
+
+/**
+ * One pre-screening rule, loaded from {@code screening.rules}. A rule fires when any of its
+ * phrases occurs, when a {@code first} and a {@code second} proximity term occur within
+ * {@code within} words of each other, or when its regular expression matches. A rule with a
+ * pattern and {@code anchors} only runs the expression on clauses containing an anchor
+ * phrase, which keeps regex cost off the common path.
+ *
+ * @param verdict   {@link ScreeningVerdict#RISKY} or {@link ScreeningVerdict#BENIGN}
+ * @param riskLevel reported for risky rules: LOW, MEDIUM, HIGH or CRITICAL
+ * @param weight    added to the clause's risky or benign score when the rule fires
+ */
+public record ScreeningRule(String name, ScreeningVerdict verdict, String riskLevel, String reason, int weight,
+                            List<String> phrases, Proximity proximity, String pattern, List<String> anchors) {
+
+    public record Proximity(List<String> first, List<String> second, int within) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.legalai.llm.screening;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What the pre-screen decided for one request.
+ *
+ * @param modelCalled     whether any clause was ambiguous and went to the model
+ * @param charactersSent  characters of clause text in the model prompt
+ * @param findings        risky clauses reported by rules, in the model's output shape
+ */
+public record ScreeningSummary(int clauses, int benign, int risky, int ambiguous, boolean modelCalled,
+                               int charactersSent, int charactersTotal, List<Map<String, Object>> findings) {
+}
@@ -0,0 +1,10 @@
+package com.example.legalai.llm.screening;
+
+public enum ScreeningVerdict {
+    /** Boilerplate with no risk signal; needs no model call. */
+    BENIGN,
+    /** Enough risk signal to report without the model. */
+    RISKY,
+    /** Sent to the model. */
+    AMBIGUOUS
+}
@@ -0,0 +1,22 @@
+package com.example.legalai.llm.service;
+
+/**
+ * One Ollama generation with the timings it reports.
+ *
+ * @param response         generated text, or the fallback message when the call failed
+ * @param promptEvalNanos  time spent processing the prompt
+ * @param evalNanos        time spent generating the response
+ */
+public record Generation(String response, boolean succeeded, long promptEvalNanos, long evalNanos) {
+
+    static final String FAILED = "Failed to call LLaMA model";
+
+    static Generation failed() {
+        return new Generation(FAILED, false, 0, 0);
+    }
+
+    /** Accelerator time of the generation: prompt processing plus token generation. */
+    public long gpuNanos() {
+        return promptEvalNanos + evalNanos;
+    }
+}
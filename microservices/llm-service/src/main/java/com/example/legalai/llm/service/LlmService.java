@@ -1,43 +1,197 @@
 package com.example.legalai.llm.service;
 
-import org.springframework.http.*;
+import com.example.legalai.llm.routing.ModelRoute;
+import com.example.legalai.llm.routing.ModelRouter;
+import com.example.legalai.llm.routing.RouteSummary;
+import com.example.legalai.llm.routing.RoutingRule;
+import com.example.legalai.llm.routing.TriageMode;
+import com.example.legalai.llm.routing.TriageResult;
+import com.example.legalai.llm.screening.ClauseScreening;
+import com.example.legalai.llm.screening.ClauseSegmenter;
+import com.example.legalai.llm.screening.RiskPreScreener;
+import com.example.legalai.llm.screening.RuleHit;
+import com.example.legalai.llm.screening.ScreeningSummary;
+import com.example.legalai.llm.screening.ScreeningVerdict;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class LlmService {
 
-    private final WebClient webClient;
+    private static final Logger log = LoggerFactory.getLogger(LlmService.class);
+
+    private static final TypeReference<List<Map<String, Object>>> FINDINGS = new TypeReference<>() {
+    };
+
+    private final OllamaClient ollamaClient;
+    private final ModelRouter modelRouter;
+    private final RiskPreScreener preScreener;
+    private final ObjectMapper objectMapper;
+    private final boolean screeningEnabled;
+    private final Counter callsAvoided;
+    private final Counter charactersSkipped;
+
+    public LlmService(OllamaClient ollamaClient, ModelRouter modelRouter, RiskPreScreener preScreener,
+                      ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                      @Value("${screening.enabled:true}") boolean screeningEnabled) {
+        this.ollamaClient = ollamaClient;
+        this.modelRouter = modelRouter;
+        this.preScreener = preScreener;
+        this.objectMapper = objectMapper;
+        this.screeningEnabled = screeningEnabled;
+        this.callsAvoided = Counter.builder("llm.prescreen.calls.avoided")
+            .description("Analysis requests answered without a large-model generation")
+            .register(meterRegistry);
+        this.charactersSkipped = Counter.builder("llm.prescreen.characters.skipped")
+            .description("Clause characters kept out of large-model prompts by screening and triage")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Screens each clause locally, triages the ambiguous ones as the analysis type's routing
+     * rule says, and generates with the large model only for the clauses that escalate, in
+     * a single prompt. Risky clauses are reported from the matching rules and benign ones are
+     * dropped; when nothing escalates the large model is not called at all.
+     */
+    public ScreenedAnalysis analyzeScreened(String content, String analysisType) {
+        long started = System.nanoTime();
+        RoutingRule rule = modelRouter.rule(analysisType);
+        String largeModel = modelRouter.largeModel(rule);
+        if (!screeningEnabled) {
+            Generation generation = generate(largeModel, content);
+            RouteSummary route = new RouteSummary(rule.analysisType(), ModelRoute.LARGE, largeModel, 0, 1,
+                generation.gpuNanos() / 1e9);
+            modelRouter.record(route, Duration.ofNanos(System.nanoTime() - started), 0, 0);
+            return new ScreenedAnalysis(generation.response(), !generation.succeeded(), null, null, route);
+        }
+        List<ClauseScreening> screenings = ClauseSegmenter.split(content).stream()
+            .map(preScreener::screen)
+            .toList();
+
+        List<Map<String, Object>> findings = new ArrayList<>();
+        List<String> escalated = new ArrayList<>();
+        List<String> ambiguous = new ArrayList<>();
+        int benign = 0;
+        int risky = 0;
+        int total = 0;
+        for (ClauseScreening screening : screenings) {
+            total += screening.clause().length();
+            switch (screening.verdict()) {
+                case BENIGN -> benign++;
+                case RISKY -> {
+                    risky++;
+                    findings.add(finding(screening));
+                    if (rule.escalateRisky()) {
+                        escalated.add(screening.clause());
+                    }
+                }
+                case AMBIGUOUS -> ambiguous.add(screening.clause());
+            }
+        }
+
+        TriageResult triage = modelRouter.triage(rule, ambiguous);
+        int settledBySmallModel = 0;
+        for (int i = 0; i < ambiguous.size(); i++) {
+            if (triage.escalate()[i]) {
+                escalated.add(ambiguous.get(i));
+            } else {
+                settledBySmallModel++;
+            }
+        }
+        String prompt = String.join("\n\n", escalated);
 
-    public LlmService() {
-        this.webClient = WebClient.builder()
-            .baseUrl("http://localhost:11434")
-            .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-            .build();
+        boolean modelCalled = !escalated.isEmpty();
+        long gpuNanos = triage.gpuNanos();
+        List<Map<String, Object>> results = new ArrayList<>(findings);
+        String unmerged = null;
+        if (modelCalled) {
+            Generation generation = generate(largeModel, prompt);
+            gpuNanos += generation.gpuNanos();
+            List<Map<String, Object>> modelFindings = generation.succeeded() ? parse(generation.response()) : null;
+            if (modelFindings != null) {
+                results.addAll(modelFindings);
+            } else {
+                unmerged = generation.response();
+                log.warn("Large model {} {}; returning the {} rule findings only", largeModel,
+                    generation.succeeded() ? "did not answer with a JSON array" : "call failed", findings.size());
+            }
+        } else {
+            callsAvoided.increment();
+        }
+        String result = toJson(results);
+        charactersSkipped.increment(total - prompt.length());
+        int ambiguousCount = ambiguous.size();
+        boolean triaged = rule.triage() == TriageMode.SMALL_MODEL && !ambiguous.isEmpty();
+        ModelRoute route = modelCalled ? ModelRoute.LARGE : triaged ? ModelRoute.SMALL : ModelRoute.RULES;
+        RouteSummary routeSummary = new RouteSummary(rule.analysisType(), route, largeModel,
+            triaged ? ambiguousCount : 0, escalated.size(), gpuNanos / 1e9);
+        int settledByRules = benign + (rule.escalateRisky() ? 0 : risky);
+        modelRouter.record(routeSummary, Duration.ofNanos(System.nanoTime() - started), settledByRules,
+            settledBySmallModel);
+        log.debug("Routed {} clauses as {}: {} benign, {} risky, {} ambiguous, {} escalated to {}", screenings.size(),
+            rule.analysisType(), benign, risky, ambiguousCount, escalated.size(), largeModel);
+        return new ScreenedAnalysis(result, unmerged != null, unmerged, new ScreeningSummary(screenings.size(), benign, risky, ambiguousCount,
+            modelCalled, prompt.length(), total, findings), routeSummary);
     }
 
+    private static Map<String, Object> finding(ClauseScreening screening) {
+        List<String> reasons = new ArrayList<>();
+        for (RuleHit hit : screening.hits()) {
+            if (hit.verdict() == ScreeningVerdict.RISKY) {
+                reasons.add((hit.reason() != null ? hit.reason() : hit.rule()) + " (\"" + hit.evidence() + "\")");
+            }
+        }
+        Map<String, Object> finding = new LinkedHashMap<>();
+        finding.put("clause", screening.clause());
+        finding.put("reason", String.join("; ", reasons));
+        finding.put("risk level", screening.riskLevel());
+        finding.put("source", "rules");
+        return finding;
+    }
+
+    /** The model's findings, or {@code null} when its response is not a JSON array of objects. */
+    private List<Map<String, Object>> parse(String modelResponse) {
+        if (modelResponse == null) {
+            return null;
+        }
+        String json = modelResponse.strip();
+        if (json.startsWith("```")) {
+            json = json.substring(json.indexOf('\n') + 1, Math.max(json.indexOf('\n') + 1, json.lastIndexOf("```"))).strip();
+        }
+        try {
+            return objectMapper.readValue(json, FINDINGS);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise findings", e);
+        }
+    }
+
+    /** Unscreened analysis with the default analysis type's large model, as used for RAG answers. */
     public String analyzeContract(String content) {
-        String prompt = String.format("""
-            Read the following contract clause and return a JSON array of risky clauses. Each clause should have a "clause", "reason", and "risk level" field. Respond with JSON only, no explanation.
-
-            Clause:
-            %s
-            """, content);
-
-        Map<String, Object> body = Map.of(
-            "model", "llama3",
-            "prompt", prompt,
-            "stream", false
-        );
-
-        return webClient.post()
-            .uri("/api/generate")
-            .bodyValue(body)
-            .retrieve()
-            .bodyToMono(Map.class)
-            .map(resp -> (String) resp.get("response"))
-            .onErrorReturn("Failed to call LLaMA model")
-            .block();
+        return generate(modelRouter.largeModel(modelRouter.rule(null)), content).response();
+    }
+
+    private Generation generate(String model, String content) {
+        return ollamaClient.generate(model, Prompts.ANALYSIS_SYSTEM, Prompts.ANALYSIS_LEAD + content);
     }
-} 
\ No newline at end of file
+}
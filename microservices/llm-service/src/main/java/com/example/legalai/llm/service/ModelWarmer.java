@@ -0,0 +1,55 @@
+package com.example.legalai.llm.service;
+
+import com.example.legalai.llm.routing.ModelRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps every routed model loaded with its system prefix evaluated on each host that may
+ * serve it, so the first request after a quiet period pays neither the model load nor the
+ * prefix's prompt processing.
+ * Runs at startup and then every {@code llama.warm.interval}, which should stay below
+ * {@code llama.keep-alive}.
+ */
+@Component
+@ConditionalOnProperty(name = "llama.warm.enabled", havingValue = "true", matchIfMissing = true)
+public class ModelWarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(ModelWarmer.class);
+
+    private final OllamaClient ollamaClient;
+    private final ModelRouter modelRouter;
+    private final Counter failures;
+
+    public ModelWarmer(OllamaClient ollamaClient, ModelRouter modelRouter, MeterRegistry meterRegistry) {
+        this.ollamaClient = ollamaClient;
+        this.modelRouter = modelRouter;
+        this.failures = Counter.builder("llm.warm.failures")
+            .description("Warm-up pings that an Ollama backend did not answer")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${llama.warm.interval:10m}")
+    public void warm() {
+        for (String model : modelRouter.smallModels()) {
+            warm(model, Prompts.TRIAGE_SYSTEM, Prompts.TRIAGE_LEAD);
+        }
+        for (String model : modelRouter.largeModels()) {
+            warm(model, Prompts.ANALYSIS_SYSTEM, Prompts.ANALYSIS_LEAD);
+        }
+    }
+
+    private void warm(String model, String system, String lead) {
+        int failed = ollamaClient.warm(model, system, lead);
+        if (failed == 0) {
+            log.debug("Warmed {}", model);
+        } else {
+            failures.increment(failed);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.legalai.llm.service;
+
+import com.example.legalai.llm.backend.BackendPool;
+import com.example.legalai.llm.backend.HedgePolicy;
+import com.example.legalai.llm.backend.OllamaBackend;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Blocking calls to Ollama's {@code /api/generate} on a host chosen by the {@link BackendPool},
+ * returning the response together with Ollama's own timings so callers can account GPU time.
+ *
+ * <p>Every call sends {@code keep_alive}, so a model stays loaded, with its cached prompt
+ * prefix, for {@code llama.keep-alive} after its last use rather than Ollama's five-minute
+ * default. Prompt processing time and tokens are recorded per model: they fall when the
+ * {@link Prompts system prefix} is served from cache.
+ *
+ * <p>Responses are streamed so the first token can be timed. With {@code llama.hedge.enabled},
+ * a generation without a first token after the {@link HedgePolicy} delay is sent again to
+ * another host. Whichever attempt produces a token first is kept and the other is cancelled,
+ * which also stops its generation on the host.
+ */
+@Component
+public class OllamaClient {
+
+    private static final Logger log = LoggerFactory.getLogger(OllamaClient.class);
+
+    private static final ParameterizedTypeReference<Map<String, Object>> CHUNK = new ParameterizedTypeReference<>() {
+    };
+
+    private final BackendPool backendPool;
+    private final HedgePolicy hedgePolicy;
+    private final Duration timeout;
+    private final String keepAlive;
+    private final MeterRegistry meterRegistry;
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+
+    public OllamaClient(BackendPool backendPool,
+                        HedgePolicy hedgePolicy,
+                        MeterRegistry meterRegistry,
+                        @Value("${llama.timeout:30000}") long timeoutMillis,
+                        @Value("${llama.keep-alive:30m}") String keepAlive) {
+        this.backendPool = backendPool;
+        this.hedgePolicy = hedgePolicy;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.keepAlive = keepAlive;
+        this.meterRegistry = meterRegistry;
+        this.hedgesSent = Counter.builder("llm.hedge.sent")
+            .description("Generations sent a second time because the first attempt had no token yet")
+            .register(meterRegistry);
+        this.hedgesWon = Counter.builder("llm.hedge.won")
+            .description("Hedged generations where the second attempt produced a token first")
+            .register(meterRegistry);
+    }
+
+    public Generation generate(String model, String system, String prompt) {
+        Map<String, Object> body = body(model, system, prompt);
+        List<OllamaBackend> tried = new CopyOnWriteArrayList<>();
+        Flux<Map<String, Object>> chunks = attempt(model, body, tried);
+        if (hedgePolicy.isEnabled()) {
+            hedgePolicy.deposit();
+            if (backendPool.candidates(model).size() > 1) {
+                // Empty or failed sources are skipped, so a primary that fails fast is retried by the hedge
+                chunks = Flux.firstWithValue(chunks, hedge(model, body, tried));
+            }
+        }
+        return assemble(model, chunks);
+    }
+
+    /**
+     * Loads the model if needed and evaluates {@code system} and {@code lead} with a one-token
+     * generation on every host that may serve it, so the next real request finds both the
+     * model and its prefix in memory wherever it lands. An empty prompt would only load the
+     * model without evaluating anything.
+     *
+     * @return the number of hosts that did not answer
+     */
+    public int warm(String model, String system, String lead) {
+        Map<String, Object> body = body(model, system, lead);
+        body.put("options", Map.of("num_predict", 1));
+        int failed = 0;
+        for (OllamaBackend backend : backendPool.candidates(model)) {
+            Flux<Map<String, Object>> chunks = stream(backend, body)
+                .timeout(timeout)
+                .doOnError(e -> log.warn("Warming {} on {} failed: {}", model, backend, e.toString()));
+            if (!assemble(model, chunks).succeeded()) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    private Map<String, Object> body(String model, String system, String prompt) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("model", model);
+        body.put("system", system);
+        body.put("prompt", prompt);
+        body.put("keep_alive", keepAlive);
+        body.put("stream", true);
+        return body;
+    }
+
+    /** A second attempt after the hedge delay, or nothing when the budget is spent. */
+    private Flux<Map<String, Object>> hedge(String model, Map<String, Object> body, List<OllamaBackend> tried) {
+        AtomicBoolean first = new AtomicBoolean(true);
+        return Mono.delay(hedgePolicy.delay(model))
+            .filter(tick -> hedgePolicy.tryHedge())
+            .doOnNext(tick -> hedgesSent.increment())
+            .flatMapMany(tick -> attempt(model, body, tried))
+            .doOnNext(chunk -> {
+                if (first.compareAndSet(true, false)) {
+                    hedgesWon.increment();
+                }
+            });
+    }
+
+    /**
+     * One attempt on a pool host other than those already {@code tried}. The host is held from
+     * subscription until the stream ends: a failure or timeout counts against it, a
+     * cancellation by the losing side of a hedge does not.
+     */
+    private Flux<Map<String, Object>> attempt(String model, Map<String, Object> body, List<OllamaBackend> tried) {
+        return Flux.defer(() -> {
+            OllamaBackend backend = backendPool.acquire(model, tried);
+            tried.add(backend);
+            long start = System.nanoTime();
+            AtomicBoolean first = new AtomicBoolean(true);
+            return stream(backend, body)
+                .doOnNext(chunk -> {
+                    if (first.compareAndSet(true, false)) {
+                        hedgePolicy.recordFirstToken(model, System.nanoTime() - start);
+                    }
+                })
+                .timeout(timeout)
+                // Released before the signal reaches the caller, so its result never races the pool state
+                .doOnComplete(() -> backendPool.release(backend, System.nanoTime() - start, true))
+                .doOnError(e -> {
+                    log.warn("Generation with {} on {} failed: {}", model, backend, e.toString());
+                    backendPool.release(backend, System.nanoTime() - start, false);
+                })
+                .doOnCancel(() -> backendPool.cancel(backend));
+        });
+    }
+
+    private Flux<Map<String, Object>> stream(OllamaBackend backend, Map<String, Object> body) {
+        return backend.webClient().post()
+            .uri("/api/generate")
+            .bodyValue(body)
+            .retrieve()
+            .bodyToFlux(CHUNK);
+    }
+
+    /** Joins the streamed response; the timings come with the final chunk. */
+    private Generation assemble(String model, Flux<Map<String, Object>> chunks) {
+        List<Map<String, Object>> received = chunks.collectList()
+            .onErrorReturn(List.of())
+            .block();
+        if (received == null || received.isEmpty() || !Boolean.TRUE.equals(received.get(received.size() - 1).get("done"))) {
+            return Generation.failed();
+        }
+        StringBuilder response = new StringBuilder();
+        for (Map<String, Object> chunk : received) {
+            if (chunk.get("response") instanceof String piece) {
+                response.append(piece);
+            }
+        }
+        return record(model, response.toString(), received.get(received.size() - 1));
+    }
+
+    private Generation record(String model, String response, Map<String, Object> done) {
+        long promptEvalNanos = number(done.get("prompt_eval_duration"));
+        DistributionSummary.builder("llm.prompt.eval.seconds")
+            .description("Prompt processing time reported by Ollama per generation")
+            .baseUnit("seconds")
+            .tag("model", model)
+            .register(meterRegistry)
+            .record(promptEvalNanos / 1e9);
+        DistributionSummary.builder("llm.prompt.eval.tokens")
+            .description("Prompt tokens Ollama evaluated per generation; cached prefix tokens are not re-evaluated")
+            .baseUnit("tokens")
+            .tag("model", model)
+            .register(meterRegistry)
+            .record(number(done.get("prompt_eval_count")));
+        return new Generation(response, true, promptEvalNanos, number(done.get("eval_duration")));
+    }
+
+    private static long number(Object value) {
+        return value instanceof Number number ? number.longValue() : 0;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.legalai.llm.service;
+
+/**
+ * Instruction preambles sent as Ollama's {@code system} field.
+ *
+ * <p>Ollama places the system text at the start of the templated prompt and the runner
+ * keeps the KV state of the longest prefix it has already processed for a loaded model. As
+ * long as these strings stay byte-for-byte the same, only the clause text after them is
+ * evaluated on each request. Anything varying (clause numbers, dates, ids) therefore
+ * belongs in the prompt, never here.
+ */
+public final class Prompts {
+
+    public static final String ANALYSIS_SYSTEM = "Read the following contract clause and return a JSON array of risky"
+        + " clauses. Each clause should have a \"clause\", \"reason\", and \"risk level\" field. Respond with JSON"
+        + " only, no explanation.";
+
+    public static final String TRIAGE_SYSTEM = "Rate each numbered contract clause for legal risk and drafting"
+        + " complexity, each from 0 (none) to 10 (severe). Return a JSON array with one item per clause:"
+        + " {\"index\": <clause number>, \"risk\": <0-10>, \"complexity\": <0-10>}. Respond with JSON only, no"
+        + " explanation.";
+
+    /** Fixed start of every analysis prompt, part of the cached prefix too. */
+    public static final String ANALYSIS_LEAD = "Clause:\n";
+
+    /** Fixed start of every triage prompt, followed by the numbered clauses. */
+    public static final String TRIAGE_LEAD = "Clauses:\n";
+
+    private Prompts() {
+    }
+}
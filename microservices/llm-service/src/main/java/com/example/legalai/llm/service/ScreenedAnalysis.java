@@ -0,0 +1,16 @@
+package com.example.legalai.llm.service;
+
+import com.example.legalai.llm.routing.RouteSummary;
+import com.example.legalai.llm.screening.ScreeningSummary;
+
+/**
+ * @param analysisResult JSON array of risky clauses: rule findings followed by the model's; with
+ *                       screening disabled, the model's response as generated
+ * @param modelFailed    the large model was called and failed, or answered with something other
+ *                       than a JSON array; {@code analysisResult} then holds only rule findings
+ * @param modelResponse  the model's answer when it could not be merged, otherwise {@code null}
+ * @param screening      {@code null} when screening is disabled
+ */
+public record ScreenedAnalysis(String analysisResult, boolean modelFailed, String modelResponse,
+                               ScreeningSummary screening, RouteSummary routing) {
+}
@@ -0,0 +1,109 @@
+package com.example.legalai.llm.backend;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackendPoolTest {
+
+    private static final String HOSTS = "http://gpu-a:11434, http://gpu-b:11434/, http://gpu-c:11434";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BackendPool pool(String pinned, String balancing) {
+        return new BackendPool(meterRegistry, HOSTS, pinned, balancing, 2, Duration.ofMillis(200));
+    }
+
+    @Test
+    void testLeastOutstandingSpreadsConcurrentRequests() {
+        BackendPool pool = pool("", "least-outstanding");
+
+        OllamaBackend first = pool.acquire("llama3");
+        OllamaBackend second = pool.acquire("llama3");
+        OllamaBackend third = pool.acquire("llama3");
+
+        assertEquals(3, List.of(first, second, third).stream().distinct().count());
+        pool.release(second, 1_000_000, true);
+        assertSame(second, pool.acquire("llama3"));
+        assertEquals(1.0, meterRegistry.get("llm.backend.in.flight").tag("backend", "http://gpu-b:11434").gauge().value());
+    }
+
+    @Test
+    void testEwmaPrefersTheFasterIdleHost() {
+        BackendPool pool = pool("", "ewma");
+        for (OllamaBackend backend : pool.candidates("llama3")) {
+            pool.acquire("llama3");
+            pool.release(backend, backend.url().contains("gpu-c") ? 1_000_000 : 9_000_000, true);
+        }
+
+        OllamaBackend fast = pool.acquire("llama3");
+
+        assertEquals("http://gpu-c:11434", fast.url());
+        // One request in flight doubles the fast host's score, which is still below the others
+        assertSame(fast, pool.acquire("llama3"));
+    }
+
+    @Test
+    void testPinnedModelOnlyRunsOnItsHosts() {
+        BackendPool pool = pool("llama3:70b=http://gpu-c:11434", "least-outstanding");
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("http://gpu-c:11434", pool.acquire("llama3:70b").url());
+        }
+        assertEquals(3, pool.candidates("llama3").size());
+        assertThrows(IllegalStateException.class, () -> pool("mistral=http://gpu-z:11434", "ewma"));
+    }
+
+    @Test
+    void testFailingHostIsSkippedUntilItRecovers() {
+        BackendPool pool = pool("", "least-outstanding");
+        OllamaBackend failing = pool.candidates("llama3").get(0);
+        for (int i = 0; i < 2; i++) {
+            failing.started();
+            pool.release(failing, 1_000, false);
+        }
+
+        assertFalse(failing.isHealthy());
+        for (int i = 0; i < 6; i++) {
+            OllamaBackend backend = pool.acquire("llama3");
+            assertNotSame(failing, backend);
+            pool.release(backend, 1_000, true);
+        }
+
+        failing.probed(true);
+        assertTrue(failing.isHealthy());
+    }
+
+    @Test
+    void testFailsOpenWhenEveryCandidateIsDown() {
+        BackendPool pool = pool("llama3:70b=http://gpu-c:11434", "least-outstanding");
+        OllamaBackend only = pool.candidates("llama3:70b").get(0);
+        only.probed(false);
+
+        assertSame(only, pool.acquire("llama3:70b"));
+    }
+
+    @Test
+    void testAvoidedHostIsUsedOnlyWithoutAlternative() {
+        BackendPool pool = pool("llama3:70b=http://gpu-c:11434", "least-outstanding");
+        OllamaBackend first = pool.acquire("llama3");
+
+        assertNotSame(first, pool.acquire("llama3", List.of(first)));
+        OllamaBackend pinned = pool.acquire("llama3:70b");
+        assertSame(pinned, pool.acquire("llama3:70b", List.of(pinned)));
+    }
+
+    @Test
+    void testProbeMarksUnreachableHostsDown() {
+        BackendPool pool = new BackendPool(meterRegistry, "http://127.0.0.1:1", "", "ewma", 3, Duration.ofMillis(500));
+
+        pool.probe();
+
+        assertFalse(pool.candidates("llama3").get(0).isHealthy());
+        assertEquals(0.0, meterRegistry.get("llm.backend.healthy").gauge().value());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.legalai.llm.backend;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgePolicyTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HedgePolicy policy(double budget, double burst) {
+        return new HedgePolicy(meterRegistry, true, 0.9, Duration.ofMillis(100), Duration.ofSeconds(3), 50, budget, burst);
+    }
+
+    @Test
+    void testDelayFollowsThePercentileOfRecentFirstTokens() {
+        HedgePolicy policy = policy(0.05, 5);
+        assertEquals(Duration.ofSeconds(3), policy.delay("llama3"));
+
+        for (int ms = 1; ms <= HedgePolicy.MIN_SAMPLES; ms++) {
+            policy.recordFirstToken("llama3", Duration.ofMillis(ms * 50L).toNanos());
+        }
+
+        assertEquals(Duration.ofMillis(900), policy.delay("llama3"));
+        assertEquals(0.9, meterRegistry.get("llm.hedge.delay").tag("model", "llama3").gauge().value(), 1e-9);
+        assertEquals(Duration.ofSeconds(3), policy.delay("mistral"), "models keep separate samples");
+
+        for (int i = 0; i < 50; i++) {
+            policy.recordFirstToken("llama3", Duration.ofMillis(20).toNanos());
+        }
+        assertEquals(Duration.ofMillis(100), policy.delay("llama3"), "old samples age out; the floor applies");
+    }
+
+    @Test
+    void testBudgetCapsHedgesToAShareOfRequests() {
+        HedgePolicy policy = policy(0.1, 2);
+
+        assertTrue(policy.tryHedge());
+        assertTrue(policy.tryHedge());
+        assertFalse(policy.tryHedge());
+
+        int hedges = 0;
+        for (int request = 0; request < 100; request++) {
+            policy.deposit();
+            if (policy.tryHedge()) {
+                hedges++;
+            }
+        }
+        assertTrue(hedges >= 9 && hedges <= 10, "about one hedge per ten requests, was " + hedges);
+        assertTrue(meterRegistry.get("llm.hedge.throttled").counter().count() > 90);
+    }
+}
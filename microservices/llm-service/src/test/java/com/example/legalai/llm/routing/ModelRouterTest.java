@@ -0,0 +1,79 @@
+package com.example.legalai.llm.routing;
+
+import com.example.legalai.llm.service.Generation;
+import com.example.legalai.llm.service.OllamaClient;
+import com.example.legalai.llm.service.Prompts;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ModelRouterTest {
+
+    private OllamaClient ollamaClient;
+    private SimpleMeterRegistry meterRegistry;
+    private ModelRouter router;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ollamaClient = mock(OllamaClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        router = new ModelRouter(ollamaClient, new ObjectMapper(), meterRegistry,
+                new ClassPathResource("routing-rules.json"), "standard", "llama3");
+    }
+
+    @Test
+    void testRulesByAnalysisTypeWithDefault() {
+        assertEquals("deep", router.rule("DEEP").analysisType());
+        assertEquals("standard", router.rule(null).analysisType());
+        assertEquals("standard", router.rule("no-such-type").analysisType());
+        assertEquals(TriageMode.RULES, router.rule("deep").triage());
+        assertEquals("llama3", router.largeModel(router.rule("quick")));
+    }
+
+    @Test
+    void testTriageEscalatesHighScoresAndUnscoredClauses() {
+        when(ollamaClient.generate(eq("llama3.2:1b"), eq(Prompts.TRIAGE_SYSTEM), anyString())).thenReturn(new Generation("""
+                ```json
+                [{"index": 1, "risk": 2, "complexity": 3}, {"index": 2, "risk": 7, "complexity": 1}]
+                ```""", true, 400_000_000L, 100_000_000L));
+
+        TriageResult result = router.triage(router.rule("standard"), List.of("Pay within 30 days.",
+                "Supplier may subcontract freely.", "Governing law is Ruritania."));
+
+        assertArrayEquals(new boolean[]{false, true, true}, result.escalate());
+        assertEquals(500_000_000L, result.gpuNanos());
+        verify(ollamaClient).generate(eq("llama3.2:1b"), anyString(), contains("[3] Governing law is Ruritania."));
+    }
+
+    @Test
+    void testUnreadableTriageAndRulesModeEscalateEverything() {
+        when(ollamaClient.generate(anyString(), anyString(), anyString())).thenReturn(new Generation("no idea", true, 0, 0));
+
+        assertArrayEquals(new boolean[]{true, true},
+                router.triage(router.rule("quick"), List.of("a", "b")).escalate());
+        assertArrayEquals(new boolean[]{true},
+                router.triage(router.rule("deep"), List.of("a")).escalate());
+        verify(ollamaClient, times(1)).generate(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void testRecordsLatencyAndGpuPerRoute() {
+        router.record(new RouteSummary("standard", ModelRoute.SMALL, "llama3", 3, 0, 0.5), Duration.ofMillis(120), 4, 3);
+        router.record(new RouteSummary("standard", ModelRoute.SMALL, "llama3", 1, 0, 1.5), Duration.ofMillis(80), 0, 1);
+
+        assertEquals(1.0, meterRegistry.get("llm.route.gpu.seconds").tags("type", "standard", "route", "small")
+                .summary().mean());
+        assertEquals(100.0, meterRegistry.get("llm.route.latency").tags("route", "small").timer()
+                .mean(java.util.concurrent.TimeUnit.MILLISECONDS));
+        assertEquals(4.0, meterRegistry.get("llm.route.clauses").tags("tier", "small").counter().count());
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.legalai.llm.screening;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AhoCorasickTest {
+
+    private static List<String> matches(AhoCorasick automaton, List<String> patterns, String text) {
+        List<String> found = new ArrayList<>();
+        automaton.scan(text, (pattern, start, end, word) ->
+                found.add(patterns.get(pattern) + "@" + start + ":" + text.substring(start, end) + "#" + word));
+        return found;
+    }
+
+    @Test
+    void testOverlappingPhrasesAndCaseAndWhitespaceFolding() {
+        List<String> patterns = List.of("he", "she", "hers", "force majeure");
+        AhoCorasick automaton = AhoCorasick.compile(patterns);
+
+        assertEquals(List.of("force majeure@4:Force\n  Majeure#3"),
+                matches(automaton, patterns, "The Force\n  Majeure event"));
+        // "he" inside "she"/"hers" is not a word on its own
+        assertEquals(List.of("she@0:she#1"), matches(automaton, patterns, "she ushers"));
+        assertEquals(List.of("he@0:He#1", "hers@3:HERS#2"), matches(automaton, patterns, "He HERS"));
+    }
+
+    @Test
+    void testWordBoundariesApplyOnlyToSpacedScripts() {
+        List<String> patterns = List.of("lien", "违约金", "%");
+        AhoCorasick automaton = AhoCorasick.compile(patterns);
+
+        assertEquals(List.of(), matches(automaton, patterns, "client alienation"));
+        assertEquals(List.of("lien@4:lien#2"), matches(automaton, patterns, "the lien."));
+        assertEquals(List.of("违约金@2:违约金#5", "%@8:%#7"), matches(automaton, patterns, "支付违约金，按5%计"));
+    }
+}
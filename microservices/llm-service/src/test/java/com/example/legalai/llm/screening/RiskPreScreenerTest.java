@@ -0,0 +1,78 @@
+package com.example.legalai.llm.screening;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskPreScreenerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RiskPreScreener screener;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        screener = new RiskPreScreener(new ObjectMapper(), meterRegistry,
+                new ClassPathResource("screening-rules.json"), 3, 1);
+    }
+
+    @Test
+    void testClassifiesWithShippedRules() {
+        ClauseScreening liability = screener.screen("The Supplier accepts unlimited liability for data loss.");
+        assertEquals(ScreeningVerdict.RISKY, liability.verdict());
+        assertEquals("HIGH", liability.riskLevel());
+        assertEquals("unlimited liability", liability.hits().get(0).evidence());
+
+        assertEquals(ScreeningVerdict.BENIGN,
+                screener.screen("This Agreement may be executed in any number of counterparts.").verdict());
+        assertEquals(ScreeningVerdict.AMBIGUOUS,
+                screener.screen("The Customer shall pay the fees within thirty days of invoice.").verdict());
+        // One medium rule is not enough on its own, and it outweighs boilerplate
+        assertEquals(ScreeningVerdict.AMBIGUOUS,
+                screener.screen("This agreement will automatically renew; see the entire agreement clause.").verdict());
+
+        assertEquals(1.0, meterRegistry.get("llm.prescreen.clauses").tag("verdict", "risky").counter().count());
+        assertEquals(2.0, meterRegistry.get("llm.prescreen.clauses").tag("verdict", "ambiguous").counter().count());
+    }
+
+    @Test
+    void testProximityAndAnchoredPatternRules() {
+        ClauseScreening convenience = screener.screen(
+                "Either party may terminate this Agreement at any time by notice, and any unpaid penalty applies.");
+        assertEquals(ScreeningVerdict.RISKY, convenience.verdict());
+        assertEquals(List.of("termination-for-convenience", "penalty"),
+                convenience.hits().stream().map(RuleHit::rule).toList());
+        assertEquals("terminate this Agreement at any time", convenience.hits().get(0).evidence());
+
+        // Too far apart to count as termination for convenience
+        assertEquals(ScreeningVerdict.AMBIGUOUS, screener.screen("Either party may terminate for material breach "
+                + "which remains uncured after notice, and the parties may meet at any time.").verdict());
+
+        ClauseScreening interest = screener.screen("Late amounts bear interest at 5% per month until paid.");
+        assertEquals(ScreeningVerdict.RISKY, interest.verdict());
+        assertEquals("5% per month", interest.hits().get(0).evidence());
+
+        assertEquals(ScreeningVerdict.RISKY, screener.screen("乙方应赔偿甲方因此遭受的一切损失。").verdict());
+    }
+
+    @Test
+    void testSegmenterSplitsOnBlankLinesAndNumberedHeadings() {
+        List<String> clauses = ClauseSegmenter.split("""
+                1. Term
+                This agreement renews yearly.
+                (a) Either party may give notice.
+                1.2 Fees are due monthly.
+
+                第三条 本合同一式两份。
+                """);
+
+        assertEquals(List.of("1. Term\nThis agreement renews yearly.\n(a) Either party may give notice.",
+                "1.2 Fees are due monthly.", "第三条 本合同一式两份。"), clauses);
+    }
+}
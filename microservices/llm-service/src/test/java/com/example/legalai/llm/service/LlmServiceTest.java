@@ -0,0 +1,133 @@
+package com.example.legalai.llm.service;
+
+import com.example.legalai.llm.routing.ModelRoute;
+import com.example.legalai.llm.routing.ModelRouter;
+import com.example.legalai.llm.screening.RiskPreScreener;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LlmServiceTest {
+
+    private static final String CONTRACT = """
+            1. The Supplier accepts unlimited liability for data loss.
+
+            2. This Agreement may be executed in any number of counterparts.
+
+            3. The Customer shall pay the fees within thirty days of invoice.
+
+            4. The Supplier may subcontract any of its obligations.
+            """;
+
+    private OllamaClient ollamaClient;
+    private LlmService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ollamaClient = mock(OllamaClient.class);
+        ModelRouter router = new ModelRouter(ollamaClient, objectMapper, meterRegistry,
+                new ClassPathResource("routing-rules.json"), "standard", "llama3");
+        RiskPreScreener screener = new RiskPreScreener(objectMapper, meterRegistry,
+                new ClassPathResource("screening-rules.json"), 3, 1);
+        service = new LlmService(ollamaClient, router, screener, objectMapper, meterRegistry, true);
+    }
+
+    @Test
+    void testEscalatesOnlyTriagedHighScorersToTheLargeModel() {
+        when(ollamaClient.generate(eq("llama3.2:1b"), eq(Prompts.TRIAGE_SYSTEM), anyString())).thenReturn(new Generation(
+                "[{\"index\": 1, \"risk\": 1, \"complexity\": 2}, {\"index\": 2, \"risk\": 8, \"complexity\": 4}]",
+                true, 1_000_000_000L, 0));
+        when(ollamaClient.generate(eq("llama3"), eq(Prompts.ANALYSIS_SYSTEM), anyString())).thenReturn(new Generation(
+                "[{\"clause\": \"subcontract\", \"reason\": \"no consent\", \"risk level\": \"MEDIUM\"}]",
+                true, 2_000_000_000L, 1_000_000_000L));
+
+        ScreenedAnalysis result = service.analyzeScreened(CONTRACT, "standard");
+
+        verify(ollamaClient).generate(eq("llama3"), anyString(), argThat(prompt ->
+                prompt.contains("subcontract") && !prompt.contains("thirty days") && !prompt.contains("unlimited")));
+        assertEquals(ModelRoute.LARGE, result.routing().route());
+        assertEquals(2, result.routing().triaged());
+        assertEquals(1, result.routing().escalated());
+        assertEquals(4.0, result.routing().gpuSeconds());
+        assertTrue(result.analysisResult().contains("unlimited liability"));
+        assertTrue(result.analysisResult().contains("no consent"));
+    }
+
+    @Test
+    void testStopsAtTheSmallModelWhenNothingEscalates() {
+        when(ollamaClient.generate(eq("llama3.2:1b"), eq(Prompts.TRIAGE_SYSTEM), anyString())).thenReturn(new Generation(
+                "[{\"index\": 1, \"risk\": 1, \"complexity\": 2}, {\"index\": 2, \"risk\": 3, \"complexity\": 4}]",
+                true, 0, 0));
+
+        ScreenedAnalysis result = service.analyzeScreened(CONTRACT, null);
+
+        verify(ollamaClient, never()).generate(eq("llama3"), eq(Prompts.ANALYSIS_SYSTEM), anyString());
+        assertEquals(ModelRoute.SMALL, result.routing().route());
+        assertFalse(result.screening().modelCalled());
+    }
+
+    @Test
+    void testDeepAnalysisSendsRiskyClausesWithoutTriage() {
+        when(ollamaClient.generate(anyString(), anyString(), anyString())).thenReturn(new Generation("[]", true, 0, 0));
+
+        ScreenedAnalysis result = service.analyzeScreened(CONTRACT, "deep");
+
+        verify(ollamaClient, times(1)).generate(eq("llama3"), anyString(), contains("unlimited liability"));
+        assertEquals(3, result.routing().escalated());
+        assertEquals(0, result.routing().triaged());
+    }
+
+    @Test
+    void testFailedGenerationKeepsRuleFindingsAndIsFlagged() throws Exception {
+        when(ollamaClient.generate(anyString(), anyString(), anyString())).thenReturn(Generation.failed());
+
+        ScreenedAnalysis result = service.analyzeScreened(CONTRACT, "deep");
+
+        assertTrue(result.modelFailed());
+        assertEquals(Generation.FAILED, result.modelResponse());
+        List<Map<String, Object>> findings = new ObjectMapper().readValue(result.analysisResult(),
+                new TypeReference<>() {});
+        assertFalse(findings.isEmpty());
+        assertTrue(findings.stream().allMatch(finding -> "rules".equals(finding.get("source"))));
+        assertTrue(result.analysisResult().contains("unlimited liability"));
+    }
+
+    @Test
+    void testResponseThatIsNotAnArrayKeepsRuleFindingsAndIsFlagged() {
+        when(ollamaClient.generate(anyString(), anyString(), anyString()))
+                .thenReturn(new Generation("The subcontracting clause looks risky.", true, 0, 0));
+
+        ScreenedAnalysis result = service.analyzeScreened(CONTRACT, "deep");
+
+        assertTrue(result.modelFailed());
+        assertEquals("The subcontracting clause looks risky.", result.modelResponse());
+        assertTrue(result.analysisResult().startsWith("["));
+        assertTrue(result.analysisResult().contains("unlimited liability"));
+    }
+
+    @Test
+    void testFencedArrayIsMerged() {
+        when(ollamaClient.generate(anyString(), anyString(), anyString())).thenReturn(new Generation(
+                "```json\n[{\"clause\": \"subcontract\", \"reason\": \"no consent\", \"risk level\": \"MEDIUM\"}]\n```",
+                true, 0, 0));
+
+        ScreenedAnalysis result = service.analyzeScreened(CONTRACT, "deep");
+
+        assertFalse(result.modelFailed());
+        assertNull(result.modelResponse());
+        assertTrue(result.analysisResult().contains("no consent"));
+        assertTrue(result.analysisResult().contains("unlimited liability"));
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.legalai.llm.service;
+
+import com.example.legalai.llm.routing.ModelRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ModelWarmerTest {
+
+    @Test
+    void testWarmsEachRoutedModelWithItsSystemPrefix() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OllamaClient ollamaClient = mock(OllamaClient.class);
+        when(ollamaClient.warm(anyString(), anyString(), anyString())).thenReturn(0);
+        when(ollamaClient.warm(eq("mistral"), anyString(), anyString())).thenReturn(2);
+        ModelRouter router = new ModelRouter(ollamaClient, new ObjectMapper(), meterRegistry,
+                new ClassPathResource("routing-rules.json"), "standard", "mistral");
+
+        new ModelWarmer(ollamaClient, router, meterRegistry).warm();
+
+        verify(ollamaClient).warm("llama3.2:1b", Prompts.TRIAGE_SYSTEM, Prompts.TRIAGE_LEAD);
+        verify(ollamaClient).warm("llama3", Prompts.ANALYSIS_SYSTEM, Prompts.ANALYSIS_LEAD);
+        verify(ollamaClient).warm("mistral", Prompts.ANALYSIS_SYSTEM, Prompts.ANALYSIS_LEAD);
+        verifyNoMoreInteractions(ollamaClient);
+        assertEquals(2.0, meterRegistry.counter("llm.warm.failures").count());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.legalai.llm.service;
+
+import com.example.legalai.llm.backend.BackendPool;
+import com.example.legalai.llm.backend.HedgePolicy;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OllamaClientTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<HttpServer> servers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        servers.forEach(server -> server.stop(0));
+    }
+
+    /** A fake Ollama host that waits {@code stallMillis} before streaming "Low" and "risk". */
+    private String host(long stallMillis, AtomicInteger calls) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/generate", exchange -> {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(stallMillis);
+                exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write("""
+                        {"response":"Low ","done":false}
+                        {"response":"risk","done":false}
+                        {"response":"","done":true,"prompt_eval_duration":4000,"eval_duration":6000,"prompt_eval_count":12}
+                        """.getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (Exception e) {
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        servers.add(server);
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private OllamaClient client(String hosts, boolean hedging, double burst) {
+        BackendPool pool = new BackendPool(meterRegistry, hosts, "", "least-outstanding", 3, Duration.ofSeconds(1));
+        HedgePolicy hedgePolicy = new HedgePolicy(meterRegistry, hedging, 0.95, Duration.ofMillis(50),
+                Duration.ofMillis(200), 100, 0.0, burst);
+        return new OllamaClient(pool, hedgePolicy, meterRegistry, 10_000, "30m");
+    }
+
+    @Test
+    void testJoinsStreamedResponseWithTimings() throws Exception {
+        OllamaClient client = client(host(0, new AtomicInteger()), false, 0);
+
+        Generation generation = client.generate("llama3", Prompts.ANALYSIS_SYSTEM, "Clause:\nPayment in 30 days.");
+
+        assertTrue(generation.succeeded());
+        assertEquals("Low risk", generation.response());
+        assertEquals(10_000, generation.gpuNanos());
+        assertEquals(12.0, meterRegistry.get("llm.prompt.eval.tokens").summary().totalAmount());
+    }
+
+    @Test
+    void testStalledGenerationIsHedgedToAnotherHost() throws Exception {
+        AtomicInteger stalledCalls = new AtomicInteger();
+        AtomicInteger fastCalls = new AtomicInteger();
+        // The pool takes the first listed host for the first request
+        OllamaClient client = client(host(5_000, stalledCalls) + "," + host(0, fastCalls), true, 1);
+
+        long start = System.nanoTime();
+        Generation generation = client.generate("llama3", Prompts.ANALYSIS_SYSTEM, "Clause:\nPayment in 30 days.");
+
+        assertEquals("Low risk", generation.response());
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(3).toNanos());
+        assertEquals(1, stalledCalls.get());
+        assertEquals(1, fastCalls.get());
+        assertEquals(1.0, meterRegistry.get("llm.hedge.sent").counter().count());
+        assertEquals(1.0, meterRegistry.get("llm.hedge.won").counter().count());
+        assertEquals(0.0, meterRegistry.get("llm.backend.in.flight").gauges().stream()
+                .mapToDouble(gauge -> gauge.value()).sum(), "the cancelled attempt is no longer outstanding");
+    }
+
+    @Test
+    void testSpentBudgetStopsHedging() throws Exception {
+        AtomicInteger firstCalls = new AtomicInteger();
+        AtomicInteger secondCalls = new AtomicInteger();
+        OllamaClient client = client(host(400, firstCalls) + "," + host(400, secondCalls), true, 1);
+
+        client.generate("llama3", Prompts.ANALYSIS_SYSTEM, "Clause:\nOne.");
+        client.generate("llama3", Prompts.ANALYSIS_SYSTEM, "Clause:\nTwo.");
+
+        assertEquals(1.0, meterRegistry.get("llm.hedge.sent").counter().count());
+        assertEquals(1.0, meterRegistry.get("llm.hedge.throttled").counter().count());
+        assertEquals(3, firstCalls.get() + secondCalls.get());
+    }
+
+    @Test
+    void testWarmsEveryHost() throws Exception {
+        AtomicInteger firstCalls = new AtomicInteger();
+        AtomicInteger secondCalls = new AtomicInteger();
+        OllamaClient client = client(host(0, firstCalls) + "," + host(0, secondCalls) + ",http://127.0.0.1:1", false, 0);
+
+        assertEquals(1, client.warm("llama3", Prompts.ANALYSIS_SYSTEM, Prompts.ANALYSIS_LEAD));
+        assertEquals(1, firstCalls.get());
+        assertEquals(1, secondCalls.get());
+    }
+}